@@ -8,8 +8,11 @@ import com.school.sim.dto.response.AttendanceReportResponse;
 import com.school.sim.dto.response.AttendanceResponse;
 
 import com.school.sim.entity.AttendanceStatus;
+import com.school.sim.service.AttendanceArchiveService;
+import com.school.sim.service.AttendanceIngestService;
 import com.school.sim.service.AttendanceReportService;
 import com.school.sim.service.AttendanceService;
+import com.school.sim.service.AttendanceStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -30,6 +33,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -59,6 +63,15 @@ public class AttendanceController {
     @Autowired
     private AttendanceReportService attendanceReportService;
 
+    @Autowired
+    private AttendanceStreamService attendanceStreamService;
+
+    @Autowired
+    private AttendanceArchiveService attendanceArchiveService;
+
+    @Autowired
+    private AttendanceIngestService attendanceIngestService;
+
     /**
      * Record attendance
      */
@@ -263,15 +276,38 @@ public class AttendanceController {
      * Record bulk attendance
      */
     @PostMapping("/bulk")
-    @Operation(summary = "Record bulk attendance", description = "Record attendance for multiple students")
+    @Operation(summary = "Record bulk attendance", description = "Record attendance for multiple students. " +
+            "When the ingest queue is enabled the submission is validated, queued and acknowledged with 202 and an idempotency key")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Bulk attendance recorded successfully"),
+        @ApiResponse(responseCode = "202", description = "Bulk attendance accepted into the ingest queue"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
-        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "503", description = "Ingest queue is full")
     })
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
-    public ResponseEntity<Map<String, Object>> recordBulkAttendance(@Valid @RequestBody BulkAttendanceRequest request) {
+    public ResponseEntity<Map<String, Object>> recordBulkAttendance(
+            @Valid @RequestBody BulkAttendanceRequest request,
+            @Parameter(description = "Client-generated key; resubmitting it returns the original acknowledgement")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         logger.info("Recording bulk attendance for {} students", request.getStudentAttendances().size());
+
+        if (attendanceIngestService.isEnabled()) {
+            try {
+                Map<String, Object> response = attendanceIngestService.submit(request, idempotencyKey);
+                response.put("message", "Bulk attendance accepted for processing");
+                response.put("timestamp", System.currentTimeMillis());
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            } catch (IllegalStateException e) {
+                logger.warn("Bulk attendance rejected by ingest queue: {}", e.getMessage());
+                Map<String, Object> response = new HashMap<>();
+                response.put("message", e.getMessage());
+                response.put("timestamp", System.currentTimeMillis());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .body(response);
+            }
+        }
         
         try {
             AttendanceService.BulkAttendanceResult result = attendanceService.bulkRecordAttendance(request);
@@ -293,6 +329,38 @@ public class AttendanceController {
         }
     }
 
+    /**
+     * Get queued bulk attendance submission status
+     */
+    @GetMapping("/bulk/submissions/{idempotencyKey}")
+    @Operation(summary = "Get bulk submission status", description = "Get the status of a queued bulk attendance submission")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Submission status retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Submission not found or expired"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> getBulkSubmissionStatus(@PathVariable("idempotencyKey") String idempotencyKey) {
+        return attendanceIngestService.getSubmissionStatus(idempotencyKey)
+                .map(status -> {
+                    status.put("timestamp", System.currentTimeMillis());
+                    return ResponseEntity.ok(status);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get attendance ingest queue statistics
+     */
+    @GetMapping("/ingest/statistics")
+    @Operation(summary = "Get ingest statistics", description = "Get queue depth and group-commit statistics for bulk attendance ingest")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getIngestStatistics() {
+        Map<String, Object> statistics = attendanceIngestService.getIngestStatistics();
+        statistics.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(statistics);
+    }
+
     /**
      * Get attendance statistics
      */
@@ -405,6 +473,67 @@ public class AttendanceController {
         }
     }
 
+    /**
+     * Stream live attendance deltas
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream attendance deltas",
+               description = "Server-sent events with per-class status count changes as attendance is committed. " +
+                             "Clients load /daily-summary once, apply 'attendance-delta' events, and refetch on 'resync'")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public SseEmitter streamAttendanceDeltas(
+            @Parameter(description = "Limit the stream to one class room") @RequestParam(required = false) Long classRoomId) {
+        logger.debug("Opening attendance delta stream (classRoomId: {})", classRoomId);
+        return attendanceStreamService.subscribe(classRoomId);
+    }
+
+    /**
+     * Get attendance stream statistics
+     */
+    @GetMapping("/stream/statistics")
+    @Operation(summary = "Get attendance stream statistics", description = "Get subscriber and delivery statistics for the live attendance stream")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStreamStatistics() {
+        Map<String, Object> statistics = attendanceStreamService.getStreamStatistics();
+        statistics.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(statistics);
+    }
+
+    /**
+     * Archive a closed academic year
+     */
+    @PostMapping("/archive")
+    @Operation(summary = "Archive academic year", description = "Move attendance of a closed academic year (and anything older) out of the hot table")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Academic year archived successfully"),
+        @ApiResponse(responseCode = "400", description = "Academic year is not closed or has an invalid format"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> archiveAcademicYear(
+            @Parameter(description = "Academic year, e.g. 2023/2024") @RequestParam String academicYear) {
+        logger.info("Archiving attendance for academic year {}", academicYear);
+        Map<String, Object> result = attendanceArchiveService.archiveAcademicYear(academicYear);
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Get attendance archive statistics
+     */
+    @GetMapping("/archive/statistics")
+    @Operation(summary = "Get attendance archive statistics", description = "Get archived rows per academic year and the last archive run")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getArchiveStatistics() {
+        Map<String, Object> statistics = attendanceArchiveService.getArchiveStatistics();
+        statistics.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(statistics);
+    }
+
     /**
      * Get student attendance rate
      */
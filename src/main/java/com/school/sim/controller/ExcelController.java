@@ -16,6 +16,8 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * REST controller for Excel import/export operations
@@ -23,7 +25,6 @@ import java.time.format.DateTimeFormatter;
  */
 @RestController
 @RequestMapping("/api/excel")
-@CrossOrigin(origins = "*", maxAge = 3600)
 public class ExcelController {
 
     private static final Logger logger = LoggerFactory.getLogger(ExcelController.class);
@@ -61,6 +62,35 @@ public class ExcelController {
         }
     }
 
+    /**
+     * Queue a student import and return the job id to poll
+     */
+    @PostMapping("/import/students/async")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<?> startStudentImport(@RequestParam("file") MultipartFile file) {
+        logger.info("Queueing student import from Excel file: {}", file.getOriginalFilename());
+
+        ExcelService.ValidationResult validation = excelService.validateExcelFile(file);
+        if (!validation.isValid()) {
+            return ResponseEntity.badRequest().body(validation);
+        }
+
+        String jobId = excelService.startStudentImport(file);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("jobId", jobId);
+        response.put("statusUrl", "/api/excel/import/jobs/" + jobId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * Get the progress of a queued student import
+     */
+    @GetMapping("/import/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> getImportStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(excelService.getImportStatus(jobId));
+    }
+
     /**
      * Export all students to Excel
      */
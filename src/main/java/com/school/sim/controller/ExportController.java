@@ -1,6 +1,10 @@
 package com.school.sim.controller;
 
+import com.school.sim.exception.ExportRejectedException;
+import com.school.sim.exception.ValidationException;
 import com.school.sim.service.ExportService;
+import com.school.sim.util.ByteRange;
+import com.school.sim.util.ContentCoding;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,18 +13,36 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Collections;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * REST controller for export functionality
@@ -34,6 +56,12 @@ public class ExportController {
 
     private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
 
+    // Tomcat request attributes for zero-copy file responses
+    private static final String TOMCAT_SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String TOMCAT_SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String TOMCAT_SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String TOMCAT_SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private ExportService exportService;
 
@@ -44,39 +72,29 @@ public class ExportController {
     @Operation(summary = "Export to Excel", description = "Export data to Excel format")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Export completed successfully"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are running"),
+        @ApiResponse(responseCode = "503", description = "Every export slot is busy"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access")
     })
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
-    public ResponseEntity<byte[]> exportToExcel(
+    public ResponseEntity<?> exportToExcel(
             @Parameter(description = "Report type") @RequestParam String reportType,
             @Valid @RequestBody Map<String, Object> data,
             @Parameter(description = "Export options") @RequestParam(required = false) Map<String, Object> options) {
         
         logger.info("Exporting {} to Excel format", reportType);
         
-        try {
-            if (options == null) {
-                options = new HashMap<>();
+        Map<String, Object> exportOptions = options != null ? options : new HashMap<>();
+        String filename = exportService.generateExportFilename(reportType, "excel", exportOptions);
+        return admitted(reportType, () -> excelAttachment(filename, outputStream -> {
+            try {
+                exportService.streamToExcel(reportType, data, exportOptions, outputStream);
+            } catch (Exception e) {
+                logger.error("Failed to export {} to Excel", reportType, e);
+                throw e;
             }
-            
-            byte[] excelData = exportService.exportToExcel(reportType, data, options);
-            String filename = exportService.generateExportFilename(reportType, "excel", options);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(exportService.getMimeType("excel")));
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(excelData.length);
-            
-            logger.info("Successfully exported {} to Excel ({} bytes)", reportType, excelData.length);
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(excelData);
-                
-        } catch (Exception e) {
-            logger.error("Failed to export {} to Excel", reportType, e);
-            throw e;
-        }
+        }));
     }
 
     /**
@@ -86,35 +104,28 @@ public class ExportController {
     @Operation(summary = "Export list to Excel", description = "Export list data to Excel format")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Export completed successfully"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are running"),
+        @ApiResponse(responseCode = "503", description = "Every export slot is busy"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access")
     })
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
-    public ResponseEntity<byte[]> exportListToExcel(
+    public ResponseEntity<?> exportListToExcel(
             @Valid @RequestBody List<Map<String, Object>> data,
             @Parameter(description = "Column headers") @RequestParam(required = false) List<String> headers,
             @Parameter(description = "Sheet name") @RequestParam(defaultValue = "Data") String sheetName) {
         
         logger.info("Exporting list data to Excel ({} rows)", data.size());
         
-        try {
-            byte[] excelData = exportService.exportListToExcel(data, headers, sheetName);
-            String filename = exportService.generateExportFilename("list_data", "excel", Map.of("sheet", sheetName));
-            
-            HttpHeaders httpHeaders = new HttpHeaders();
-            httpHeaders.setContentType(MediaType.parseMediaType(exportService.getMimeType("excel")));
-            httpHeaders.setContentDispositionFormData("attachment", filename);
-            httpHeaders.setContentLength(excelData.length);
-            
-            logger.info("Successfully exported list data to Excel ({} bytes)", excelData.length);
-            return ResponseEntity.ok()
-                .headers(httpHeaders)
-                .body(excelData);
-                
-        } catch (Exception e) {
-            logger.error("Failed to export list data to Excel", e);
-            throw e;
-        }
+        String filename = exportService.generateExportFilename("list_data", "excel", Map.of("sheet", sheetName));
+        return admitted("list_data", () -> excelAttachment(filename, outputStream -> {
+            try {
+                exportService.streamListToExcel(data, headers, sheetName, outputStream);
+            } catch (Exception e) {
+                logger.error("Failed to export list data to Excel", e);
+                throw e;
+            }
+        }));
     }
 
     /**
@@ -124,39 +135,29 @@ public class ExportController {
     @Operation(summary = "Export multiple sheets to Excel", description = "Export multiple data sets as separate Excel sheets")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Export completed successfully"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are running"),
+        @ApiResponse(responseCode = "503", description = "Every export slot is busy"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access")
     })
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
-    public ResponseEntity<byte[]> exportMultipleSheetsToExcel(
+    public ResponseEntity<?> exportMultipleSheetsToExcel(
             @Valid @RequestBody Map<String, List<Map<String, Object>>> sheetsData,
             @Parameter(description = "Headers for each sheet") @RequestParam(required = false) Map<String, List<String>> headersMap) {
         
         logger.info("Exporting multiple sheets to Excel ({} sheets)", sheetsData.size());
         
-        try {
-            if (headersMap == null) {
-                headersMap = new HashMap<>();
+        Map<String, List<String>> sheetHeaders = headersMap != null ? headersMap : new HashMap<>();
+        String filename = exportService.generateExportFilename("multi_sheet_data", "excel", 
+            Map.of("sheets", sheetsData.size()));
+        return admitted("multi_sheet_data", () -> excelAttachment(filename, outputStream -> {
+            try {
+                exportService.streamMultipleSheetsToExcel(sheetsData, sheetHeaders, outputStream);
+            } catch (Exception e) {
+                logger.error("Failed to export multiple sheets to Excel", e);
+                throw e;
             }
-            
-            byte[] excelData = exportService.exportMultipleSheetsToExcel(sheetsData, headersMap);
-            String filename = exportService.generateExportFilename("multi_sheet_data", "excel", 
-                Map.of("sheets", sheetsData.size()));
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(exportService.getMimeType("excel")));
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(excelData.length);
-            
-            logger.info("Successfully exported multiple sheets to Excel ({} bytes)", excelData.length);
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(excelData);
-                
-        } catch (Exception e) {
-            logger.error("Failed to export multiple sheets to Excel", e);
-            throw e;
-        }
+        }));
     }
 
     /**
@@ -166,35 +167,30 @@ public class ExportController {
     @Operation(summary = "Export to CSV", description = "Export data to CSV format")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Export completed successfully"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are running"),
+        @ApiResponse(responseCode = "503", description = "Every export slot is busy"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access")
     })
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
-    public ResponseEntity<byte[]> exportToCSV(
+    public ResponseEntity<?> exportToCSV(
             @Valid @RequestBody List<Map<String, Object>> data,
             @Parameter(description = "Column headers") @RequestParam(required = false) List<String> headers,
-            @Parameter(description = "Delimiter") @RequestParam(defaultValue = ",") String delimiter) {
+            @Parameter(description = "Delimiter") @RequestParam(defaultValue = ",") String delimiter,
+            @Parameter(description = "Gzip the file") @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         
         logger.info("Exporting data to CSV ({} rows)", data.size());
         
-        try {
-            byte[] csvData = exportService.exportToCSV(data, headers, delimiter);
-            String filename = exportService.generateExportFilename("data", "csv", Map.of("delimiter", delimiter));
-            
-            HttpHeaders httpHeaders = new HttpHeaders();
-            httpHeaders.setContentType(MediaType.parseMediaType(exportService.getMimeType("csv")));
-            httpHeaders.setContentDispositionFormData("attachment", filename);
-            httpHeaders.setContentLength(csvData.length);
-            
-            logger.info("Successfully exported data to CSV ({} bytes)", csvData.length);
-            return ResponseEntity.ok()
-                .headers(httpHeaders)
-                .body(csvData);
-                
-        } catch (Exception e) {
-            logger.error("Failed to export data to CSV", e);
-            throw e;
-        }
+        String filename = exportService.generateExportFilename("data", "csv", Map.of("delimiter", delimiter));
+        return admitted("data", () -> csvAttachment(filename, gzip, acceptEncoding, outputStream -> {
+            try {
+                exportService.streamToCSV(data.iterator(), headers, delimiter, outputStream);
+            } catch (Exception e) {
+                logger.error("Failed to export data to CSV", e);
+                throw e;
+            }
+        }));
     }
 
     /**
@@ -204,39 +200,172 @@ public class ExportController {
     @Operation(summary = "Export multiple CSV files", description = "Export multiple data sets as CSV files in ZIP archive")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Export completed successfully"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are running"),
+        @ApiResponse(responseCode = "503", description = "Every export slot is busy"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access")
     })
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
-    public ResponseEntity<byte[]> exportMultipleCSV(
+    public ResponseEntity<?> exportMultipleCSV(
             @Valid @RequestBody Map<String, List<Map<String, Object>>> tablesData,
             @Parameter(description = "Headers for each table") @RequestParam(required = false) Map<String, List<String>> headersMap) {
         
         logger.info("Exporting multiple CSV files as ZIP ({} files)", tablesData.size());
         
-        try {
-            if (headersMap == null) {
-                headersMap = new HashMap<>();
+        Map<String, List<String>> tableHeaders = headersMap != null ? headersMap : new HashMap<>();
+        String filename = exportService.generateExportFilename("multi_csv_data", "zip", 
+            Map.of("files", tablesData.size()));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", filename);
+        return admitted("multi_csv_data", () -> ResponseEntity.ok()
+            .headers(headers)
+            .body(outputStream -> {
+                try {
+                    exportService.streamMultipleCSV(tablesData, tableHeaders, outputStream);
+                } catch (Exception e) {
+                    logger.error("Failed to export multiple CSV files", e);
+                    throw e;
+                }
+            }));
+    }
+
+    /**
+     * Export attendance records to CSV straight from the database
+     */
+    @GetMapping("/csv/attendance")
+    @Operation(summary = "Export attendance to CSV",
+        description = "Stream attendance records between two dates, archived years included, as CSV")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streaming"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are running"),
+        @ApiResponse(responseCode = "503", description = "Every export slot is busy"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<?> exportAttendanceCSV(
+            @Parameter(description = "Start date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Class room") @RequestParam(required = false) Long classRoomId,
+            @Parameter(description = "Gzip the file") @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        if (endDate.isBefore(startDate)) {
+            throw new ValidationException("End date must not be before start date");
+        }
+        logger.info("Exporting attendance to CSV for {} - {} (class room: {})", startDate, endDate, classRoomId);
+
+        String filename = exportService.generateExportFilename("attendance", "csv", Map.of("suffix",
+            startDate + "_" + endDate));
+        return admitted("attendance", () -> csvAttachment(filename, gzip, acceptEncoding, outputStream -> {
+            try {
+                exportService.streamAttendanceCSV(startDate, endDate, classRoomId, outputStream);
+            } catch (Exception e) {
+                logger.error("Failed to export attendance to CSV", e);
+                throw e;
             }
-            
-            byte[] zipData = exportService.exportMultipleCSV(tablesData, headersMap);
-            String filename = exportService.generateExportFilename("multi_csv_data", "zip", 
-                Map.of("files", tablesData.size()));
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(zipData.length);
-            
-            logger.info("Successfully exported multiple CSV files as ZIP ({} bytes)", zipData.length);
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(zipData);
-                
-        } catch (Exception e) {
-            logger.error("Failed to export multiple CSV files", e);
-            throw e;
+        }));
+    }
+
+    /**
+     * Export student grades of a term to CSV straight from the database
+     */
+    @GetMapping("/csv/grades")
+    @Operation(summary = "Export grades to CSV", description = "Stream the student grades of a term as CSV")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streaming"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are running"),
+        @ApiResponse(responseCode = "503", description = "Every export slot is busy"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<?> exportGradesCSV(
+            @Parameter(description = "Academic year") @RequestParam @NotBlank String academicYear,
+            @Parameter(description = "Semester") @RequestParam(required = false) Integer semester,
+            @Parameter(description = "Class room") @RequestParam(required = false) Long classRoomId,
+            @Parameter(description = "Gzip the file") @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        logger.info("Exporting grades to CSV for {} semester {} (class room: {})", academicYear, semester,
+            classRoomId);
+
+        String filename = exportService.generateExportFilename("grades", "csv", Map.of("suffix",
+            academicYear.replace('/', '-') + (semester != null ? "_" + semester : "")));
+        return admitted("grades", () -> csvAttachment(filename, gzip, acceptEncoding, outputStream -> {
+            try {
+                exportService.streamGradesCSV(academicYear, semester, classRoomId, outputStream);
+            } catch (Exception e) {
+                logger.error("Failed to export grades to CSV", e);
+                throw e;
+            }
+        }));
+    }
+
+    /**
+     * Export a dataset as Parquet for analytics tools
+     */
+    @GetMapping("/parquet/{dataset}")
+    @Operation(summary = "Export a dataset to Parquet",
+        description = "Stream attendance (by date range), student_assessment or schedule (by academic year) as a "
+            + "dictionary encoded, compressed Parquet file")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streaming"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are running"),
+        @ApiResponse(responseCode = "503", description = "Every export slot is busy"),
+        @ApiResponse(responseCode = "400", description = "Unknown dataset or missing filter"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<?> exportParquet(
+            @Parameter(description = "attendance, student_assessment or schedule") @PathVariable String dataset,
+            @Parameter(description = "Start date, for attendance") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date, for attendance") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Academic year, for grades and schedules") @RequestParam(required = false) String academicYear,
+            @Parameter(description = "Semester") @RequestParam(required = false) Integer semester,
+            @Parameter(description = "Class room") @RequestParam(required = false) Long classRoomId) {
+
+        // Checked before the response starts; a failure while streaming can only cut the file short
+        String suffix;
+        if (dataset.equals("attendance")) {
+            if (startDate == null || endDate == null) {
+                throw new ValidationException("startDate and endDate are required for attendance");
+            }
+            if (endDate.isBefore(startDate)) {
+                throw new ValidationException("End date must not be before start date");
+            }
+            suffix = startDate + "_" + endDate;
+        } else if (dataset.equals("student_assessment") || dataset.equals("schedule")) {
+            if (academicYear == null || academicYear.isBlank()) {
+                throw new ValidationException("academicYear is required for " + dataset);
+            }
+            suffix = academicYear.replace('/', '-') + (semester != null ? "_" + semester : "");
+        } else {
+            throw new ValidationException("Unknown dataset: " + dataset);
         }
+        logger.info("Exporting {} to Parquet ({}, class room: {})", dataset, suffix, classRoomId);
+
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("startDate", startDate);
+        filters.put("endDate", endDate);
+        filters.put("academicYear", academicYear);
+        filters.put("semester", semester);
+        filters.put("classRoomId", classRoomId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportService.getMimeType("parquet")));
+        headers.setContentDispositionFormData("attachment",
+            exportService.generateExportFilename(dataset, "parquet", Map.of("suffix", suffix)));
+        // Pages are compressed already, so no Content-Encoding is negotiated
+        return admitted(dataset, () -> ResponseEntity.ok().headers(headers).body(outputStream -> {
+            try {
+                exportService.streamParquet(dataset, filters, outputStream);
+            } catch (Exception e) {
+                logger.error("Failed to export {} to Parquet", dataset, e);
+                throw e;
+            }
+        }));
     }
 
     /**
@@ -246,35 +375,38 @@ public class ExportController {
     @Operation(summary = "Export to JSON", description = "Export data to JSON format")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Export completed successfully"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are running"),
+        @ApiResponse(responseCode = "503", description = "Every export slot is busy"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access")
     })
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
-    public ResponseEntity<byte[]> exportToJSON(
+    public ResponseEntity<?> exportToJSON(
             @Valid @RequestBody Map<String, Object> data,
-            @Parameter(description = "Pretty print") @RequestParam(defaultValue = "false") boolean prettyPrint) {
+            @Parameter(description = "Pretty print") @RequestParam(defaultValue = "false") boolean prettyPrint,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         
         logger.info("Exporting data to JSON (prettyPrint: {})", prettyPrint);
         
-        try {
-            byte[] jsonData = exportService.exportToFormattedJSON(data, prettyPrint);
-            String filename = exportService.generateExportFilename("data", "json", 
-                Map.of("prettyPrint", prettyPrint));
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(exportService.getMimeType("json")));
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(jsonData.length);
-            
-            logger.info("Successfully exported data to JSON ({} bytes)", jsonData.length);
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(jsonData);
-                
-        } catch (Exception e) {
-            logger.error("Failed to export data to JSON", e);
-            throw e;
-        }
+        return admitted("data", () -> {
+            try {
+                byte[] jsonData = exportService.exportToFormattedJSON(data, prettyPrint);
+                String filename = exportService.generateExportFilename("data", "json",
+                    Map.of("prettyPrint", prettyPrint));
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.parseMediaType(exportService.getMimeType("json")));
+                headers.setContentDispositionFormData("attachment", filename);
+
+                logger.info("Successfully exported data to JSON ({} bytes)", jsonData.length);
+                return encodedBody(headers, "json", acceptEncoding, jsonData.length,
+                    outputStream -> outputStream.write(jsonData));
+
+            } catch (Exception e) {
+                logger.error("Failed to export data to JSON", e);
+                throw e;
+            }
+        });
     }
 
     /**
@@ -283,7 +415,9 @@ public class ExportController {
     @PostMapping("/async")
     @Operation(summary = "Start async export", description = "Start asynchronous export job for large datasets")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "202", description = "Export job started successfully"),
+        @ApiResponse(responseCode = "202", description = "Export job accepted, running or queued"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are waiting"),
+        @ApiResponse(responseCode = "503", description = "Export queue is full"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access")
     })
@@ -302,10 +436,15 @@ public class ExportController {
             }
             
             String jobId = exportService.startAsyncExport(exportType, format, data, options);
+            Map<String, Object> status = exportService.getExportJobStatus(jobId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("jobId", jobId);
-            response.put("message", "Export job started successfully");
+            response.put("status", status.get("status"));
+            response.put("queuePosition", status.get("queuePosition"));
+            response.put("estimatedRows", status.get("estimatedRows"));
+            response.put("estimatedBytes", status.get("estimatedBytes"));
+            response.put("message", "Export job accepted");
             response.put("statusUrl", "/api/v1/export/async/" + jobId + "/status");
             response.put("resultUrl", "/api/v1/export/async/" + jobId + "/result");
             response.put("timestamp", System.currentTimeMillis());
@@ -313,6 +452,8 @@ public class ExportController {
             logger.info("Successfully started async export job: {}", jobId);
             return ResponseEntity.accepted().body(response);
             
+        } catch (ExportRejectedException e) {
+            return rejected(e);
         } catch (Exception e) {
             logger.error("Failed to start async export job", e);
             throw e;
@@ -346,17 +487,27 @@ public class ExportController {
 
     /**
      * Get async export job result
+     * The spool file is served with Range support so interrupted downloads can resume; on Tomcat the bytes are
+     * handed to sendfile, otherwise they are transferred from the file channel.
      */
     @GetMapping("/async/{jobId}/result")
     @Operation(summary = "Get export job result", description = "Download result of asynchronous export job")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Result downloaded successfully"),
+        @ApiResponse(responseCode = "206", description = "Requested range of the result"),
         @ApiResponse(responseCode = "404", description = "Job not found"),
-        @ApiResponse(responseCode = "202", description = "Job still processing"),
+        @ApiResponse(responseCode = "202", description = "Job still queued or processing"),
+        @ApiResponse(responseCode = "406", description = "Accept-Encoding refuses every coding of the result"),
+        @ApiResponse(responseCode = "416", description = "Requested range not satisfiable"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access")
     })
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
-    public ResponseEntity<byte[]> getExportJobResult(@PathVariable("jobId") @NotNull String jobId) {
+    public ResponseEntity<StreamingResponseBody> getExportJobResult(
+            @PathVariable("jobId") @NotNull String jobId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) throws IOException {
         logger.info("Getting result for export job: {}", jobId);
         
         try {
@@ -365,16 +516,22 @@ public class ExportController {
             String jobStatus = (String) status.get("status");
             
             if (!"COMPLETED".equals(jobStatus)) {
-                if ("PROCESSING".equals(jobStatus) || "STARTED".equals(jobStatus)) {
+                if ("PROCESSING".equals(jobStatus) || "QUEUED".equals(jobStatus) || "SCHEDULED".equals(jobStatus)) {
                     return ResponseEntity.accepted().build();
                 } else {
                     throw new RuntimeException("Export job failed or was cancelled");
                 }
             }
             
-            byte[] result = exportService.getExportJobResult(jobId);
+            Path file = exportService.getExportJobFile(jobId);
+            long length = Files.size(file);
             String exportType = (String) status.get("exportType");
             String format = (String) status.get("format");
+            ContentCoding stored = exportService.getExportJobEncoding(jobId);
+            ContentCoding accepted = ContentCoding.negotiate(acceptEncoding, Collections.singletonList(stored));
+            if (accepted == null) {
+                return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+            }
             
             String filename = exportService.generateExportFilename(exportType, format, 
                 Map.of("jobId", jobId));
@@ -382,12 +539,52 @@ public class ExportController {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.parseMediaType(exportService.getMimeType(format)));
             headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(result.length);
+            if (stored != ContentCoding.IDENTITY) {
+                headers.setVary(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING));
+                if (accepted != stored) {
+                    // Decoded on the fly; its byte offsets are unknown, so ranges are not offered
+                    logger.info("Serving decoded result of export job {}", jobId);
+                    headers.set(HttpHeaders.ACCEPT_RANGES, "none");
+                    return ResponseEntity.ok()
+                        .headers(headers)
+                        .body(outputStream -> {
+                            try (InputStream in = stored.decode(Files.newInputStream(file))) {
+                                in.transferTo(outputStream);
+                            }
+                        });
+                }
+                headers.set(HttpHeaders.CONTENT_ENCODING, stored.getToken());
+            }
+            // A job's result never changes, so the job id is a strong validator of each representation
+            String eTag = "\"" + jobId + (stored != ContentCoding.IDENTITY ? "-" + stored.getToken() : "") + "\"";
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+            headers.setETag(eTag);
+
+            ByteRange byteRange = ifRange == null || ifRange.equals(eTag) ? ByteRange.parse(range, length) : null;
+            if (byteRange != null && !byteRange.isSatisfiable()) {
+                headers.set(HttpHeaders.CONTENT_RANGE, byteRange.contentRange(length));
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+
+            long start = byteRange != null ? byteRange.getStart() : 0;
+            long count = byteRange != null ? byteRange.getLength() : length;
+            headers.setContentLength(count);
+            HttpStatus httpStatus = HttpStatus.OK;
+            if (byteRange != null) {
+                headers.set(HttpHeaders.CONTENT_RANGE, byteRange.contentRange(length));
+                httpStatus = HttpStatus.PARTIAL_CONTENT;
+            }
             
-            logger.info("Successfully retrieved result for export job: {} ({} bytes)", jobId, result.length);
-            return ResponseEntity.ok()
+            logger.info("Serving result of export job {} ({} of {} bytes from {})", jobId, count, length, start);
+            if (Boolean.TRUE.equals(request.getAttribute(TOMCAT_SENDFILE_SUPPORT))) {
+                request.setAttribute(TOMCAT_SENDFILE_FILENAME, file.toString());
+                request.setAttribute(TOMCAT_SENDFILE_START, start);
+                request.setAttribute(TOMCAT_SENDFILE_END, start + count);
+                return ResponseEntity.status(httpStatus).headers(headers).build();
+            }
+            return ResponseEntity.status(httpStatus)
                 .headers(headers)
-                .body(result);
+                .body(outputStream -> transferFile(file, start, count, outputStream));
                 
         } catch (Exception e) {
             logger.error("Failed to get result for export job: {}", jobId, e);
@@ -426,6 +623,123 @@ public class ExportController {
         }
     }
 
+    /**
+     * Export a batch of reports as one ZIP archive
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Export batch as ZIP", description = "Render several reports in parallel into one ZIP archive, "
+        + "e.g. the roster and grades of every class")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export completed successfully"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are running"),
+        @ApiResponse(responseCode = "503", description = "Every export slot is busy"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> exportBatch(
+            @Valid @RequestBody List<Map<String, Object>> exportRequests) {
+        
+        logger.info("Exporting batch of {} requests as ZIP", exportRequests.size());
+        
+        String filename = exportService.generateExportFilename("batch_export", "zip", 
+            Map.of("requests", exportRequests.size()));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportService.getMimeType("zip")));
+        headers.setContentDispositionFormData("attachment", filename);
+        return admitted("batch_export", () -> ResponseEntity.ok()
+            .headers(headers)
+            .body(outputStream -> {
+                try {
+                    exportService.streamBatchExport(exportRequests, outputStream);
+                } catch (Exception e) {
+                    logger.error("Failed to export batch", e);
+                    throw e;
+                }
+            }));
+    }
+
+    /**
+     * Start async batch export job
+     */
+    @PostMapping("/batch/async")
+    @Operation(summary = "Start async batch export", description = "Start a batch export job now, or at the next time "
+        + "the cron expression matches; the ZIP is downloaded from the async result endpoint")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Batch export job started successfully"),
+        @ApiResponse(responseCode = "429", description = "Too many of the user's exports are waiting"),
+        @ApiResponse(responseCode = "503", description = "Export queue is full"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> startBatchExport(
+            @Valid @RequestBody List<Map<String, Object>> exportRequests,
+            @Parameter(description = "Cron expression of the start time") @RequestParam(required = false) String cron) {
+        
+        logger.info("Starting batch export job ({} requests, cron: {})", exportRequests.size(), cron);
+        
+        try {
+            String batchId = exportService.scheduleBatchExport(exportRequests, cron);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("jobId", batchId);
+            response.put("message", "Batch export job started successfully");
+            response.put("statusUrl", "/api/v1/export/batch/" + batchId + "/status");
+            response.put("resultUrl", "/api/v1/export/async/" + batchId + "/result");
+            response.put("timestamp", System.currentTimeMillis());
+            
+            logger.info("Successfully started batch export job: {}", batchId);
+            return ResponseEntity.accepted().body(response);
+            
+        } catch (ExportRejectedException e) {
+            return rejected(e);
+        } catch (Exception e) {
+            logger.error("Failed to start batch export job", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get batch export job status
+     */
+    @GetMapping("/batch/{batchId}/status")
+    @Operation(summary = "Get batch export status", description = "Get status of a batch export job and each of its parts")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Job not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getBatchExportStatus(@PathVariable("batchId") @NotNull String batchId) {
+        logger.debug("Getting status for batch export job: {}", batchId);
+        
+        try {
+            return ResponseEntity.ok(exportService.getBatchExportStatus(batchId));
+        } catch (Exception e) {
+            logger.error("Failed to get status for batch export job: {}", batchId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get export admission statistics
+     */
+    @GetMapping("/statistics")
+    @Operation(summary = "Get export queue statistics", description = "Get running and queued exports per user, "
+        + "queue depth, rejections and wait times")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getExportStatistics() {
+        Map<String, Object> statistics = exportService.getAdmissionStatistics();
+        statistics.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(statistics);
+    }
+
     /**
      * Get supported export formats
      */
@@ -455,4 +769,117 @@ public class ExportController {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<Map<String, Object>> rejected(ExportRejectedException e) {
+        logger.warn("Export rejected by admission control: {}", e.getMessage());
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "REJECTED");
+        response.put("message", e.getMessage());
+        response.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.status(e.isUserLimit() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(response);
+    }
+
+    /**
+     * Build a synchronous export response under an admission permit, released once the body has been written
+     * Refused with 429 or 503 like an async export when the user, or the service, has no export slot free.
+     */
+    private ResponseEntity<?> admitted(String exportType, Supplier<ResponseEntity<StreamingResponseBody>> response) {
+        ExportService.ExportPermit permit;
+        try {
+            permit = exportService.acquireExportPermit(exportType);
+        } catch (ExportRejectedException e) {
+            return rejected(e);
+        }
+        try {
+            ResponseEntity<StreamingResponseBody> entity = response.get();
+            StreamingResponseBody body = entity.getBody();
+            if (body == null) {
+                permit.close();
+                return entity;
+            }
+            StreamingResponseBody released = outputStream -> {
+                try {
+                    body.writeTo(outputStream);
+                } finally {
+                    permit.close();
+                }
+            };
+            return ResponseEntity.status(entity.getStatusCode()).headers(entity.getHeaders()).body(released);
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    private static void transferFile(Path file, long start, long count, OutputStream outputStream)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, target);
+                if (sent <= 0) {
+                    throw new EOFException("Export file " + file + " ended at byte " + position);
+                }
+                position += sent;
+            }
+        }
+    }
+
+    /**
+     * CSV attachment written straight to the response stream, as a .csv.gz file or compressed in transit
+     */
+    private ResponseEntity<StreamingResponseBody> csvAttachment(String filename, boolean gzip, String acceptEncoding,
+                                                                StreamingResponseBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (!gzip) {
+            headers.setContentType(MediaType.parseMediaType(exportService.getMimeType("csv")));
+            headers.setContentDispositionFormData("attachment", filename);
+            return encodedBody(headers, "csv", acceptEncoding, -1, body);
+        }
+        headers.setContentType(MediaType.parseMediaType("application/gzip"));
+        headers.setContentDispositionFormData("attachment", filename + ".gz");
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(outputStream -> exportService.writeEncoded(ContentCoding.GZIP, outputStream, body::writeTo));
+    }
+
+    /**
+     * Response body compressed with the content coding negotiated from Accept-Encoding, as it is written
+     * The length, when known, only applies to an uncompressed body. 406 when the client refuses every coding.
+     */
+    private ResponseEntity<StreamingResponseBody> encodedBody(HttpHeaders headers, String format,
+                                                              String acceptEncoding, long length,
+                                                              StreamingResponseBody body) {
+        ContentCoding coding = exportService.negotiateContentCoding(acceptEncoding, format);
+        headers.setVary(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING));
+        if (coding == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        if (coding == ContentCoding.IDENTITY) {
+            if (length >= 0) {
+                headers.setContentLength(length);
+            }
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+        headers.set(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(outputStream -> exportService.writeEncoded(coding, outputStream, body::writeTo));
+    }
+
+    /**
+     * Excel attachment written straight to the response stream; the length is not known up front
+     */
+    private ResponseEntity<StreamingResponseBody> excelAttachment(String filename, StreamingResponseBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportService.getMimeType("excel")));
+        headers.setContentDispositionFormData("attachment", filename);
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(body);
+    }
+}
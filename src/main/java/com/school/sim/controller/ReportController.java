@@ -4,6 +4,7 @@ import com.school.sim.dto.request.AcademicReportRequest;
 import com.school.sim.dto.request.AttendanceReportRequest;
 import com.school.sim.dto.response.AcademicReportResponse;
 import com.school.sim.dto.response.AttendanceReportResponse;
+import com.school.sim.service.AcademicReportService;
 import com.school.sim.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,10 +15,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -41,6 +45,9 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private AcademicReportService academicReportService;
+
     // Academic Reports
 
     /**
@@ -95,6 +102,66 @@ public class ReportController {
         }
     }
 
+    /**
+     * Download a student transcript as PDF
+     */
+    @GetMapping("/academic/transcript/student/{studentId}/pdf")
+    @Operation(summary = "Download student transcript PDF", description = "Render the transcript of a student as PDF")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transcript rendered successfully"),
+        @ApiResponse(responseCode = "404", description = "Student not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<byte[]> downloadStudentTranscript(
+            @PathVariable("studentId") @NotNull Long studentId,
+            @Parameter(description = "Academic year, all years when omitted") @RequestParam(required = false) String academicYear,
+            @Parameter(description = "Semester, all semesters when omitted") @RequestParam(required = false) Integer semester) {
+
+        logger.info("Rendering transcript PDF for student: {} for {}-{}", studentId, academicYear, semester);
+
+        byte[] pdf = academicReportService.exportTranscriptToPDF(studentId, academicYear, semester).toByteArray();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "transcript_" + studentId + ".pdf");
+        return ResponseEntity.ok().headers(headers).body(pdf);
+    }
+
+    /**
+     * Download the transcripts of a whole class, as one PDF or a ZIP of PDFs
+     */
+    @GetMapping("/academic/transcript/class/{classRoomId}/pdf")
+    @Operation(summary = "Download class transcripts",
+               description = "Render the transcripts of every student in a class in parallel, streamed as one PDF or a ZIP")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transcripts rendered successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<StreamingResponseBody> downloadClassTranscripts(
+            @PathVariable("classRoomId") @NotNull Long classRoomId,
+            @Parameter(description = "Academic year, all years when omitted") @RequestParam(required = false) String academicYear,
+            @Parameter(description = "Semester, all semesters when omitted") @RequestParam(required = false) Integer semester,
+            @Parameter(description = "One PDF per student in a ZIP") @RequestParam(defaultValue = "false") boolean zip) {
+
+        logger.info("Rendering class transcripts for class room: {} for {}-{}", classRoomId, academicYear, semester);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(zip ? MediaType.APPLICATION_OCTET_STREAM : MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment",
+                "transcripts_class_" + classRoomId + (zip ? ".zip" : ".pdf"));
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(outputStream -> {
+                try {
+                    academicReportService.streamClassTranscripts(classRoomId, academicYear, semester, zip, outputStream);
+                } catch (Exception e) {
+                    logger.error("Failed to render transcripts for class room: {}", classRoomId, e);
+                    throw e;
+                }
+            });
+    }
+
     /**
      * Generate class performance report
      */
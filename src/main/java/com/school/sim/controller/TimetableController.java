@@ -0,0 +1,128 @@
+package com.school.sim.controller;
+
+import com.school.sim.dto.response.ScheduleResponse;
+import com.school.sim.dto.response.TimetableResponse;
+import com.school.sim.service.ScheduleService;
+import com.school.sim.service.TimetableIndexService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * REST controller for class and teacher timetables
+ * Responses carry a strong ETag per (entity, term); a matching If-None-Match is answered with 304 from memory.
+ */
+@RestController
+@RequestMapping("/api/v1/timetables")
+@Tag(name = "Timetables", description = "Class and teacher timetable endpoints")
+@Validated
+public class TimetableController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableController.class);
+
+    // Clients may keep timetables but must revalidate them before use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    /**
+     * Get a class timetable
+     */
+    @GetMapping("/classes/{classRoomId}")
+    @Operation(summary = "Get class timetable", description = "Get the weekly timetable of a class for a term")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Timetable returned"),
+        @ApiResponse(responseCode = "304", description = "Timetable not modified"),
+        @ApiResponse(responseCode = "404", description = "Class room not found")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER') or hasRole('STUDENT')")
+    public ResponseEntity<TimetableResponse> getClassTimetable(
+            @PathVariable("classRoomId") @NotNull Long classRoomId,
+            @RequestParam("academicYear") @NotBlank String academicYear,
+            @RequestParam("semester") @Min(1) @Max(2) Integer semester,
+            WebRequest webRequest) {
+        logger.debug("Fetching class timetable for class: {}, period: {}/{}", classRoomId, academicYear, semester);
+
+        String eTag = scheduleService.getTimetableVersion(TimetableIndexService.CLASS_ROOM, classRoomId,
+            academicYear, semester);
+        return conditional(webRequest, eTag,
+            () -> scheduleService.generateClassTimetable(classRoomId, academicYear, semester));
+    }
+
+    /**
+     * Get a teacher timetable
+     */
+    @GetMapping("/teachers/{teacherId}")
+    @Operation(summary = "Get teacher timetable", description = "Get the weekly timetable of a teacher for a term")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Timetable returned"),
+        @ApiResponse(responseCode = "304", description = "Timetable not modified"),
+        @ApiResponse(responseCode = "404", description = "Teacher not found")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER') or hasRole('STUDENT')")
+    public ResponseEntity<TimetableResponse> getTeacherTimetable(
+            @PathVariable("teacherId") @NotNull Long teacherId,
+            @RequestParam("academicYear") @NotBlank String academicYear,
+            @RequestParam("semester") @Min(1) @Max(2) Integer semester,
+            WebRequest webRequest) {
+        logger.debug("Fetching teacher timetable for teacher: {}, period: {}/{}", teacherId, academicYear, semester);
+
+        String eTag = scheduleService.getTimetableVersion(TimetableIndexService.TEACHER, teacherId,
+            academicYear, semester);
+        return conditional(webRequest, eTag,
+            () -> scheduleService.generateTeacherTimetable(teacherId, academicYear, semester));
+    }
+
+    /**
+     * Get a teacher's schedules grouped by day
+     */
+    @GetMapping("/teachers/{teacherId}/weekly")
+    @Operation(summary = "Get teacher weekly schedule", description = "Get a teacher's schedules grouped by day")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Weekly schedule returned"),
+        @ApiResponse(responseCode = "304", description = "Weekly schedule not modified")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<DayOfWeek, List<ScheduleResponse>>> getTeacherWeeklySchedule(
+            @PathVariable("teacherId") @NotNull Long teacherId,
+            @RequestParam("academicYear") @NotBlank String academicYear,
+            @RequestParam("semester") @Min(1) @Max(2) Integer semester,
+            WebRequest webRequest) {
+        String eTag = scheduleService.getTimetableVersion(TimetableIndexService.TEACHER, teacherId,
+            academicYear, semester);
+        // Distinct from the timetable tag of the same teacher so the two representations never validate each other
+        return conditional(webRequest, eTag != null ? "weekly-" + eTag : null,
+            () -> scheduleService.getTeacherWeeklySchedule(teacherId, academicYear, semester));
+    }
+
+    private <T> ResponseEntity<T> conditional(WebRequest webRequest, String eTag, Supplier<T> body) {
+        if (eTag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(body.get());
+    }
+}
@@ -0,0 +1,108 @@
+package com.school.sim.controller;
+
+import com.school.sim.dto.request.CreateScheduleRequest;
+import com.school.sim.dto.request.TimetableGenerationRequest;
+import com.school.sim.dto.response.BulkScheduleResult;
+import com.school.sim.service.TimetableGenerationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for automatic timetable generation
+ * Generation runs as an asynchronous job that can be polled, inspected, applied or cancelled
+ */
+@RestController
+@RequestMapping("/api/v1/schedules/generation")
+@Tag(name = "Timetable Generation", description = "Automatic timetable generation endpoints")
+@Validated
+public class TimetableGenerationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableGenerationController.class);
+
+    @Autowired
+    private TimetableGenerationService timetableGenerationService;
+
+    /**
+     * Start a timetable generation job
+     */
+    @PostMapping
+    @Operation(summary = "Start timetable generation", description = "Queue an automatic timetable generation job")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Generation job queued"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "404", description = "Class room, subject or teacher not found")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> startGeneration(@Valid @RequestBody TimetableGenerationRequest request) {
+        logger.info("Starting timetable generation for {}/{} with {} lessons",
+            request.getAcademicYear(), request.getSemester(), request.getLessons().size());
+
+        String jobId = timetableGenerationService.startGeneration(request);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", jobId);
+        response.put("message", "Timetable generation job queued");
+        response.put("statusUrl", "/api/v1/schedules/generation/" + jobId + "/status");
+        response.put("resultUrl", "/api/v1/schedules/generation/" + jobId + "/result");
+        response.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Get generation job status and best result quality so far
+     */
+    @GetMapping("/{jobId}/status")
+    @Operation(summary = "Get generation status", description = "Get progress and best-so-far quality of a job")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getGenerationStatus(@PathVariable("jobId") @NotNull String jobId) {
+        return ResponseEntity.ok(timetableGenerationService.getGenerationStatus(jobId));
+    }
+
+    /**
+     * Get the best timetable found so far
+     */
+    @GetMapping("/{jobId}/result")
+    @Operation(summary = "Get generated timetable", description = "Get the best timetable found so far")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<List<CreateScheduleRequest>> getGenerationResult(
+            @PathVariable("jobId") @NotNull String jobId) {
+        return ResponseEntity.ok(timetableGenerationService.getGenerationResult(jobId));
+    }
+
+    /**
+     * Create the schedules of a finished job
+     */
+    @PostMapping("/{jobId}/apply")
+    @Operation(summary = "Apply generated timetable", description = "Create the schedules of a finished job")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<BulkScheduleResult> applyGeneration(@PathVariable("jobId") @NotNull String jobId) {
+        logger.info("Applying timetable generation job: {}", jobId);
+        return ResponseEntity.ok(timetableGenerationService.applyGeneration(jobId));
+    }
+
+    /**
+     * Cancel a queued or running job
+     */
+    @DeleteMapping("/{jobId}")
+    @Operation(summary = "Cancel timetable generation", description = "Stop a job, keeping its best result so far")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Void> cancelGeneration(@PathVariable("jobId") @NotNull String jobId) {
+        timetableGenerationService.cancelGeneration(jobId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.school.sim.dto.request;
+
+import javax.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request DTO for cloning the active schedules of one academic period into another
+ * Class rooms and teachers can be substituted on the way; unmapped ids are copied unchanged.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CloneScheduleRequest {
+
+    @NotBlank(message = "Source academic year is required")
+    @Pattern(regexp = "\\d{4}/\\d{4}", message = "Academic year must be in format YYYY/YYYY")
+    private String fromAcademicYear;
+
+    @NotNull(message = "Source semester is required")
+    @Min(value = 1, message = "Semester must be 1 or 2")
+    @Max(value = 2, message = "Semester must be 1 or 2")
+    private Integer fromSemester;
+
+    @NotBlank(message = "Target academic year is required")
+    @Pattern(regexp = "\\d{4}/\\d{4}", message = "Academic year must be in format YYYY/YYYY")
+    private String toAcademicYear;
+
+    @NotNull(message = "Target semester is required")
+    @Min(value = 1, message = "Semester must be 1 or 2")
+    @Max(value = 2, message = "Semester must be 1 or 2")
+    private Integer toSemester;
+
+    // Source class rooms to clone; all class rooms when empty
+    private List<Long> classRoomIds;
+
+    // Source class room id -> target class room id
+    @Builder.Default
+    private Map<Long, Long> classRoomMapping = new HashMap<>();
+
+    // Source teacher id -> target teacher id
+    @Builder.Default
+    private Map<Long, Long> teacherMapping = new HashMap<>();
+
+    @Builder.Default
+    private Boolean skipConflictCheck = false;
+}
@@ -0,0 +1,115 @@
+package com.school.sim.dto.request;
+
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Request DTO for automatic timetable generation
+ * Lessons are placed on a grid of equal periods per school day; existing schedules of the term can be kept fixed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimetableGenerationRequest {
+
+    @NotBlank(message = "Academic year is required")
+    @Pattern(regexp = "\\d{4}/\\d{4}", message = "Academic year must be in format YYYY/YYYY")
+    private String academicYear;
+
+    @NotNull(message = "Semester is required")
+    @Min(value = 1, message = "Semester must be 1 or 2")
+    @Max(value = 2, message = "Semester must be 1 or 2")
+    private Integer semester;
+
+    @NotEmpty(message = "Lesson list cannot be empty")
+    @Valid
+    private List<LessonRequirement> lessons;
+
+    @Valid
+    private List<TeacherUnavailability> teacherUnavailability;
+
+    @Builder.Default
+    private List<DayOfWeek> days = Arrays.asList(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+            DayOfWeek.THURSDAY, DayOfWeek.FRIDAY);
+
+    @Builder.Default
+    private LocalTime dayStartTime = LocalTime.of(7, 0);
+
+    @Builder.Default
+    @Min(value = 1, message = "At least one period per day is required")
+    private Integer periodsPerDay = 8;
+
+    @Builder.Default
+    @Min(value = 30, message = "Periods must be at least 30 minutes")
+    @Max(value = 180, message = "Periods must not exceed 180 minutes")
+    private Integer periodMinutes = 45;
+
+    // Existing schedules of the term stay where they are and block their periods
+    @Builder.Default
+    private Boolean keepExistingSchedules = true;
+
+    // Stop at the first conflict-free timetable instead of improving subject spread until the budget is spent
+    @Builder.Default
+    private Boolean stopWhenFeasible = false;
+
+    @Min(value = 1, message = "Time budget must be at least 1 second")
+    private Integer timeBudgetSeconds;
+
+    @Min(value = 1, message = "At least one search thread is required")
+    private Integer threads;
+
+    /**
+     * A class's weekly periods of one subject with its teacher
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LessonRequirement {
+
+        @NotNull(message = "Class room ID is required")
+        private Long classRoomId;
+
+        @NotNull(message = "Subject ID is required")
+        private Long subjectId;
+
+        @NotNull(message = "Teacher ID is required")
+        private Long teacherId;
+
+        @NotNull(message = "Periods per week is required")
+        @Min(value = 1, message = "Periods per week must be at least 1")
+        private Integer periodsPerWeek;
+    }
+
+    /**
+     * A time window in which a teacher cannot be scheduled
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TeacherUnavailability {
+
+        @NotNull(message = "Teacher ID is required")
+        private Long teacherId;
+
+        @NotNull(message = "Day of week is required")
+        private DayOfWeek dayOfWeek;
+
+        @NotNull(message = "Start time is required")
+        private LocalTime startTime;
+
+        @NotNull(message = "End time is required")
+        private LocalTime endTime;
+    }
+}
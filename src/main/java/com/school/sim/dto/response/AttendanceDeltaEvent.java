@@ -0,0 +1,34 @@
+package com.school.sim.dto.response;
+
+import com.school.sim.entity.AttendanceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Incremental attendance change pushed to live dashboard subscribers
+ * Carries per-status count changes for one class on one date, merged per committed transaction
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceDeltaEvent {
+
+    private Long sequence;
+    private String originNode;
+
+    private LocalDate date;
+    private Long classRoomId;
+
+    // Signed count changes, e.g. {PRESENT: 28, ABSENT: 2} or {ABSENT: -1, SICK: 1}
+    private Map<AttendanceStatus, Long> statusDeltas;
+    private Long totalDelta;
+
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,37 @@
+package com.school.sim.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result class for bulk schedule creation
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkScheduleResult {
+    private List<ScheduleResponse> successfulRecords;
+    private List<RowError> errors;
+    private int totalProcessed;
+    private int successCount;
+    private int errorCount;
+
+    /**
+     * A rejected entry, numbered from 1 in request order
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String message;
+        private List<Map<String, Object>> conflicts;
+    }
+}
@@ -0,0 +1,196 @@
+package com.school.sim.entity;
+
+import javax.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Entity representing an attendance record moved out of the hot table for a closed academic year
+ * Rows are denormalized with the teaching activity's class, teacher, subject, date and time so that
+ * historical reports can be answered without joining back to hot tables.
+ * Keyed by (id, activity_date) like the partitioned table.
+ */
+@Entity
+@Table(name = "attendances_archive", indexes = {
+        @Index(name = "idx_attendance_archive_student_date", columnList = "student_id, activity_date"),
+        @Index(name = "idx_attendance_archive_class_date", columnList = "class_room_id, activity_date"),
+        @Index(name = "idx_attendance_archive_date_status", columnList = "activity_date, status"),
+        @Index(name = "idx_attendance_archive_year", columnList = "academic_year")
+})
+@IdClass(AttendanceArchiveId.class)
+public class AttendanceArchive {
+
+    @Id
+    @Column(name = "id")
+    private Long id; // Original attendances.id
+
+    @Column(name = "teaching_activity_id", nullable = false)
+    private Long teachingActivityId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "class_room_id", nullable = false)
+    private Long classRoomId;
+
+    @Column(name = "teacher_id", nullable = false)
+    private Long teacherId;
+
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Id
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private AttendanceStatus status;
+
+    @Column(name = "keterangan", columnDefinition = "TEXT")
+    private String keterangan;
+
+    @Column(name = "recorded_by")
+    private Long recordedBy;
+
+    @Column(name = "academic_year", nullable = false, length = 9)
+    private String academicYear;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public AttendanceArchive() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTeachingActivityId() {
+        return teachingActivityId;
+    }
+
+    public void setTeachingActivityId(Long teachingActivityId) {
+        this.teachingActivityId = teachingActivityId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getClassRoomId() {
+        return classRoomId;
+    }
+
+    public void setClassRoomId(Long classRoomId) {
+        this.classRoomId = classRoomId;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public void setTeacherId(Long teacherId) {
+        this.teacherId = teacherId;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public LocalDate getActivityDate() {
+        return activityDate;
+    }
+
+    public void setActivityDate(LocalDate activityDate) {
+        this.activityDate = activityDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public AttendanceStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(AttendanceStatus status) {
+        this.status = status;
+    }
+
+    public String getKeterangan() {
+        return keterangan;
+    }
+
+    public void setKeterangan(String keterangan) {
+        this.keterangan = keterangan;
+    }
+
+    public Long getRecordedBy() {
+        return recordedBy;
+    }
+
+    public void setRecordedBy(Long recordedBy) {
+        this.recordedBy = recordedBy;
+    }
+
+    public String getAcademicYear() {
+        return academicYear;
+    }
+
+    public void setAcademicYear(String academicYear) {
+        this.academicYear = academicYear;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
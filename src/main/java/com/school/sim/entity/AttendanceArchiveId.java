@@ -0,0 +1,47 @@
+package com.school.sim.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Primary key of AttendanceArchive
+ * The partitioning column has to be part of the key, so the original attendance id is paired with the activity date
+ */
+public class AttendanceArchiveId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private LocalDate activityDate;
+
+    // Constructors
+    public AttendanceArchiveId() {}
+
+    public AttendanceArchiveId(Long id, LocalDate activityDate) {
+        this.id = id;
+        this.activityDate = activityDate;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getActivityDate() {
+        return activityDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AttendanceArchiveId)) return false;
+        AttendanceArchiveId other = (AttendanceArchiveId) o;
+        return Objects.equals(id, other.id) && Objects.equals(activityDate, other.activityDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, activityDate);
+    }
+}
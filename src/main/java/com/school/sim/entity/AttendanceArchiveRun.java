@@ -0,0 +1,84 @@
+package com.school.sim.entity;
+
+import javax.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a completed attendance archive run
+ * Written only once every row through archived_through has left the hot table, so the latest run is the
+ * boundary below which reads may use the archive alone.
+ */
+@Entity
+@Table(name = "attendance_archive_runs")
+public class AttendanceArchiveRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "archived_through", nullable = false)
+    private LocalDate archivedThrough;
+
+    @Column(name = "rows_archived", nullable = false)
+    private Long rowsArchived;
+
+    @Column(name = "duration_ms", nullable = false)
+    private Long durationMs;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public AttendanceArchiveRun() {}
+
+    public AttendanceArchiveRun(LocalDate archivedThrough, Long rowsArchived, Long durationMs,
+                                LocalDateTime completedAt) {
+        this.archivedThrough = archivedThrough;
+        this.rowsArchived = rowsArchived;
+        this.durationMs = durationMs;
+        this.completedAt = completedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getArchivedThrough() {
+        return archivedThrough;
+    }
+
+    public void setArchivedThrough(LocalDate archivedThrough) {
+        this.archivedThrough = archivedThrough;
+    }
+
+    public Long getRowsArchived() {
+        return rowsArchived;
+    }
+
+    public void setRowsArchived(Long rowsArchived) {
+        this.rowsArchived = rowsArchived;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -14,7 +14,9 @@ import java.util.List;
  * Links schedules to actual class sessions and attendance records
  */
 @Entity
-@Table(name = "teaching_activities")
+@Table(name = "teaching_activities", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_teaching_activity_schedule_date", columnNames = {"schedule_id", "date"})
+})
 public class TeachingActivity {
     
     @Id
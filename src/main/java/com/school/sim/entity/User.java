@@ -1,6 +1,7 @@
 package com.school.sim.entity;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
@@ -94,7 +95,9 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Loaded for every user a query returns; batching keeps a page of teachers to one roles query
     @Builder.Default
+    @BatchSize(size = 50)
     @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
             name = "user_roles",
@@ -0,0 +1,27 @@
+package com.school.sim.exception;
+
+/**
+ * Exception thrown when an export cannot be admitted because the export queue, or the user's share of it, is full
+ */
+public class ExportRejectedException extends RuntimeException {
+
+    private final boolean userLimit;
+    private final long retryAfterSeconds;
+
+    public ExportRejectedException(String message, boolean userLimit, long retryAfterSeconds) {
+        super(message);
+        this.userLimit = userLimit;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * True when the user's own limit was reached rather than the global one
+     */
+    public boolean isUserLimit() {
+        return userLimit;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
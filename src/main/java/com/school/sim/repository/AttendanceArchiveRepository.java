@@ -0,0 +1,98 @@
+package com.school.sim.repository;
+
+import com.school.sim.entity.AttendanceArchive;
+import com.school.sim.entity.AttendanceArchiveId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for AttendanceArchive entity
+ * Mirrors the aggregate attendance queries for closed academic years; result shapes match AttendanceRepository
+ */
+@Repository
+public interface AttendanceArchiveRepository extends JpaRepository<AttendanceArchive, AttendanceArchiveId> {
+
+    /**
+     * Count archived records per academic year
+     */
+    @Query("SELECT aa.academicYear, COUNT(aa) FROM AttendanceArchive aa GROUP BY aa.academicYear ORDER BY aa.academicYear")
+    List<Object[]> countByAcademicYear();
+
+    /**
+     * Get archived attendance statistics for a student in date range
+     */
+    @Query("SELECT aa.status, COUNT(aa) FROM AttendanceArchive aa " +
+           "WHERE aa.studentId = :studentId AND aa.activityDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY aa.status")
+    List<Object[]> getAttendanceStatsByStudentAndDateBetween(@Param("studentId") Long studentId,
+                                                            @Param("startDate") LocalDate startDate,
+                                                            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Get archived attendance summary by class room and date range
+     */
+    @Query("SELECT aa.status, COUNT(aa) FROM AttendanceArchive aa " +
+           "WHERE aa.classRoomId = :classRoomId AND aa.activityDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY aa.status")
+    List<Object[]> getAttendanceSummaryByClassRoomAndDateBetween(@Param("classRoomId") Long classRoomId,
+                                                                @Param("startDate") LocalDate startDate,
+                                                                @Param("endDate") LocalDate endDate);
+
+    /**
+     * Get archived daily attendance statistics
+     */
+    @Query("SELECT aa.activityDate, aa.status, COUNT(aa) FROM AttendanceArchive aa " +
+           "WHERE aa.activityDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY aa.activityDate, aa.status ORDER BY aa.activityDate")
+    List<Object[]> getDailyAttendanceStatistics(@Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    /**
+     * Get archived monthly attendance report
+     */
+    @Query("SELECT YEAR(aa.activityDate), MONTH(aa.activityDate), aa.status, COUNT(aa) " +
+           "FROM AttendanceArchive aa WHERE aa.activityDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY YEAR(aa.activityDate), MONTH(aa.activityDate), aa.status " +
+           "ORDER BY YEAR(aa.activityDate), MONTH(aa.activityDate)")
+    List<Object[]> getMonthlyAttendanceReport(@Param("startDate") LocalDate startDate,
+                                             @Param("endDate") LocalDate endDate);
+
+    /**
+     * Find archived absences per student as flat rows: id, nis, name, class name, absence count
+     */
+    @Query("SELECT s.id, s.nis, s.namaLengkap, c.name, COUNT(aa) FROM AttendanceArchive aa " +
+           "JOIN Student s ON s.id = aa.studentId LEFT JOIN s.classRoom c " +
+           "WHERE aa.activityDate BETWEEN :startDate AND :endDate AND aa.status = 'ABSENT' " +
+           "GROUP BY s.id, s.nis, s.namaLengkap, c.name " +
+           "HAVING COUNT(aa) >= :minAbsences ORDER BY COUNT(aa) DESC, s.namaLengkap")
+    List<Object[]> findAbsenteeismSummaries(@Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate,
+                                           @Param("minAbsences") Long minAbsences);
+
+    /**
+     * Find students with perfect attendance across hot and archived records as flat rows:
+     * id, nis, name, class name. Used when a date range reaches into archived years.
+     */
+    @Query("SELECT s.id, s.nis, s.namaLengkap, c.name FROM Student s LEFT JOIN s.classRoom c " +
+           "WHERE (EXISTS (" +
+           "SELECT 1 FROM Attendance a JOIN a.teachingActivity ta " +
+           "WHERE a.student = s AND ta.date BETWEEN :startDate AND :endDate" +
+           ") OR EXISTS (" +
+           "SELECT 1 FROM AttendanceArchive aa " +
+           "WHERE aa.studentId = s.id AND aa.activityDate BETWEEN :startDate AND :endDate" +
+           ")) AND NOT EXISTS (" +
+           "SELECT 1 FROM Attendance a2 JOIN a2.teachingActivity ta2 " +
+           "WHERE a2.student = s AND ta2.date BETWEEN :startDate AND :endDate AND a2.status IN ('ABSENT', 'LATE')" +
+           ") AND NOT EXISTS (" +
+           "SELECT 1 FROM AttendanceArchive aa2 " +
+           "WHERE aa2.studentId = s.id AND aa2.activityDate BETWEEN :startDate AND :endDate " +
+           "AND aa2.status IN ('ABSENT', 'LATE')" +
+           ") ORDER BY c.name, s.namaLengkap")
+    List<Object[]> findPerfectAttendanceSummariesIncludingHot(@Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+}
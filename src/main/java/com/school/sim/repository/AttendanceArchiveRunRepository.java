@@ -0,0 +1,21 @@
+package com.school.sim.repository;
+
+import com.school.sim.entity.AttendanceArchiveRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Repository interface for AttendanceArchiveRun entity
+ */
+@Repository
+public interface AttendanceArchiveRunRepository extends JpaRepository<AttendanceArchiveRun, Long> {
+
+    /**
+     * Get the last date every attendance row of which is archived, or null before the first completed run
+     */
+    @Query("SELECT MAX(r.archivedThrough) FROM AttendanceArchiveRun r")
+    LocalDate findLatestArchivedThrough();
+}
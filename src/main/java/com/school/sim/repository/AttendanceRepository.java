@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -85,6 +86,19 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
            "AND ta.date = :date ORDER BY a.student.namaLengkap")
     List<Attendance> findByClassRoomAndDate(@Param("classRoomId") Long classRoomId, @Param("date") LocalDate date);
     
+    /**
+     * Find (teaching activity id, student id) pairs already recorded for a set of teaching activities
+     */
+    @Query("SELECT a.teachingActivity.id, a.student.id FROM Attendance a WHERE a.teachingActivity.id IN :teachingActivityIds")
+    List<Object[]> findRecordedPairsByTeachingActivityIds(@Param("teachingActivityIds") Collection<Long> teachingActivityIds);
+
+    /**
+     * Count attendance per status for a set of teaching activities, as (teaching activity id, status, count)
+     */
+    @Query("SELECT a.teachingActivity.id, a.status, COUNT(a) FROM Attendance a " +
+           "WHERE a.teachingActivity.id IN :teachingActivityIds GROUP BY a.teachingActivity.id, a.status")
+    List<Object[]> countStatusByTeachingActivityIds(@Param("teachingActivityIds") Collection<Long> teachingActivityIds);
+
     /**
      * Find recent attendance records
      */
@@ -145,12 +159,12 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     /**
      * Find students with perfect attendance in date range
      */
-    @Query("SELECT s FROM Student s WHERE s.id NOT IN (" +
-           "SELECT DISTINCT a.student.id FROM Attendance a JOIN a.teachingActivity ta " +
-           "WHERE ta.date BETWEEN :startDate AND :endDate AND a.status IN ('ABSENT', 'LATE')" +
-           ") AND s.id IN (" +
-           "SELECT DISTINCT a2.student.id FROM Attendance a2 JOIN a2.teachingActivity ta2 " +
-           "WHERE ta2.date BETWEEN :startDate AND :endDate" +
+    @Query("SELECT s FROM Student s WHERE EXISTS (" +
+           "SELECT 1 FROM Attendance a JOIN a.teachingActivity ta " +
+           "WHERE a.student = s AND ta.date BETWEEN :startDate AND :endDate" +
+           ") AND NOT EXISTS (" +
+           "SELECT 1 FROM Attendance a2 JOIN a2.teachingActivity ta2 " +
+           "WHERE a2.student = s AND ta2.date BETWEEN :startDate AND :endDate AND a2.status IN ('ABSENT', 'LATE')" +
            ")")
     List<Student> findStudentsWithPerfectAttendance(@Param("startDate") LocalDate startDate,
                                                    @Param("endDate") LocalDate endDate);
@@ -165,6 +179,72 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
                                                  @Param("endDate") LocalDate endDate,
                                                  @Param("minAbsences") Long minAbsences);
 
+    /**
+     * Find students with perfect attendance as flat rows: id, nis, name, class name
+     * Anti-joins on absent/late records so the whole report is a single query without lazy loads
+     */
+    @Query("SELECT s.id, s.nis, s.namaLengkap, c.name FROM Student s LEFT JOIN s.classRoom c " +
+           "WHERE EXISTS (" +
+           "SELECT 1 FROM Attendance a JOIN a.teachingActivity ta " +
+           "WHERE a.student = s AND ta.date BETWEEN :startDate AND :endDate" +
+           ") AND NOT EXISTS (" +
+           "SELECT 1 FROM Attendance a2 JOIN a2.teachingActivity ta2 " +
+           "WHERE a2.student = s AND ta2.date BETWEEN :startDate AND :endDate AND a2.status IN ('ABSENT', 'LATE')" +
+           ") ORDER BY c.name, s.namaLengkap")
+    List<Object[]> findPerfectAttendanceSummaries(@Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+
+    /**
+     * Find students at or above an absence count as flat rows: id, nis, name, class name, absence count
+     */
+    @Query("SELECT s.id, s.nis, s.namaLengkap, c.name, COUNT(a) FROM Attendance a " +
+           "JOIN a.teachingActivity ta JOIN a.student s LEFT JOIN s.classRoom c " +
+           "WHERE ta.date BETWEEN :startDate AND :endDate AND a.status = 'ABSENT' " +
+           "GROUP BY s.id, s.nis, s.namaLengkap, c.name " +
+           "HAVING COUNT(a) >= :minAbsences ORDER BY COUNT(a) DESC, s.namaLengkap")
+    List<Object[]> findAbsenteeismSummaries(@Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate,
+                                           @Param("minAbsences") Long minAbsences);
+
+    /**
+     * Find chronically absent students as flat rows:
+     * id, nis, name, class name, total sessions, absences, longest run of consecutive absent sessions.
+     * Runs are found with the row-number difference over sessions ordered by date and start time, and
+     * totals are summed from the runs, so rates, thresholds and streaks come back from one window pass.
+     * Archived years are included. Derived tables rather than chained CTEs, which H2 evaluates without
+     * the bound dates.
+     */
+    @Query(value = "SELECT s.id, s.nis, s.nama_lengkap, c.name, t.total_sessions, t.absences, t.longest_run " +
+           "FROM (" +
+           "SELECT student_id, SUM(run_length) AS total_sessions, " +
+           "SUM(CASE WHEN status = 'ABSENT' THEN run_length ELSE 0 END) AS absences, " +
+           "MAX(CASE WHEN status = 'ABSENT' THEN run_length ELSE 0 END) AS longest_run " +
+           "FROM (" +
+           "SELECT student_id, status, COUNT(*) AS run_length FROM (" +
+           "SELECT student_id, status, " +
+           "ROW_NUMBER() OVER (PARTITION BY student_id ORDER BY activity_date, start_time, activity_id) AS seq_all, " +
+           "ROW_NUMBER() OVER (PARTITION BY student_id, status ORDER BY activity_date, start_time, activity_id) AS seq_status " +
+           "FROM (" +
+           "SELECT a.student_id, a.status, ta.date AS activity_date, ta.start_time, ta.id AS activity_id " +
+           "FROM attendances a JOIN teaching_activities ta ON ta.id = a.teaching_activity_id " +
+           "WHERE ta.date BETWEEN :startDate AND :endDate " +
+           "UNION ALL " +
+           "SELECT aa.student_id, aa.status, aa.activity_date, aa.start_time, aa.teaching_activity_id " +
+           "FROM attendances_archive aa WHERE aa.activity_date BETWEEN :startDate AND :endDate" +
+           ") all_sessions" +
+           ") sessions GROUP BY student_id, status, seq_all - seq_status" +
+           ") runs GROUP BY student_id" +
+           ") t JOIN students s ON s.id = t.student_id " +
+           "LEFT JOIN class_rooms c ON c.id = s.class_room_id " +
+           "WHERE t.absences * 100.0 / t.total_sessions >= :threshold " +
+           "OR t.longest_run >= :minConsecutive " +
+           "ORDER BY t.absences * 100.0 / t.total_sessions DESC, s.nama_lengkap",
+           nativeQuery = true)
+    List<Object[]> findChronicAbsenteeismSummaries(@Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate,
+                                                  @Param("threshold") Double threshold,
+                                                  @Param("minConsecutive") Integer minConsecutive);
+
     /**
      * Calculate attendance rate for student in date range
      */
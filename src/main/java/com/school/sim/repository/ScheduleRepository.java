@@ -4,13 +4,16 @@ import com.school.sim.entity.Schedule;
 import com.school.sim.entity.ClassRoom;
 import com.school.sim.entity.Subject;
 import com.school.sim.entity.User;
+import com.school.sim.util.ScheduleSlot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,7 +21,7 @@ import java.util.List;
  * Provides data access methods for class schedules and timetables
  */
 @Repository
-public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
+public interface ScheduleRepository extends JpaRepository<Schedule, Long>, JpaSpecificationExecutor<Schedule> {
     
     /**
      * Find schedules by class room
@@ -122,4 +125,28 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
      * Find schedules by academic year and semester (without active filter)
      */
     List<Schedule> findByAcademicYearAndSemester(String academicYear, Integer semester);
+
+    /**
+     * Find flat schedule slots for a term without loading entities or lazy associations
+     */
+    @Query("SELECT new com.school.sim.util.ScheduleSlot(s.id, s.academicYear, s.semester, " +
+           "s.dayOfWeek, s.startTime, s.endTime, t.id, t.firstName, t.lastName, " +
+           "c.id, c.name, sub.id, s.isActive) " +
+           "FROM Schedule s JOIN s.teacher t JOIN s.classRoom c JOIN s.subject sub " +
+           "WHERE s.academicYear = :academicYear AND s.semester = :semester")
+    List<ScheduleSlot> findSlotsByAcademicYearAndSemester(@Param("academicYear") String academicYear,
+                                                          @Param("semester") Integer semester);
+
+    /**
+     * Find schedules by id, fetching class room, subject and teacher
+     */
+    @Query("SELECT s FROM Schedule s JOIN FETCH s.classRoom JOIN FETCH s.subject JOIN FETCH s.teacher " +
+           "WHERE s.id IN :ids ORDER BY s.id")
+    List<Schedule> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the distinct academic periods that have schedules
+     */
+    @Query("SELECT DISTINCT s.academicYear, s.semester FROM Schedule s")
+    List<Object[]> findDistinctAcademicPeriods();
 }
@@ -4,7 +4,9 @@ import com.school.sim.entity.TeachingActivity;
 import com.school.sim.entity.ClassRoom;
 import com.school.sim.entity.User;
 import com.school.sim.entity.Subject;
+import com.school.sim.util.ActivityCalendarEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,7 +20,7 @@ import java.util.Optional;
  * Provides data access methods for teaching activities and sessions
  */
 @Repository
-public interface TeachingActivityRepository extends JpaRepository<TeachingActivity, Long> {
+public interface TeachingActivityRepository extends JpaRepository<TeachingActivity, Long>, JpaSpecificationExecutor<TeachingActivity> {
     
     /**
      * Find teaching activities by teacher and date
@@ -89,4 +91,36 @@ public interface TeachingActivityRepository extends JpaRepository<TeachingActivi
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
     );
+
+    /**
+     * Load a schedule's calendar entries as flat projections
+     */
+    @Query("SELECT new com.school.sim.util.ActivityCalendarEntry(ta.id, ta.date, ta.startTime, ta.endTime, " +
+           "ta.isCompleted, ta.teacher.id, ta.classRoom.id, ta.subject.id) " +
+           "FROM TeachingActivity ta WHERE ta.schedule.id = :scheduleId")
+    List<ActivityCalendarEntry> findCalendarEntriesBySchedule(@Param("scheduleId") Long scheduleId);
+
+    /**
+     * Load a teacher's calendar entries in a date range as flat projections
+     */
+    @Query("SELECT new com.school.sim.util.ActivityCalendarEntry(ta.id, ta.date, ta.startTime, ta.endTime, " +
+           "ta.isCompleted, ta.teacher.id, ta.classRoom.id, ta.subject.id) " +
+           "FROM TeachingActivity ta WHERE ta.teacher.id = :teacherId AND ta.date BETWEEN :startDate AND :endDate")
+    List<ActivityCalendarEntry> findCalendarEntriesByTeacher(
+            @Param("teacherId") Long teacherId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Load a class room's calendar entries in a date range as flat projections
+     */
+    @Query("SELECT new com.school.sim.util.ActivityCalendarEntry(ta.id, ta.date, ta.startTime, ta.endTime, " +
+           "ta.isCompleted, ta.teacher.id, ta.classRoom.id, ta.subject.id) " +
+           "FROM TeachingActivity ta WHERE ta.classRoom.id = :classRoomId AND ta.date BETWEEN :startDate AND :endDate")
+    List<ActivityCalendarEntry> findCalendarEntriesByClassRoom(
+            @Param("classRoomId") Long classRoomId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
 }
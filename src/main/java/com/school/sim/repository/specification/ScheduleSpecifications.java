@@ -0,0 +1,73 @@
+package com.school.sim.repository.specification;
+
+import com.school.sim.dto.request.ScheduleSearchRequest;
+import com.school.sim.entity.Schedule;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dynamic search specifications for Schedule
+ */
+public final class ScheduleSpecifications {
+
+    private static final Map<String, String> SORT_PROPERTIES = new HashMap<>();
+
+    static {
+        SORT_PROPERTIES.put("dayOfWeek", "dayOfWeek");
+        SORT_PROPERTIES.put("startTime", "startTime");
+        SORT_PROPERTIES.put("endTime", "endTime");
+        SORT_PROPERTIES.put("academicYear", "academicYear");
+        SORT_PROPERTIES.put("subject", "subject.namaMapel");
+        SORT_PROPERTIES.put("teacher", "teacher.firstName");
+        SORT_PROPERTIES.put("classRoom", "classRoom.name");
+    }
+
+    private static final Sort DEFAULT_SORT = Sort.by("dayOfWeek", "startTime", "id");
+
+    private ScheduleSpecifications() {
+    }
+
+    /**
+     * Filters of a search request, with teacher, classroom and subject fetched in the same query
+     */
+    public static Specification<Schedule> search(ScheduleSearchRequest request) {
+        return matching(request).and(SpecificationSupport.fetch("classRoom", "subject", "teacher", "teacher.student"));
+    }
+
+    public static Specification<Schedule> matching(ScheduleSearchRequest request) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            SpecificationSupport.addEqual(predicates, cb, root.get("classRoom").get("id"), request.getClassRoomId());
+            SpecificationSupport.addEqual(predicates, cb, root.get("subject").get("id"), request.getSubjectId());
+            SpecificationSupport.addEqual(predicates, cb, root.get("teacher").get("id"), request.getTeacherId());
+            SpecificationSupport.addEqual(predicates, cb, root.get("academicYear"), request.getAcademicYear());
+            SpecificationSupport.addEqual(predicates, cb, root.get("semester"), request.getSemester());
+            SpecificationSupport.addEqual(predicates, cb, root.get("dayOfWeek"), request.getDayOfWeek());
+            SpecificationSupport.addEqual(predicates, cb, root.get("isActive"), request.getIsActive());
+            SpecificationSupport.addIn(predicates, root.get("classRoom").get("id"), request.getClassRoomIds());
+            SpecificationSupport.addIn(predicates, root.get("subject").get("id"), request.getSubjectIds());
+            SpecificationSupport.addIn(predicates, root.get("teacher").get("id"), request.getTeacherIds());
+            SpecificationSupport.addIn(predicates, root.get("dayOfWeek"), request.getDaysOfWeek());
+            SpecificationSupport.addRange(predicates, cb, root.get("startTime"),
+                    request.getStartTimeFrom(), request.getStartTimeTo());
+            SpecificationSupport.addRange(predicates, cb, root.get("endTime"),
+                    request.getEndTimeFrom(), request.getEndTimeTo());
+            return SpecificationSupport.and(cb, predicates);
+        };
+    }
+
+    /**
+     * Page request honouring the request's sortBy/sortDirection when the pageable carries no sort
+     */
+    public static Pageable pageRequest(ScheduleSearchRequest request, Pageable pageable) {
+        return SpecificationSupport.pageRequest(pageable, request.getSortBy(), request.getSortDirection(),
+                SORT_PROPERTIES, DEFAULT_SORT);
+    }
+}
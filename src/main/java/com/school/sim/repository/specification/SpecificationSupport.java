@@ -0,0 +1,107 @@
+package com.school.sim.repository.specification;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.FetchParent;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared building blocks for search specifications
+ * Fetch joins are only added to the row query; Spring Data reuses the same specification for the page count,
+ * where a fetch would be invalid.
+ */
+public final class SpecificationSupport {
+
+    private SpecificationSupport() {
+    }
+
+    /**
+     * Fetch-join the given to-one associations so mapping a page issues no further queries; a dotted path such as
+     * "teacher.student" fetches a nested, optional association with a left join
+     */
+    public static <T> Specification<T> fetch(String... associations) {
+        return (root, query, cb) -> {
+            if (!isCountQuery(query)) {
+                Map<String, FetchParent<?, ?>> fetched = new HashMap<>();
+                for (String association : associations) {
+                    FetchParent<?, ?> parent = root;
+                    String path = "";
+                    for (String attribute : association.split("\\.")) {
+                        path = path.isEmpty() ? attribute : path + "." + attribute;
+                        FetchParent<?, ?> from = parent;
+                        JoinType joinType = from == root ? JoinType.INNER : JoinType.LEFT;
+                        parent = fetched.computeIfAbsent(path, key -> from.fetch(attribute, joinType));
+                    }
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Page request whose sort comes from the pageable, then the requested field, then the default
+     */
+    public static Pageable pageRequest(Pageable pageable, String sortBy, String sortDirection,
+                                       Map<String, String> sortProperties, Sort defaultSort) {
+        Sort sort = resolveSort(pageable.getSort(), sortBy, sortDirection, sortProperties, defaultSort);
+        if (pageable.isUnpaged()) {
+            return PageRequest.of(0, Integer.MAX_VALUE, sort);
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    public static Sort resolveSort(Sort requested, String sortBy, String sortDirection,
+                                   Map<String, String> sortProperties, Sort defaultSort) {
+        if (requested != null && requested.isSorted()) {
+            return requested;
+        }
+        String property = sortBy != null ? sortProperties.get(sortBy) : null;
+        if (property == null) {
+            return defaultSort;
+        }
+        Sort.Direction direction = "DESC".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direction, property).and(defaultSort);
+    }
+
+    static boolean isCountQuery(CriteriaQuery<?> query) {
+        Class<?> resultType = query.getResultType();
+        return resultType == Long.class || resultType == long.class;
+    }
+
+    static <V> void addEqual(List<Predicate> predicates, CriteriaBuilder cb, Path<V> path, V value) {
+        if (value != null) {
+            predicates.add(cb.equal(path, value));
+        }
+    }
+
+    static <V> void addIn(List<Predicate> predicates, Path<V> path, Collection<V> values) {
+        if (values != null && !values.isEmpty()) {
+            predicates.add(path.in(values));
+        }
+    }
+
+    static <V extends Comparable<? super V>> void addRange(List<Predicate> predicates, CriteriaBuilder cb,
+                                                           Path<V> path, V from, V to) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThanOrEqualTo(path, to));
+        }
+    }
+
+    static Predicate and(CriteriaBuilder cb, List<Predicate> predicates) {
+        return predicates.isEmpty() ? null : cb.and(predicates.toArray(new Predicate[0]));
+    }
+}
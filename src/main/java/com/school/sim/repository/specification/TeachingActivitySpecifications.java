@@ -0,0 +1,88 @@
+package com.school.sim.repository.specification;
+
+import com.school.sim.dto.request.TeachingActivitySearchRequest;
+import com.school.sim.entity.TeachingActivity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Predicate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dynamic search specifications for TeachingActivity
+ */
+public final class TeachingActivitySpecifications {
+
+    private static final Map<String, String> SORT_PROPERTIES = new HashMap<>();
+
+    static {
+        SORT_PROPERTIES.put("date", "date");
+        SORT_PROPERTIES.put("startTime", "startTime");
+        SORT_PROPERTIES.put("topic", "topic");
+        SORT_PROPERTIES.put("subject", "subject.namaMapel");
+        SORT_PROPERTIES.put("teacher", "teacher.firstName");
+    }
+
+    public static final Sort DEFAULT_SORT = Sort.by("date", "startTime", "id");
+
+    private TeachingActivitySpecifications() {
+    }
+
+    /**
+     * Filters of a search request, with schedule, teacher, classroom and subject fetched in the same query
+     */
+    public static Specification<TeachingActivity> search(TeachingActivitySearchRequest request) {
+        return matching(request).and(fetchAssociations());
+    }
+
+    /**
+     * Activities on a single date, with associations fetched
+     */
+    public static Specification<TeachingActivity> onDate(LocalDate date) {
+        return search(TeachingActivitySearchRequest.builder().date(date).build());
+    }
+
+    public static Specification<TeachingActivity> fetchAssociations() {
+        return SpecificationSupport.fetch("schedule", "classRoom", "subject", "teacher", "teacher.student");
+    }
+
+    public static Specification<TeachingActivity> matching(TeachingActivitySearchRequest request) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            SpecificationSupport.addEqual(predicates, cb, root.get("schedule").get("id"), request.getScheduleId());
+            SpecificationSupport.addEqual(predicates, cb, root.get("subject").get("id"), request.getSubjectId());
+            SpecificationSupport.addEqual(predicates, cb, root.get("classRoom").get("id"), request.getClassRoomId());
+            SpecificationSupport.addEqual(predicates, cb, root.get("teacher").get("id"), request.getTeacherId());
+            SpecificationSupport.addEqual(predicates, cb, root.get("date"), request.getDate());
+            SpecificationSupport.addEqual(predicates, cb, root.get("isCompleted"), request.getIsCompleted());
+            SpecificationSupport.addIn(predicates, root.get("schedule").get("id"), request.getScheduleIds());
+            SpecificationSupport.addIn(predicates, root.get("subject").get("id"), request.getSubjectIds());
+            SpecificationSupport.addIn(predicates, root.get("classRoom").get("id"), request.getClassRoomIds());
+            SpecificationSupport.addIn(predicates, root.get("teacher").get("id"), request.getTeacherIds());
+            SpecificationSupport.addRange(predicates, cb, root.get("date"), request.getStartDate(), request.getEndDate());
+            if (request.getStartTime() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("startTime"), request.getStartTime()));
+            }
+            if (request.getEndTime() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("endTime"), request.getEndTime()));
+            }
+            if (request.getTopic() != null && !request.getTopic().isEmpty()) {
+                predicates.add(cb.like(cb.lower(root.get("topic")), "%" + request.getTopic().toLowerCase() + "%"));
+            }
+            return SpecificationSupport.and(cb, predicates);
+        };
+    }
+
+    /**
+     * Page request honouring the request's sortBy/sortDirection when the pageable carries no sort
+     */
+    public static Pageable pageRequest(TeachingActivitySearchRequest request, Pageable pageable) {
+        return SpecificationSupport.pageRequest(pageable, request.getSortBy(), request.getSortDirection(),
+                SORT_PROPERTIES, DEFAULT_SORT);
+    }
+}
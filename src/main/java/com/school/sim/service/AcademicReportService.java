@@ -7,6 +7,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
@@ -177,6 +179,12 @@ public interface AcademicReportService {
      */
     ByteArrayOutputStream exportTranscriptToPDF(Long studentId, String academicYear, Integer semester);
 
+    /**
+     * Render the transcripts of every student in a class, as one merged PDF or a ZIP with a PDF per student
+     */
+    void streamClassTranscripts(Long classRoomId, String academicYear, Integer semester, boolean zip,
+                                OutputStream outputStream) throws IOException;
+
     /**
      * Export class report to Excel
      */
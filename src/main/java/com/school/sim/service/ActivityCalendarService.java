@@ -0,0 +1,51 @@
+package com.school.sim.service;
+
+import com.school.sim.util.ActivityCalendarEntry;
+import com.school.sim.util.ActivityCalendarMonth;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service interface for the month-bucketed teacher and class room activity calendars
+ * Buckets are loaded with one projection query on first use and kept up to date by activity writes.
+ */
+public interface ActivityCalendarService {
+
+    String CLASS_ROOM = "CLASS";
+    String TEACHER = "TEACHER";
+
+    /**
+     * Get a teacher's or class room's activities in a month
+     */
+    ActivityCalendarMonth getMonth(String ownerType, Long ownerId, YearMonth month);
+
+    /**
+     * Get a teacher's or class room's activities dated within [startDate, endDate], read month by month
+     */
+    List<ActivityCalendarEntry> getEntries(String ownerType, Long ownerId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Apply a created (previous null), updated or deleted (current null) activity once the transaction commits
+     */
+    void activityChanged(ActivityCalendarEntry previous, ActivityCalendarEntry current);
+
+    /**
+     * Apply a batch of created activities once the transaction commits, rebuilding each affected bucket once
+     */
+    void activitiesCreated(Collection<ActivityCalendarEntry> entries);
+
+    /**
+     * Drop the activities of a schedule about to be deleted, which the delete cascades to, once the transaction
+     * commits; call before deleting the schedule
+     */
+    void scheduleDeleted(Long scheduleId);
+
+    /**
+     * Get calendar cache statistics (cached months, hit and load counts)
+     */
+    Map<String, Object> getStatistics();
+}
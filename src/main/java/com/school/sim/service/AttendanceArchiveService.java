@@ -0,0 +1,55 @@
+package com.school.sim.service;
+
+import com.school.sim.entity.Student;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service interface for attendance cold-year archiving
+ * Moves closed academic years out of the hot attendances table and routes
+ * date-ranged aggregate queries to the hot table, the archive, or both
+ */
+public interface AttendanceArchiveService {
+
+    /**
+     * Archive every closed academic year that still has rows in the hot table
+     */
+    Map<String, Object> archiveClosedAcademicYears();
+
+    /**
+     * Archive an academic year (e.g. "2023/2024") and anything older still in the hot table
+     */
+    Map<String, Object> archiveAcademicYear(String academicYear);
+
+    /**
+     * Last date of the latest completed archive run; attendance through this date lives in the archive only.
+     * Null until a run has completed.
+     */
+    LocalDate getArchivedThrough();
+
+    /**
+     * Get archive statistics (rows per academic year, last run)
+     */
+    Map<String, Object> getArchiveStatistics();
+
+    // Routed aggregate queries; result shapes match the AttendanceRepository methods of the same name
+
+    List<Object[]> getAttendanceStatsByStudentAndDateBetween(Student student, LocalDate startDate, LocalDate endDate);
+
+    List<Object[]> getAttendanceSummaryByClassRoomAndDateBetween(Long classRoomId, LocalDate startDate,
+            LocalDate endDate);
+
+    List<Object[]> getDailyAttendanceStatistics(LocalDate startDate, LocalDate endDate);
+
+    List<Object[]> getMonthlyAttendanceReport(LocalDate startDate, LocalDate endDate);
+
+    List<Object[]> findAbsenteeismSummaries(LocalDate startDate, LocalDate endDate, Long minAbsences);
+
+    List<Object[]> findPerfectAttendanceSummaries(LocalDate startDate, LocalDate endDate);
+
+    Double calculateAttendanceRateForStudent(Student student, LocalDate startDate, LocalDate endDate);
+
+    Double calculateAttendanceRateForClassRoom(Long classRoomId, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,34 @@
+package com.school.sim.service;
+
+import com.school.sim.dto.request.BulkAttendanceRequest;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service interface for queued bulk attendance ingest
+ * Submissions are validated, acknowledged with an idempotency key and group-committed by a background writer
+ */
+public interface AttendanceIngestService {
+
+    /**
+     * Whether bulk attendance submissions should go through the ingest queue
+     */
+    boolean isEnabled();
+
+    /**
+     * Validate and enqueue a bulk submission; resubmitting the same idempotency key returns the original acknowledgement
+     * Keys are scoped to the current user, so the same key from another user is a separate submission
+     */
+    Map<String, Object> submit(BulkAttendanceRequest request, String idempotencyKey);
+
+    /**
+     * Get the status of one of the current user's submissions (QUEUED, COMMITTED or FAILED)
+     */
+    Optional<Map<String, Object>> getSubmissionStatus(String idempotencyKey);
+
+    /**
+     * Get ingest statistics (queue depth, batches, records per commit)
+     */
+    Map<String, Object> getIngestStatistics();
+}
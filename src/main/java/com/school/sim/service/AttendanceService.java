@@ -105,6 +105,7 @@ public interface AttendanceService {
 
     /**
      * Get attendance records by student and date range
+     * Reads the live table only; attendance of archived academic years is not returned
      */
     Page<AttendanceResponse> getAttendanceByStudentAndDateRange(Long studentId, 
                                                                LocalDate startDate, 
@@ -113,16 +114,19 @@ public interface AttendanceService {
 
     /**
      * Get attendance records by student and specific date
+     * Reads the live table only; attendance of archived academic years is not returned
      */
     List<AttendanceResponse> getAttendanceByStudentAndDate(Long studentId, LocalDate date);
 
     /**
      * Get attendance records by class room and date
+     * Reads the live table only; attendance of archived academic years is not returned
      */
     List<AttendanceResponse> getAttendanceByClassRoomAndDate(Long classRoomId, LocalDate date);
 
     /**
      * Get attendance records by class room and date range
+     * Reads the live table only; attendance of archived academic years is not returned
      */
     Page<AttendanceResponse> getAttendanceByClassRoomAndDateRange(Long classRoomId, 
                                                                  LocalDate startDate, 
@@ -131,6 +135,7 @@ public interface AttendanceService {
 
     /**
      * Get attendance records by teacher and date range
+     * Reads the live table only; attendance of archived academic years is not returned
      */
     Page<AttendanceResponse> getAttendanceByTeacherAndDateRange(Long teacherId, 
                                                                LocalDate startDate, 
@@ -139,6 +144,7 @@ public interface AttendanceService {
 
     /**
      * Get attendance records by subject and date range
+     * Reads the live table only; attendance of archived academic years is not returned
      */
     Page<AttendanceResponse> getAttendanceBySubjectAndDateRange(Long subjectId, 
                                                                LocalDate startDate, 
@@ -0,0 +1,37 @@
+package com.school.sim.service;
+
+import com.school.sim.dto.response.AttendanceDeltaEvent;
+import com.school.sim.entity.AttendanceStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Service interface for live attendance event streaming
+ * Fans committed attendance deltas out to SSE subscribers on this node and, via Redis, on every other node
+ */
+public interface AttendanceStreamService {
+
+    /**
+     * Open a server-sent event stream, optionally limited to one class room
+     */
+    SseEmitter subscribe(Long classRoomId);
+
+    /**
+     * Record a status change for a class on a date
+     * Deltas are merged per transaction and published only after commit;
+     * a null previous status means a new record, a null new status means a deletion
+     */
+    void recordChange(Long classRoomId, LocalDate date, AttendanceStatus previousStatus, AttendanceStatus newStatus);
+
+    /**
+     * Publish a delta to local subscribers and to other nodes
+     */
+    void publish(AttendanceDeltaEvent event);
+
+    /**
+     * Get stream statistics (subscribers, dropped events, resyncs)
+     */
+    Map<String, Object> getStreamStatistics();
+}
@@ -4,7 +4,10 @@ import com.school.sim.dto.response.StudentResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -15,9 +18,20 @@ public interface ExcelService {
 
     /**
      * Import students from Excel file
+     * Valid rows are inserted and invalid rows reported; imported students are not echoed back.
      */
     ImportResult importStudentsFromExcel(MultipartFile file);
 
+    /**
+     * Queue a student import in the background and return its job id
+     */
+    String startStudentImport(MultipartFile file);
+
+    /**
+     * Progress of a queued student import; row errors are included once the job has finished
+     */
+    Map<String, Object> getImportStatus(String jobId);
+
     /**
      * Export students to Excel file
      */
@@ -33,6 +47,12 @@ public interface ExcelService {
      */
     ByteArrayOutputStream exportAllStudentsToExcel();
 
+    /**
+     * Write students to Excel from a single cursor query as rows arrive; all students when classRoomId is null.
+     * The stream is left open.
+     */
+    void writeStudentsToExcel(Long classRoomId, OutputStream outputStream) throws IOException;
+
     /**
      * Generate student import template
      */
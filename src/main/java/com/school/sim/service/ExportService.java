@@ -1,5 +1,12 @@
 package com.school.sim.service;
 
+import com.school.sim.util.ContentCoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +32,24 @@ public interface ExportService {
      * Export multiple sheets to Excel
      */
     byte[] exportMultipleSheetsToExcel(Map<String, List<Map<String, Object>>> sheetsData, Map<String, List<String>> headersMap);
+
+    /**
+     * Write a report to Excel directly to a stream with bounded memory; the stream is left open
+     */
+    void streamToExcel(String reportType, Map<String, Object> data, Map<String, Object> options,
+                       OutputStream outputStream) throws IOException;
+
+    /**
+     * Write list data to Excel directly to a stream with bounded memory; the stream is left open
+     */
+    void streamListToExcel(List<Map<String, Object>> data, List<String> headers, String sheetName,
+                           OutputStream outputStream) throws IOException;
+
+    /**
+     * Write multiple sheets to Excel directly to a stream with bounded memory; the stream is left open
+     */
+    void streamMultipleSheetsToExcel(Map<String, List<Map<String, Object>>> sheetsData,
+                                     Map<String, List<String>> headersMap, OutputStream outputStream) throws IOException;
     
     /**
      * Export with Excel template
@@ -69,6 +94,38 @@ public interface ExportService {
      * Export multiple tables to CSV (ZIP format)
      */
     byte[] exportMultipleCSV(Map<String, List<Map<String, Object>>> tablesData, Map<String, List<String>> headersMap);
+
+    /**
+     * Write rows to CSV as the iterator yields them; without headers each row's values are written in key order.
+     * The stream is left open.
+     */
+    void streamToCSV(Iterator<? extends Map<String, Object>> rows, List<String> headers, String delimiter,
+                     OutputStream outputStream) throws IOException;
+
+    /**
+     * Write multiple tables as CSV entries of a ZIP archive directly to a stream; the stream is left open
+     */
+    void streamMultipleCSV(Map<String, List<Map<String, Object>>> tablesData, Map<String, List<String>> headersMap,
+                           OutputStream outputStream) throws IOException;
+
+    /**
+     * Write attendance records between two dates, archived years included, to CSV from a database cursor
+     */
+    void streamAttendanceCSV(LocalDate startDate, LocalDate endDate, Long classRoomId,
+                             OutputStream outputStream) throws IOException;
+
+    /**
+     * Write the student grades of a term to CSV from a database cursor; all semesters when semester is null
+     */
+    void streamGradesCSV(String academicYear, Integer semester, Long classRoomId,
+                         OutputStream outputStream) throws IOException;
+
+    /**
+     * Write a dataset as an Apache Parquet file from a database cursor, one row group at a time
+     * attendance is filtered by startDate and endDate (LocalDate), student_assessment and schedule by academicYear
+     * and an optional semester; classRoomId narrows any of them.
+     */
+    void streamParquet(String dataset, Map<String, Object> filters, OutputStream outputStream) throws IOException;
     
     // JSON Export
     
@@ -107,9 +164,19 @@ public interface ExportService {
     Map<String, Object> getExportJobStatus(String jobId);
     
     /**
-     * Get export job result
+     * Get export job result, waiting for the job to finish
      */
     byte[] getExportJobResult(String jobId);
+
+    /**
+     * Spool file holding the result of a completed export job
+     */
+    Path getExportJobFile(String jobId);
+
+    /**
+     * Content coding the result file of a completed async export is stored in
+     */
+    ContentCoding getExportJobEncoding(String jobId);
     
     /**
      * Cancel export job
@@ -117,7 +184,7 @@ public interface ExportService {
     void cancelExportJob(String jobId);
     
     /**
-     * Clean up completed export jobs
+     * Clean up finished export jobs and their spool files
      */
     void cleanupCompletedJobs(int hoursOld);
     
@@ -171,6 +238,18 @@ public interface ExportService {
      * Compress export data
      */
     byte[] compressExportData(byte[] data, String compressionType);
+
+    /**
+     * Content coding for a response in the given format, picked from the client's Accept-Encoding header
+     * Formats that are compressed already, such as Excel and ZIP, are always sent as they are. Null when the client
+     * refuses identity and none of the codings on offer is acceptable.
+     */
+    ContentCoding negotiateContentCoding(String acceptEncoding, String format);
+
+    /**
+     * Write a response body through a content coding at the configured compression level
+     */
+    void writeEncoded(ContentCoding coding, OutputStream outputStream, ContentCoding.Body body) throws IOException;
     
     /**
      * Create ZIP archive with multiple files
@@ -195,7 +274,7 @@ public interface ExportService {
     Map<String, Object> checkExportDataQuality(Map<String, Object> data);
     
     /**
-     * Estimate export file size
+     * Estimate rows and bytes of an export before it runs
      */
     Map<String, Object> estimateExportSize(Map<String, Object> data, String format);
     
@@ -227,14 +306,19 @@ public interface ExportService {
      * Export multiple reports in batch
      */
     Map<String, byte[]> batchExport(List<Map<String, Object>> exportRequests);
+
+    /**
+     * Render the reports of a batch in parallel and stream them into a ZIP archive as they finish
+     */
+    void streamBatchExport(List<Map<String, Object>> exportRequests, OutputStream outputStream) throws IOException;
     
     /**
-     * Schedule batch export
+     * Schedule batch export; it starts now, or once at the next time the cron expression matches
      */
     String scheduleBatchExport(List<Map<String, Object>> exportRequests, String cronExpression);
     
     /**
-     * Get batch export status
+     * Get batch export status, with the progress of every part
      */
     Map<String, Object> getBatchExportStatus(String batchId);
     
@@ -254,6 +338,26 @@ public interface ExportService {
      * Get export statistics
      */
     Map<String, Object> getExportStatistics(String period);
+
+    /**
+     * Running and queued async exports, per user and in total, with queue wait times
+     */
+    Map<String, Object> getAdmissionStatistics();
+
+    /**
+     * Take one of the async export slots, overall and per user, for an export streamed on the request thread
+     * Synchronous exports are never queued: without a free slot this throws ExportRejectedException.
+     */
+    ExportPermit acquireExportPermit(String exportType);
+
+    /**
+     * Slot of a synchronous export, given back on close; closing it again does nothing
+     */
+    interface ExportPermit extends AutoCloseable {
+
+        @Override
+        void close();
+    }
     
     // Utility Methods
     
@@ -1,6 +1,7 @@
 package com.school.sim.service;
 
 import com.school.sim.dto.request.*;
+import com.school.sim.dto.response.BulkScheduleResult;
 import com.school.sim.dto.response.ScheduleResponse;
 import com.school.sim.dto.response.TimetableResponse;
 import org.springframework.data.domain.Page;
@@ -47,6 +48,11 @@ public interface ScheduleService {
      */
     List<ScheduleResponse> createBulkSchedules(BulkScheduleRequest request);
 
+    /**
+     * Create multiple schedules in bulk, reporting rejected entries per row
+     */
+    BulkScheduleResult bulkCreateSchedules(BulkScheduleRequest request);
+
     /**
      * Get schedules by class room
      */
@@ -72,6 +78,12 @@ public interface ScheduleService {
      */
     TimetableResponse generateTeacherTimetable(Long teacherId, String academicYear, Integer semester);
 
+    /**
+     * Get the version tag of a class (CLASS) or teacher (TEACHER) timetable for use as an ETag, without touching
+     * the database; null when no tag is available
+     */
+    String getTimetableVersion(String entityType, Long entityId, String academicYear, Integer semester);
+
     /**
      * Generate subject timetable
      */
@@ -187,6 +199,12 @@ public interface ScheduleService {
     List<ScheduleResponse> cloneClassSchedule(Long fromClassRoomId, Long toClassRoomId, 
                                              String academicYear, Integer semester);
 
+    /**
+     * Clone active schedules between academic periods with class room and teacher substitution,
+     * rejecting the clone if it would conflict with the target period
+     */
+    List<ScheduleResponse> cloneSchedules(CloneScheduleRequest request);
+
     /**
      * Archive old schedules
      */
@@ -9,6 +9,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Service interface for teaching activity management functionality
@@ -93,6 +94,13 @@ public interface TeachingActivityService {
                                                                        LocalDate startDate, 
                                                                        LocalDate endDate);
 
+    /**
+     * Generate activities for every active schedule of an academic period over a date range, skipping holidays
+     * and (schedule, date) pairs that already have an activity, so re-running is safe
+     */
+    Map<String, Object> generateActivitiesForPeriod(String academicYear, Integer semester, LocalDate startDate,
+                                                    LocalDate endDate, Set<LocalDate> holidays);
+
     /**
      * Get teaching activity statistics for teacher
      */
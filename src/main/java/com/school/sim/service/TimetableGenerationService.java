@@ -0,0 +1,40 @@
+package com.school.sim.service;
+
+import com.school.sim.dto.request.CreateScheduleRequest;
+import com.school.sim.dto.request.TimetableGenerationRequest;
+import com.school.sim.dto.response.BulkScheduleResult;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service interface for automatic timetable generation
+ * Generation runs as an asynchronous job; its best timetable so far can be read at any time and applied once done
+ */
+public interface TimetableGenerationService {
+
+    /**
+     * Validate the request and queue a generation job, returning its id
+     */
+    String startGeneration(TimetableGenerationRequest request);
+
+    /**
+     * Get job status, progress and the quality of the best timetable found so far
+     */
+    Map<String, Object> getGenerationStatus(String jobId);
+
+    /**
+     * Get the best timetable found so far as schedule entries, merging consecutive periods into one entry
+     */
+    List<CreateScheduleRequest> getGenerationResult(String jobId);
+
+    /**
+     * Create the schedules of a finished, conflict-free generation job
+     */
+    BulkScheduleResult applyGeneration(String jobId);
+
+    /**
+     * Stop a queued or running job, keeping its best timetable so far
+     */
+    void cancelGeneration(String jobId);
+}
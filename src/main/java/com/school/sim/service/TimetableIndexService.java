@@ -0,0 +1,75 @@
+package com.school.sim.service;
+
+import com.school.sim.entity.Schedule;
+import com.school.sim.util.ScheduleSlot;
+import com.school.sim.util.TimetableIndex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Service interface for the in-memory timetable interval index
+ * Keeps one TimetableIndex per (academic year, semester) so availability and conflict checks avoid the database
+ */
+public interface TimetableIndexService {
+
+    String CLASS_ROOM = "CLASS";
+    String TEACHER = "TEACHER";
+
+    /**
+     * Get the index for an academic period, loading it on first use
+     */
+    TimetableIndex getIndex(String academicYear, Integer semester);
+
+    /**
+     * Find a schedule's slot, from the index when its term is loaded or from the database otherwise
+     */
+    Optional<ScheduleSlot> findSlot(Long scheduleId);
+
+    /**
+     * Apply a created or updated schedule to the index; affected terms are reloaded if the transaction rolls back
+     */
+    void scheduleSaved(Schedule schedule);
+
+    /**
+     * Apply a batch of created schedules with one index rebuild per affected term
+     */
+    void schedulesSaved(List<Schedule> schedules);
+
+    /**
+     * Remove a deleted schedule from the index; affected terms are reloaded if the transaction rolls back
+     */
+    void scheduleDeleted(Long scheduleId);
+
+    /**
+     * Get the version tag of a class room or teacher timetable in a term, answered from memory; it changes once a
+     * write to one of the entity's schedules in that term completes, once names are reported changed, and when the
+     * timetable cache time-to-live runs out. Null when the index is disabled.
+     */
+    String getVersionTag(String entityType, Long entityId, String academicYear, Integer semester);
+
+    /**
+     * Report that a class room, teacher or subject name shown on timetables changed, so every version tag changes
+     * once the transaction completes
+     */
+    void namesChanged();
+
+    /**
+     * Return a rendered timetable view from the cache if it was rendered at the entity's current version tag,
+     * otherwise render and cache it
+     */
+    <T> T getOrRender(String view, String entityType, Long entityId, String academicYear, Integer semester,
+                      Supplier<T> renderer);
+
+    /**
+     * Rebuild the index for every academic period from the database
+     */
+    Map<String, Object> rebuild();
+
+    /**
+     * Get index statistics (loaded terms, indexed schedules, hit and load counts, rendered view cache)
+     */
+    Map<String, Object> getIndexStatistics();
+}
@@ -3,30 +3,105 @@ package com.school.sim.service.impl;
 import com.school.sim.dto.request.AcademicReportRequest;
 import com.school.sim.dto.response.AcademicReportResponse;
 import com.school.sim.dto.response.TranscriptResponse;
+import com.school.sim.exception.ResourceNotFoundException;
 import com.school.sim.service.AcademicReportService;
+import com.school.sim.util.GradingScale;
+import com.school.sim.util.StreamingPdfWriter;
+import com.school.sim.util.TranscriptPdfLayout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Basic implementation of AcademicReportService
- * For development purposes - provides stub implementations
+ * Transcripts are built from two set-based queries and rendered to PDF; the other reports are still stubs
  */
 @Service
 public class AcademicReportServiceImpl implements AcademicReportService {
 
     private static final Logger logger = LoggerFactory.getLogger(AcademicReportServiceImpl.class);
 
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    // Lowest final score of a passed subject, grade D
+    private static final double PASSING_PERCENTAGE = 60;
+
+    private static final String TRANSCRIPT_STUDENTS_SQL =
+            "SELECT s.id, s.nis, s.nama_lengkap, s.status, c.name, m.name FROM students s " +
+            "LEFT JOIN class_rooms c ON c.id = s.class_room_id LEFT JOIN majors m ON m.id = c.major_id";
+
+    // Ordered by period and subject so every transcript is assembled in a single pass
+    private static final String TRANSCRIPT_GRADES_SQL =
+            "SELECT sa.student_id, asm.academic_year, asm.semester, sub.kode_mapel, sub.nama_mapel, sub.sks, " +
+            "asm.title, asm.type, sa.score, asm.max_score, asm.weight, asm.due_date, sa.grade " +
+            "FROM student_assessments sa JOIN assessments asm ON asm.id = sa.assessment_id " +
+            "JOIN subjects sub ON sub.id = asm.subject_id JOIN students s ON s.id = sa.student_id " +
+            "WHERE sa.score IS NOT NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.reports.transcript.school-name:School Information Management System}")
+    private String schoolName;
+
+    // Transcripts rendered at once, 0 for one per core
+    @Value("${app.reports.transcript.max-threads:0}")
+    private int transcriptMaxThreads;
+
+    private TranscriptPdfLayout transcriptLayout;
+    private ExecutorService renderPool;
+    private int maxTranscriptsInFlight;
+
+    @PostConstruct
+    public void start() {
+        transcriptLayout = new TranscriptPdfLayout(schoolName);
+        int threads = transcriptMaxThreads > 0 ? transcriptMaxThreads : Runtime.getRuntime().availableProcessors();
+        renderPool = Executors.newFixedThreadPool(threads, namedThreads("transcript-render"));
+        maxTranscriptsInFlight = threads * 2;
+    }
+
+    @PreDestroy
+    public void stop() {
+        renderPool.shutdownNow();
+    }
+
     @Override
     public AcademicReportResponse generateAcademicReport(AcademicReportRequest request) {
         logger.info("Academic report generation requested");
@@ -41,23 +116,18 @@ public class AcademicReportServiceImpl implements AcademicReportService {
     @Override
     public TranscriptResponse generateStudentTranscript(Long studentId, String academicYear, Integer semester) {
         logger.info("Student transcript generation requested for student ID: {}", studentId);
-        
-        TranscriptResponse response = new TranscriptResponse();
-        // Basic stub implementation
-        
-        logger.info("Student transcript generated - stub implementation");
-        return response;
+
+        List<TranscriptResponse> transcripts = loadTranscripts("s.id", studentId, academicYear, semester);
+        if (transcripts.isEmpty()) {
+            throw new ResourceNotFoundException("Student not found with ID: " + studentId);
+        }
+        return transcripts.get(0);
     }
 
     @Override
     public TranscriptResponse generateCompleteStudentTranscript(Long studentId) {
         logger.info("Complete student transcript generation requested for student ID: {}", studentId);
-        
-        TranscriptResponse response = new TranscriptResponse();
-        // Basic stub implementation
-        
-        logger.info("Complete student transcript generated - stub implementation");
-        return response;
+        return generateStudentTranscript(studentId, null, null);
     }
 
     @Override
@@ -246,7 +316,142 @@ public class AcademicReportServiceImpl implements AcademicReportService {
     @Override
     public ByteArrayOutputStream exportTranscriptToPDF(Long studentId, String academicYear, Integer semester) {
         logger.info("Transcript PDF export requested for student ID: {}", studentId);
-        return new ByteArrayOutputStream();
+
+        TranscriptResponse transcript = generateStudentTranscript(studentId, academicYear, semester);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            transcriptLayout.writeDocument(transcript, outputStream);
+        } catch (IOException e) {
+            throw new RuntimeException("Transcript PDF export failed", e);
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void streamClassTranscripts(Long classRoomId, String academicYear, Integer semester, boolean zip,
+                                       OutputStream outputStream) throws IOException {
+        long started = System.currentTimeMillis();
+        List<TranscriptResponse> transcripts = loadTranscripts("s.class_room_id", classRoomId, academicYear, semester);
+        if (transcripts.isEmpty()) {
+            throw new ResourceNotFoundException("No students found in class room: " + classRoomId);
+        }
+        long loaded = System.currentTimeMillis();
+
+        if (zip) {
+            ZipOutputStream zipStream = new ZipOutputStream(outputStream);
+            // Page streams are deflated already
+            zipStream.setLevel(Deflater.NO_COMPRESSION);
+            renderInOrder(transcripts, transcript -> {
+                ByteArrayOutputStream document = new ByteArrayOutputStream(16 * 1024);
+                try {
+                    transcriptLayout.writeDocument(transcript, document);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                return document.toByteArray();
+            }, (transcript, document) -> {
+                TranscriptResponse.StudentInfo student = transcript.getStudent();
+                zipStream.putNextEntry(new ZipEntry((student.getStudentNumber() + "_" + student.getFullName())
+                        .replaceAll("[^A-Za-z0-9._-]+", "_") + ".pdf"));
+                zipStream.write(document);
+                zipStream.closeEntry();
+            });
+            zipStream.finish();
+            zipStream.flush();
+        } else {
+            StreamingPdfWriter writer = new StreamingPdfWriter(outputStream);
+            renderInOrder(transcripts, transcriptLayout::render, (transcript, pages) -> {
+                for (StreamingPdfWriter.Page page : pages) {
+                    writer.addPage(page);
+                }
+            });
+            writer.finish();
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        logger.info("Rendered {} transcripts of class room {} in {} ms (data {} ms, {} transcripts/s)",
+                transcripts.size(), classRoomId, elapsed, loaded - started, transcripts.size() * 1000L / elapsed);
+    }
+
+    /**
+     * Render transcripts on the render pool and write the results in list order
+     * At most maxTranscriptsInFlight rendered transcripts wait for the writer, so memory stays bounded for any
+     * class size while every core renders.
+     */
+    private <T> void renderInOrder(List<TranscriptResponse> transcripts, Function<TranscriptResponse, T> render,
+                                   RenderedWriter<T> writer) throws IOException {
+        Deque<Future<T>> inFlight = new ArrayDeque<>();
+        Iterator<TranscriptResponse> pending = transcripts.iterator();
+        Iterator<TranscriptResponse> written = transcripts.iterator();
+        try {
+            while (written.hasNext()) {
+                while (pending.hasNext() && inFlight.size() < maxTranscriptsInFlight) {
+                    TranscriptResponse transcript = pending.next();
+                    inFlight.add(renderPool.submit(() -> render.apply(transcript)));
+                }
+                writer.write(written.next(), inFlight.poll().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Transcript rendering interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Transcript rendering failed", e.getCause());
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RenderedWriter<T> {
+        void write(TranscriptResponse transcript, T rendered) throws IOException;
+    }
+
+    /**
+     * Transcripts of every student matching the filter column, ordered by name, from one student query and one
+     * grade query; academicYear and semester are optional
+     */
+    private List<TranscriptResponse> loadTranscripts(String studentColumn, Long id, String academicYear,
+                                                     Integer semester) {
+        Map<Long, TranscriptBuilder> builders = new LinkedHashMap<>();
+        jdbcTemplate.query(TRANSCRIPT_STUDENTS_SQL + " WHERE " + studentColumn + " = ? ORDER BY s.nama_lengkap",
+                (RowCallbackHandler) rs -> builders.put(rs.getLong(1), new TranscriptBuilder(
+                        TranscriptResponse.StudentInfo.builder()
+                                .id(rs.getLong(1))
+                                .studentNumber(rs.getString(2))
+                                .fullName(rs.getString(3))
+                                .status(rs.getString(4))
+                                .className(rs.getString(5))
+                                .majorName(rs.getString(6))
+                                .build(), academicYear, semester)), id);
+        if (builders.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        StringBuilder sql = new StringBuilder(TRANSCRIPT_GRADES_SQL).append(" AND ").append(studentColumn).append(" = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(id);
+        if (academicYear != null) {
+            sql.append(" AND asm.academic_year = ?");
+            args.add(academicYear);
+        }
+        if (semester != null) {
+            sql.append(" AND asm.semester = ?");
+            args.add(semester);
+        }
+        sql.append(" ORDER BY asm.academic_year, asm.semester, sub.nama_mapel, asm.id");
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+            TranscriptBuilder builder = builders.get(rs.getLong(1));
+            if (builder != null) {
+                builder.add(rs);
+            }
+        }, args.toArray());
+
+        List<TranscriptResponse> transcripts = new ArrayList<>(builders.size());
+        LocalDateTime generatedAt = LocalDateTime.now();
+        for (TranscriptBuilder builder : builders.values()) {
+            transcripts.add(builder.build(generatedAt));
+        }
+        return transcripts;
     }
 
     @Override
@@ -326,4 +531,170 @@ public class AcademicReportServiceImpl implements AcademicReportService {
         logger.info("Academic intervention recommendations requested");
         return new ArrayList<>();
     }
-}
\ No newline at end of file
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Grade rows of one student, folded into periods and subjects as they arrive
+     */
+    private static final class TranscriptBuilder {
+
+        private final TranscriptResponse.StudentInfo student;
+        private final String academicYear;
+        private final Integer semester;
+        private final Map<String, Map<String, SubjectScores>> periods = new LinkedHashMap<>();
+
+        TranscriptBuilder(TranscriptResponse.StudentInfo student, String academicYear, Integer semester) {
+            this.student = student;
+            this.academicYear = academicYear;
+            this.semester = semester;
+        }
+
+        void add(ResultSet rs) throws SQLException {
+            String period = rs.getString(2) + "#" + rs.getInt(3);
+            String subjectCode = rs.getString(4);
+            SubjectScores subject = periods.computeIfAbsent(period, key -> new LinkedHashMap<>())
+                    .get(subjectCode);
+            if (subject == null) {
+                int credits = rs.getInt(6);
+                subject = new SubjectScores(subjectCode, rs.getString(5), rs.wasNull() ? null : credits);
+                periods.get(period).put(subjectCode, subject);
+            }
+
+            BigDecimal score = rs.getBigDecimal(9);
+            BigDecimal maxScore = rs.getBigDecimal(10);
+            BigDecimal weight = rs.getBigDecimal(11);
+            BigDecimal percentage = maxScore != null && maxScore.signum() > 0
+                    ? score.multiply(HUNDRED).divide(maxScore, 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+            subject.add(percentage.doubleValue(), weight != null ? weight.doubleValue() : 0);
+
+            Date dueDate = rs.getDate(12);
+            subject.assessments.add(TranscriptResponse.AssessmentRecord.builder()
+                    .title(rs.getString(7))
+                    .type(rs.getString(8))
+                    .score(score)
+                    .maxScore(maxScore)
+                    .percentage(percentage)
+                    .grade(rs.getString(13) != null ? rs.getString(13)
+                            : GradingScale.letterGrade(percentage.doubleValue()))
+                    .weight(weight)
+                    .assessmentDate(dueDate != null ? dueDate.toLocalDate() : null)
+                    .build());
+        }
+
+        TranscriptResponse build(LocalDateTime generatedAt) {
+            List<TranscriptResponse.AcademicPeriod> academicPeriods = new ArrayList<>(periods.size());
+            double cumulativePoints = 0;
+            double cumulativeWeight = 0;
+            int attempted = 0;
+            int earned = 0;
+
+            for (Map.Entry<String, Map<String, SubjectScores>> entry : periods.entrySet()) {
+                List<TranscriptResponse.SubjectRecord> subjects = new ArrayList<>(entry.getValue().size());
+                double points = 0;
+                double weight = 0;
+                int periodCredits = 0;
+                int periodEarned = 0;
+                for (SubjectScores scores : entry.getValue().values()) {
+                    double finalScore = scores.finalScore();
+                    boolean passed = finalScore >= PASSING_PERCENTAGE;
+                    int credits = scores.credits != null ? scores.credits : 0;
+                    // Subjects without credits count once, so a term of such subjects still gets a GPA
+                    double gpaWeight = credits > 0 ? credits : 1;
+                    points += GradingScale.gradePoints(finalScore) * gpaWeight;
+                    weight += gpaWeight;
+                    periodCredits += credits;
+                    periodEarned += passed ? credits : 0;
+                    subjects.add(TranscriptResponse.SubjectRecord.builder()
+                            .subjectCode(scores.code)
+                            .subjectName(scores.name)
+                            .credits(scores.credits)
+                            .finalGrade(BigDecimal.valueOf(finalScore).setScale(2, RoundingMode.HALF_UP))
+                            .letterGrade(GradingScale.letterGrade(finalScore))
+                            .status(passed ? "PASSED" : "FAILED")
+                            .assessments(scores.assessments)
+                            .build());
+                }
+                cumulativePoints += points;
+                cumulativeWeight += weight;
+                attempted += periodCredits;
+                earned += periodEarned;
+
+                String[] period = entry.getKey().split("#");
+                academicPeriods.add(TranscriptResponse.AcademicPeriod.builder()
+                        .academicYear(period[0])
+                        .semester(Integer.valueOf(period[1]))
+                        .subjects(subjects)
+                        .semesterGPA(gpa(points, weight))
+                        .cumulativeGPA(gpa(cumulativePoints, cumulativeWeight))
+                        .totalCredits(periodCredits)
+                        .earnedCredits(periodEarned)
+                        .status(periodEarned == periodCredits ? "COMPLETED" : "INCOMPLETE")
+                        .build());
+            }
+
+            BigDecimal overallGPA = gpa(cumulativePoints, cumulativeWeight);
+            TranscriptResponse.TranscriptSummary summary = TranscriptResponse.TranscriptSummary.builder()
+                    .overallGPA(overallGPA)
+                    .totalCreditsAttempted(attempted)
+                    .totalCreditsEarned(earned)
+                    .completionRate(attempted > 0 ? BigDecimal.valueOf(earned * 100.0 / attempted)
+                            .setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO)
+                    .academicStanding(GradingScale.academicStanding(overallGPA.doubleValue()))
+                    .honors(new ArrayList<>())
+                    .remarks(new ArrayList<>())
+                    .build();
+
+            return TranscriptResponse.builder()
+                    .student(student)
+                    .academicPeriods(academicPeriods)
+                    .summary(summary)
+                    .generatedAt(generatedAt)
+                    .transcriptId("TR-" + student.getId() + (academicYear != null ? "-" + academicYear : "")
+                            + (semester != null ? "-" + semester : ""))
+                    .build();
+        }
+
+        private static BigDecimal gpa(double points, double weight) {
+            return BigDecimal.valueOf(weight > 0 ? points / weight : 0).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
+    /**
+     * Assessment percentages of one subject; the final score is their weighted mean
+     */
+    private static final class SubjectScores {
+
+        final String code;
+        final String name;
+        final Integer credits;
+        final List<TranscriptResponse.AssessmentRecord> assessments = new ArrayList<>();
+        private double weightedSum;
+        private double weightSum;
+        private double plainSum;
+
+        SubjectScores(String code, String name, Integer credits) {
+            this.code = code;
+            this.name = name;
+            this.credits = credits;
+        }
+
+        void add(double percentage, double weight) {
+            weightedSum += percentage * weight;
+            weightSum += weight;
+            plainSum += percentage;
+        }
+
+        double finalScore() {
+            // Without weights every assessment counts the same
+            return weightSum > 0 ? weightedSum / weightSum : plainSum / assessments.size();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.school.sim.service.impl;
+
+import com.school.sim.exception.ValidationException;
+import com.school.sim.repository.TeachingActivityRepository;
+import com.school.sim.service.ActivityCalendarService;
+import com.school.sim.util.ActivityCalendarEntry;
+import com.school.sim.util.ActivityCalendarMonth;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of ActivityCalendarService
+ * Buckets are immutable and cached per (owner, month) in a bounded LRU map. Activity writes are applied to cached
+ * buckets after commit, so readers never see uncommitted activities and a rollback leaves nothing to undo. A bucket
+ * loaded while a write was being applied is used once but not cached, since it may predate that write.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActivityCalendarServiceImpl implements ActivityCalendarService {
+
+    private final TeachingActivityRepository teachingActivityRepository;
+
+    @Value("${app.teaching-activity.calendar.enabled:true}")
+    private boolean calendarEnabled;
+
+    @Value("${app.teaching-activity.calendar.max-months:5000}")
+    private int maxCachedMonths;
+
+    private final Map<String, ActivityCalendarMonth> months = new LinkedHashMap<String, ActivityCalendarMonth>(
+            16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ActivityCalendarMonth> eldest) {
+            return size() > maxCachedMonths;
+        }
+    };
+    private final Object lock = new Object();
+    private long appliedWrites;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    @Override
+    public ActivityCalendarMonth getMonth(String ownerType, Long ownerId, YearMonth month) {
+        String key = bucketKey(ownerType, ownerId, month);
+        long writesBeforeLoad;
+        synchronized (lock) {
+            ActivityCalendarMonth cached = months.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            writesBeforeLoad = appliedWrites;
+        }
+
+        ActivityCalendarMonth loaded = ActivityCalendarMonth.build(month, load(ownerType, ownerId, month));
+        loads.incrementAndGet();
+        if (calendarEnabled) {
+            synchronized (lock) {
+                if (appliedWrites == writesBeforeLoad) {
+                    months.put(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public List<ActivityCalendarEntry> getEntries(String ownerType, Long ownerId, LocalDate startDate,
+                                                  LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new ValidationException("End date must not be before start date");
+        }
+        List<ActivityCalendarEntry> entries = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate));
+             month = month.plusMonths(1)) {
+            entries.addAll(getMonth(ownerType, ownerId, month).between(startDate, endDate));
+        }
+        return entries;
+    }
+
+    @Override
+    public void activityChanged(ActivityCalendarEntry previous, ActivityCalendarEntry current) {
+        afterCommit(() -> {
+            synchronized (lock) {
+                appliedWrites++;
+                if (previous != null) {
+                    for (String key : bucketKeys(previous)) {
+                        months.computeIfPresent(key, (k, bucket) -> bucket.without(previous.getActivityId()));
+                    }
+                }
+                if (current != null) {
+                    for (String key : bucketKeys(current)) {
+                        months.computeIfPresent(key, (k, bucket) -> bucket.with(current));
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void activitiesCreated(Collection<ActivityCalendarEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<String, List<ActivityCalendarEntry>> byBucket = new HashMap<>();
+        for (ActivityCalendarEntry entry : entries) {
+            for (String key : bucketKeys(entry)) {
+                byBucket.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+            }
+        }
+        afterCommit(() -> {
+            synchronized (lock) {
+                appliedWrites++;
+                byBucket.forEach((key, added) -> months.computeIfPresent(key, (k, bucket) -> bucket.withAll(added)));
+            }
+        });
+    }
+
+    @Override
+    public void scheduleDeleted(Long scheduleId) {
+        if (!calendarEnabled) {
+            return;
+        }
+        Map<String, Set<Long>> byBucket = new HashMap<>();
+        for (ActivityCalendarEntry entry : teachingActivityRepository.findCalendarEntriesBySchedule(scheduleId)) {
+            for (String key : bucketKeys(entry)) {
+                byBucket.computeIfAbsent(key, k -> new HashSet<>()).add(entry.getActivityId());
+            }
+        }
+        if (byBucket.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (lock) {
+                appliedWrites++;
+                byBucket.forEach((key, removed) ->
+                        months.computeIfPresent(key, (k, bucket) -> bucket.withoutAll(removed)));
+            }
+        });
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        synchronized (lock) {
+            statistics.put("cachedMonths", months.size());
+            statistics.put("cachedActivities", months.values().stream().mapToInt(ActivityCalendarMonth::size).sum());
+        }
+        statistics.put("enabled", calendarEnabled);
+        statistics.put("maxCachedMonths", maxCachedMonths);
+        statistics.put("hits", hits.get());
+        statistics.put("loads", loads.get());
+        return statistics;
+    }
+
+    private List<ActivityCalendarEntry> load(String ownerType, Long ownerId, YearMonth month) {
+        LocalDate startDate = month.atDay(1);
+        LocalDate endDate = month.atEndOfMonth();
+        if (TEACHER.equals(ownerType)) {
+            return teachingActivityRepository.findCalendarEntriesByTeacher(ownerId, startDate, endDate);
+        }
+        if (CLASS_ROOM.equals(ownerType)) {
+            return teachingActivityRepository.findCalendarEntriesByClassRoom(ownerId, startDate, endDate);
+        }
+        throw new ValidationException("Unknown calendar owner type: " + ownerType);
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    change.run();
+                }
+            }
+        });
+    }
+
+    private static List<String> bucketKeys(ActivityCalendarEntry entry) {
+        YearMonth month = YearMonth.from(entry.getDate());
+        return Arrays.asList(bucketKey(TEACHER, entry.getTeacherId(), month),
+                bucketKey(CLASS_ROOM, entry.getClassRoomId(), month));
+    }
+
+    private static String bucketKey(String ownerType, Long ownerId, YearMonth month) {
+        return ownerType + "#" + ownerId + "#" + month;
+    }
+}
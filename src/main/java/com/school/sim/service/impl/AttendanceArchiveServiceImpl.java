@@ -0,0 +1,416 @@
+package com.school.sim.service.impl;
+
+import com.school.sim.entity.AttendanceArchiveRun;
+import com.school.sim.entity.AttendanceStatus;
+import com.school.sim.entity.Student;
+import com.school.sim.exception.ValidationException;
+import com.school.sim.repository.AttendanceArchiveRepository;
+import com.school.sim.repository.AttendanceArchiveRunRepository;
+import com.school.sim.repository.AttendanceRepository;
+import com.school.sim.service.AttendanceArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of AttendanceArchiveService
+ * Closed academic years are moved in id batches (copy + delete per transaction) into attendances_archive,
+ * which is partitioned per academic year. Reads split their date range at the archive boundary so
+ * current-year queries never touch the archive and historical reports still see every row.
+ * The boundary is published in attendance_archive_runs once a run has moved everything through it. Closed dates
+ * after it may sit in either table while a run is moving them, so both are read for those dates.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AttendanceArchiveServiceImpl implements AttendanceArchiveService {
+
+    private static final String SELECT_BATCH_IDS_SQL =
+            "SELECT a.id FROM attendances a JOIN teaching_activities ta ON ta.id = a.teaching_activity_id " +
+            "WHERE ta.date <= :cutoff ORDER BY a.id LIMIT :limit";
+
+    private static final String COPY_TO_ARCHIVE_SQL =
+            "INSERT INTO attendances_archive (id, teaching_activity_id, student_id, class_room_id, teacher_id, " +
+            "subject_id, activity_date, start_time, status, keterangan, recorded_by, academic_year, " +
+            "created_at, updated_at, archived_at) " +
+            "SELECT a.id, a.teaching_activity_id, a.student_id, ta.class_room_id, ta.teacher_id, ta.subject_id, " +
+            "ta.date, ta.start_time, a.status, a.keterangan, a.recorded_by, " +
+            "CASE WHEN MONTH(ta.date) >= 8 THEN CONCAT(YEAR(ta.date), '/', YEAR(ta.date) + 1) " +
+            "ELSE CONCAT(YEAR(ta.date) - 1, '/', YEAR(ta.date)) END, " +
+            "a.created_at, a.updated_at, :archivedAt " +
+            "FROM attendances a JOIN teaching_activities ta ON ta.id = a.teaching_activity_id " +
+            "WHERE a.id IN (:ids)";
+
+    private static final String DELETE_ARCHIVED_SQL = "DELETE FROM attendances WHERE id IN (:ids)";
+
+    private static final String OLDEST_HOT_DATE_SQL =
+            "SELECT MIN(ta.date) FROM attendances a JOIN teaching_activities ta ON ta.id = a.teaching_activity_id";
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceArchiveRepository attendanceArchiveRepository;
+    private final AttendanceArchiveRunRepository attendanceArchiveRunRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.attendance.archive.enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${app.attendance.archive.hot-years:1}")
+    private int hotYears;
+
+    @Value("${app.attendance.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.attendance.archive.boundary-refresh-ms:300000}")
+    private long boundaryRefreshMs;
+
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    private TransactionTemplate batchTransaction;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile LocalDate archivedThrough;
+    private volatile long boundaryLoadedAt;
+    private volatile Map<String, Object> lastRun = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        batchTransaction = new TransactionTemplate(transactionManager);
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Archive job
+
+    @Scheduled(cron = "${app.attendance.archive.cron:0 30 2 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduledArchive() {
+        if (!archiveEnabled) {
+            return;
+        }
+        try {
+            archiveClosedAcademicYears();
+        } catch (Exception e) {
+            log.error("Scheduled attendance archive failed", e);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> archiveClosedAcademicYears() {
+        LocalDate cutoff = getFirstHotDate().minusDays(1);
+        LocalDate oldestHotDate = jdbcTemplate.queryForObject(OLDEST_HOT_DATE_SQL, LocalDate.class);
+        LocalDate archived = getArchivedThrough();
+        // With nothing left to move the run still publishes a boundary that lags behind the cutoff
+        if ((oldestHotDate == null || oldestHotDate.isAfter(cutoff)) && archived != null && !archived.isBefore(cutoff)) {
+            log.debug("No closed academic years left in the hot attendance table");
+            Map<String, Object> result = new HashMap<>();
+            result.put("rowsArchived", 0L);
+            result.put("archivedThrough", getArchivedThrough());
+            return result;
+        }
+        return archiveThrough(cutoff);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> archiveAcademicYear(String academicYear) {
+        LocalDate yearEnd = academicYearStart(academicYear).plusYears(1).minusDays(1);
+        if (!yearEnd.isBefore(getFirstHotDate())) {
+            throw new ValidationException("Academic year " + academicYear + " is not closed yet and cannot be archived");
+        }
+        return archiveThrough(yearEnd);
+    }
+
+    private Map<String, Object> archiveThrough(LocalDate cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ValidationException("An attendance archive run is already in progress");
+        }
+        long started = System.currentTimeMillis();
+        long archived = 0;
+        try {
+            log.info("Archiving attendance through {} in batches of {}", cutoff, batchSize);
+            int moved;
+            do {
+                moved = batchTransaction.execute(status -> moveBatch(cutoff));
+                archived += moved;
+            } while (moved > 0);
+
+            // Every row through the cutoff has moved, so reads may now skip the hot table for those dates
+            AttendanceArchiveRun run = attendanceArchiveRunRepository.save(new AttendanceArchiveRun(cutoff, archived,
+                    System.currentTimeMillis() - started, LocalDateTime.now()));
+            boundaryLoadedAt = 0L; // force the router to pick up the new boundary
+            Map<String, Object> result = new HashMap<>();
+            result.put("archivedThrough", cutoff);
+            result.put("rowsArchived", archived);
+            result.put("durationMs", run.getDurationMs());
+            result.put("completedAt", run.getCompletedAt());
+            lastRun = result;
+            log.info("Archived {} attendance records through {} in {}ms", archived, cutoff,
+                    System.currentTimeMillis() - started);
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int moveBatch(LocalDate cutoff) {
+        List<Long> ids = namedJdbcTemplate.queryForList(SELECT_BATCH_IDS_SQL,
+                new MapSqlParameterSource("cutoff", cutoff).addValue("limit", batchSize), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids)
+                .addValue("archivedAt", LocalDateTime.now());
+        int copied = namedJdbcTemplate.update(COPY_TO_ARCHIVE_SQL, params);
+        int deleted = namedJdbcTemplate.update(DELETE_ARCHIVED_SQL, params);
+        if (copied != deleted) {
+            // Rolls the batch back; a concurrent writer touched these rows
+            throw new IllegalStateException("Archive batch mismatch: copied " + copied + ", deleted " + deleted);
+        }
+        return deleted;
+    }
+
+    @Override
+    public LocalDate getArchivedThrough() {
+        // A stale boundary is only ever too early, which sends more dates to both tables but never loses rows
+        if (System.currentTimeMillis() - boundaryLoadedAt > boundaryRefreshMs) {
+            archivedThrough = attendanceArchiveRunRepository.findLatestArchivedThrough();
+            boundaryLoadedAt = System.currentTimeMillis();
+        }
+        return archivedThrough;
+    }
+
+    @Override
+    public Map<String, Object> getArchiveStatistics() {
+        Map<String, Object> rowsPerYear = new LinkedHashMap<>();
+        for (Object[] row : attendanceArchiveRepository.countByAcademicYear()) {
+            rowsPerYear.put((String) row[0], row[1]);
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", archiveEnabled);
+        stats.put("running", running.get());
+        stats.put("hotYears", hotYears);
+        stats.put("firstHotDate", getFirstHotDate());
+        stats.put("archivedThrough", getArchivedThrough());
+        stats.put("archivedRowsPerAcademicYear", rowsPerYear);
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+
+    // Routed reads
+
+    @Override
+    public List<Object[]> getAttendanceStatsByStudentAndDateBetween(Student student, LocalDate startDate,
+            LocalDate endDate) {
+        return mergeCounts(route(startDate, endDate,
+                (from, to) -> attendanceRepository.getAttendanceStatsByStudentAndDateBetween(student, from, to),
+                (from, to) -> attendanceArchiveRepository.getAttendanceStatsByStudentAndDateBetween(
+                        student.getId(), from, to)));
+    }
+
+    @Override
+    public List<Object[]> getAttendanceSummaryByClassRoomAndDateBetween(Long classRoomId, LocalDate startDate,
+            LocalDate endDate) {
+        return mergeCounts(route(startDate, endDate,
+                (from, to) -> attendanceRepository.getAttendanceSummaryByClassRoomAndDateBetween(classRoomId, from, to),
+                (from, to) -> attendanceArchiveRepository.getAttendanceSummaryByClassRoomAndDateBetween(
+                        classRoomId, from, to)));
+    }
+
+    @Override
+    public List<Object[]> getDailyAttendanceStatistics(LocalDate startDate, LocalDate endDate) {
+        // A date not yet published can have rows in both tables
+        return mergeGroupedCounts(route(startDate, endDate,
+                attendanceRepository::getDailyAttendanceStatistics,
+                attendanceArchiveRepository::getDailyAttendanceStatistics));
+    }
+
+    @Override
+    public List<Object[]> getMonthlyAttendanceReport(LocalDate startDate, LocalDate endDate) {
+        return mergeGroupedCounts(route(startDate, endDate,
+                attendanceRepository::getMonthlyAttendanceReport,
+                attendanceArchiveRepository::getMonthlyAttendanceReport));
+    }
+
+    @Override
+    public List<Object[]> findAbsenteeismSummaries(LocalDate startDate, LocalDate endDate, Long minAbsences) {
+        if (isHotOnly(startDate) || isArchiveOnly(endDate)) {
+            return route(startDate, endDate,
+                    (from, to) -> attendanceRepository.findAbsenteeismSummaries(from, to, minAbsences),
+                    (from, to) -> attendanceArchiveRepository.findAbsenteeismSummaries(from, to, minAbsences));
+        }
+
+        // Threshold must apply to the combined count, so fetch every absentee from both sides and filter after merging
+        Map<Object, Object[]> merged = new LinkedHashMap<>();
+        for (Object[] row : route(startDate, endDate,
+                (from, to) -> attendanceRepository.findAbsenteeismSummaries(from, to, 1L),
+                (from, to) -> attendanceArchiveRepository.findAbsenteeismSummaries(from, to, 1L))) {
+            merged.merge(row[0], row.clone(), (existing, next) -> {
+                existing[4] = ((Number) existing[4]).longValue() + ((Number) next[4]).longValue();
+                return existing;
+            });
+        }
+        return merged.values().stream()
+                .filter(row -> ((Number) row[4]).longValue() >= minAbsences)
+                .sorted(Comparator.comparingLong((Object[] row) -> ((Number) row[4]).longValue()).reversed()
+                        .thenComparing(row -> String.valueOf(row[2])))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Object[]> findPerfectAttendanceSummaries(LocalDate startDate, LocalDate endDate) {
+        if (isHotOnly(startDate)) {
+            return attendanceRepository.findPerfectAttendanceSummaries(startDate, endDate);
+        }
+        // Any absence on either side disqualifies, so both tables are checked in one statement
+        return attendanceArchiveRepository.findPerfectAttendanceSummariesIncludingHot(startDate, endDate);
+    }
+
+    @Override
+    public Double calculateAttendanceRateForStudent(Student student, LocalDate startDate, LocalDate endDate) {
+        if (isHotOnly(startDate)) {
+            return attendanceRepository.calculateAttendanceRateForStudent(student, startDate, endDate);
+        }
+        return presentRate(getAttendanceStatsByStudentAndDateBetween(student, startDate, endDate));
+    }
+
+    @Override
+    public Double calculateAttendanceRateForClassRoom(Long classRoomId, LocalDate startDate, LocalDate endDate) {
+        if (isHotOnly(startDate)) {
+            return attendanceRepository.calculateAttendanceRateForClassRoom(classRoomId, startDate, endDate);
+        }
+        return presentRate(getAttendanceSummaryByClassRoomAndDateBetween(classRoomId, startDate, endDate));
+    }
+
+    // Helper methods
+
+    /**
+     * Split a date range into archived, closed and open dates and run each part against the table(s) holding it
+     * Archived dates are read from the archive, open dates from the hot table and closed dates not yet published
+     * from both, as an archive run may be moving them. Under InnoDB's repeatable read both reads of the surrounding
+     * read-only transaction see one snapshot, so a row moved between them is counted once.
+     */
+    private <T> List<T> route(LocalDate startDate, LocalDate endDate,
+            BiFunction<LocalDate, LocalDate, List<T>> hotQuery,
+            BiFunction<LocalDate, LocalDate, List<T>> archiveQuery) {
+        LocalDate archived = getArchivedThrough();
+        LocalDate closed = getFirstHotDate().minusDays(1);
+        List<T> result = new ArrayList<>();
+
+        LocalDate from = startDate;
+        if (archived != null && !from.isAfter(archived)) {
+            LocalDate to = endDate.isAfter(archived) ? archived : endDate;
+            result.addAll(archiveQuery.apply(from, to));
+            from = archived.plusDays(1);
+        }
+        if (!from.isAfter(endDate) && !from.isAfter(closed)) {
+            LocalDate to = endDate.isAfter(closed) ? closed : endDate;
+            result.addAll(archiveQuery.apply(from, to));
+            result.addAll(hotQuery.apply(from, to));
+            from = closed.plusDays(1);
+        }
+        if (!from.isAfter(endDate)) {
+            result.addAll(hotQuery.apply(from, endDate));
+        }
+        return result;
+    }
+
+    private boolean isHotOnly(LocalDate startDate) {
+        LocalDate archived = getArchivedThrough();
+        return startDate.isAfter(getFirstHotDate().minusDays(1)) && (archived == null || startDate.isAfter(archived));
+    }
+
+    private boolean isArchiveOnly(LocalDate endDate) {
+        LocalDate archived = getArchivedThrough();
+        return archived != null && !endDate.isAfter(archived);
+    }
+
+    private List<Object[]> mergeCounts(List<Object[]> rows) {
+        Map<Object, Long> merged = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            merged.merge(row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+        return merged.entrySet().stream()
+                .map(entry -> new Object[] { entry.getKey(), entry.getValue() })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sum the trailing count of rows sharing the same leading columns, ordered by those columns
+     */
+    private List<Object[]> mergeGroupedCounts(List<Object[]> rows) {
+        Map<List<Object>, Object[]> merged = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            int count = row.length - 1;
+            merged.merge(Arrays.asList(row).subList(0, count), row.clone(), (existing, next) -> {
+                existing[count] = ((Number) existing[count]).longValue() + ((Number) next[count]).longValue();
+                return existing;
+            });
+        }
+        List<Object[]> result = new ArrayList<>(merged.values());
+        result.sort(AttendanceArchiveServiceImpl::compareGroups);
+        return result;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compareGroups(Object[] left, Object[] right) {
+        for (int column = 0; column < left.length - 1; column++) {
+            int order = Comparator.nullsFirst(Comparator.<Comparable>naturalOrder())
+                    .compare((Comparable) left[column], (Comparable) right[column]);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return 0;
+    }
+
+    private Double presentRate(List<Object[]> statusCounts) {
+        long total = 0;
+        long present = 0;
+        for (Object[] row : statusCounts) {
+            long count = ((Number) row[1]).longValue();
+            total += count;
+            if (row[0] == AttendanceStatus.PRESENT) {
+                present += count;
+            }
+        }
+        return total > 0 ? present * 100.0 / total : null;
+    }
+
+    private LocalDate getFirstHotDate() {
+        LocalDate today = LocalDate.now();
+        int startYear = today.getMonthValue() >= Month.AUGUST.getValue() ? today.getYear() : today.getYear() - 1;
+        return LocalDate.of(startYear, Month.AUGUST, 1).minusYears(Math.max(hotYears, 1) - 1L);
+    }
+
+    private LocalDate academicYearStart(String academicYear) {
+        if (academicYear == null || !academicYear.matches("\\d{4}/\\d{4}")) {
+            throw new ValidationException("Academic year must be in format YYYY/YYYY");
+        }
+        int startYear = Integer.parseInt(academicYear.substring(0, 4));
+        if (Integer.parseInt(academicYear.substring(5)) != startYear + 1) {
+            throw new ValidationException("Academic year must span two consecutive years");
+        }
+        return LocalDate.of(startYear, Month.AUGUST, 1);
+    }
+}
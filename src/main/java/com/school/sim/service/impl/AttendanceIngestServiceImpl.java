@@ -0,0 +1,564 @@
+package com.school.sim.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.sim.dto.request.BulkAttendanceRequest;
+import com.school.sim.entity.Student;
+import com.school.sim.entity.TeachingActivity;
+import com.school.sim.exception.ResourceNotFoundException;
+import com.school.sim.exception.ValidationException;
+import com.school.sim.repository.AttendanceRepository;
+import com.school.sim.repository.StudentRepository;
+import com.school.sim.repository.TeachingActivityRepository;
+import com.school.sim.service.AttendanceIngestService;
+import com.school.sim.service.AttendanceStreamService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of AttendanceIngestService
+ * A single writer thread drains the queue and commits many bulk submissions per transaction with JDBC batch inserts.
+ * In durable mode every accepted submission is fsynced to an append-only journal before it is acknowledged,
+ * and submissions without a completion marker are replayed on restart.
+ * Idempotency keys are scoped to the submitting user, so one user's key never matches another user's submission.
+ */
+@Service
+public class AttendanceIngestServiceImpl implements AttendanceIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceIngestServiceImpl.class);
+
+    private static final String INSERT_ATTENDANCE_SQL =
+            "INSERT INTO attendances (teaching_activity_id, student_id, status, keterangan, recorded_by, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ENTRY_SUBMIT = "SUBMIT";
+    private static final String ENTRY_DONE = "DONE";
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TeachingActivityRepository teachingActivityRepository;
+
+    @Autowired
+    private AttendanceStreamService attendanceStreamService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.attendance.ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.attendance.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.attendance.ingest.max-batch-submissions:64}")
+    private int maxBatchSubmissions;
+
+    @Value("${app.attendance.ingest.linger-ms:25}")
+    private long lingerMs;
+
+    @Value("${app.attendance.ingest.durable:true}")
+    private boolean durable;
+
+    @Value("${app.attendance.ingest.journal-path:${java.io.tmpdir}/sim-attendance-ingest.journal}")
+    private String journalPath;
+
+    @Value("${app.attendance.ingest.status-retention-minutes:60}")
+    private long statusRetentionMinutes;
+
+    @Value("${app.attendance.ingest.status-eviction-interval-ms:60000}")
+    private long statusEvictionIntervalMs;
+
+    // Keyed by scopedKey(owner, idempotency key)
+    private final Map<String, Submission> submissions = new ConcurrentHashMap<>();
+    private final Object journalLock = new Object();
+
+    private final AtomicLong acceptedSubmissions = new AtomicLong();
+    private final AtomicLong committedSubmissions = new AtomicLong();
+    private final AtomicLong failedSubmissions = new AtomicLong();
+    private final AtomicLong committedRecords = new AtomicLong();
+    private final AtomicLong groupCommits = new AtomicLong();
+    private final AtomicLong groupFallbacks = new AtomicLong();
+    private volatile int lastGroupSize;
+    private volatile int replayedOnStartup;
+
+    private BlockingQueue<Submission> queue;
+    private TransactionTemplate transactionTemplate;
+    private FileChannel journal;
+    private Thread writer;
+    private volatile boolean running;
+    // Writer thread only
+    private long lastEvictionNanos;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Submission> pending = durable ? openJournal() : Collections.emptyList();
+
+        queue = new LinkedBlockingQueue<>(Math.max(queueCapacity, pending.size()));
+        for (Submission submission : pending) {
+            submissions.put(submission.scopedKey(), submission);
+            queue.add(submission);
+        }
+        replayedOnStartup = pending.size();
+        if (!pending.isEmpty()) {
+            logger.info("Replaying {} uncommitted attendance submissions from journal {}", pending.size(), journalPath);
+        }
+
+        running = true;
+        lastEvictionNanos = System.nanoTime();
+        writer = new Thread(this::drainLoop, "attendance-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Attendance ingest queue started (durable: {}, max batch: {} submissions)", durable, maxBatchSubmissions);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            // The writer finishes the queue before exiting; anything left is still in the journal
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (journalLock) {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close attendance ingest journal", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Map<String, Object> submit(BulkAttendanceRequest request, String idempotencyKey) {
+        if (!enabled) {
+            throw new IllegalStateException("Attendance ingest queue is disabled");
+        }
+        String owner = currentUser();
+        String key = StringUtils.hasText(idempotencyKey) ? idempotencyKey.trim() : UUID.randomUUID().toString();
+        String scopedKey = scopedKey(owner, key);
+
+        Submission existing = submissions.get(scopedKey);
+        if (existing != null) {
+            return existing.toStatus(true, queue.size());
+        }
+
+        validate(request);
+
+        Submission submission = new Submission(owner, key, request, LocalDateTime.now());
+        Submission raced = submissions.putIfAbsent(scopedKey, submission);
+        if (raced != null) {
+            return raced.toStatus(true, queue.size());
+        }
+
+        synchronized (journalLock) {
+            if (queue.remainingCapacity() == 0) {
+                submissions.remove(scopedKey);
+                throw new IllegalStateException("Attendance ingest queue is full");
+            }
+            try {
+                appendJournal(Collections.singletonList(new JournalEntry(ENTRY_SUBMIT, owner, key, request)));
+            } catch (IllegalStateException e) {
+                submissions.remove(scopedKey);
+                throw e;
+            }
+            queue.add(submission);
+        }
+        acceptedSubmissions.incrementAndGet();
+        logger.debug("Queued attendance submission {} ({} records)", key, request.getStudentAttendances().size());
+        return submission.toStatus(false, queue.size());
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getSubmissionStatus(String idempotencyKey) {
+        Submission submission = submissions.get(scopedKey(currentUser(), idempotencyKey));
+        return submission == null ? Optional.empty() : Optional.of(submission.toStatus(false, queue.size()));
+    }
+
+    @Override
+    public Map<String, Object> getIngestStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("durable", durable);
+        stats.put("queueDepth", queue != null ? queue.size() : 0);
+        stats.put("acceptedSubmissions", acceptedSubmissions.get());
+        stats.put("committedSubmissions", committedSubmissions.get());
+        stats.put("failedSubmissions", failedSubmissions.get());
+        stats.put("committedRecords", committedRecords.get());
+        stats.put("groupCommits", groupCommits.get());
+        stats.put("groupFallbacks", groupFallbacks.get());
+        stats.put("averageSubmissionsPerCommit", groupCommits.get() > 0
+                ? (double) (committedSubmissions.get() + failedSubmissions.get()) / groupCommits.get() : 0.0);
+        stats.put("lastGroupSize", lastGroupSize);
+        stats.put("replayedOnStartup", replayedOnStartup);
+        return stats;
+    }
+
+    // Writer
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    evictExpiredStatusesIfDue();
+                    continue;
+                }
+                List<Submission> batch = new ArrayList<>(maxBatchSubmissions);
+                batch.add(first);
+
+                // Linger briefly so submissions arriving together share one commit
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < maxBatchSubmissions) {
+                    queue.drainTo(batch, maxBatchSubmissions - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSubmissions || remaining <= 0) {
+                        break;
+                    }
+                    Submission next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commitGroup(batch);
+                // A queue that never runs dry would otherwise keep every finished status
+                evictExpiredStatusesIfDue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Attendance ingest writer iteration failed", e);
+            }
+        }
+    }
+
+    private void commitGroup(List<Submission> batch) {
+        try {
+            Map<Submission, Outcome> outcomes = transactionTemplate.execute(status -> writeGroup(batch));
+            outcomes.forEach(this::complete);
+            groupCommits.incrementAndGet();
+        } catch (Exception groupFailure) {
+            // Isolate the submission that broke the group; the rest still commit one by one
+            logger.warn("Group commit of {} attendance submissions failed, retrying individually: {}",
+                    batch.size(), groupFailure.getMessage());
+            groupFallbacks.incrementAndGet();
+            for (Submission submission : batch) {
+                try {
+                    transactionTemplate.execute(status -> writeGroup(Collections.singletonList(submission)))
+                            .forEach(this::complete);
+                    groupCommits.incrementAndGet();
+                } catch (Exception e) {
+                    logger.error("Attendance submission {} failed", submission.key, e);
+                    submission.status = "FAILED";
+                    submission.errors = Collections.singletonList(e.getMessage());
+                    submission.completedAt = LocalDateTime.now();
+                    failedSubmissions.incrementAndGet();
+                }
+            }
+        }
+        lastGroupSize = batch.size();
+
+        synchronized (journalLock) {
+            appendJournal(batch.stream()
+                    .map(submission -> new JournalEntry(ENTRY_DONE, submission.owner, submission.key, null))
+                    .collect(Collectors.toList()));
+            if (queue.isEmpty()) {
+                truncateJournal();
+            }
+        }
+    }
+
+    private Map<Submission, Outcome> writeGroup(List<Submission> batch) {
+        Set<Long> activityIds = batch.stream()
+                .map(submission -> submission.request.getTeachingActivityId())
+                .collect(Collectors.toSet());
+        Map<Long, TeachingActivity> activities = teachingActivityRepository.findAllById(activityIds).stream()
+                .collect(Collectors.toMap(TeachingActivity::getId, activity -> activity));
+        Set<String> recorded = attendanceRepository.findRecordedPairsByTeachingActivityIds(activityIds).stream()
+                .map(pair -> pair[0] + ":" + pair[1])
+                .collect(Collectors.toCollection(HashSet::new));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        Map<Submission, Outcome> outcomes = new LinkedHashMap<>();
+
+        for (Submission submission : batch) {
+            Outcome outcome = new Outcome();
+            outcomes.put(submission, outcome);
+            BulkAttendanceRequest request = submission.request;
+            TeachingActivity activity = activities.get(request.getTeachingActivityId());
+            if (activity == null) {
+                outcome.errors.add("Teaching activity not found with ID: " + request.getTeachingActivityId());
+                continue;
+            }
+            for (BulkAttendanceRequest.StudentAttendanceRecord record : request.getStudentAttendances()) {
+                if (!recorded.add(activity.getId() + ":" + record.getStudentId())) {
+                    outcome.errors.add("Failed to record attendance for student " + record.getStudentId()
+                            + ": Attendance already recorded for this student in this activity");
+                    continue;
+                }
+                rows.add(new Object[] { activity.getId(), record.getStudentId(), record.getStatus().name(),
+                        record.getKeterangan(), request.getRecordedBy(), now, now });
+                outcome.successCount++;
+                attendanceStreamService.recordChange(activity.getClassRoom().getId(), activity.getDate(),
+                        null, record.getStatus());
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ATTENDANCE_SQL, rows);
+        }
+        return outcomes;
+    }
+
+    private void complete(Submission submission, Outcome outcome) {
+        submission.status = "COMMITTED";
+        submission.successCount = outcome.successCount;
+        submission.errors = outcome.errors;
+        submission.completedAt = LocalDateTime.now();
+        committedSubmissions.incrementAndGet();
+        committedRecords.addAndGet(outcome.successCount);
+    }
+
+    private void validate(BulkAttendanceRequest request) {
+        if (!teachingActivityRepository.existsById(request.getTeachingActivityId())) {
+            throw new ResourceNotFoundException("Teaching activity not found with ID: " + request.getTeachingActivityId());
+        }
+
+        Set<Long> studentIds = new HashSet<>();
+        for (BulkAttendanceRequest.StudentAttendanceRecord record : request.getStudentAttendances()) {
+            if (record.getStudentId() == null || record.getStatus() == null) {
+                throw new ValidationException("Student ID and attendance status are required for every record");
+            }
+            if (!studentIds.add(record.getStudentId())) {
+                throw new ValidationException("Duplicate attendance record for student " + record.getStudentId());
+            }
+        }
+
+        Set<Long> found = studentRepository.findAllById(studentIds).stream()
+                .map(Student::getId)
+                .collect(Collectors.toSet());
+        if (found.size() != studentIds.size()) {
+            studentIds.removeAll(found);
+            throw new ResourceNotFoundException("Students not found with IDs: " + studentIds);
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getName() != null ? authentication.getName() : "anonymous";
+    }
+
+    // Length-prefixed so that no (owner, key) pair can spell another one
+    private static String scopedKey(String owner, String key) {
+        return owner.length() + ":" + owner + ":" + key;
+    }
+
+    private void evictExpiredStatusesIfDue() {
+        long now = System.nanoTime();
+        if (now - lastEvictionNanos < TimeUnit.MILLISECONDS.toNanos(statusEvictionIntervalMs)) {
+            return;
+        }
+        lastEvictionNanos = now;
+        evictExpiredStatuses();
+    }
+
+    private void evictExpiredStatuses() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(statusRetentionMinutes);
+        submissions.values().removeIf(submission -> submission.completedAt != null
+                && submission.completedAt.isBefore(cutoff));
+    }
+
+    // Journal
+
+    private List<Submission> openJournal() {
+        Path path = Paths.get(journalPath);
+        Map<String, Submission> pending = new LinkedHashMap<>();
+        try {
+            if (Files.exists(path)) {
+                for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        JournalEntry entry = objectMapper.readValue(line, JournalEntry.class);
+                        String owner = entry.getOwner() != null ? entry.getOwner() : "anonymous";
+                        if (ENTRY_SUBMIT.equals(entry.getType())) {
+                            pending.put(scopedKey(owner, entry.getKey()),
+                                    new Submission(owner, entry.getKey(), entry.getRequest(), LocalDateTime.now()));
+                        } else {
+                            pending.remove(scopedKey(owner, entry.getKey()));
+                        }
+                    } catch (IOException e) {
+                        // A torn final line from a crash mid-write was never acknowledged
+                        logger.warn("Skipping unreadable attendance ingest journal line");
+                    }
+                }
+            }
+
+            // Compact to just the pending submissions before appending again
+            Path compacted = Paths.get(journalPath + ".tmp");
+            List<String> lines = new ArrayList<>();
+            for (Submission submission : pending.values()) {
+                lines.add(objectMapper.writeValueAsString(
+                        new JournalEntry(ENTRY_SUBMIT, submission.owner, submission.key, submission.request)));
+            }
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.write(compacted, lines, StandardCharsets.UTF_8);
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            journal = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open attendance ingest journal " + journalPath, e);
+        }
+        return new ArrayList<>(pending.values());
+    }
+
+    private void appendJournal(List<JournalEntry> entries) {
+        if (journal == null || entries.isEmpty()) {
+            return;
+        }
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (JournalEntry entry : entries) {
+                lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            journal.force(false);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write attendance ingest journal", e);
+        }
+    }
+
+    private void truncateJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.truncate(0);
+        } catch (IOException e) {
+            logger.warn("Failed to truncate attendance ingest journal", e);
+        }
+    }
+
+    // Supporting types
+
+    private static class Submission {
+        private final String owner;
+        private final String key;
+        private final BulkAttendanceRequest request;
+        private final LocalDateTime submittedAt;
+        private volatile String status = "QUEUED";
+        private volatile int successCount;
+        private volatile List<String> errors = Collections.emptyList();
+        private volatile LocalDateTime completedAt;
+
+        private Submission(String owner, String key, BulkAttendanceRequest request, LocalDateTime submittedAt) {
+            this.owner = owner;
+            this.key = key;
+            this.request = request;
+            this.submittedAt = submittedAt;
+        }
+
+        private String scopedKey() {
+            return AttendanceIngestServiceImpl.scopedKey(owner, key);
+        }
+
+        private Map<String, Object> toStatus(boolean duplicate, int queueDepth) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("idempotencyKey", key);
+            result.put("status", status);
+            result.put("duplicate", duplicate);
+            result.put("teachingActivityId", request.getTeachingActivityId());
+            result.put("totalProcessed", request.getStudentAttendances().size());
+            result.put("submittedAt", submittedAt);
+            if ("QUEUED".equals(status)) {
+                result.put("queueDepth", queueDepth);
+            } else {
+                result.put("successCount", successCount);
+                result.put("errorCount", errors.size());
+                result.put("errors", errors);
+                result.put("completedAt", completedAt);
+            }
+            return result;
+        }
+    }
+
+    private static class Outcome {
+        private int successCount;
+        private final List<String> errors = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class JournalEntry {
+        private String type;
+        private String owner;
+        private String key;
+        private BulkAttendanceRequest request;
+    }
+}
@@ -6,6 +6,7 @@ import com.school.sim.entity.Attendance;
 import com.school.sim.entity.Student;
 import com.school.sim.repository.AttendanceRepository;
 import com.school.sim.repository.StudentRepository;
+import com.school.sim.service.AttendanceArchiveService;
 import com.school.sim.service.AttendanceReportService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,13 +38,16 @@ public class AttendanceReportServiceImpl implements AttendanceReportService {
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private AttendanceArchiveService attendanceArchiveService;
+
     @Override
     public AttendanceReportResponse generateAttendanceReport(AttendanceReportRequest request) {
         log.info("Generating attendance report for period {} to {}", request.getStartDate(), request.getEndDate());
         
         try {
             // Get attendance statistics for the date range
-            List<Object[]> dailyStats = attendanceRepository.getDailyAttendanceStatistics(
+            List<Object[]> dailyStats = attendanceArchiveService.getDailyAttendanceStatistics(
                 request.getStartDate(), request.getEndDate());
             
             // Calculate total records
@@ -88,20 +92,18 @@ public class AttendanceReportServiceImpl implements AttendanceReportService {
             Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found with ID: " + studentId));
             
-            // Get attendance records for the student
-            List<Attendance> attendances = attendanceRepository.findByStudentAndDateBetween(student, startDate, endDate);
-            
-            // Get attendance statistics
-            List<Object[]> stats = attendanceRepository.getAttendanceStatsByStudentAndDateBetween(student, startDate, endDate);
+            // Get attendance statistics (spans archived years transparently)
+            List<Object[]> stats = attendanceArchiveService.getAttendanceStatsByStudentAndDateBetween(student, startDate, endDate);
+            int recordCount = countRecords(stats);
             
             // Calculate attendance rate
-            Double attendanceRate = attendanceRepository.calculateAttendanceRateForStudent(student, startDate, endDate);
+            Double attendanceRate = attendanceArchiveService.calculateAttendanceRateForStudent(student, startDate, endDate);
             
             Map<String, Object> summaryData = new HashMap<>();
             summaryData.put("studentName", student.getNamaLengkap());
             summaryData.put("studentNis", student.getNis());
             summaryData.put("className", student.getClassName());
-            summaryData.put("attendanceRecords", attendances.size());
+            summaryData.put("attendanceRecords", recordCount);
             summaryData.put("attendanceRate", attendanceRate != null ? attendanceRate : 0.0);
             summaryData.put("statistics", stats);
             
@@ -112,7 +114,7 @@ public class AttendanceReportServiceImpl implements AttendanceReportService {
                     .startDate(startDate)
                     .endDate(endDate)
                     .generatedAt(LocalDateTime.now())
-                    .totalRecords(attendances.size())
+                    .totalRecords(recordCount)
                     .analytics(summaryData)
                     .build();
         } catch (Exception e) {
@@ -134,14 +136,12 @@ public class AttendanceReportServiceImpl implements AttendanceReportService {
         log.info("Generating class attendance report for class {} from {} to {}", classRoomId, startDate, endDate);
         
         try {
-            // Get attendance records for the class
-            List<Attendance> attendances = attendanceRepository.findByClassRoomAndDateBetween(classRoomId, startDate, endDate);
-            
-            // Get attendance summary statistics
-            List<Object[]> stats = attendanceRepository.getAttendanceSummaryByClassRoomAndDateBetween(classRoomId, startDate, endDate);
+            // Get attendance summary statistics (spans archived years transparently)
+            List<Object[]> stats = attendanceArchiveService.getAttendanceSummaryByClassRoomAndDateBetween(classRoomId, startDate, endDate);
+            int recordCount = countRecords(stats);
             
             // Calculate attendance rate
-            Double attendanceRate = attendanceRepository.calculateAttendanceRateForClassRoom(classRoomId, startDate, endDate);
+            Double attendanceRate = attendanceArchiveService.calculateAttendanceRateForClassRoom(classRoomId, startDate, endDate);
             
             // Get students in the class
             List<Student> students = studentRepository.findByClassRoomId(classRoomId);
@@ -149,7 +149,7 @@ public class AttendanceReportServiceImpl implements AttendanceReportService {
             Map<String, Object> summaryData = new HashMap<>();
             summaryData.put("classRoomId", classRoomId);
             summaryData.put("totalStudents", students.size());
-            summaryData.put("attendanceRecords", attendances.size());
+            summaryData.put("attendanceRecords", recordCount);
             summaryData.put("attendanceRate", attendanceRate != null ? attendanceRate : 0.0);
             summaryData.put("statistics", stats);
             summaryData.put("students", students.stream()
@@ -163,7 +163,7 @@ public class AttendanceReportServiceImpl implements AttendanceReportService {
                     .startDate(startDate)
                     .endDate(endDate)
                     .generatedAt(LocalDateTime.now())
-                    .totalRecords(attendances.size())
+                    .totalRecords(recordCount)
                     .analytics(summaryData)
                     .build();
         } catch (Exception e) {
@@ -212,7 +212,7 @@ public class AttendanceReportServiceImpl implements AttendanceReportService {
         
         try {
             // Get daily attendance statistics
-            List<Object[]> stats = attendanceRepository.getDailyAttendanceStatistics(date, date);
+            List<Object[]> stats = attendanceArchiveService.getDailyAttendanceStatistics(date, date);
             
             return stats.stream().map(stat -> {
                 Map<String, Object> summary = new HashMap<>();
@@ -253,19 +253,16 @@ public class AttendanceReportServiceImpl implements AttendanceReportService {
         
         try {
             // Find students with poor attendance
-            List<Object[]> poorAttendanceStudents = attendanceRepository.findStudentsWithPoorAttendance(
+            List<Object[]> poorAttendanceStudents = attendanceArchiveService.findAbsenteeismSummaries(
                 startDate, endDate, (long) minAbsences);
             
-            List<Map<String, Object>> studentData = poorAttendanceStudents.stream().map(data -> {
-                Student student = (Student) data[0];
-                Long absenceCount = (Long) data[1];
-                
+            List<Map<String, Object>> studentData = poorAttendanceStudents.stream().map(row -> {
                 Map<String, Object> studentInfo = new HashMap<>();
-                studentInfo.put("studentId", student.getId());
-                studentInfo.put("studentName", student.getNamaLengkap());
-                studentInfo.put("studentNis", student.getNis());
-                studentInfo.put("className", student.getClassName());
-                studentInfo.put("absenceCount", absenceCount);
+                studentInfo.put("studentId", row[0]);
+                studentInfo.put("studentNis", row[1]);
+                studentInfo.put("studentName", row[2]);
+                studentInfo.put("className", row[3]);
+                studentInfo.put("absenceCount", row[4]);
                 return studentInfo;
             }).collect(Collectors.toList());
             
@@ -303,14 +300,14 @@ public class AttendanceReportServiceImpl implements AttendanceReportService {
         
         try {
             // Find students with perfect attendance
-            List<Student> perfectAttendanceStudents = attendanceRepository.findStudentsWithPerfectAttendance(startDate, endDate);
+            List<Object[]> perfectAttendanceStudents = attendanceArchiveService.findPerfectAttendanceSummaries(startDate, endDate);
             
-            List<Map<String, Object>> studentData = perfectAttendanceStudents.stream().map(student -> {
+            List<Map<String, Object>> studentData = perfectAttendanceStudents.stream().map(row -> {
                 Map<String, Object> studentInfo = new HashMap<>();
-                studentInfo.put("studentId", student.getId());
-                studentInfo.put("studentName", student.getNamaLengkap());
-                studentInfo.put("studentNis", student.getNis());
-                studentInfo.put("className", student.getClassName());
+                studentInfo.put("studentId", row[0]);
+                studentInfo.put("studentNis", row[1]);
+                studentInfo.put("studentName", row[2]);
+                studentInfo.put("className", row[3]);
                 return studentInfo;
             }).collect(Collectors.toList());
             
@@ -484,4 +481,8 @@ public class AttendanceReportServiceImpl implements AttendanceReportService {
     public List<Map<String, Object>> generateAttendanceAlertReport(LocalDate startDate, LocalDate endDate, Map<String, Object> thresholds) {
         return new ArrayList<>();
     }
-}
\ No newline at end of file
+
+    private int countRecords(List<Object[]> statusCounts) {
+        return statusCounts.stream().mapToInt(stat -> ((Number) stat[1]).intValue()).sum();
+    }
+}
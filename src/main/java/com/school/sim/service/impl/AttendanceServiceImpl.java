@@ -8,7 +8,9 @@ import com.school.sim.entity.*;
 import com.school.sim.exception.ResourceNotFoundException;
 import com.school.sim.exception.ValidationException;
 import com.school.sim.repository.*;
+import com.school.sim.service.AttendanceArchiveService;
 import com.school.sim.service.AttendanceService;
+import com.school.sim.service.AttendanceStreamService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -35,6 +37,8 @@ public class AttendanceServiceImpl implements AttendanceService {
     private final AttendanceRepository attendanceRepository;
     private final StudentRepository studentRepository;
     private final TeachingActivityRepository teachingActivityRepository;
+    private final AttendanceStreamService attendanceStreamService;
+    private final AttendanceArchiveService attendanceArchiveService;
 
     @Override
     @Transactional
@@ -64,6 +68,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         attendance.setUpdatedAt(LocalDateTime.now());
 
         Attendance savedAttendance = attendanceRepository.save(attendance);
+        recordStreamChange(teachingActivity, null, savedAttendance.getStatus());
         log.info("Successfully recorded attendance with ID: {}", savedAttendance.getId());
 
         return AttendanceResponse.from(savedAttendance);
@@ -75,6 +80,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         log.info("Updating attendance with ID: {}", attendanceId);
 
         Attendance attendance = findAttendanceById(attendanceId);
+        AttendanceStatus previousStatus = attendance.getStatus();
 
         // Update fields
         if (request.getStatus() != null) {
@@ -86,6 +92,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         attendance.setUpdatedAt(LocalDateTime.now());
 
         Attendance updatedAttendance = attendanceRepository.save(attendance);
+        recordStreamChange(updatedAttendance.getTeachingActivity(), previousStatus, updatedAttendance.getStatus());
         log.info("Successfully updated attendance with ID: {}", updatedAttendance.getId());
 
         return AttendanceResponse.from(updatedAttendance);
@@ -103,6 +110,7 @@ public class AttendanceServiceImpl implements AttendanceService {
     public void deleteAttendance(Long attendanceId) {
         log.info("Deleting attendance with ID: {}", attendanceId);
         Attendance attendance = findAttendanceById(attendanceId);
+        recordStreamChange(attendance.getTeachingActivity(), attendance.getStatus(), null);
         attendanceRepository.delete(attendance);
         log.info("Successfully deleted attendance with ID: {}", attendanceId);
     }
@@ -246,6 +254,16 @@ public class AttendanceServiceImpl implements AttendanceService {
                         "Teaching activity not found with ID: " + teachingActivityId));
     }
 
+    private void recordStreamChange(TeachingActivity teachingActivity, AttendanceStatus previousStatus,
+            AttendanceStatus newStatus) {
+        if (teachingActivity == null || teachingActivity.getClassRoom() == null) {
+            return;
+        }
+        // Published after commit, merged with the rest of the transaction (one delta per class for bulk saves)
+        attendanceStreamService.recordChange(teachingActivity.getClassRoom().getId(), teachingActivity.getDate(),
+                previousStatus, newStatus);
+    }
+
     // Missing method implementations
 
     @Override
@@ -357,7 +375,7 @@ public class AttendanceServiceImpl implements AttendanceService {
             LocalDate endDate) {
         log.debug("Fetching attendance stats for student {} between {} and {}", studentId, startDate, endDate);
         Student student = findStudentById(studentId);
-        List<Object[]> stats = attendanceRepository.getAttendanceStatsByStudentAndDateBetween(student, startDate,
+        List<Object[]> stats = attendanceArchiveService.getAttendanceStatsByStudentAndDateBetween(student, startDate,
                 endDate);
 
         Map<AttendanceStatus, Long> result = new HashMap<>();
@@ -373,7 +391,7 @@ public class AttendanceServiceImpl implements AttendanceService {
     public Map<AttendanceStatus, Long> getAttendanceSummaryByClassRoom(Long classRoomId, LocalDate startDate,
             LocalDate endDate) {
         log.debug("Fetching attendance summary for class room {} between {} and {}", classRoomId, startDate, endDate);
-        List<Object[]> stats = attendanceRepository.getAttendanceSummaryByClassRoomAndDateBetween(classRoomId,
+        List<Object[]> stats = attendanceArchiveService.getAttendanceSummaryByClassRoomAndDateBetween(classRoomId,
                 startDate, endDate);
 
         Map<AttendanceStatus, Long> result = new HashMap<>();
@@ -388,7 +406,7 @@ public class AttendanceServiceImpl implements AttendanceService {
     @Override
     public List<Map<String, Object>> getDailyAttendanceStatistics(LocalDate startDate, LocalDate endDate) {
         log.debug("Fetching daily attendance statistics between {} and {}", startDate, endDate);
-        List<Object[]> stats = attendanceRepository.getDailyAttendanceStatistics(startDate, endDate);
+        List<Object[]> stats = attendanceArchiveService.getDailyAttendanceStatistics(startDate, endDate);
 
         List<Map<String, Object>> result = new ArrayList<>();
         for (Object[] stat : stats) {
@@ -405,26 +423,27 @@ public class AttendanceServiceImpl implements AttendanceService {
     public Double calculateAttendanceRateForStudent(Long studentId, LocalDate startDate, LocalDate endDate) {
         log.debug("Calculating attendance rate for student {} between {} and {}", studentId, startDate, endDate);
         Student student = findStudentById(studentId);
-        return attendanceRepository.calculateAttendanceRateForStudent(student, startDate, endDate);
+        return attendanceArchiveService.calculateAttendanceRateForStudent(student, startDate, endDate);
     }
 
     @Override
     public Double calculateAttendanceRateForClassRoom(Long classRoomId, LocalDate startDate, LocalDate endDate) {
         log.debug("Calculating attendance rate for class room {} between {} and {}", classRoomId, startDate, endDate);
-        return attendanceRepository.calculateAttendanceRateForClassRoom(classRoomId, startDate, endDate);
+        return attendanceArchiveService.calculateAttendanceRateForClassRoom(classRoomId, startDate, endDate);
     }
 
     @Override
     public List<Map<String, Object>> findStudentsWithPerfectAttendance(LocalDate startDate, LocalDate endDate) {
         log.debug("Finding students with perfect attendance between {} and {}", startDate, endDate);
-        List<Student> students = attendanceRepository.findStudentsWithPerfectAttendance(startDate, endDate);
+        List<Object[]> students = attendanceArchiveService.findPerfectAttendanceSummaries(startDate, endDate);
 
         List<Map<String, Object>> result = new ArrayList<>();
-        for (Student student : students) {
+        for (Object[] row : students) {
             Map<String, Object> studentInfo = new HashMap<>();
-            studentInfo.put("id", student.getId());
-            studentInfo.put("nis", student.getNis());
-            studentInfo.put("name", student.getNamaLengkap());
+            studentInfo.put("id", row[0]);
+            studentInfo.put("nis", row[1]);
+            studentInfo.put("name", row[2]);
+            studentInfo.put("className", row[3]);
             result.add(studentInfo);
         }
         return result;
@@ -435,18 +454,16 @@ public class AttendanceServiceImpl implements AttendanceService {
             Long minAbsences) {
         log.debug("Finding students with poor attendance between {} and {} (min absences: {})", startDate, endDate,
                 minAbsences);
-        List<Object[]> students = attendanceRepository.findStudentsWithPoorAttendance(startDate, endDate, minAbsences);
+        List<Object[]> students = attendanceArchiveService.findAbsenteeismSummaries(startDate, endDate, minAbsences);
 
         List<Map<String, Object>> result = new ArrayList<>();
-        for (Object[] studentData : students) {
+        for (Object[] row : students) {
             Map<String, Object> studentInfo = new HashMap<>();
-            Student student = (Student) studentData[0];
-            Long absenceCount = (Long) studentData[1];
-
-            studentInfo.put("id", student.getId());
-            studentInfo.put("nis", student.getNis());
-            studentInfo.put("name", student.getNamaLengkap());
-            studentInfo.put("absenceCount", absenceCount);
+            studentInfo.put("id", row[0]);
+            studentInfo.put("nis", row[1]);
+            studentInfo.put("name", row[2]);
+            studentInfo.put("className", row[3]);
+            studentInfo.put("absenceCount", row[4]);
             result.add(studentInfo);
         }
         return result;
@@ -464,7 +481,7 @@ public class AttendanceServiceImpl implements AttendanceService {
     @Override
     public List<Map<String, Object>> getMonthlyAttendanceReport(LocalDate startDate, LocalDate endDate) {
         log.debug("Generating monthly attendance report between {} and {}", startDate, endDate);
-        List<Object[]> stats = attendanceRepository.getMonthlyAttendanceReport(startDate, endDate);
+        List<Object[]> stats = attendanceArchiveService.getMonthlyAttendanceReport(startDate, endDate);
 
         List<Map<String, Object>> result = new ArrayList<>();
         for (Object[] stat : stats) {
@@ -520,6 +537,7 @@ public class AttendanceServiceImpl implements AttendanceService {
                 attendance.setUpdatedAt(LocalDateTime.now());
 
                 Attendance savedAttendance = attendanceRepository.save(attendance);
+                recordStreamChange(teachingActivity, null, defaultStatus);
                 responses.add(AttendanceResponse.from(savedAttendance));
             }
         }
@@ -554,6 +572,7 @@ public class AttendanceServiceImpl implements AttendanceService {
                 newAttendance.setUpdatedAt(LocalDateTime.now());
 
                 Attendance savedAttendance = attendanceRepository.save(newAttendance);
+                recordStreamChange(currentActivity, null, newAttendance.getStatus());
                 responses.add(AttendanceResponse.from(savedAttendance));
             }
         }
@@ -0,0 +1,374 @@
+package com.school.sim.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.sim.dto.response.AttendanceDeltaEvent;
+import com.school.sim.entity.AttendanceStatus;
+import com.school.sim.service.AttendanceStreamService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of AttendanceStreamService
+ * Single in-process broadcaster with a bounded queue per SSE connection and Redis pub/sub fan-out across nodes
+ */
+@Service
+public class AttendanceStreamServiceImpl implements AttendanceStreamService, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceStreamServiceImpl.class);
+
+    private static final Object PENDING_DELTAS_KEY = AttendanceStreamServiceImpl.class.getName() + ".pendingDeltas";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Autowired(required = false)
+    private RedisTemplate<String, String> stringRedisTemplate;
+
+    @Value("${app.attendance.stream.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${app.attendance.stream.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${app.attendance.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${app.attendance.stream.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${app.attendance.stream.redis-enabled:true}")
+    private boolean redisEnabled;
+
+    @Value("${app.attendance.stream.redis-channel:sim:attendance:deltas}")
+    private String redisChannel;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong publishedEvents = new AtomicLong();
+    private final AtomicLong remoteEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong resyncsRequested = new AtomicLong();
+
+    private ExecutorService senderExecutor;
+    private ScheduledExecutorService heartbeatExecutor;
+    private RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    public void start() {
+        senderExecutor = Executors.newFixedThreadPool(senderThreads);
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor();
+        heartbeatExecutor.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+
+        if (redisEnabled && redisConnectionFactory != null && stringRedisTemplate != null) {
+            try {
+                listenerContainer = new RedisMessageListenerContainer();
+                listenerContainer.setConnectionFactory(redisConnectionFactory);
+                listenerContainer.addMessageListener(this, new ChannelTopic(redisChannel));
+                listenerContainer.afterPropertiesSet();
+                listenerContainer.start();
+                logger.info("Attendance stream subscribed to Redis channel '{}' as node {}", redisChannel, nodeId);
+            } catch (Exception e) {
+                logger.warn("Redis fan-out for attendance stream unavailable, serving local events only: {}", e.getMessage());
+                listenerContainer = null;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeatExecutor.shutdownNow();
+        senderExecutor.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+
+        if (listenerContainer != null) {
+            try {
+                listenerContainer.destroy();
+            } catch (Exception e) {
+                logger.warn("Failed to stop Redis listener container for attendance stream", e);
+            }
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(Long classRoomId) {
+        SseEmitter emitter = createEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, classRoomId, queueCapacity);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+        logger.debug("Attendance stream subscriber added (classRoomId: {}), total: {}", classRoomId, subscribers.size());
+
+        try {
+            emitter.send(SseEmitter.event().name("connected").data(Map.of("nodeId", nodeId), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            subscribers.remove(subscriber);
+            emitter.completeWithError(e);
+        }
+
+        return emitter;
+    }
+
+    @Override
+    public void recordChange(Long classRoomId, LocalDate date, AttendanceStatus previousStatus,
+                             AttendanceStatus newStatus) {
+        if (classRoomId == null || date == null || Objects.equals(previousStatus, newStatus)) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<DeltaKey, Map<AttendanceStatus, Long>> single = new HashMap<>();
+            applyChange(single, new DeltaKey(classRoomId, date), previousStatus, newStatus);
+            publishPending(single);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<DeltaKey, Map<AttendanceStatus, Long>> pending =
+                (Map<DeltaKey, Map<AttendanceStatus, Long>>) TransactionSynchronizationManager.getResource(PENDING_DELTAS_KEY);
+
+        if (pending == null) {
+            Map<DeltaKey, Map<AttendanceStatus, Long>> deltas = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_DELTAS_KEY, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishPending(deltas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_DELTAS_KEY);
+                }
+            });
+            pending = deltas;
+        }
+
+        applyChange(pending, new DeltaKey(classRoomId, date), previousStatus, newStatus);
+    }
+
+    @Override
+    public void publish(AttendanceDeltaEvent event) {
+        publishedEvents.incrementAndGet();
+        dispatchLocal(event);
+
+        if (listenerContainer != null) {
+            try {
+                stringRedisTemplate.convertAndSend(redisChannel, objectMapper.writeValueAsString(event));
+            } catch (Exception e) {
+                logger.warn("Failed to fan out attendance delta to other nodes: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            AttendanceDeltaEvent event = objectMapper.readValue(message.getBody(), AttendanceDeltaEvent.class);
+            if (nodeId.equals(event.getOriginNode())) {
+                return; // Already dispatched locally
+            }
+            remoteEvents.incrementAndGet();
+            dispatchLocal(event);
+        } catch (Exception e) {
+            logger.warn("Ignoring malformed attendance delta from Redis: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStreamStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("subscribers", subscribers.size());
+        stats.put("publishedEvents", publishedEvents.get());
+        stats.put("remoteEvents", remoteEvents.get());
+        stats.put("droppedEvents", droppedEvents.get());
+        stats.put("resyncsRequested", resyncsRequested.get());
+        stats.put("redisFanOut", listenerContainer != null);
+        stats.put("queueCapacity", queueCapacity);
+        return stats;
+    }
+
+    // Helper methods
+
+    protected SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void applyChange(Map<DeltaKey, Map<AttendanceStatus, Long>> pending, DeltaKey key,
+                             AttendanceStatus previousStatus, AttendanceStatus newStatus) {
+        Map<AttendanceStatus, Long> counts = pending.computeIfAbsent(key, k -> new EnumMap<>(AttendanceStatus.class));
+        if (previousStatus != null) {
+            counts.merge(previousStatus, -1L, Long::sum);
+        }
+        if (newStatus != null) {
+            counts.merge(newStatus, 1L, Long::sum);
+        }
+    }
+
+    private void publishPending(Map<DeltaKey, Map<AttendanceStatus, Long>> pending) {
+        for (Map.Entry<DeltaKey, Map<AttendanceStatus, Long>> entry : pending.entrySet()) {
+            Map<AttendanceStatus, Long> deltas = new EnumMap<>(AttendanceStatus.class);
+            entry.getValue().forEach((status, delta) -> {
+                if (delta != 0) {
+                    deltas.put(status, delta);
+                }
+            });
+            if (deltas.isEmpty()) {
+                continue;
+            }
+
+            publish(AttendanceDeltaEvent.builder()
+                    .sequence(sequence.incrementAndGet())
+                    .originNode(nodeId)
+                    .date(entry.getKey().date)
+                    .classRoomId(entry.getKey().classRoomId)
+                    .statusDeltas(deltas)
+                    .totalDelta(deltas.values().stream().mapToLong(Long::longValue).sum())
+                    .occurredAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    private void dispatchLocal(AttendanceDeltaEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.classRoomId != null && !subscriber.classRoomId.equals(event.getClassRoomId())) {
+                continue;
+            }
+
+            if (!subscriber.queue.offer(event)) {
+                // Slow consumer: drop its backlog and ask it to refetch the summary instead of buffering without bound
+                droppedEvents.addAndGet(subscriber.queue.size() + 1L);
+                subscriber.queue.clear();
+                subscriber.resyncRequired.set(true);
+                resyncsRequested.incrementAndGet();
+            }
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senderExecutor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.resyncRequired.compareAndSet(true, false)) {
+                subscriber.emitter.send(SseEmitter.event().name("resync")
+                        .data(Map.of("reason", "backlog-overflow"), MediaType.APPLICATION_JSON));
+            }
+
+            AttendanceDeltaEvent event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(event.getOriginNode() + ":" + event.getSequence())
+                        .name("attendance-delta")
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        } catch (Exception e) {
+            logger.debug("Dropping attendance stream subscriber after send failure: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // Events may have arrived between the last poll and releasing the drain flag
+        if (subscribers.contains(subscriber) && (!subscriber.queue.isEmpty() || subscriber.resyncRequired.get())) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.draining.get()) {
+                continue;
+            }
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (Exception e) {
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long classRoomId;
+        private final BlockingQueue<AttendanceDeltaEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final AtomicBoolean resyncRequired = new AtomicBoolean(false);
+
+        private Subscriber(SseEmitter emitter, Long classRoomId, int capacity) {
+            this.emitter = emitter;
+            this.classRoomId = classRoomId;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    private static final class DeltaKey {
+        private final Long classRoomId;
+        private final LocalDate date;
+
+        private DeltaKey(Long classRoomId, LocalDate date) {
+            this.classRoomId = classRoomId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof DeltaKey)) return false;
+            DeltaKey other = (DeltaKey) o;
+            return classRoomId.equals(other.classRoomId) && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(classRoomId, date);
+        }
+    }
+}
@@ -5,20 +5,52 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of DataMigrationService for Laravel to Spring Boot migration
  * Provides comprehensive migration functionality with validation and rollback capabilities
+ * A complete migration streams each table: rows are read from a forward-only Laravel cursor and transformed one at a
+ * time onto a bounded queue, while the loader inserts them in batches that are committed as they go. Extraction and
+ * loading overlap and memory stays the same whatever the size of the tables. Tables are planned from the foreign keys
+ * of the target schema and run on a bounded pool as soon as the tables they reference are loaded.
  */
 @Service
 @Transactional
@@ -33,11 +65,35 @@ public class DataMigrationServiceImpl implements DataMigrationService {
     @Qualifier("laravelDataSource")
     private DataSource laravelDataSource;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private JdbcTemplate laravelJdbcTemplate;
 
+    // Rows fetched per round trip from the Laravel cursor; Integer.MIN_VALUE makes MySQL stream rows one by one
+    @Value("${app.migration.fetch-size:1000}")
+    private int fetchSize;
+
+    // Rows inserted and committed together, unless the migration config sets batchSize
+    @Value("${app.migration.batch-size:1000}")
+    private int batchSize;
+
+    // Transformed rows waiting for the loader
+    @Value("${app.migration.queue-capacity:5000}")
+    private int queueCapacity;
+
+    // Tables migrated at once; each holds a Laravel cursor and a target connection while a batch commits
+    @Value("${app.migration.max-parallel-tables:4}")
+    private int maxParallelTables;
+
+    private TransactionTemplate batchTransaction;
+    private ExecutorService tableExecutor;
+    private ExecutorService extractionExecutor;
+
     // Migration state tracking
     private final Map<String, Map<String, Object>> migrationStates = new ConcurrentHashMap<>();
     private final Map<String, Boolean> migrationCancellations = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, TableProgress>> migrationTables = new ConcurrentHashMap<>();
 
     // Table mapping configuration
     private static final Map<String, String> TABLE_MAPPINGS = Map.of(
@@ -66,7 +122,31 @@ public class DataMigrationServiceImpl implements DataMigrationService {
         "json", "JSON"
     );
 
+    // Marks the end of a table on the loader queue
+    private static final Map<String, Object> END_OF_TABLE = Collections.emptyMap();
+
+    @PostConstruct
+    public void start() {
+        if (laravelDataSource != null) {
+            laravelJdbcTemplate = new JdbcTemplate(laravelDataSource);
+        }
+        batchTransaction = new TransactionTemplate(transactionManager);
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (maxParallelTables < 1) {
+            throw new IllegalStateException("app.migration.max-parallel-tables must be at least 1");
+        }
+        tableExecutor = Executors.newFixedThreadPool(maxParallelTables, namedThreads("migration-table"));
+        extractionExecutor = Executors.newCachedThreadPool(namedThreads("migration-extract"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        tableExecutor.shutdownNow();
+        extractionExecutor.shutdownNow();
+    }
+
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> executeCompleteMigration(Map<String, Object> migrationConfig) {
         String migrationId = generateMigrationId();
         logger.info("Starting complete migration with ID: {}", migrationId);
@@ -76,11 +156,12 @@ public class DataMigrationServiceImpl implements DataMigrationService {
         result.put("startTime", LocalDateTime.now());
         
         try {
-            // Initialize Laravel JDBC template
-            laravelJdbcTemplate = new JdbcTemplate(laravelDataSource);
-            
-            // Create migration state
-            Map<String, Object> migrationState = new HashMap<>();
+            if (laravelJdbcTemplate == null) {
+                throw new IllegalStateException("Laravel data source is not configured");
+            }
+
+            // Create migration state; progress requests read it while the migration runs
+            Map<String, Object> migrationState = Collections.synchronizedMap(new HashMap<>());
             migrationState.put("status", "RUNNING");
             migrationState.put("progress", 0);
             migrationState.put("startTime", LocalDateTime.now());
@@ -92,19 +173,9 @@ public class DataMigrationServiceImpl implements DataMigrationService {
             migrationState.put("backupId", backupId);
             migrationState.put("progress", 10);
             
-            // Step 2: Extract data from Laravel
-            logger.info("Extracting data from Laravel database");
-            Map<String, List<Map<String, Object>>> laravelData = extractLaravelData(migrationConfig);
-            migrationState.put("progress", 30);
-            
-            // Step 3: Transform data
-            logger.info("Transforming data for Spring Boot");
-            Map<String, List<Map<String, Object>>> transformedData = transformData(laravelData);
-            migrationState.put("progress", 50);
-            
-            // Step 4: Load data into Spring Boot database
-            logger.info("Loading data into Spring Boot database");
-            Map<String, Object> loadResult = loadData(transformedData);
+            // Steps 2-4: Extract, transform and load each table as one stream
+            logger.info("Streaming tables from Laravel into Spring Boot database");
+            Map<String, Object> loadResult = migrateTables(migrationId, migrationConfig, migrationState);
             migrationState.put("progress", 80);
             
             // Step 5: Validate data integrity
@@ -198,8 +269,11 @@ public class DataMigrationServiceImpl implements DataMigrationService {
             // Build extraction query
             String query = buildExtractionQuery(tableName, config);
             
-            // Execute query and return results
-            List<Map<String, Object>> results = laravelJdbcTemplate.queryForList(query);
+            // Read through the same cursor as a complete migration; callers of this method want the whole table
+            List<Map<String, Object>> results = new ArrayList<>();
+            ColumnMapRowMapper rowMapper = new ColumnMapRowMapper();
+            laravelJdbcTemplate.query(cursor(query),
+                (RowCallbackHandler) rs -> results.add(rowMapper.mapRow(rs, results.size())));
             
             logger.debug("Extracted {} records from table: {}", results.size(), tableName);
             return results;
@@ -307,13 +381,7 @@ public class DataMigrationServiceImpl implements DataMigrationService {
         
         try {
             // Load data in dependency order to handle foreign keys
-            List<String> loadOrder = Arrays.asList(
-                "users", "class_rooms", "subjects", "students", 
-                "assessments", "student_assessments", "attendance",
-                "schedules", "extracurricular_activities", "extracurricular_attendance"
-            );
-            
-            for (String tableName : loadOrder) {
+            for (String tableName : loadOrder(planTableDependencies())) {
                 if (transformedData.containsKey(tableName)) {
                     List<Map<String, Object>> tableData = transformedData.get(tableName);
                     
@@ -538,6 +606,343 @@ public class DataMigrationServiceImpl implements DataMigrationService {
         return rollbackResult;
     }
 
+    /**
+     * Migrate every mapped table on the table pool, each as soon as the tables it references are loaded
+     * A table whose dependency failed is skipped rather than loaded into foreign key errors; the others still run.
+     */
+    private Map<String, Object> migrateTables(String migrationId, Map<String, Object> config,
+                                              Map<String, Object> migrationState) throws InterruptedException {
+        Map<String, String> laravelTables = new HashMap<>();
+        TABLE_MAPPINGS.forEach((laravelTable, tableName) -> laravelTables.put(tableName, laravelTable));
+        Map<String, Set<String>> dependencies = planTableDependencies();
+        Map<String, List<String>> dependents = new HashMap<>();
+        Map<String, Integer> unloadedDependencies = new HashMap<>();
+        Map<String, TableProgress> tables = new LinkedHashMap<>();
+        for (String tableName : loadOrder(dependencies)) {
+            tables.put(tableName, new TableProgress(dependencies.get(tableName)));
+            unloadedDependencies.put(tableName, dependencies.get(tableName).size());
+            for (String dependency : dependencies.get(tableName)) {
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(tableName);
+            }
+        }
+        migrationTables.put(migrationId, tables);
+
+        // Tables at the head of the longest chains start first, so the chains are not left to run on their own
+        Map<String, Integer> chainLengths = new HashMap<>();
+        tables.keySet().forEach(tableName -> chainLength(tableName, dependents, chainLengths));
+        PriorityQueue<String> ready = new PriorityQueue<>(
+            Comparator.comparing((String tableName) -> -chainLengths.get(tableName)).thenComparing(tableName -> tableName));
+        unloadedDependencies.forEach((tableName, count) -> {
+            if (count == 0) {
+                ready.add(tableName);
+            }
+        });
+
+        CompletionService<String> completion = new ExecutorCompletionService<>(tableExecutor);
+        List<Future<String>> running = new ArrayList<>();
+        int finished = 0;
+        try {
+            while (finished < tables.size()) {
+                while (!ready.isEmpty()) {
+                    String tableName = ready.poll();
+                    running.add(completion.submit(() -> {
+                        runTable(migrationId, laravelTables.get(tableName), tableName, config, tables.get(tableName));
+                        return tableName;
+                    }));
+                }
+                Future<String> done = completion.take();
+                running.remove(done);
+                String tableName = getQuietly(done);
+                finished++;
+                checkCancelled(migrationId);
+
+                if ("COMPLETED".equals(tables.get(tableName).status)) {
+                    for (String dependent : dependents.getOrDefault(tableName, Collections.emptyList())) {
+                        if (unloadedDependencies.merge(dependent, -1, Integer::sum) == 0) {
+                            ready.add(dependent);
+                        }
+                    }
+                } else {
+                    finished += skipDependents(tableName, dependents, tables);
+                }
+                migrationState.put("progress", 10 + 70 * finished / tables.size());
+            }
+        } finally {
+            // Only left running on cancellation or interruption; the workers stop at their next batch
+            running.forEach(future -> future.cancel(true));
+        }
+
+        Map<String, Long> recordCounts = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        tables.forEach((tableName, table) -> {
+            if ("COMPLETED".equals(table.status)) {
+                recordCounts.put(tableName, table.loaded.get());
+            } else {
+                errors.add("Table " + tableName + ": " + table.error);
+            }
+        });
+        Map<String, Object> loadResult = new HashMap<>();
+        loadResult.put("recordCounts", recordCounts);
+        loadResult.put("totalRecords", recordCounts.values().stream().mapToLong(Long::longValue).sum());
+        loadResult.put("errors", errors);
+        loadResult.put("status", errors.isEmpty() ? "SUCCESS" : "PARTIAL_SUCCESS");
+        logger.info("Data loading completed. Total records loaded: {}", loadResult.get("totalRecords"));
+        return loadResult;
+    }
+
+    private void runTable(String migrationId, String laravelTable, String tableName, Map<String, Object> config,
+                          TableProgress table) throws Exception {
+        table.startTime = LocalDateTime.now();
+        table.status = "RUNNING";
+        try {
+            migrateTable(migrationId, laravelTable, tableName, config, table);
+            table.status = "COMPLETED";
+        } catch (CancellationException e) {
+            table.error = e.getMessage();
+            table.status = "CANCELLED";
+        } catch (Exception e) {
+            logger.error("Failed to migrate table: {}", tableName, e);
+            table.error = e.getMessage();
+            table.status = "FAILED";
+        } finally {
+            table.endTime = LocalDateTime.now();
+        }
+    }
+
+    // Workers record their own failures, so a future only fails when it was interrupted
+    private static String getQuietly(Future<String> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Table worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * Mark every table that depends on a table that was not loaded as skipped; returns how many were
+     */
+    private static int skipDependents(String tableName, Map<String, List<String>> dependents,
+                                      Map<String, TableProgress> tables) {
+        int skipped = 0;
+        for (String dependent : dependents.getOrDefault(tableName, Collections.emptyList())) {
+            TableProgress table = tables.get(dependent);
+            if ("PENDING".equals(table.status)) {
+                table.status = "SKIPPED";
+                table.error = "Not migrated because " + tableName + " was not";
+                skipped += 1 + skipDependents(dependent, dependents, tables);
+            }
+        }
+        return skipped;
+    }
+
+    private static int chainLength(String tableName, Map<String, List<String>> dependents,
+                                   Map<String, Integer> chainLengths) {
+        Integer known = chainLengths.get(tableName);
+        if (known != null) {
+            return known;
+        }
+        int length = 1;
+        for (String dependent : dependents.getOrDefault(tableName, Collections.emptyList())) {
+            length = Math.max(length, 1 + chainLength(dependent, dependents, chainLengths));
+        }
+        chainLengths.put(tableName, length);
+        return length;
+    }
+
+    /**
+     * Foreign keys between the migrated tables, read from the target schema: each table with the tables it references
+     * Keys to tables outside TABLE_MAPPINGS are not planned for; those tables have to be populated already.
+     */
+    private Map<String, Set<String>> planTableDependencies() {
+        Map<String, Set<String>> dependencies = new TreeMap<>();
+        TABLE_MAPPINGS.values().forEach(tableName -> dependencies.put(tableName, new TreeSet<>()));
+        springBootJdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+                String tableName = metaData.storesUpperCaseIdentifiers()
+                    ? entry.getKey().toUpperCase(Locale.ROOT) : entry.getKey();
+                try (ResultSet keys = metaData.getImportedKeys(connection.getCatalog(), null, tableName)) {
+                    while (keys.next()) {
+                        String referenced = keys.getString("PKTABLE_NAME").toLowerCase(Locale.ROOT);
+                        // A table referencing itself is loaded in one stream; its rows are not reordered
+                        if (dependencies.containsKey(referenced) && !referenced.equals(entry.getKey())) {
+                            entry.getValue().add(referenced);
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+        return dependencies;
+    }
+
+    /**
+     * The tables with every table before the tables that reference it
+     */
+    private static List<String> loadOrder(Map<String, Set<String>> dependencies) {
+        List<String> order = new ArrayList<>();
+        Set<String> placed = new HashSet<>();
+        while (order.size() < dependencies.size()) {
+            int before = order.size();
+            for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+                if (!placed.contains(entry.getKey()) && placed.containsAll(entry.getValue())) {
+                    order.add(entry.getKey());
+                }
+            }
+            if (order.size() == before) {
+                Set<String> cycle = new TreeSet<>(dependencies.keySet());
+                cycle.removeAll(placed);
+                throw new IllegalStateException("Foreign key cycle between tables: " + cycle);
+            }
+            placed.addAll(order.subList(before, order.size()));
+        }
+        return order;
+    }
+
+    /**
+     * Stream one Laravel table into its Spring Boot table
+     * The cursor is read and every row transformed on an extraction thread, which blocks while the queue is full;
+     * this thread inserts the rows in batches of batchSize, each committed in a transaction of its own.
+     */
+    private Map<String, Object> migrateTable(String migrationId, String laravelTable, String tableName,
+                                             Map<String, Object> config, TableProgress table) throws Exception {
+        Map<String, Object> result = new HashMap<>();
+        if (!tableExists(laravelJdbcTemplate, laravelTable)) {
+            logger.warn("Table {} does not exist in Laravel database", laravelTable);
+            result.put("recordsLoaded", 0L);
+            return result;
+        }
+
+        long started = System.currentTimeMillis();
+        int rowsPerBatch = config != null && config.get("batchSize") instanceof Number
+            ? ((Number) config.get("batchSize")).intValue() : batchSize;
+        BlockingQueue<Map<String, Object>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicBoolean stopped = new AtomicBoolean();
+        Future<Long> extraction = extractionExecutor.submit(
+            () -> extractTable(laravelTable, tableName, config, queue, stopped, table.extracted));
+
+        long loaded = 0;
+        try {
+            List<Map<String, Object>> batch = new ArrayList<>(rowsPerBatch);
+            List<String> columns = null;
+            String insertSql = null;
+            while (true) {
+                Map<String, Object> record = queue.take();
+                if (record != END_OF_TABLE) {
+                    batch.add(record);
+                }
+                if (!batch.isEmpty() && (batch.size() == rowsPerBatch || record == END_OF_TABLE)) {
+                    if (columns == null) {
+                        // Every row of a table comes out of the same transform, so the first one names the columns
+                        columns = new ArrayList<>(batch.get(0).keySet());
+                        insertSql = String.format("INSERT INTO %s (%s) VALUES (%s)", tableName,
+                            String.join(", ", columns), columns.stream().map(c -> "?").collect(Collectors.joining(", ")));
+                    }
+                    loaded += insertBatch(insertSql, columns, batch);
+                    table.loaded.set(loaded);
+                    batch.clear();
+                    checkCancelled(migrationId);
+                }
+                if (record == END_OF_TABLE) {
+                    break;
+                }
+            }
+            long extracted = extraction.get();
+            logger.info("Migrated {} of {} records from {} into {} in {} ms", loaded, extracted, laravelTable,
+                tableName, System.currentTimeMillis() - started);
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        } finally {
+            stopped.set(true);
+            extraction.cancel(true);
+        }
+
+        result.put("recordsLoaded", loaded);
+        result.put("status", "SUCCESS");
+        return result;
+    }
+
+    /**
+     * Read a Laravel table through a forward-only cursor, handing each transformed row to the loader
+     * The end marker is queued even when reading fails, so the loader always finishes.
+     */
+    private long extractTable(String laravelTable, String tableName, Map<String, Object> config,
+                              BlockingQueue<Map<String, Object>> queue, AtomicBoolean stopped,
+                              AtomicLong extracted) throws Exception {
+        ColumnMapRowMapper rowMapper = new ColumnMapRowMapper();
+        long[] rows = new long[1];
+        try {
+            laravelJdbcTemplate.query(cursor(buildExtractionQuery(laravelTable, config)), (RowCallbackHandler) rs -> {
+                Map<String, Object> record = applyDataMapping(tableName, rowMapper.mapRow(rs, (int) rows[0]));
+                enqueue(queue, record, stopped);
+                rows[0]++;
+                extracted.lazySet(rows[0]);
+            });
+        } finally {
+            enqueue(queue, END_OF_TABLE, stopped);
+        }
+        return rows[0];
+    }
+
+    private PreparedStatementCreator cursor(String query) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        };
+    }
+
+    // Waits while the queue is full, giving up once the loader has stopped
+    private static void enqueue(BlockingQueue<Map<String, Object>> queue, Map<String, Object> record,
+                                AtomicBoolean stopped) {
+        try {
+            while (!queue.offer(record, 100, TimeUnit.MILLISECONDS)) {
+                if (stopped.get()) {
+                    throw new CancellationException("Loader stopped");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Extraction interrupted");
+        }
+    }
+
+    private long insertBatch(String insertSql, List<String> columns, List<Map<String, Object>> batch) {
+        List<Object[]> batchArgs = new ArrayList<>(batch.size());
+        for (Map<String, Object> record : batch) {
+            Object[] args = new Object[columns.size()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = record.get(columns.get(i));
+            }
+            batchArgs.add(args);
+        }
+        Long inserted = batchTransaction.execute(status -> {
+            long count = 0;
+            // Drivers that rewrite batches report SUCCESS_NO_INFO rather than a row count
+            for (int updated : springBootJdbcTemplate.batchUpdate(insertSql, batchArgs)) {
+                count += updated >= 0 ? updated : 1;
+            }
+            return count;
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    private void checkCancelled(String migrationId) {
+        if (Boolean.TRUE.equals(migrationCancellations.get(migrationId))) {
+            throw new CancellationException("Migration cancelled: " + migrationId);
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
     @Override
     public Map<String, Object> getMigrationProgress(String migrationId) {
         Map<String, Object> migrationState = migrationStates.get(migrationId);
@@ -545,7 +950,16 @@ public class DataMigrationServiceImpl implements DataMigrationService {
             throw new RuntimeException("Migration not found: " + migrationId);
         }
         
-        Map<String, Object> progress = new HashMap<>(migrationState);
+        Map<String, Object> progress;
+        synchronized (migrationState) {
+            progress = new HashMap<>(migrationState);
+        }
+        Map<String, TableProgress> tables = migrationTables.get(migrationId);
+        if (tables != null) {
+            Map<String, Object> tableProgress = new LinkedHashMap<>();
+            tables.forEach((tableName, table) -> tableProgress.put(tableName, table.toMap()));
+            progress.put("tables", tableProgress);
+        }
         progress.put("migrationId", migrationId);
         progress.put("timestamp", LocalDateTime.now());
         
@@ -869,4 +1283,36 @@ public class DataMigrationServiceImpl implements DataMigrationService {
             return result;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Progress of one table of a running migration, updated by its worker and read by progress requests
+     */
+    private static final class TableProgress {
+
+        private final Set<String> dependsOn;
+        private final AtomicLong extracted = new AtomicLong();
+        private final AtomicLong loaded = new AtomicLong();
+        private volatile String status = "PENDING";
+        private volatile String error;
+        private volatile LocalDateTime startTime;
+        private volatile LocalDateTime endTime;
+
+        TableProgress(Set<String> dependsOn) {
+            this.dependsOn = dependsOn;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("status", status);
+            map.put("dependsOn", new ArrayList<>(dependsOn));
+            map.put("recordsExtracted", extracted.get());
+            map.put("recordsLoaded", loaded.get());
+            map.put("startTime", startTime);
+            map.put("endTime", endTime);
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
@@ -1,39 +1,225 @@
 package com.school.sim.service.impl;
 
 import com.school.sim.dto.response.StudentResponse;
+import com.school.sim.entity.Gender;
+import com.school.sim.entity.StudentStatus;
+import com.school.sim.exception.ResourceNotFoundException;
+import com.school.sim.exception.ValidationException;
+import com.school.sim.repository.ClassRoomRepository;
 import com.school.sim.service.ExcelService;
+import com.school.sim.util.StreamingExcelWriter;
+import com.school.sim.util.XlsxRowReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.ByteArrayOutputStream;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 
 /**
- * Basic implementation of ExcelService
- * For development purposes - provides stub implementations
+ * Implementation of ExcelService
+ * Student exports read one flat projection row at a time from a forward-only cursor and hand it to a streaming
+ * workbook writer, so no entities or lazy class room/major associations are loaded and memory does not grow with
+ * the number of students. Student imports run the other way: the upload is parsed with POI's SAX reader, rows are
+ * validated in parallel chunks with one NIS query per chunk and inserted in JDBC batches, so a large sheet is never
+ * held as a workbook or as entities.
  */
 @Service
 public class ExcelServiceImpl implements ExcelService {
 
     private static final Logger logger = LoggerFactory.getLogger(ExcelServiceImpl.class);
 
+    private static final List<String> STUDENT_EXPORT_HEADERS = Arrays.asList("NIS", "Nama Lengkap", "Kelas",
+            "Jurusan", "Tempat Lahir", "Tanggal Lahir", "Jenis Kelamin", "Agama", "Alamat", "Nama Ayah", "Nama Ibu",
+            "No HP Orang Tua", "Tahun Masuk", "Status");
+
+    private static final String STUDENT_EXPORT_SQL =
+            "SELECT s.nis, s.nama_lengkap, c.name, m.name, s.tempat_lahir, s.tanggal_lahir, s.jenis_kelamin, " +
+            "s.agama, s.alamat, s.nama_ayah, s.nama_ibu, s.no_hp_ortu, s.tahun_masuk, s.status " +
+            "FROM students s LEFT JOIN class_rooms c ON c.id = s.class_room_id LEFT JOIN majors m ON m.id = c.major_id";
+
+    // Import fields, as positions in STUDENT_EXPORT_HEADERS so exported files can be imported again
+    private static final int COL_NIS = 0;
+    private static final int COL_NAMA_LENGKAP = 1;
+    private static final int COL_KELAS = 2;
+    private static final int COL_TEMPAT_LAHIR = 4;
+    private static final int COL_TANGGAL_LAHIR = 5;
+    private static final int COL_JENIS_KELAMIN = 6;
+    private static final int COL_AGAMA = 7;
+    private static final int COL_ALAMAT = 8;
+    private static final int COL_NAMA_AYAH = 9;
+    private static final int COL_NAMA_IBU = 10;
+    private static final int COL_NO_HP_ORTU = 11;
+    private static final int COL_TAHUN_MASUK = 12;
+    private static final int COL_STATUS = 13;
+    private static final int[] REQUIRED_IMPORT_COLUMNS = { COL_NIS, COL_NAMA_LENGKAP, COL_TAHUN_MASUK };
+
+    private static final Pattern NIS_PATTERN = Pattern.compile("^[0-9]+$");
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^[0-9+\\-\\s]*$");
+    private static final List<DateTimeFormatter> IMPORT_DATE_FORMATS = Arrays.asList(
+            DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern("d/M/uuuu"),
+            DateTimeFormatter.ofPattern("d-M-uuuu"));
+
+    // Class rooms can be referenced by name or class code
+    private static final String CLASS_ROOM_LOOKUP_SQL =
+            "SELECT id, name, class_code FROM class_rooms WHERE is_active = TRUE";
+
+    private static final String STUDENT_INSERT_SQL =
+            "INSERT INTO students (nis, nama_lengkap, class_room_id, tempat_lahir, tanggal_lahir, jenis_kelamin, " +
+            "agama, alamat, nama_ayah, nama_ibu, no_hp_ortu, tahun_masuk, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] STUDENT_INSERT_TYPES = { Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.VARCHAR,
+            Types.DATE, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.INTEGER, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClassRoomRepository classRoomRepository;
+
+    // Rows fetched per round trip; Integer.MIN_VALUE makes MySQL stream rows one by one
+    @Value("${app.excel.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    @Value("${app.export.excel.row-window:100}")
+    private int excelRowWindow;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Rows validated per task; each task costs one NIS lookup query
+    @Value("${app.excel.import.chunk-size:1000}")
+    private int importChunkSize;
+
+    @Value("${app.excel.import.batch-size:500}")
+    private int importBatchSize;
+
+    // Validation threads; 0 means up to four, each briefly holding a pooled connection for its NIS query
+    @Value("${app.excel.import.max-threads:0}")
+    private int importMaxThreads;
+
+    // Row errors kept per import; failed rows beyond this are only counted
+    @Value("${app.excel.import.max-errors:1000}")
+    private int importMaxErrors;
+
+    @Value("${app.excel.import.status-retention-minutes:60}")
+    private long importStatusRetentionMinutes;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService importRunner;
+    private ExecutorService validationPool;
+    private int maxChunksInFlight;
+
+    @PostConstruct
+    public void start() {
+        int threads = importMaxThreads > 0 ? importMaxThreads
+                : Math.min(4, Runtime.getRuntime().availableProcessors());
+        importRunner = Executors.newSingleThreadExecutor(namedThreads("student-import"));
+        validationPool = Executors.newFixedThreadPool(threads, namedThreads("student-import-validate"));
+        maxChunksInFlight = threads * 2;
+    }
+
+    @PreDestroy
+    public void stop() {
+        importRunner.shutdownNow();
+        validationPool.shutdownNow();
+    }
+
     @Override
     public ImportResult importStudentsFromExcel(MultipartFile file) {
         logger.info("Excel import requested for file: {}", file.getOriginalFilename());
-        
-        // Basic stub implementation
-        ImportResult result = new ImportResult();
-        result.setTotalRows(0);
-        result.setSuccessfulImports(0);
-        result.setFailedImports(0);
-        result.setErrors(new ArrayList<>());
-        result.setImportedStudents(new ArrayList<>());
-        
-        logger.info("Excel import completed - stub implementation");
-        return result;
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename());
+        File upload = spool(file);
+        try {
+            runImport(job, upload);
+        } catch (IOException e) {
+            logger.error("Failed to import students from Excel", e);
+            throw new RuntimeException("Excel import failed", e);
+        } finally {
+            deleteQuietly(upload);
+        }
+        return job.result();
+    }
+
+    @Override
+    public String startStudentImport(MultipartFile file) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename());
+        // The multipart upload is gone once the request ends, so the job reads its own copy
+        job.upload = spool(file);
+        jobs.put(job.id, job);
+        job.future = importRunner.submit(() -> runJob(job));
+        logger.info("Queued student import job {} for file: {}", job.id, job.fileName);
+        return job.id;
+    }
+
+    @Override
+    public Map<String, Object> getImportStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Student import job not found: " + jobId);
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", job.id);
+        status.put("status", job.status);
+        status.put("fileName", job.fileName);
+        status.put("processedRows", job.processedRows);
+        status.put("successfulImports", job.successfulImports);
+        status.put("failedImports", job.failedImports);
+        status.put("createdAt", job.createdAt);
+        status.put("startedAt", job.startedAt);
+        status.put("finishedAt", job.finishedAt);
+        if (job.error != null) {
+            status.put("error", job.error);
+        }
+        // Errors are only appended by the import thread, so they are published once the job is finished
+        if (job.isFinished()) {
+            status.put("errors", job.errors);
+        }
+        return status;
+    }
+
+    @Scheduled(fixedDelay = 300000)
+    public void cleanupFinishedImports() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(importStatusRetentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt.isBefore(cutoff));
     }
 
     @Override
@@ -50,25 +236,80 @@ public class ExcelServiceImpl implements ExcelService {
     @Override
     public ByteArrayOutputStream exportStudentsByClassRoomToExcel(Long classRoomId) {
         logger.info("Excel export requested for classroom ID: {}", classRoomId);
-        
-        // Basic stub implementation - return empty stream
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        
-        logger.info("Excel export completed for classroom - stub implementation");
-        return outputStream;
+
+        if (!classRoomRepository.existsById(classRoomId)) {
+            throw new ResourceNotFoundException("ClassRoom not found with id: " + classRoomId);
+        }
+        return exportStudents(classRoomId);
     }
 
     @Override
     public ByteArrayOutputStream exportAllStudentsToExcel() {
         logger.info("Excel export requested for all students");
-        
-        // Basic stub implementation - return empty stream
+        return exportStudents(null);
+    }
+
+    @Override
+    public void writeStudentsToExcel(Long classRoomId, OutputStream outputStream) throws IOException {
+        long started = System.currentTimeMillis();
+        String sql = classRoomId != null
+                ? STUDENT_EXPORT_SQL + " WHERE s.class_room_id = ? ORDER BY s.nama_lengkap"
+                : STUDENT_EXPORT_SQL + " ORDER BY c.name, s.nama_lengkap";
+
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(excelRowWindow)) {
+            writer.startSheet("Students");
+            writer.writeHeader(STUDENT_EXPORT_HEADERS);
+
+            // One reused row buffer; each cursor row is written and dropped before the next is read
+            List<Object> values = new ArrayList<>(STUDENT_EXPORT_HEADERS.size());
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(exportFetchSize);
+                if (classRoomId != null) {
+                    statement.setLong(1, classRoomId);
+                }
+                return statement;
+            }, rs -> {
+                readStudentRow(rs, values);
+                writer.writeRow(values);
+            });
+
+            writer.finish(outputStream);
+            logger.info("Exported {} students to Excel in {} ms", writer.getRowsWritten(),
+                    System.currentTimeMillis() - started);
+        }
+    }
+
+    private ByteArrayOutputStream exportStudents(Long classRoomId) {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        
-        logger.info("Excel export completed for all students - stub implementation");
+        try {
+            writeStudentsToExcel(classRoomId, outputStream);
+        } catch (IOException e) {
+            logger.error("Failed to export students to Excel", e);
+            throw new RuntimeException("Excel export failed", e);
+        }
         return outputStream;
     }
 
+    private void readStudentRow(ResultSet rs, List<Object> values) throws SQLException {
+        values.clear();
+        for (int column = 1; column <= 5; column++) {
+            values.add(rs.getString(column));
+        }
+        Date tanggalLahir = rs.getDate(6);
+        values.add(tanggalLahir != null ? tanggalLahir.toLocalDate().toString() : null);
+        String jenisKelamin = rs.getString(7);
+        values.add(jenisKelamin != null ? Gender.valueOf(jenisKelamin).getDisplayName() : null);
+        for (int column = 8; column <= 12; column++) {
+            values.add(rs.getString(column));
+        }
+        int tahunMasuk = rs.getInt(13);
+        values.add(rs.wasNull() ? null : tahunMasuk);
+        String status = rs.getString(14);
+        values.add(status != null ? StudentStatus.valueOf(status).getDisplayName() : null);
+    }
+
     @Override
     public ByteArrayOutputStream generateStudentImportTemplate() {
         logger.info("Student import template generation requested");
@@ -83,13 +324,478 @@ public class ExcelServiceImpl implements ExcelService {
     @Override
     public ValidationResult validateExcelFile(MultipartFile file) {
         logger.info("Excel file validation requested for: {}", file.getOriginalFilename());
-        
-        // Basic stub implementation - always return valid
-        ValidationResult result = new ValidationResult();
-        result.setValid(true);
-        result.setErrors(new ArrayList<>());
-        
-        logger.info("Excel file validation completed - stub implementation");
-        return result;
+
+        List<String> errors = new ArrayList<>();
+        String fileName = file.getOriginalFilename();
+        if (file.isEmpty()) {
+            errors.add("File is empty");
+        } else if (fileName == null || !fileName.toLowerCase(Locale.ROOT).endsWith(".xlsx")) {
+            errors.add("Only .xlsx files are supported");
+        } else {
+            File upload = spool(file);
+            try {
+                String[][] header = new String[1][];
+                XlsxRowReader.read(upload, (rowNumber, cells) -> {
+                    header[0] = cells;
+                    return false;
+                });
+                if (header[0] == null) {
+                    errors.add("The first sheet has no header row");
+                } else {
+                    List<String> missing = missingRequiredColumns(resolveImportColumns(header[0]));
+                    if (!missing.isEmpty()) {
+                        errors.add("Missing required columns: " + String.join(", ", missing));
+                    }
+                }
+            } catch (IOException e) {
+                errors.add("File is not a valid Excel workbook");
+            } finally {
+                deleteQuietly(upload);
+            }
+        }
+        return new ValidationResult(errors.isEmpty(), errors);
+    }
+
+    private void runJob(ImportJob job) {
+        try {
+            runImport(job, job.upload);
+        } catch (Exception e) {
+            logger.error("Student import job {} failed", job.id, e);
+            job.finish("FAILED", e.getMessage());
+        } finally {
+            deleteQuietly(job.upload);
+        }
+    }
+
+    /**
+     * Parse, validate and insert the first sheet of the file
+     * The parser hands rows to chunks that are validated on the pool while parsing continues; finished chunks are
+     * taken back in file order, checked for NIS repeated inside the file and inserted in JDBC batches, all in one
+     * transaction. At most maxChunksInFlight chunks are held at any time.
+     */
+    private void runImport(ImportJob job, File upload) throws IOException {
+        long started = System.currentTimeMillis();
+        job.startedAt = LocalDateTime.now();
+        job.status = "RUNNING";
+
+        StudentImport pipeline = new StudentImport(job, loadClassRoomLookup());
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> {
+                try {
+                    XlsxRowReader.read(upload, pipeline);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                pipeline.complete();
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            pipeline.abort();
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            pipeline.abort();
+            throw e;
+        }
+
+        job.finish("COMPLETED", null);
+        logger.info("Imported {} of {} student rows from {} in {} ms ({} failed)", job.successfulImports,
+                job.processedRows, job.fileName, System.currentTimeMillis() - started, job.failedImports);
+    }
+
+    /**
+     * Active class rooms by lower-case name and class code; names shared by several class rooms map to null
+     */
+    private Map<String, Long> loadClassRoomLookup() {
+        Map<String, Long> lookup = new HashMap<>();
+        jdbcTemplate.query(CLASS_ROOM_LOOKUP_SQL, rs -> {
+            long id = rs.getLong(1);
+            for (int column = 2; column <= 3; column++) {
+                String key = rs.getString(column);
+                if (key != null && !key.trim().isEmpty()) {
+                    lookup.merge(key.trim().toLowerCase(Locale.ROOT), id,
+                            (existing, other) -> existing != null && existing.equals(other) ? existing : null);
+                }
+            }
+        });
+        return lookup;
+    }
+
+    /**
+     * Position of each STUDENT_EXPORT_HEADERS column in the sheet, -1 when absent
+     */
+    private static int[] resolveImportColumns(String[] header) {
+        int[] columns = new int[STUDENT_EXPORT_HEADERS.size()];
+        Arrays.fill(columns, -1);
+        for (int cell = 0; cell < header.length; cell++) {
+            for (int field = 0; field < columns.length; field++) {
+                if (header[cell] != null && columns[field] < 0
+                        && STUDENT_EXPORT_HEADERS.get(field).equalsIgnoreCase(header[cell])) {
+                    columns[field] = cell;
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static List<String> missingRequiredColumns(int[] columns) {
+        List<String> missing = new ArrayList<>();
+        for (int field : REQUIRED_IMPORT_COLUMNS) {
+            if (columns[field] < 0) {
+                missing.add(STUDENT_EXPORT_HEADERS.get(field));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Field checks of one chunk, mirroring CreateStudentRequest, then one query for NIS already in the database
+     */
+    private List<ImportRow> validateChunk(List<ImportRow> rows, int[] columns, Map<String, Long> classRooms,
+                                          Timestamp now) {
+        List<String> candidates = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            validateRow(row, columns, classRooms, now);
+            if (row.errors.isEmpty()) {
+                candidates.add(row.nis);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            String sql = "SELECT nis FROM students WHERE nis IN ("
+                    + String.join(", ", Collections.nCopies(candidates.size(), "?")) + ")";
+            Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(sql, String.class, candidates.toArray()));
+            for (ImportRow row : rows) {
+                if (row.errors.isEmpty() && existing.contains(row.nis)) {
+                    row.error(COL_NIS, row.nis, "NIS already exists");
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void validateRow(ImportRow row, int[] columns, Map<String, Long> classRooms, Timestamp now) {
+        String[] cells = row.cells;
+        row.cells = null;
+
+        String nis = cell(cells, columns, COL_NIS);
+        if (nis == null) {
+            row.error(COL_NIS, null, "NIS is required");
+        } else if (nis.length() > 20) {
+            row.error(COL_NIS, nis, "NIS must not exceed 20 characters");
+        } else if (!NIS_PATTERN.matcher(nis).matches()) {
+            row.error(COL_NIS, nis, "NIS must contain only numbers");
+        }
+        row.nis = nis;
+
+        String namaLengkap = cell(cells, columns, COL_NAMA_LENGKAP);
+        if (namaLengkap == null) {
+            row.error(COL_NAMA_LENGKAP, null, "Full name is required");
+        } else {
+            checkLength(row, COL_NAMA_LENGKAP, namaLengkap, 100, "Name");
+        }
+
+        Long classRoomId = null;
+        String kelas = cell(cells, columns, COL_KELAS);
+        if (kelas != null) {
+            String key = kelas.toLowerCase(Locale.ROOT);
+            classRoomId = classRooms.get(key);
+            if (classRoomId == null) {
+                row.error(COL_KELAS, kelas, classRooms.containsKey(key)
+                        ? "Class room name is ambiguous, use the class code" : "Class room not found");
+            }
+        }
+
+        String tempatLahir = cell(cells, columns, COL_TEMPAT_LAHIR);
+        checkLength(row, COL_TEMPAT_LAHIR, tempatLahir, 50, "Place of birth");
+
+        LocalDate tanggalLahir = null;
+        String tanggal = cell(cells, columns, COL_TANGGAL_LAHIR);
+        if (tanggal != null) {
+            tanggalLahir = parseDate(tanggal);
+            if (tanggalLahir == null) {
+                row.error(COL_TANGGAL_LAHIR, tanggal, "Birth date must be yyyy-MM-dd or dd/MM/yyyy");
+            } else if (!tanggalLahir.isBefore(now.toLocalDateTime().toLocalDate())) {
+                row.error(COL_TANGGAL_LAHIR, tanggal, "Birth date must be in the past");
+            }
+        }
+
+        Gender jenisKelamin = null;
+        String gender = cell(cells, columns, COL_JENIS_KELAMIN);
+        if (gender != null) {
+            jenisKelamin = Arrays.stream(Gender.values())
+                    .filter(value -> value.name().equalsIgnoreCase(gender)
+                            || value.getDisplayName().equalsIgnoreCase(gender))
+                    .findFirst().orElse(null);
+            if (jenisKelamin == null) {
+                row.error(COL_JENIS_KELAMIN, gender, "Gender must be Laki-laki or Perempuan");
+            }
+        }
+
+        String agama = cell(cells, columns, COL_AGAMA);
+        checkLength(row, COL_AGAMA, agama, 20, "Religion");
+        String alamat = cell(cells, columns, COL_ALAMAT);
+        checkLength(row, COL_ALAMAT, alamat, 500, "Address");
+        String namaAyah = cell(cells, columns, COL_NAMA_AYAH);
+        checkLength(row, COL_NAMA_AYAH, namaAyah, 100, "Father's name");
+        String namaIbu = cell(cells, columns, COL_NAMA_IBU);
+        checkLength(row, COL_NAMA_IBU, namaIbu, 100, "Mother's name");
+
+        String noHpOrtu = cell(cells, columns, COL_NO_HP_ORTU);
+        if (checkLength(row, COL_NO_HP_ORTU, noHpOrtu, 20, "Parent phone number") && noHpOrtu != null
+                && !PHONE_PATTERN.matcher(noHpOrtu).matches()) {
+            row.error(COL_NO_HP_ORTU, noHpOrtu, "Invalid phone number format");
+        }
+
+        Integer tahunMasuk = null;
+        String tahun = cell(cells, columns, COL_TAHUN_MASUK);
+        if (tahun == null) {
+            row.error(COL_TAHUN_MASUK, null, "Year of entry is required");
+        } else {
+            try {
+                tahunMasuk = Integer.valueOf(tahun);
+            } catch (NumberFormatException e) {
+                row.error(COL_TAHUN_MASUK, tahun, "Year of entry must be a number");
+            }
+        }
+
+        StudentStatus status = StudentStatus.ACTIVE;
+        String statusValue = cell(cells, columns, COL_STATUS);
+        if (statusValue != null) {
+            status = Arrays.stream(StudentStatus.values())
+                    .filter(value -> value.name().equalsIgnoreCase(statusValue)
+                            || value.getDisplayName().equalsIgnoreCase(statusValue))
+                    .findFirst().orElse(null);
+            if (status == null) {
+                row.error(COL_STATUS, statusValue, "Unknown student status");
+            }
+        }
+
+        if (row.errors.isEmpty()) {
+            row.insertArgs = new Object[] { nis, namaLengkap, classRoomId, tempatLahir,
+                    tanggalLahir != null ? Date.valueOf(tanggalLahir) : null,
+                    jenisKelamin != null ? jenisKelamin.name() : null, agama, alamat, namaAyah, namaIbu, noHpOrtu,
+                    tahunMasuk, status.name(), now, now };
+        }
+    }
+
+    private static String cell(String[] cells, int[] columns, int field) {
+        int column = columns[field];
+        return column >= 0 && column < cells.length ? cells[column] : null;
+    }
+
+    private static boolean checkLength(ImportRow row, int field, String value, int max, String label) {
+        if (value != null && value.length() > max) {
+            row.error(field, value, label + " must not exceed " + max + " characters");
+            return false;
+        }
+        return true;
+    }
+
+    private static LocalDate parseDate(String value) {
+        for (DateTimeFormatter format : IMPORT_DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    private static File spool(MultipartFile file) {
+        try {
+            File upload = File.createTempFile("student-import-", ".xlsx");
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, upload.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return upload;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store uploaded file", e);
+        }
+    }
+
+    private static void deleteQuietly(File file) {
+        if (file != null && !file.delete() && file.exists()) {
+            logger.warn("Could not delete temporary import file {}", file);
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Row handler of one import run: groups parsed rows into chunks for the validation pool and writes the
+     * validated chunks back in file order
+     */
+    private final class StudentImport implements XlsxRowReader.RowHandler {
+
+        private final ImportJob job;
+        private final Map<String, Long> classRooms;
+        private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        private final Deque<Future<List<ImportRow>>> inFlight = new ArrayDeque<>();
+        // NIS accepted so far -> row number, to reject repeats inside the file
+        private final Map<String, Integer> acceptedNis = new HashMap<>();
+        private final List<Object[]> batch = new ArrayList<>();
+        private int[] columns;
+        private List<ImportRow> chunk = new ArrayList<>();
+
+        StudentImport(ImportJob job, Map<String, Long> classRooms) {
+            this.job = job;
+            this.classRooms = classRooms;
+        }
+
+        @Override
+        public boolean row(int rowNumber, String[] cells) {
+            if (columns == null) {
+                columns = resolveImportColumns(cells);
+                List<String> missing = missingRequiredColumns(columns);
+                if (!missing.isEmpty()) {
+                    throw new ValidationException("Missing required columns: " + String.join(", ", missing));
+                }
+                return true;
+            }
+            chunk.add(new ImportRow(rowNumber, cells));
+            if (chunk.size() >= importChunkSize) {
+                submitChunk();
+            }
+            return true;
+        }
+
+        void complete() {
+            submitChunk();
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll());
+            }
+            flush();
+        }
+
+        void abort() {
+            inFlight.forEach(future -> future.cancel(true));
+            inFlight.clear();
+        }
+
+        private void submitChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<ImportRow> rows = chunk;
+            int[] chunkColumns = columns;
+            chunk = new ArrayList<>(importChunkSize);
+            inFlight.add(validationPool.submit(() -> validateChunk(rows, chunkColumns, classRooms, now)));
+            while (inFlight.size() > maxChunksInFlight) {
+                write(inFlight.poll());
+            }
+        }
+
+        private void write(Future<List<ImportRow>> validated) {
+            List<ImportRow> rows;
+            try {
+                rows = validated.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Student import interrupted", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                        : new IllegalStateException(e.getCause());
+            }
+
+            for (ImportRow row : rows) {
+                if (row.errors.isEmpty()) {
+                    Integer first = acceptedNis.putIfAbsent(row.nis, row.rowNumber);
+                    if (first != null) {
+                        row.error(COL_NIS, row.nis, "Duplicate NIS, already used on row " + first);
+                    }
+                }
+                if (row.errors.isEmpty()) {
+                    batch.add(row.insertArgs);
+                    job.successfulImports++;
+                    if (batch.size() >= importBatchSize) {
+                        flush();
+                    }
+                } else {
+                    job.failedImports++;
+                    for (ImportError error : row.errors) {
+                        if (job.errors.size() < importMaxErrors) {
+                            job.errors.add(error);
+                        }
+                    }
+                }
+            }
+            job.processedRows += rows.size();
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(STUDENT_INSERT_SQL, batch, STUDENT_INSERT_TYPES);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * One parsed sheet row with its validation outcome
+     */
+    private static final class ImportRow {
+
+        final int rowNumber;
+        final List<ImportError> errors = new ArrayList<>(0);
+        String[] cells;
+        String nis;
+        Object[] insertArgs;
+
+        ImportRow(int rowNumber, String[] cells) {
+            this.rowNumber = rowNumber;
+            this.cells = cells;
+        }
+
+        void error(int field, String value, String message) {
+            errors.add(new ImportError(rowNumber, STUDENT_EXPORT_HEADERS.get(field), value, message));
+            insertArgs = null;
+        }
+    }
+
+    /**
+     * One import run; counters are written by the import thread only
+     */
+    private static final class ImportJob {
+
+        final String id;
+        final String fileName;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final List<ImportError> errors = new ArrayList<>();
+        File upload;
+        volatile Future<?> future;
+        volatile String status = "QUEUED";
+        volatile int processedRows;
+        volatile int successfulImports;
+        volatile int failedImports;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        ImportJob(String id, String fileName) {
+            this.id = id;
+            this.fileName = fileName;
+        }
+
+        void finish(String finalStatus, String message) {
+            error = message;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        ImportResult result() {
+            return new ImportResult(processedRows, successfulImports, failedImports, errors, new ArrayList<>());
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,460 +1,1792 @@
 package com.school.sim.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.sim.exception.ExportRejectedException;
+import com.school.sim.exception.ResourceNotFoundException;
+import com.school.sim.exception.ValidationException;
+import com.school.sim.service.AcademicReportService;
 import com.school.sim.service.ExportService;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.school.sim.util.ContentCoding;
+import com.school.sim.util.StreamingCsvWriter;
+import com.school.sim.util.StreamingExcelWriter;
+import com.school.sim.util.StreamingParquetWriter;
+import com.school.sim.util.StreamingParquetWriter.Column;
+import com.school.sim.util.StreamingParquetWriter.ColumnType;
+import com.school.sim.util.XlsxRowReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
 /**
  * Implementation of ExportService for handling various export formats
  * Provides comprehensive export functionality with progress tracking and multiple formats
+ * Excel and CSV are written row by row to the caller's stream; attendance and grade dumps read a forward-only
+ * cursor, so the first bytes leave before the query is exhausted and memory does not grow with the row count.
  */
 @Service
 public class ExportServiceImpl implements ExportService {
 
     private static final Logger logger = LoggerFactory.getLogger(ExportServiceImpl.class);
 
-    private final ExecutorService exportExecutor = Executors.newFixedThreadPool(5);
-    private final Map<String, CompletableFuture<byte[]>> exportJobs = new ConcurrentHashMap<>();
-    private final Map<String, Map<String, Object>> jobStatuses = new ConcurrentHashMap<>();
+    // Job id, plus the part number for batch parts, and extension; only such files are ever removed from the spool
+    private static final Pattern SPOOL_FILE_NAME = Pattern.compile("[0-9a-f-]{36}(-\\d+)?\\.(xlsx|csv|json|zip|part)(\\.gz)?");
+
+    // Text formats; Excel and ZIP are deflated already and gain nothing from another pass
+    private static final Set<String> COMPRESSIBLE_FORMATS = new HashSet<>(Arrays.asList("csv", "json", "xml"));
+
+    // Batch reports read straight from the database, one part per class
+    private static final List<String> BATCH_REPORT_TYPES = Arrays.asList("roster", "grades", "attendance");
+
+    private static final String BATCH_CLASS_ROOMS_SQL =
+            "SELECT id, name, class_code FROM class_rooms WHERE is_active = TRUE ORDER BY grade, name";
+
+    // Sizing a report part before it runs: its rows are counted and taken at a typical CSV width
+    private static final Map<String, Integer> BATCH_REPORT_ROW_BYTES = Map.of("roster", 110, "grades", 140,
+            "attendance", 100);
+
+    private static final String ROSTER_COUNT_SQL = "SELECT COUNT(*) FROM students s WHERE s.class_room_id = ?";
+
+    private static final String ATTENDANCE_ARCHIVE_COUNT_SQL =
+            "SELECT COUNT(*) FROM attendances_archive aa WHERE aa.activity_date BETWEEN ? AND ? " +
+            "AND aa.class_room_id = ?";
+
+    private static final String ATTENDANCE_COUNT_SQL =
+            "SELECT COUNT(*) FROM attendances a JOIN teaching_activities ta ON ta.id = a.teaching_activity_id " +
+            "WHERE ta.date BETWEEN ? AND ? AND ta.class_room_id = ?";
+
+    private static final String GRADES_COUNT_SQL =
+            "SELECT COUNT(*) FROM student_assessments sa JOIN assessments asm ON asm.id = sa.assessment_id " +
+            "WHERE asm.academic_year = ?";
+
+    private static final List<String> ROSTER_CSV_HEADERS = Arrays.asList("nis", "student_name", "gender",
+            "birth_place", "birth_date", "religion", "parent_phone", "entry_year", "status");
+
+    private static final String ROSTER_CSV_SQL =
+            "SELECT s.nis, s.nama_lengkap, s.jenis_kelamin, s.tempat_lahir, s.tanggal_lahir, s.agama, s.no_hp_ortu, " +
+            "s.tahun_masuk, s.status FROM students s WHERE s.class_room_id = ? ORDER BY s.nama_lengkap";
+
+    private static final List<String> ATTENDANCE_CSV_HEADERS = Arrays.asList("date", "start_time", "class",
+            "subject", "nis", "student_name", "status", "notes");
+
+    // Archived years first, then live rows, each in date order so both can be streamed without a combined sort
+    private static final String ATTENDANCE_ARCHIVE_CSV_SQL =
+            "SELECT aa.activity_date, aa.start_time, c.name, sub.nama_mapel, s.nis, s.nama_lengkap, aa.status, " +
+            "aa.keterangan FROM attendances_archive aa JOIN students s ON s.id = aa.student_id " +
+            "JOIN class_rooms c ON c.id = aa.class_room_id JOIN subjects sub ON sub.id = aa.subject_id " +
+            "WHERE aa.activity_date BETWEEN ? AND ?";
+
+    private static final String ATTENDANCE_CSV_SQL =
+            "SELECT ta.date, ta.start_time, c.name, sub.nama_mapel, s.nis, s.nama_lengkap, a.status, a.keterangan " +
+            "FROM attendances a JOIN teaching_activities ta ON ta.id = a.teaching_activity_id " +
+            "JOIN students s ON s.id = a.student_id JOIN class_rooms c ON c.id = ta.class_room_id " +
+            "JOIN subjects sub ON sub.id = ta.subject_id WHERE ta.date BETWEEN ? AND ?";
+
+    private static final List<String> GRADES_CSV_HEADERS = Arrays.asList("academic_year", "semester", "class",
+            "subject", "assessment", "type", "max_score", "nis", "student_name", "score", "grade", "submitted",
+            "graded_at");
+
+    private static final String GRADES_CSV_SQL =
+            "SELECT asm.academic_year, asm.semester, c.name, sub.nama_mapel, asm.title, asm.type, asm.max_score, " +
+            "s.nis, s.nama_lengkap, sa.score, sa.grade, sa.is_submitted, sa.graded_at " +
+            "FROM student_assessments sa JOIN assessments asm ON asm.id = sa.assessment_id " +
+            "JOIN students s ON s.id = sa.student_id JOIN class_rooms c ON c.id = asm.class_room_id " +
+            "JOIN subjects sub ON sub.id = asm.subject_id WHERE asm.academic_year = ?";
+
+    // Columnar exports reuse the CSV queries with typed columns; schedules have no CSV of their own
+    private static final List<String> PARQUET_DATASETS = Arrays.asList("attendance", "student_assessment",
+            "schedule");
+
+    private static final List<Column> ATTENDANCE_PARQUET_COLUMNS = Arrays.asList(
+            new Column("date", ColumnType.DATE), new Column("start_time", ColumnType.TIME),
+            new Column("class", ColumnType.STRING), new Column("subject", ColumnType.STRING),
+            new Column("nis", ColumnType.STRING), new Column("student_name", ColumnType.STRING),
+            new Column("status", ColumnType.STRING), new Column("notes", ColumnType.STRING));
+
+    private static final List<Column> GRADES_PARQUET_COLUMNS = Arrays.asList(
+            new Column("academic_year", ColumnType.STRING), new Column("semester", ColumnType.INT32),
+            new Column("class", ColumnType.STRING), new Column("subject", ColumnType.STRING),
+            new Column("assessment", ColumnType.STRING), new Column("type", ColumnType.STRING),
+            new Column("max_score", ColumnType.DOUBLE), new Column("nis", ColumnType.STRING),
+            new Column("student_name", ColumnType.STRING), new Column("score", ColumnType.DOUBLE),
+            new Column("grade", ColumnType.STRING), new Column("submitted", ColumnType.BOOLEAN),
+            new Column("graded_at", ColumnType.TIMESTAMP));
+
+    private static final List<Column> SCHEDULE_PARQUET_COLUMNS = Arrays.asList(
+            new Column("academic_year", ColumnType.STRING), new Column("semester", ColumnType.INT32),
+            new Column("day_of_week", ColumnType.STRING), new Column("start_time", ColumnType.TIME),
+            new Column("end_time", ColumnType.TIME), new Column("class", ColumnType.STRING),
+            new Column("subject", ColumnType.STRING), new Column("teacher_nip", ColumnType.STRING),
+            new Column("teacher_name", ColumnType.STRING), new Column("active", ColumnType.BOOLEAN));
+
+    private static final String SCHEDULE_PARQUET_SQL =
+            "SELECT sc.academic_year, sc.semester, sc.day_of_week, sc.start_time, sc.end_time, c.name, " +
+            "sub.nama_mapel, u.nip, CONCAT(u.first_name, ' ', u.last_name), sc.is_active FROM schedules sc " +
+            "JOIN class_rooms c ON c.id = sc.class_room_id JOIN subjects sub ON sub.id = sc.subject_id " +
+            "JOIN users u ON u.id = sc.teacher_id WHERE sc.academic_year = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AcademicReportService academicReportService;
+
+    private final Map<String, ExportJob> exportJobs = new ConcurrentHashMap<>();
+
+    // Admission: jobs wait here in arrival order until a slot is free and their owner is under the per-user cap
+    private final Object admissionLock = new Object();
+    private final List<ExportJob> waitingJobs = new ArrayList<>();
+    private final Map<String, Integer> runningByOwner = new HashMap<>();
+    private int runningJobs;
+    private final AtomicLong admittedJobs = new AtomicLong();
+    private final AtomicLong rejectedJobs = new AtomicLong();
+    private final AtomicLong startedJobs = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+    private final AtomicLong finishedJobs = new AtomicLong();
+    private final AtomicLong totalRunMillis = new AtomicLong();
+    private volatile long maxWaitMillis;
+
+    // Rows of a sheet kept in memory while writing Excel; older rows spill to temp files
+    @Value("${app.export.excel.row-window:100}")
+    private int excelRowWindow;
+
+    // Rows fetched per round trip by CSV dumps; Integer.MIN_VALUE makes MySQL stream rows one by one
+    @Value("${app.export.csv.fetch-size:500}")
+    private int csvFetchSize;
+
+    // Rows buffered per Parquet row group; a row group is written as soon as it is full
+    @Value("${app.export.parquet.row-group-rows:100000}")
+    private int parquetRowGroupRows;
+
+    @Value("${app.export.parquet.compression-level:6}")
+    private int parquetCompressionLevel;
+
+    // Finished async exports are written here and served from disk
+    @Value("${app.export.spool.directory:${java.io.tmpdir}/sim-exports}")
+    private String spoolDirectoryName;
+
+    @Value("${app.export.spool.ttl-minutes:1440}")
+    private long spoolTtlMinutes;
+
+    // Oldest finished exports are removed first once the spool grows past this
+    @Value("${app.export.spool.max-bytes:2147483648}")
+    private long spoolMaxBytes;
+
+    // Batch parts rendered at once, 0 for one per core; every class report holds a database connection meanwhile
+    @Value("${app.export.batch.max-threads:0}")
+    private int batchMaxThreads;
+
+    @Value("${app.export.batch.max-parts:1000}")
+    private int batchMaxParts;
+
+    // Content codings offered to clients, in order of preference; empty turns compression off
+    @Value("${app.export.compression.codings:gzip,deflate}")
+    private String compressionCodings;
+
+    // Deflate level, 1 fastest to 9 smallest
+    @Value("${app.export.compression.level:1}")
+    private int compressionLevel;
+
+    // Async exports running at once; each holds a database connection while it reads
+    @Value("${app.export.admission.max-concurrent:4}")
+    private int maxConcurrentExports;
+
+    @Value("${app.export.admission.max-concurrent-per-user:2}")
+    private int maxConcurrentExportsPerUser;
+
+    // Exports waiting for a slot; beyond this new exports are rejected
+    @Value("${app.export.admission.max-queued:50}")
+    private int maxQueuedExports;
+
+    @Value("${app.export.admission.max-queued-per-user:5}")
+    private int maxQueuedExportsPerUser;
+
+    // Exports estimated larger than this are refused up front
+    @Value("${app.export.admission.max-estimated-bytes:536870912}")
+    private long maxEstimatedExportBytes;
+
+    private Path spoolDirectory;
+    private ExecutorService exportExecutor;
+    private ExecutorService batchExecutor;
+    private List<ContentCoding> offeredCodings = new ArrayList<>();
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalStateException("app.export.compression.level must be between 0 and 9");
+        }
+        if (parquetCompressionLevel < Deflater.NO_COMPRESSION || parquetCompressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalStateException("app.export.parquet.compression-level must be between 0 and 9");
+        }
+        offeredCodings = new ArrayList<>();
+        for (String token : (compressionCodings != null ? compressionCodings : "").split(",")) {
+            ContentCoding coding = ContentCoding.forToken(token);
+            if (coding != null && coding != ContentCoding.IDENTITY) {
+                offeredCodings.add(coding);
+            } else if (!token.trim().isEmpty()) {
+                logger.warn("Ignoring unknown export content coding: {}", token);
+            }
+        }
+        if (maxConcurrentExports < 1 || maxConcurrentExportsPerUser < 1) {
+            throw new IllegalStateException("app.export.admission concurrency limits must be at least 1");
+        }
+        exportExecutor = Executors.newFixedThreadPool(maxConcurrentExports, namedThreads("export"));
+        int threads = batchMaxThreads > 0 ? batchMaxThreads : Runtime.getRuntime().availableProcessors();
+        batchExecutor = Executors.newFixedThreadPool(threads, namedThreads("batch-export"));
+        spoolDirectory = Paths.get(spoolDirectoryName).toAbsolutePath();
+        Files.createDirectories(spoolDirectory);
+        // Jobs live in memory, so files of a previous run can no longer be downloaded
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory)) {
+            for (Path file : files) {
+                if (SPOOL_FILE_NAME.matcher(file.getFileName().toString()).matches()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        logger.info("Async exports are spooled to {}", spoolDirectory);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (exportExecutor != null) {
+            exportExecutor.shutdownNow();
+        }
+        if (batchExecutor != null) {
+            batchExecutor.shutdownNow();
+        }
+    }
 
     // Excel Export Implementation
 
     @Override
-    public byte[] exportToExcel(String reportType, Map<String, Object> data, Map<String, Object> options) {
-        logger.info("Exporting {} report to Excel", reportType);
-        
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet(reportType);
-            
-            // Create header style
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            
-            // Create data style
-            CellStyle dataStyle = createDataStyle(workbook);
-            
-            int rowNum = 0;
-            
-            // Add title if provided
-            if (options.containsKey("title")) {
-                Row titleRow = sheet.createRow(rowNum++);
-                Cell titleCell = titleRow.createCell(0);
-                titleCell.setCellValue((String) options.get("title"));
-                titleCell.setCellStyle(headerStyle);
-                rowNum++; // Skip a row
+    public byte[] exportToExcel(String reportType, Map<String, Object> data, Map<String, Object> options) {
+        return toBytes(out -> streamToExcel(reportType, data, options, out), "Excel export failed");
+    }
+
+    @Override
+    public byte[] exportListToExcel(List<Map<String, Object>> data, List<String> headers, String sheetName) {
+        return toBytes(out -> streamListToExcel(data, headers, sheetName, out), "Excel export failed");
+    }
+
+    @Override
+    public byte[] exportMultipleSheetsToExcel(Map<String, List<Map<String, Object>>> sheetsData, 
+                                            Map<String, List<String>> headersMap) {
+        return toBytes(out -> streamMultipleSheetsToExcel(sheetsData, headersMap, out), "Excel export failed");
+    }
+
+    @Override
+    public void streamToExcel(String reportType, Map<String, Object> data, Map<String, Object> options,
+                              OutputStream outputStream) throws IOException {
+        logger.info("Exporting {} report to Excel", reportType);
+
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(excelRowWindow)) {
+            writer.startSheet(reportType);
+
+            // Add title if provided
+            if (options.containsKey("title")) {
+                writer.writeTitle(String.valueOf(options.get("title")));
+                writer.skipRow();
+            }
+
+            // Add metadata
+            if (data.get("metadata") instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) data.get("metadata")).entrySet()) {
+                    writer.writeLabel(entry.getKey() + ":", entry.getValue());
+                }
+                writer.skipRow();
+            }
+
+            // Add main data, with the first row's keys as headers
+            if (data.get("data") instanceof List) {
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> tableData = (List<Map<String, Object>>) data.get("data");
+                if (!tableData.isEmpty()) {
+                    List<String> headers = new ArrayList<>(tableData.get(0).keySet());
+                    writer.writeHeader(headers);
+                    writeRows(writer, tableData, headers);
+                }
+            }
+
+            writer.finish(outputStream);
+            logger.info("Successfully exported {} report to Excel ({} rows)", reportType, writer.getRowsWritten());
+        }
+    }
+
+    @Override
+    public void streamListToExcel(List<Map<String, Object>> data, List<String> headers, String sheetName,
+                                  OutputStream outputStream) throws IOException {
+        logger.info("Exporting list data to Excel with {} rows", data.size());
+
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(excelRowWindow)) {
+            writer.startSheet(sheetName != null ? sheetName : "Data");
+            if (headers != null && !headers.isEmpty()) {
+                writer.writeHeader(headers);
+            }
+            // Without headers, values are written in the natural order of each row's keys
+            writeRows(writer, data, headers);
+
+            writer.finish(outputStream);
+            logger.info("Successfully exported list to Excel ({} rows)", writer.getRowsWritten());
+        }
+    }
+
+    @Override
+    public void streamMultipleSheetsToExcel(Map<String, List<Map<String, Object>>> sheetsData,
+                                            Map<String, List<String>> headersMap,
+                                            OutputStream outputStream) throws IOException {
+        logger.info("Exporting multiple sheets to Excel ({} sheets)", sheetsData.size());
+
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(excelRowWindow)) {
+            for (Map.Entry<String, List<Map<String, Object>>> sheetEntry : sheetsData.entrySet()) {
+                List<String> headers = headersMap.get(sheetEntry.getKey());
+                writer.startSheet(sheetEntry.getKey());
+                if (headers != null && !headers.isEmpty()) {
+                    writer.writeHeader(headers);
+                    writeRows(writer, sheetEntry.getValue(), headers);
+                } else {
+                    // Rows of sheets without headers are left empty
+                    sheetEntry.getValue().forEach(row -> writer.writeRow(Collections.emptyList()));
+                }
+            }
+
+            writer.finish(outputStream);
+            logger.info("Successfully exported multiple sheets to Excel ({} rows)", writer.getRowsWritten());
+        }
+    }
+
+    private void writeRows(StreamingExcelWriter writer, List<Map<String, Object>> rows, List<String> headers) {
+        List<Object> values = new ArrayList<>();
+        for (Map<String, Object> rowData : rows) {
+            if (headers == null) {
+                writer.writeRow(rowData.values());
+                continue;
+            }
+            values.clear();
+            for (String header : headers) {
+                values.add(rowData.get(header));
+            }
+            writer.writeRow(values);
+        }
+    }
+
+    private byte[] toBytes(StreamWrite write, String failureMessage) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            write.to(outputStream);
+        } catch (IOException e) {
+            logger.error(failureMessage, e);
+            throw new RuntimeException(failureMessage, e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface StreamWrite {
+        void to(OutputStream outputStream) throws IOException;
+    }
+
+    // PDF Export Implementation
+
+    /**
+     * Transcripts are the only PDF reports; they go through the cached transcript layout and the streaming PDF
+     * writer of AcademicReportService. "transcript" needs data.studentId, "class_transcripts" data.classRoomId, and
+     * both take an optional academicYear and semester.
+     */
+    @Override
+    public byte[] exportToPDF(String reportType, Map<String, Object> data, Map<String, Object> options) {
+        logger.info("Exporting {} report to PDF", reportType);
+        String academicYear = data.get("academicYear") != null ? data.get("academicYear").toString() : null;
+        Integer semester = data.get("semester") != null ? Integer.valueOf(data.get("semester").toString()) : null;
+        switch (String.valueOf(reportType)) {
+            case "transcript":
+                return academicReportService.exportTranscriptToPDF(requiredId(data, "studentId"), academicYear,
+                        semester).toByteArray();
+            case "class_transcripts":
+                Long classRoomId = requiredId(data, "classRoomId");
+                return toBytes(out -> academicReportService.streamClassTranscripts(classRoomId, academicYear,
+                        semester, false, out), "PDF export failed");
+            default:
+                throw new ValidationException("Unsupported PDF report type: " + reportType
+                        + " (supported: transcript, class_transcripts)");
+        }
+    }
+
+    private static Long requiredId(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        if (value == null) {
+            throw new ValidationException("PDF export needs " + key);
+        }
+        return Long.valueOf(value.toString());
+    }
+
+    // CSV Export Implementation
+
+    @Override
+    public byte[] exportToCSV(List<Map<String, Object>> data, List<String> headers) {
+        return exportToCSV(data, headers, ",");
+    }
+
+    @Override
+    public byte[] exportToCSV(List<Map<String, Object>> data, List<String> headers, String delimiter) {
+        return toBytes(out -> streamToCSV(data.iterator(), headers, delimiter, out), "CSV export failed");
+    }
+
+    @Override
+    public byte[] exportMultipleCSV(Map<String, List<Map<String, Object>>> tablesData, 
+                                  Map<String, List<String>> headersMap) {
+        return toBytes(out -> streamMultipleCSV(tablesData, headersMap, out), "CSV export failed");
+    }
+
+    @Override
+    public void streamToCSV(Iterator<? extends Map<String, Object>> rows, List<String> headers, String delimiter,
+                            OutputStream outputStream) throws IOException {
+        StreamingCsvWriter writer = new StreamingCsvWriter(outputStream, delimiter);
+        if (headers != null && !headers.isEmpty()) {
+            writer.writeHeader(headers);
+        }
+        while (rows.hasNext()) {
+            Map<String, Object> row = rows.next();
+            if (headers == null) {
+                writer.writeRow(row.values());
+                continue;
+            }
+            for (String header : headers) {
+                writer.writeCell(row.get(header));
+            }
+            writer.endRow();
+        }
+        writer.flush();
+        logger.info("Successfully exported {} rows to CSV", writer.getRowsWritten());
+    }
+
+    @Override
+    public void streamMultipleCSV(Map<String, List<Map<String, Object>>> tablesData,
+                                  Map<String, List<String>> headersMap, OutputStream outputStream) throws IOException {
+        logger.info("Exporting multiple CSV files as ZIP ({} files)", tablesData.size());
+
+        ZipOutputStream zos = new ZipOutputStream(outputStream);
+        for (Map.Entry<String, List<Map<String, Object>>> tableEntry : tablesData.entrySet()) {
+            zos.putNextEntry(new ZipEntry(tableEntry.getKey() + ".csv"));
+            streamToCSV(tableEntry.getValue().iterator(), headersMap.get(tableEntry.getKey()), ",", zos);
+            zos.closeEntry();
+        }
+        zos.finish();
+        zos.flush();
+    }
+
+    @Override
+    public void streamAttendanceCSV(LocalDate startDate, LocalDate endDate, Long classRoomId,
+                                    OutputStream outputStream) throws IOException {
+        long started = System.currentTimeMillis();
+        StreamingCsvWriter writer = new StreamingCsvWriter(outputStream, ",");
+        writer.writeHeader(ATTENDANCE_CSV_HEADERS);
+
+        List<Object> args = new ArrayList<>(Arrays.asList(java.sql.Date.valueOf(startDate),
+                java.sql.Date.valueOf(endDate)));
+        String classFilter = "";
+        if (classRoomId != null) {
+            args.add(classRoomId);
+            classFilter = " AND c.id = ?";
+        }
+        streamQuery(writer, ATTENDANCE_ARCHIVE_CSV_SQL + classFilter
+                + " ORDER BY aa.activity_date, aa.start_time, c.name, s.nama_lengkap", ATTENDANCE_CSV_HEADERS.size(),
+                args.toArray());
+        streamQuery(writer, ATTENDANCE_CSV_SQL + classFilter
+                + " ORDER BY ta.date, ta.start_time, c.name, s.nama_lengkap", ATTENDANCE_CSV_HEADERS.size(),
+                args.toArray());
+
+        writer.flush();
+        logger.info("Exported {} attendance rows to CSV for {} - {} in {} ms", writer.getRowsWritten(), startDate,
+                endDate, System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public void streamGradesCSV(String academicYear, Integer semester, Long classRoomId,
+                                OutputStream outputStream) throws IOException {
+        long started = System.currentTimeMillis();
+        StreamingCsvWriter writer = new StreamingCsvWriter(outputStream, ",");
+        writer.writeHeader(GRADES_CSV_HEADERS);
+
+        List<Object> args = new ArrayList<>(Collections.singletonList(academicYear));
+        String sql = termQuery(GRADES_CSV_SQL, "asm", semester, classRoomId, args)
+                + " ORDER BY asm.semester, c.name, sub.nama_mapel, asm.id, s.nama_lengkap";
+        streamQuery(writer, sql, GRADES_CSV_HEADERS.size(), args.toArray());
+
+        writer.flush();
+        logger.info("Exported {} grade rows to CSV for {} in {} ms", writer.getRowsWritten(), academicYear,
+                System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public void streamParquet(String dataset, Map<String, Object> filters, OutputStream outputStream)
+            throws IOException {
+        if (!PARQUET_DATASETS.contains(dataset)) {
+            throw new ValidationException("Unknown dataset: " + dataset + "; expected one of " + PARQUET_DATASETS);
+        }
+        long started = System.currentTimeMillis();
+        Long classRoomId = (Long) filters.get("classRoomId");
+        List<Object> args = new ArrayList<>();
+        StreamingParquetWriter writer;
+
+        if (dataset.equals("attendance")) {
+            LocalDate startDate = requiredFilter(filters, "startDate");
+            LocalDate endDate = requiredFilter(filters, "endDate");
+            if (endDate.isBefore(startDate)) {
+                throw new ValidationException("End date must not be before start date");
+            }
+            args.add(java.sql.Date.valueOf(startDate));
+            args.add(java.sql.Date.valueOf(endDate));
+            String classFilter = "";
+            if (classRoomId != null) {
+                args.add(classRoomId);
+                classFilter = " AND c.id = ?";
+            }
+            writer = new StreamingParquetWriter(outputStream, ATTENDANCE_PARQUET_COLUMNS, parquetRowGroupRows,
+                    parquetCompressionLevel);
+            streamQuery(ATTENDANCE_ARCHIVE_CSV_SQL + classFilter
+                    + " ORDER BY aa.activity_date, aa.start_time, c.name, s.nama_lengkap", args.toArray(),
+                    parquetRows(writer));
+            streamQuery(ATTENDANCE_CSV_SQL + classFilter
+                    + " ORDER BY ta.date, ta.start_time, c.name, s.nama_lengkap", args.toArray(),
+                    parquetRows(writer));
+        } else {
+            String academicYear = requiredFilter(filters, "academicYear");
+            Integer semester = (Integer) filters.get("semester");
+            args.add(academicYear);
+            String sql;
+            if (dataset.equals("student_assessment")) {
+                writer = new StreamingParquetWriter(outputStream, GRADES_PARQUET_COLUMNS, parquetRowGroupRows,
+                        parquetCompressionLevel);
+                sql = termQuery(GRADES_CSV_SQL, "asm", semester, classRoomId, args)
+                        + " ORDER BY asm.semester, c.name, sub.nama_mapel, asm.id, s.nama_lengkap";
+            } else {
+                writer = new StreamingParquetWriter(outputStream, SCHEDULE_PARQUET_COLUMNS, parquetRowGroupRows,
+                        parquetCompressionLevel);
+                sql = termQuery(SCHEDULE_PARQUET_SQL, "sc", semester, classRoomId, args)
+                        + " ORDER BY sc.semester, c.name, sc.day_of_week, sc.start_time";
+            }
+            streamQuery(sql, args.toArray(), parquetRows(writer));
+        }
+
+        writer.finish();
+        logger.info("Exported {} {} rows to Parquet in {} row groups in {} ms", writer.getRowsWritten(), dataset,
+                writer.getRowGroupCount(), System.currentTimeMillis() - started);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T requiredFilter(Map<String, Object> filters, String name) {
+        Object value = filters.get(name);
+        if (value == null) {
+            throw new ValidationException(name + " is required");
+        }
+        return (T) value;
+    }
+
+    /**
+     * Narrow a query on academic_year to a semester and a class room, when given
+     */
+    private static String termQuery(String sql, String alias, Integer semester, Long classRoomId,
+                                    List<Object> args) {
+        StringBuilder query = new StringBuilder(sql);
+        if (semester != null) {
+            query.append(" AND ").append(alias).append(".semester = ?");
+            args.add(semester);
+        }
+        if (classRoomId != null) {
+            query.append(" AND ").append(alias).append(".class_room_id = ?");
+            args.add(classRoomId);
+        }
+        return query.toString();
+    }
+
+    private static CursorRow parquetRows(StreamingParquetWriter writer) {
+        return rs -> {
+            Object[] values = new Object[rs.getMetaData().getColumnCount()];
+            for (int column = 0; column < values.length; column++) {
+                values[column] = rs.getObject(column + 1);
+            }
+            writer.writeRow(values);
+        };
+    }
+
+    private void streamRosterCSV(Long classRoomId, OutputStream outputStream) throws IOException {
+        StreamingCsvWriter writer = new StreamingCsvWriter(outputStream, ",");
+        writer.writeHeader(ROSTER_CSV_HEADERS);
+        streamQuery(writer, ROSTER_CSV_SQL, ROSTER_CSV_HEADERS.size(), new Object[] { classRoomId });
+        writer.flush();
+    }
+
+    /**
+     * Write every row of a forward-only cursor as it is fetched
+     */
+    private void streamQuery(StreamingCsvWriter writer, String sql, int columns, Object[] args) throws IOException {
+        streamQuery(sql, args, rs -> {
+            for (int column = 1; column <= columns; column++) {
+                writer.writeCell(rs.getObject(column));
+            }
+            writer.endRow();
+        });
+    }
+
+    /**
+     * Writes the current row of a cursor
+     */
+    @FunctionalInterface
+    private interface CursorRow {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private void streamQuery(String sql, Object[] args, CursorRow row) throws IOException {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(csvFetchSize);
+                new ArgumentPreparedStatementSetter(args).setValues(statement);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    row.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor is closed by the template
+            throw e.getCause();
+        }
+    }
+
+    // JSON Export Implementation
+
+    @Override
+    public byte[] exportToJSON(Map<String, Object> data) {
+        return exportToFormattedJSON(data, false);
+    }
+
+    @Override
+    public byte[] exportToFormattedJSON(Map<String, Object> data, boolean prettyPrint) {
+        logger.info("Exporting data to JSON (prettyPrint: {})", prettyPrint);
+        
+        try {
+            // Simple JSON serialization (in a real implementation, use Jackson or Gson)
+            String jsonString = convertToJsonString(data, prettyPrint ? 0 : -1);
+            byte[] result = jsonString.getBytes();
+            
+            logger.info("Successfully exported data to JSON ({} bytes)", result.length);
+            return result;
+            
+        } catch (Exception e) {
+            logger.error("Failed to export data to JSON", e);
+            throw new RuntimeException("JSON export failed", e);
+        }
+    }
+
+    // Async Export Implementation
+
+    @Override
+    public String startAsyncExport(String exportType, String format, Map<String, Object> data, Map<String, Object> options) {
+        String jobId = UUID.randomUUID().toString();
+        logger.info("Starting async export job: {} (type: {}, format: {})", jobId, exportType, format);
+
+        Map<String, Object> estimate = estimateExportSize(data, format);
+        long estimatedBytes = (Long) estimate.get("estimatedBytes");
+        if (estimatedBytes > maxEstimatedExportBytes) {
+            throw new ValidationException("Export is estimated at " + estimatedBytes + " bytes, above the limit of "
+                + maxEstimatedExportBytes + "; narrow the data set or split it into several exports");
+        }
+
+        ExportJob job = new ExportJob(jobId, exportType, format);
+        job.owner = currentUser();
+        job.estimatedRows = (Long) estimate.get("estimatedRows");
+        job.estimatedBytes = estimatedBytes;
+        job.task = () -> runExport(job, data, options);
+        admit(job, true);
+
+        logger.info("Async export job {} admitted for {} ({} rows, ~{} bytes, status {})", jobId, job.owner,
+            job.estimatedRows, estimatedBytes, job.status);
+        return jobId;
+    }
+
+    @Override
+    public Map<String, Object> getExportJobStatus(String jobId) {
+        ExportJob job = getExportJob(jobId);
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", job.id);
+        status.put("status", job.status);
+        status.put("progress", job.progress);
+        status.put("startTime", job.startTime);
+        status.put("exportType", job.exportType);
+        status.put("format", job.format);
+        if (job.estimatedBytes >= 0) {
+            status.put("estimatedRows", job.estimatedRows);
+            status.put("estimatedBytes", job.estimatedBytes);
+        }
+        int queuePosition = queuePosition(job);
+        if (queuePosition > 0) {
+            status.put("queuePosition", queuePosition);
+        }
+        if (job.waitMillis >= 0) {
+            status.put("waitMillis", job.waitMillis);
+        }
+        if (job.endTime != null) {
+            status.put("endTime", job.endTime);
+        }
+        if (job.file != null) {
+            status.put("resultSize", job.resultSize);
+            if (job.encoding != ContentCoding.IDENTITY) {
+                status.put("contentEncoding", job.encoding.getToken());
+            }
+            status.put("expiresAt", job.endTime.plusMinutes(spoolTtlMinutes));
+        }
+        if (job.error != null) {
+            status.put("error", job.error);
+        }
+        return status;
+    }
+
+    @Override
+    public byte[] getExportJobResult(String jobId) {
+        ExportJob job = getExportJob(jobId);
+        try {
+            job.future.get();
+            try (InputStream in = job.encoding.decode(Files.newInputStream(getExportJobFile(jobId)))) {
+                return in.readAllBytes();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Failed to get export result", e);
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Failed to get export job result for: {}", jobId, e);
+            throw new RuntimeException("Failed to get export result", e);
+        }
+    }
+
+    @Override
+    public Path getExportJobFile(String jobId) {
+        ExportJob job = getExportJob(jobId);
+        Path file = job.file;
+        if (!"COMPLETED".equals(job.status) || file == null || !Files.exists(file)) {
+            throw new ValidationException("Export job " + jobId + " has no result (status: " + job.status + ")");
+        }
+        return file;
+    }
+
+    @Override
+    public ContentCoding getExportJobEncoding(String jobId) {
+        return getExportJob(jobId).encoding;
+    }
+
+    @Override
+    public ContentCoding negotiateContentCoding(String acceptEncoding, String format) {
+        if (format == null || !COMPRESSIBLE_FORMATS.contains(format.toLowerCase())) {
+            return ContentCoding.negotiate(acceptEncoding, Collections.emptyList());
+        }
+        return ContentCoding.negotiate(acceptEncoding, offeredCodings);
+    }
+
+    @Override
+    public void writeEncoded(ContentCoding coding, OutputStream outputStream, ContentCoding.Body body)
+            throws IOException {
+        coding.encode(outputStream, compressionLevel, body);
+    }
+
+    @Override
+    public void cancelExportJob(String jobId) {
+        ExportJob job = exportJobs.get(jobId);
+        if (job != null) {
+            job.cancelled = true;
+            synchronized (admissionLock) {
+                waitingJobs.remove(job);
+            }
+            if (job.future != null) {
+                job.future.cancel(true);
+            }
+            // Cancelling the future does not interrupt a running export
+            job.interruptRunner();
+            if (!job.finish("CANCELLED", null)) {
+                // Already finished: cancelling discards the result
+                exportJobs.remove(jobId);
+            }
+            deleteSpoolFile(job);
+            logger.info("Export job {} cancelled", jobId);
+        }
+    }
+
+    @Override
+    public void cleanupCompletedJobs(int hoursOld) {
+        expireJobs(LocalDateTime.now().minusHours(hoursOld));
+    }
+
+    /**
+     * Remove finished jobs past the TTL, then the oldest results while the spool is over its size limit
+     */
+    @Scheduled(fixedDelay = 300000)
+    public void cleanupSpool() {
+        expireJobs(LocalDateTime.now().minusMinutes(spoolTtlMinutes));
+
+        List<ExportJob> spooled = new ArrayList<>();
+        long spoolBytes = 0;
+        for (ExportJob job : exportJobs.values()) {
+            if (job.file != null) {
+                spooled.add(job);
+                spoolBytes += job.resultSize;
+            }
+        }
+        spooled.sort(Comparator.comparing(job -> job.endTime));
+        for (ExportJob job : spooled) {
+            if (spoolBytes <= spoolMaxBytes) {
+                break;
+            }
+            spoolBytes -= job.resultSize;
+            exportJobs.remove(job.id);
+            deleteSpoolFile(job);
+            logger.info("Export job {} removed to keep the spool under {} bytes", job.id, spoolMaxBytes);
+        }
+    }
+
+    private void expireJobs(LocalDateTime cutoff) {
+        for (ExportJob job : exportJobs.values()) {
+            if (job.endTime != null && job.endTime.isBefore(cutoff)) {
+                exportJobs.remove(job.id);
+                deleteSpoolFile(job);
+            }
+        }
+    }
+
+    private void runExport(ExportJob job, Map<String, Object> data, Map<String, Object> options) {
+        if (!job.begin()) {
+            return;
+        }
+
+        Path part = spoolDirectory.resolve(job.id + ".part");
+        // Text results are stored gzipped: gzip clients are sent the file as it is, others get it decoded
+        ContentCoding encoding = job.parts == null && COMPRESSIBLE_FORMATS.contains(job.format.toLowerCase())
+                && offeredCodings.contains(ContentCoding.GZIP) ? ContentCoding.GZIP : ContentCoding.IDENTITY;
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), 64 * 1024)) {
+                if (job.parts != null) {
+                    writeBatch(job.id, job.parts, job, out);
+                } else {
+                    writeEncoded(encoding, out, encoded -> writeExport(job.exportType, job.format, data, options,
+                            encoded));
+                }
+            }
+            Path file = spoolDirectory.resolve(job.id + "." + getFileExtension(job.format)
+                    + (encoding == ContentCoding.GZIP ? ".gz" : ""));
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.resultSize = Files.size(file);
+            job.encoding = encoding;
+            job.file = file;
+            job.progress = 100;
+            job.finish("COMPLETED", null);
+            if (job.cancelled) {
+                deleteSpoolFile(job);
+            }
+            logger.info("Async export job {} completed ({} bytes)", job.id, job.resultSize);
+        } catch (Exception e) {
+            if (!job.cancelled) {
+                logger.error("Async export job {} failed", job.id, e);
+                job.finish("FAILED", e.getMessage());
+            }
+        } finally {
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException e) {
+                logger.warn("Could not delete partial export {}", part, e);
+            }
+        }
+    }
+
+    private void writeExport(String exportType, String format, Map<String, Object> data,
+                             Map<String, Object> options, OutputStream out) throws IOException {
+        switch (format.toLowerCase()) {
+            case "excel":
+                streamToExcel(exportType, data, options, out);
+                break;
+            case "csv":
+                if (!(data.get("data") instanceof List)) {
+                    throw new ValidationException("Invalid data format for CSV export");
+                }
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> listData = (List<Map<String, Object>>) data.get("data");
+                @SuppressWarnings("unchecked")
+                List<String> headers = (List<String>) options.get("headers");
+                streamToCSV(listData.iterator(), headers, ",", out);
+                break;
+            case "json":
+                out.write(exportToJSON(data));
+                break;
+            default:
+                throw new ValidationException("Unsupported export format: " + format);
+        }
+    }
+
+    // Admission Control
+
+    /**
+     * Queue a job and start whatever can run; with enforceLimits the job is rejected when the queue, or the owner's
+     * share of it, is full
+     */
+    private void admit(ExportJob job, boolean enforceLimits) {
+        synchronized (admissionLock) {
+            if (job.endTime != null) {
+                // Cancelled before it came due
+                return;
+            }
+            if (enforceLimits && (runningJobs >= maxConcurrentExports || running(job.owner) >= maxConcurrentExportsPerUser)) {
+                int queued = 0;
+                for (ExportJob waiting : waitingJobs) {
+                    if (waiting.owner.equals(job.owner)) {
+                        queued++;
+                    }
+                }
+                if (queued >= maxQueuedExportsPerUser) {
+                    rejectedJobs.incrementAndGet();
+                    throw new ExportRejectedException("Your export queue is full (" + queued + " waiting); wait for "
+                        + "one to finish or cancel it", true, retryAfterSeconds());
+                }
+                if (waitingJobs.size() >= maxQueuedExports) {
+                    rejectedJobs.incrementAndGet();
+                    throw new ExportRejectedException("The export queue is full (" + waitingJobs.size()
+                        + " exports waiting); try again later", false, retryAfterSeconds());
+                }
+            }
+            if (job.future == null) {
+                job.future = new CompletableFuture<>();
+            }
+            job.status = "QUEUED";
+            job.queuedAtNanos = System.nanoTime();
+            exportJobs.put(job.id, job);
+            waitingJobs.add(job);
+            admittedJobs.incrementAndGet();
+            dispatch();
+        }
+    }
+
+    /**
+     * Start waiting jobs in arrival order while slots are free, passing over owners at their cap
+     */
+    private void dispatch() {
+        Iterator<ExportJob> waiting = waitingJobs.iterator();
+        while (runningJobs < maxConcurrentExports && waiting.hasNext()) {
+            ExportJob job = waiting.next();
+            if (job.endTime != null) {
+                waiting.remove();
+                continue;
+            }
+            if (running(job.owner) >= maxConcurrentExportsPerUser) {
+                continue;
+            }
+            waiting.remove();
+            runningJobs++;
+            runningByOwner.merge(job.owner, 1, Integer::sum);
+            job.waitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - job.queuedAtNanos);
+            startedJobs.incrementAndGet();
+            totalWaitMillis.addAndGet(job.waitMillis);
+            maxWaitMillis = Math.max(maxWaitMillis, job.waitMillis);
+            try {
+                exportExecutor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                release(job.owner);
+                job.finish("FAILED", "Export service is shutting down");
+            }
+        }
+    }
+
+    private void run(ExportJob job) {
+        long started = System.nanoTime();
+        try {
+            job.task.run();
+        } finally {
+            finishedJobs.incrementAndGet();
+            totalRunMillis.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            job.future.complete(null);
+            synchronized (admissionLock) {
+                release(job.owner);
+                dispatch();
+            }
+        }
+    }
+
+    private void release(String owner) {
+        runningJobs--;
+        runningByOwner.computeIfPresent(owner, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private int running(String owner) {
+        return runningByOwner.getOrDefault(owner, 0);
+    }
+
+    private int queuePosition(ExportJob job) {
+        synchronized (admissionLock) {
+            return waitingJobs.indexOf(job) + 1;
+        }
+    }
+
+    // About one average export per waiting slot ahead, at least 5 seconds
+    private long retryAfterSeconds() {
+        long finished = finishedJobs.get();
+        long averageSeconds = finished > 0 ? totalRunMillis.get() / finished / 1000 : 0;
+        return Math.max(5, averageSeconds * (waitingJobs.size() / maxConcurrentExports + 1));
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getName() != null ? authentication.getName() : "anonymous";
+    }
+
+    @Override
+    public Map<String, Object> getAdmissionStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (admissionLock) {
+            stats.put("runningExports", runningJobs);
+            stats.put("maxConcurrentExports", maxConcurrentExports);
+            stats.put("maxConcurrentExportsPerUser", maxConcurrentExportsPerUser);
+            stats.put("queueDepth", waitingJobs.size());
+            stats.put("maxQueuedExports", maxQueuedExports);
+            stats.put("oldestQueuedMillis", waitingJobs.isEmpty() ? 0
+                : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitingJobs.get(0).queuedAtNanos));
+
+            Map<String, Map<String, Integer>> users = new TreeMap<>();
+            runningByOwner.forEach((owner, count) ->
+                users.computeIfAbsent(owner, key -> new LinkedHashMap<>()).put("running", count));
+            for (ExportJob job : waitingJobs) {
+                users.computeIfAbsent(job.owner, key -> new LinkedHashMap<>()).merge("queued", 1, Integer::sum);
+            }
+            stats.put("users", users);
+        }
+        long started = startedJobs.get();
+        stats.put("admittedExports", admittedJobs.get());
+        stats.put("rejectedExports", rejectedJobs.get());
+        stats.put("startedExports", started);
+        stats.put("averageWaitMillis", started > 0 ? totalWaitMillis.get() / started : 0);
+        stats.put("maxWaitMillis", maxWaitMillis);
+        long finished = finishedJobs.get();
+        stats.put("averageRunMillis", finished > 0 ? totalRunMillis.get() / finished : 0);
+        return stats;
+    }
+
+    /**
+     * Hold a running slot for an export streamed on the request thread, while one is free right now
+     * The slot counts against the same overall and per-user limits as async jobs; closing the permit hands it to
+     * the next waiting job.
+     */
+    @Override
+    public ExportPermit acquireExportPermit(String exportType) {
+        String owner = currentUser();
+        synchronized (admissionLock) {
+            if (running(owner) >= maxConcurrentExportsPerUser) {
+                rejectedJobs.incrementAndGet();
+                throw new ExportRejectedException("You already have " + running(owner) + " exports running; wait "
+                    + "for one to finish", true, retryAfterSeconds());
+            }
+            if (runningJobs >= maxConcurrentExports) {
+                rejectedJobs.incrementAndGet();
+                throw new ExportRejectedException("All " + maxConcurrentExports + " export slots are busy; try "
+                    + "again later", false, retryAfterSeconds());
+            }
+            runningJobs++;
+            runningByOwner.merge(owner, 1, Integer::sum);
+            admittedJobs.incrementAndGet();
+        }
+        logger.debug("Streaming {} export admitted for {}", exportType, owner);
+
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                synchronized (admissionLock) {
+                    release(owner);
+                    dispatch();
+                }
+            }
+        };
+    }
+
+    private ExportJob getExportJob(String jobId) {
+        ExportJob job = exportJobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Export job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void deleteSpoolFile(ExportJob job) {
+        Path file = job.file;
+        job.file = null;
+        deleteQuietly(file);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete export file {}", file, e);
+            }
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Batch Export Implementation
+
+    @Override
+    public Map<String, byte[]> batchExport(List<Map<String, Object>> exportRequests) {
+        List<BatchPart> parts = resolveBatchParts(exportRequests);
+        byte[] zip = toBytes(out -> writeBatch(UUID.randomUUID().toString(), parts, null, out), "Batch export failed");
+        return extractZipArchive(zip);
+    }
+
+    @Override
+    public void streamBatchExport(List<Map<String, Object>> exportRequests, OutputStream outputStream)
+            throws IOException {
+        writeBatch(UUID.randomUUID().toString(), resolveBatchParts(exportRequests), null, outputStream);
+    }
+
+    @Override
+    public String scheduleBatchExport(List<Map<String, Object>> exportRequests, String cronExpression) {
+        List<BatchPart> parts = resolveBatchParts(exportRequests);
+        String batchId = UUID.randomUUID().toString();
+        ExportJob job = new ExportJob(batchId, "batch_export", "zip");
+        job.parts = parts;
+        job.owner = currentUser();
+        job.estimatedRows = 0;
+        job.estimatedBytes = 0;
+        for (BatchPart part : parts) {
+            job.estimatedRows += part.estimatedRows;
+            job.estimatedBytes += part.estimatedBytes;
+        }
+        job.task = () -> runExport(job, null, null);
+
+        // Without a cron expression the batch is admitted now, otherwise once at the next time it matches
+        if (cronExpression != null && !cronExpression.trim().isEmpty()) {
+            if (!CronExpression.isValidExpression(cronExpression)) {
+                throw new ValidationException("Invalid cron expression: " + cronExpression);
             }
-            
-            // Add metadata
-            if (data.containsKey("metadata")) {
-                Object metadataObj = data.get("metadata");
-                @SuppressWarnings("unchecked")
-                Map<String, Object> metadata = (Map<String, Object>) metadataObj;
-                for (Map.Entry<String, Object> entry : metadata.entrySet()) {
-                    Row metaRow = sheet.createRow(rowNum++);
-                    metaRow.createCell(0).setCellValue(entry.getKey() + ":");
-                    metaRow.createCell(1).setCellValue(String.valueOf(entry.getValue()));
-                }
-                rowNum++; // Skip a row
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime next = CronExpression.parse(cronExpression).next(now);
+            if (next == null) {
+                throw new ValidationException("Cron expression never matches: " + cronExpression);
             }
-            
-            // Add main data
-            if (data.containsKey("data") && data.get("data") instanceof List) {
-                Object dataObj = data.get("data");
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> tableData = (List<Map<String, Object>>) dataObj;
-                if (!tableData.isEmpty()) {
-                    // Create header row
-                    Row headerRow = sheet.createRow(rowNum++);
-                    Set<String> headers = tableData.get(0).keySet();
-                    int colNum = 0;
-                    for (String header : headers) {
-                        Cell cell = headerRow.createCell(colNum++);
-                        cell.setCellValue(header);
-                        cell.setCellStyle(headerStyle);
-                    }
-                    
-                    // Add data rows
-                    for (Map<String, Object> rowData : tableData) {
-                        Row dataRow = sheet.createRow(rowNum++);
-                        colNum = 0;
-                        for (String header : headers) {
-                            Cell cell = dataRow.createCell(colNum++);
-                            Object value = rowData.get(header);
-                            setCellValue(cell, value);
-                            cell.setCellStyle(dataStyle);
-                        }
-                    }
-                    
-                    // Auto-size columns
-                    for (int i = 0; i < headers.size(); i++) {
-                        sheet.autoSizeColumn(i);
-                    }
-                }
+            job.scheduledFor = next;
+            job.status = "SCHEDULED";
+            job.future = new CompletableFuture<>();
+            exportJobs.put(batchId, job);
+            // Accepted already, so the queue limits do not apply when it comes due
+            CompletableFuture.delayedExecutor(Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> admit(job, false));
+        } else {
+            admit(job, true);
+        }
+        logger.info("Batch export {} scheduled with {} parts{}", batchId, parts.size(),
+                job.scheduledFor != null ? " for " + job.scheduledFor : "");
+        return batchId;
+    }
+
+    @Override
+    public Map<String, Object> getBatchExportStatus(String batchId) {
+        ExportJob job = getExportJob(batchId);
+        if (job.parts == null) {
+            throw new ValidationException("Export job " + batchId + " is not a batch export");
+        }
+
+        Map<String, Object> status = getExportJobStatus(batchId);
+        if (job.scheduledFor != null) {
+            status.put("scheduledFor", job.scheduledFor);
+        }
+        List<Map<String, Object>> parts = new ArrayList<>(job.parts.size());
+        int completed = 0;
+        int failed = 0;
+        for (BatchPart part : job.parts) {
+            Map<String, Object> partStatus = new LinkedHashMap<>();
+            partStatus.put("name", part.name);
+            partStatus.put("status", part.status);
+            partStatus.put("estimatedRows", part.estimatedRows);
+            partStatus.put("estimatedBytes", part.estimatedBytes);
+            if (part.size > 0) {
+                partStatus.put("size", part.size);
             }
-            
-            // Convert to byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            byte[] result = outputStream.toByteArray();
-            
-            logger.info("Successfully exported {} report to Excel ({} bytes)", reportType, result.length);
-            return result;
-            
-        } catch (IOException e) {
-            logger.error("Failed to export {} report to Excel", reportType, e);
-            throw new RuntimeException("Excel export failed", e);
+            if (part.error != null) {
+                partStatus.put("error", part.error);
+                failed++;
+            } else if ("ZIPPED".equals(part.status)) {
+                completed++;
+            }
+            parts.add(partStatus);
         }
+        status.put("totalParts", parts.size());
+        status.put("completedParts", completed);
+        status.put("failedParts", failed);
+        status.put("parts", parts);
+        return status;
     }
 
     @Override
-    public byte[] exportListToExcel(List<Map<String, Object>> data, List<String> headers, String sheetName) {
-        logger.info("Exporting list data to Excel with {} rows", data.size());
-        
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet(sheetName != null ? sheetName : "Data");
-            
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            CellStyle dataStyle = createDataStyle(workbook);
-            
-            int rowNum = 0;
-            
-            // Create header row
-            if (headers != null && !headers.isEmpty()) {
-                Row headerRow = sheet.createRow(rowNum++);
-                for (int i = 0; i < headers.size(); i++) {
-                    Cell cell = headerRow.createCell(i);
-                    cell.setCellValue(headers.get(i));
-                    cell.setCellStyle(headerStyle);
-                }
+    public byte[] createZipArchive(Map<String, byte[]> files) {
+        return toBytes(out -> {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                zip.putNextEntry(new ZipEntry(file.getKey()));
+                zip.write(file.getValue());
+                zip.closeEntry();
             }
-            
-            // Add data rows
-            for (Map<String, Object> rowData : data) {
-                Row dataRow = sheet.createRow(rowNum++);
-                if (headers != null) {
-                    for (int i = 0; i < headers.size(); i++) {
-                        Cell cell = dataRow.createCell(i);
-                        Object value = rowData.get(headers.get(i));
-                        setCellValue(cell, value);
-                        cell.setCellStyle(dataStyle);
-                    }
-                } else {
-                    // Use natural order of keys
-                    int colNum = 0;
-                    for (Object value : rowData.values()) {
-                        Cell cell = dataRow.createCell(colNum++);
-                        setCellValue(cell, value);
-                        cell.setCellStyle(dataStyle);
-                    }
+            zip.finish();
+        }, "ZIP archive creation failed");
+    }
+
+    @Override
+    public Map<String, byte[]> extractZipArchive(byte[] zipData) {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(zipData))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (!entry.isDirectory()) {
+                    ByteArrayOutputStream content = new ByteArrayOutputStream();
+                    zip.transferTo(content);
+                    files.put(entry.getName(), content.toByteArray());
                 }
             }
-            
-            // Auto-size columns
-            int columnCount = headers != null ? headers.size() : 
-                (data.isEmpty() ? 0 : data.get(0).size());
-            for (int i = 0; i < columnCount; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            byte[] result = outputStream.toByteArray();
-            
-            logger.info("Successfully exported list to Excel ({} bytes)", result.length);
-            return result;
-            
         } catch (IOException e) {
-            logger.error("Failed to export list to Excel", e);
-            throw new RuntimeException("Excel export failed", e);
+            logger.error("Failed to extract ZIP archive", e);
+            throw new RuntimeException("ZIP archive extraction failed", e);
         }
+        return files;
     }
 
-    @Override
-    public byte[] exportMultipleSheetsToExcel(Map<String, List<Map<String, Object>>> sheetsData, 
-                                            Map<String, List<String>> headersMap) {
-        logger.info("Exporting multiple sheets to Excel ({} sheets)", sheetsData.size());
-        
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            CellStyle dataStyle = createDataStyle(workbook);
-            
-            for (Map.Entry<String, List<Map<String, Object>>> sheetEntry : sheetsData.entrySet()) {
-                String sheetName = sheetEntry.getKey();
-                List<Map<String, Object>> sheetData = sheetEntry.getValue();
-                List<String> headers = headersMap.get(sheetName);
-                
-                Sheet sheet = workbook.createSheet(sheetName);
-                int rowNum = 0;
-                
-                // Create header row
-                if (headers != null && !headers.isEmpty()) {
-                    Row headerRow = sheet.createRow(rowNum++);
-                    for (int i = 0; i < headers.size(); i++) {
-                        Cell cell = headerRow.createCell(i);
-                        cell.setCellValue(headers.get(i));
-                        cell.setCellStyle(headerStyle);
-                    }
+    /**
+     * Render every part on the batch pool and copy each into the archive as soon as it is done, in completion order
+     * Parts are rendered into spool files, so only the part being copied is read and none is held in memory. Failed
+     * parts are listed in errors.txt instead of failing the whole batch.
+     */
+    private void writeBatch(String batchId, List<BatchPart> parts, ExportJob job, OutputStream outputStream)
+            throws IOException {
+        long started = System.currentTimeMillis();
+        CompletionService<BatchPart> completion = new ExecutorCompletionService<>(batchExecutor);
+        List<Future<BatchPart>> futures = new ArrayList<>(parts.size());
+        for (BatchPart part : parts) {
+            part.file = spoolDirectory.resolve(batchId + "-" + part.index + ".part");
+            futures.add(completion.submit(() -> renderPart(part)));
+        }
+
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        StringBuilder errors = new StringBuilder();
+        try {
+            for (int done = 1; done <= parts.size(); done++) {
+                BatchPart part = completion.take().get();
+                if (part.error != null) {
+                    errors.append(part.name).append(": ").append(part.error).append('\n');
+                } else {
+                    // Workbooks are ZIP files already; deflating them again only costs CPU
+                    zip.setLevel(part.name.endsWith(".xlsx") ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+                    zip.putNextEntry(new ZipEntry(part.name));
+                    Files.copy(part.file, zip);
+                    zip.closeEntry();
+                    deleteQuietly(part.file);
+                    part.status = "ZIPPED";
                 }
-                
-                // Add data rows
-                for (Map<String, Object> rowData : sheetData) {
-                    Row dataRow = sheet.createRow(rowNum++);
-                    if (headers != null) {
-                        for (int i = 0; i < headers.size(); i++) {
-                            Cell cell = dataRow.createCell(i);
-                            Object value = rowData.get(headers.get(i));
-                            setCellValue(cell, value);
-                            cell.setCellStyle(dataStyle);
-                        }
-                    }
+                if (job != null) {
+                    job.progress = done * 99 / parts.size();
                 }
-                
-                // Auto-size columns
-                int columnCount = headers != null ? headers.size() : 0;
-                for (int i = 0; i < columnCount; i++) {
-                    sheet.autoSizeColumn(i);
+            }
+            if (errors.length() > 0) {
+                zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+                zip.putNextEntry(new ZipEntry("errors.txt"));
+                zip.write(errors.toString().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.finish();
+            zip.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch export " + batchId + " interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Batch export " + batchId + " failed", e.getCause());
+        } finally {
+            // Stop whatever is still queued or rendering when the archive could not be finished
+            for (int i = 0; i < parts.size(); i++) {
+                BatchPart part = parts.get(i);
+                if (!"ZIPPED".equals(part.status)) {
+                    part.abandoned = true;
+                    futures.get(i).cancel(true);
+                    deleteQuietly(part.file);
                 }
             }
-            
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            byte[] result = outputStream.toByteArray();
-            
-            logger.info("Successfully exported multiple sheets to Excel ({} bytes)", result.length);
-            return result;
-            
-        } catch (IOException e) {
-            logger.error("Failed to export multiple sheets to Excel", e);
-            throw new RuntimeException("Excel export failed", e);
         }
+        logger.info("Batch export {} wrote {} parts in {} ms", batchId, parts.size(),
+                System.currentTimeMillis() - started);
     }
 
-    // CSV Export Implementation
+    private BatchPart renderPart(BatchPart part) {
+        if (part.abandoned) {
+            return part;
+        }
+        part.status = "RENDERING";
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part.file), 64 * 1024)) {
+                writePart(part.request, out);
+            }
+            part.size = Files.size(part.file);
+            part.status = "RENDERED";
+        } catch (Exception e) {
+            if (!part.abandoned) {
+                logger.warn("Batch export part {} failed", part.name, e);
+            }
+            part.error = e.getMessage() != null ? e.getMessage() : e.toString();
+            part.status = "FAILED";
+            deleteQuietly(part.file);
+        }
+        if (part.abandoned) {
+            deleteQuietly(part.file);
+        }
+        return part;
+    }
 
-    @Override
-    public byte[] exportToCSV(List<Map<String, Object>> data, List<String> headers) {
-        return exportToCSV(data, headers, ",");
+    private void writePart(Map<String, Object> request, OutputStream out) throws IOException {
+        String reportType = (String) request.get("reportType");
+        if (reportType == null) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> data = (Map<String, Object>) request.get("data");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> options = request.get("options") instanceof Map
+                    ? (Map<String, Object>) request.get("options") : new HashMap<>();
+            writeExport(String.valueOf(request.get("exportType")), String.valueOf(request.get("format")), data,
+                    options, out);
+            return;
+        }
+
+        Long classRoomId = ((Number) request.get("classRoomId")).longValue();
+        switch (reportType) {
+            case "roster":
+                streamRosterCSV(classRoomId, out);
+                break;
+            case "grades":
+                Object semester = request.get("semester");
+                streamGradesCSV(String.valueOf(request.get("academicYear")),
+                        semester != null ? Integer.valueOf(semester.toString()) : null, classRoomId, out);
+                break;
+            default:
+                streamAttendanceCSV(LocalDate.parse(String.valueOf(request.get("startDate"))),
+                        LocalDate.parse(String.valueOf(request.get("endDate"))), classRoomId, out);
+                break;
+        }
     }
 
-    @Override
-    public byte[] exportToCSV(List<Map<String, Object>> data, List<String> headers, String delimiter) {
-        logger.info("Exporting data to CSV with {} rows", data.size());
-        
-        StringBuilder csvBuilder = new StringBuilder();
-        
-        // Add headers
-        if (headers != null && !headers.isEmpty()) {
-            csvBuilder.append(String.join(delimiter, headers)).append("\n");
+    /**
+     * Validate the requests and turn them into archive parts
+     * A request either carries its own data, like a single async export, or names a report type of
+     * BATCH_REPORT_TYPES; a report without classRoomId becomes one part per active class.
+     */
+    private List<BatchPart> resolveBatchParts(List<Map<String, Object>> exportRequests) {
+        if (exportRequests == null || exportRequests.isEmpty()) {
+            throw new ValidationException("Batch export needs at least one export request");
         }
-        
-        // Add data rows
-        for (Map<String, Object> rowData : data) {
-            List<String> values = new ArrayList<>();
-            if (headers != null) {
-                for (String header : headers) {
-                    Object value = rowData.get(header);
-                    values.add(escapeCsvValue(String.valueOf(value != null ? value : "")));
+
+        Map<Long, String> classLabels = null;
+        Set<String> names = new HashSet<>();
+        List<BatchPart> parts = new ArrayList<>();
+        for (Map<String, Object> request : exportRequests) {
+            String reportType = (String) request.get("reportType");
+            if (reportType == null) {
+                String format = String.valueOf(request.getOrDefault("format", "excel")).toLowerCase();
+                if (!Arrays.asList("excel", "csv", "json").contains(format)) {
+                    throw new ValidationException("Unsupported batch export format: " + format);
                 }
-            } else {
-                for (Object value : rowData.values()) {
-                    values.add(escapeCsvValue(String.valueOf(value != null ? value : "")));
+                if (!(request.get("data") instanceof Map)) {
+                    throw new ValidationException("Batch export request without reportType needs data");
+                }
+                String exportType = String.valueOf(request.getOrDefault("exportType", "export"));
+                Map<String, Object> part = new HashMap<>(request);
+                part.put("format", format);
+                part.put("exportType", exportType);
+                String name = String.valueOf(request.getOrDefault("name", exportType));
+                addBatchPart(parts, names, part, entryName(name), getFileExtension(format));
+                continue;
+            }
+
+            if (!BATCH_REPORT_TYPES.contains(reportType)) {
+                throw new ValidationException("Unknown batch report type: " + reportType
+                        + " (expected one of " + BATCH_REPORT_TYPES + ")");
+            }
+            if ("grades".equals(reportType) && request.get("academicYear") == null) {
+                throw new ValidationException("Grades report needs academicYear");
+            }
+            if ("attendance".equals(reportType)) {
+                try {
+                    LocalDate.parse(String.valueOf(request.get("startDate")));
+                    LocalDate.parse(String.valueOf(request.get("endDate")));
+                } catch (RuntimeException e) {
+                    throw new ValidationException("Attendance report needs startDate and endDate as yyyy-MM-dd");
+                }
+            }
+            if (classLabels == null) {
+                classLabels = loadClassLabels();
+            }
+
+            Collection<Long> classRoomIds;
+            if (request.get("classRoomId") != null) {
+                Long classRoomId = Long.valueOf(request.get("classRoomId").toString());
+                if (!classLabels.containsKey(classRoomId)) {
+                    throw new ResourceNotFoundException("Class room not found: " + classRoomId);
                 }
+                classRoomIds = Collections.singletonList(classRoomId);
+            } else {
+                classRoomIds = classLabels.keySet();
+            }
+            for (Long classRoomId : classRoomIds) {
+                Map<String, Object> part = new HashMap<>(request);
+                part.put("classRoomId", classRoomId);
+                addBatchPart(parts, names, part, reportType + "/" + entryName(classLabels.get(classRoomId)), "csv");
             }
-            csvBuilder.append(String.join(delimiter, values)).append("\n");
         }
-        
-        byte[] result = csvBuilder.toString().getBytes();
-        logger.info("Successfully exported data to CSV ({} bytes)", result.length);
-        return result;
+
+        if (parts.size() > batchMaxParts) {
+            throw new ValidationException("Batch export has " + parts.size() + " parts, the limit is "
+                    + batchMaxParts);
+        }
+        estimateBatchParts(parts);
+        return parts;
     }
 
-    @Override
-    public byte[] exportMultipleCSV(Map<String, List<Map<String, Object>>> tablesData, 
-                                  Map<String, List<String>> headersMap) {
-        logger.info("Exporting multiple CSV files as ZIP ({} files)", tablesData.size());
-        
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             ZipOutputStream zos = new ZipOutputStream(baos)) {
-            
-            for (Map.Entry<String, List<Map<String, Object>>> tableEntry : tablesData.entrySet()) {
-                String tableName = tableEntry.getKey();
-                List<Map<String, Object>> tableData = tableEntry.getValue();
-                List<String> headers = headersMap.get(tableName);
-                
-                // Create CSV data
-                byte[] csvData = exportToCSV(tableData, headers);
-                
-                // Add to ZIP
-                ZipEntry zipEntry = new ZipEntry(tableName + ".csv");
-                zos.putNextEntry(zipEntry);
-                zos.write(csvData);
-                zos.closeEntry();
+    /**
+     * Size every part before the batch is admitted and refuse the batch when the total is above the size limit
+     * Parts carrying their own data are sampled like a single export; report parts count their rows in the database.
+     */
+    private void estimateBatchParts(List<BatchPart> parts) {
+        long totalBytes = 0;
+        for (BatchPart part : parts) {
+            String reportType = (String) part.request.get("reportType");
+            if (reportType == null) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> data = (Map<String, Object>) part.request.get("data");
+                Map<String, Object> estimate = estimateExportSize(data, (String) part.request.get("format"));
+                part.estimatedRows = (Long) estimate.get("estimatedRows");
+                part.estimatedBytes = (Long) estimate.get("estimatedBytes");
+            } else {
+                part.estimatedRows = countReportRows(reportType, part.request);
+                part.estimatedBytes = part.estimatedRows * BATCH_REPORT_ROW_BYTES.get(reportType);
             }
-            
-            zos.finish();
-            byte[] result = baos.toByteArray();
-            
-            logger.info("Successfully exported multiple CSV files as ZIP ({} bytes)", result.length);
-            return result;
-            
-        } catch (IOException e) {
-            logger.error("Failed to export multiple CSV files", e);
-            throw new RuntimeException("CSV export failed", e);
+            totalBytes += part.estimatedBytes;
+        }
+        if (totalBytes > maxEstimatedExportBytes) {
+            throw new ValidationException("Batch export is estimated at " + totalBytes + " bytes, above the limit of "
+                + maxEstimatedExportBytes + "; export fewer classes or a shorter period");
         }
     }
 
-    // JSON Export Implementation
+    private long countReportRows(String reportType, Map<String, Object> request) {
+        Long classRoomId = ((Number) request.get("classRoomId")).longValue();
+        switch (reportType) {
+            case "roster":
+                return countRows(ROSTER_COUNT_SQL, classRoomId);
+            case "grades":
+                Object semester = request.get("semester");
+                List<Object> args = new ArrayList<>(Collections.singletonList(
+                        String.valueOf(request.get("academicYear"))));
+                String sql = termQuery(GRADES_COUNT_SQL, "asm",
+                        semester != null ? Integer.valueOf(semester.toString()) : null, classRoomId, args);
+                return countRows(sql, args.toArray());
+            default:
+                Object[] range = { java.sql.Date.valueOf(String.valueOf(request.get("startDate"))),
+                        java.sql.Date.valueOf(String.valueOf(request.get("endDate"))), classRoomId };
+                return countRows(ATTENDANCE_ARCHIVE_COUNT_SQL, range) + countRows(ATTENDANCE_COUNT_SQL, range);
+        }
+    }
 
-    @Override
-    public byte[] exportToJSON(Map<String, Object> data) {
-        return exportToFormattedJSON(data, false);
+    private long countRows(String sql, Object... args) {
+        Long rows = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return rows != null ? rows : 0;
     }
 
-    @Override
-    public byte[] exportToFormattedJSON(Map<String, Object> data, boolean prettyPrint) {
-        logger.info("Exporting data to JSON (prettyPrint: {})", prettyPrint);
-        
-        try {
-            // Simple JSON serialization (in a real implementation, use Jackson or Gson)
-            String jsonString = convertToJsonString(data, prettyPrint ? 0 : -1);
-            byte[] result = jsonString.getBytes();
-            
-            logger.info("Successfully exported data to JSON ({} bytes)", result.length);
-            return result;
-            
-        } catch (Exception e) {
-            logger.error("Failed to export data to JSON", e);
-            throw new RuntimeException("JSON export failed", e);
+    private Map<Long, String> loadClassLabels() {
+        Map<Long, String> labels = new LinkedHashMap<>();
+        jdbcTemplate.query(BATCH_CLASS_ROOMS_SQL, (RowCallbackHandler) rs -> {
+            String classCode = rs.getString("class_code");
+            labels.put(rs.getLong("id"), classCode != null && !classCode.isEmpty() ? classCode : rs.getString("name"));
+        });
+        return labels;
+    }
+
+    private static void addBatchPart(List<BatchPart> parts, Set<String> names, Map<String, Object> request,
+                                     String baseName, String extension) {
+        String name = baseName + "." + extension;
+        for (int copy = 2; !names.add(name); copy++) {
+            name = baseName + "-" + copy + "." + extension;
         }
+        parts.add(new BatchPart(parts.size() + 1, name, request));
     }
 
-    // Async Export Implementation
+    private static String entryName(String label) {
+        return label.trim().replaceAll("[^A-Za-z0-9._-]+", "_");
+    }
 
+    // Size Estimation
+
+    /**
+     * Estimate rows and bytes of an export from its payload without rendering it
+     * Row width is measured on up to 100 evenly spaced rows and scaled by the format's overhead per cell: quotes and
+     * key names for JSON, cell markup less zip compression for Excel.
+     */
     @Override
-    public String startAsyncExport(String exportType, String format, Map<String, Object> data, Map<String, Object> options) {
-        String jobId = UUID.randomUUID().toString();
-        logger.info("Starting async export job: {} (type: {}, format: {})", jobId, exportType, format);
-        
-        // Initialize job status
-        Map<String, Object> status = new HashMap<>();
-        status.put("jobId", jobId);
-        status.put("status", "STARTED");
-        status.put("progress", 0);
-        status.put("startTime", LocalDateTime.now());
-        status.put("exportType", exportType);
-        status.put("format", format);
-        jobStatuses.put(jobId, status);
-        
-        // Start async export
-        CompletableFuture<byte[]> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                // Update status
-                status.put("status", "PROCESSING");
-                status.put("progress", 25);
-                
-                byte[] result;
-                switch (format.toLowerCase()) {
-                    case "excel":
-                        result = exportToExcel(exportType, data, options);
-                        break;
-                    case "csv":
-                        if (data.containsKey("data") && data.get("data") instanceof List) {
-                            Object listDataObj = data.get("data");
-                            @SuppressWarnings("unchecked")
-                            List<Map<String, Object>> listData = (List<Map<String, Object>>) listDataObj;
-                            Object headersObj = options.get("headers");
-                            @SuppressWarnings("unchecked")
-                            List<String> headers = options.containsKey("headers") ?
-                                (List<String>) headersObj : null;
-                            result = exportToCSV(listData, headers);
-                        } else {
-                            throw new RuntimeException("Invalid data format for CSV export");
-                        }
-                        break;
-                    case "json":
-                        result = exportToJSON(data);
-                        break;
-                    default:
-                        throw new RuntimeException("Unsupported export format: " + format);
+    public Map<String, Object> estimateExportSize(Map<String, Object> data, String format) {
+        Object payload = data != null ? data.get("data") : null;
+        List<?> rows = payload instanceof List ? (List<?>) payload : Collections.singletonList(data);
+        String target = format != null ? format.toLowerCase() : "";
+
+        int sampleSize = Math.min(rows.size(), 100);
+        long sampledCells = 0;
+        long sampledChars = 0;
+        long sampledKeyChars = 0;
+        for (int i = 0; i < sampleSize; i++) {
+            Object row = rows.get((int) ((long) i * rows.size() / sampleSize));
+            if (row instanceof Map) {
+                for (Map.Entry<?, ?> cell : ((Map<?, ?>) row).entrySet()) {
+                    sampledCells++;
+                    sampledChars += cell.getValue() != null ? String.valueOf(cell.getValue()).length() : 0;
+                    sampledKeyChars += String.valueOf(cell.getKey()).length();
                 }
-                
-                // Update status
-                status.put("status", "COMPLETED");
-                status.put("progress", 100);
-                status.put("endTime", LocalDateTime.now());
-                status.put("resultSize", result.length);
-                
-                return result;
-                
-            } catch (Exception e) {
-                logger.error("Async export job {} failed", jobId, e);
-                status.put("status", "FAILED");
-                status.put("error", e.getMessage());
-                status.put("endTime", LocalDateTime.now());
-                throw new RuntimeException(e);
-            }
-        }, exportExecutor);
-        
-        exportJobs.put(jobId, future);
-        
-        logger.info("Async export job {} started successfully", jobId);
-        return jobId;
+            } else if (row != null) {
+                sampledCells++;
+                sampledChars += String.valueOf(row).length();
+            }
+        }
+
+        double cellsPerRow = sampleSize > 0 ? (double) sampledCells / sampleSize : 0;
+        double charsPerRow = sampleSize > 0 ? (double) sampledChars / sampleSize : 0;
+        double bytesPerRow;
+        switch (target) {
+            case "json":
+                bytesPerRow = charsPerRow + (double) sampledKeyChars / Math.max(1, sampleSize) + cellsPerRow * 6 + 2;
+                break;
+            case "excel":
+                bytesPerRow = (charsPerRow + cellsPerRow * 30) * 0.3;
+                break;
+            default:
+                // A delimiter after every cell but the last, then the line break
+                bytesPerRow = charsPerRow + cellsPerRow;
+        }
+
+        long estimatedRows = rows.size();
+        Map<String, Object> estimate = new LinkedHashMap<>();
+        estimate.put("format", format);
+        estimate.put("estimatedRows", estimatedRows);
+        estimate.put("estimatedBytes", (long) Math.ceil(bytesPerRow * estimatedRows));
+        estimate.put("sampledRows", sampleSize);
+        estimate.put("maxBytes", maxEstimatedExportBytes);
+        return estimate;
     }
 
+    // Compression and Conversion
+
     @Override
-    public Map<String, Object> getExportJobStatus(String jobId) {
-        Map<String, Object> status = jobStatuses.get(jobId);
-        if (status == null) {
-            throw new RuntimeException("Export job not found: " + jobId);
+    public byte[] compressExportData(byte[] data, String compressionType) {
+        ContentCoding coding = ContentCoding.forToken(compressionType);
+        if (coding == null) {
+            throw new ValidationException("Unsupported compression type: " + compressionType);
         }
-        return new HashMap<>(status);
+        return toBytes(out -> writeEncoded(coding, out, encoded -> encoded.write(data)), "Export compression failed");
     }
 
+    /**
+     * Convert tabular data between csv, json and excel
+     * JSON is an array of objects or an object with such an array under "data"; the first row of CSV and Excel
+     * holds the column names.
+     */
     @Override
-    public byte[] getExportJobResult(String jobId) {
-        CompletableFuture<byte[]> future = exportJobs.get(jobId);
-        if (future == null) {
-            throw new RuntimeException("Export job not found: " + jobId);
+    public byte[] convertFormat(byte[] sourceData, String sourceFormat, String targetFormat) {
+        String source = sourceFormat != null ? sourceFormat.toLowerCase() : "";
+        String target = targetFormat != null ? targetFormat.toLowerCase() : "";
+        List<String> tabular = Arrays.asList("csv", "json", "excel");
+        if (!tabular.contains(source) || !tabular.contains(target)) {
+            throw new ValidationException("Conversion from " + sourceFormat + " to " + targetFormat
+                + " is not supported; supported formats are " + tabular);
         }
-        
+        if (source.equals(target)) {
+            return sourceData.clone();
+        }
+
+        List<Map<String, Object>> rows;
         try {
-            return future.get();
-        } catch (Exception e) {
-            logger.error("Failed to get export job result for: {}", jobId, e);
-            throw new RuntimeException("Failed to get export result", e);
+            rows = readRows(sourceData, source);
+        } catch (IOException e) {
+            throw new ValidationException("Invalid " + sourceFormat + " data: " + e.getMessage());
+        }
+        Set<String> columns = new LinkedHashSet<>();
+        for (Map<String, Object> row : rows) {
+            columns.addAll(row.keySet());
+        }
+        List<String> headers = new ArrayList<>(columns);
+
+        switch (target) {
+            case "csv":
+                return toBytes(out -> streamToCSV(rows.iterator(), headers, ",", out), "Format conversion failed");
+            case "excel":
+                return toBytes(out -> streamListToExcel(rows, headers, "Data", out), "Format conversion failed");
+            default:
+                Map<String, Object> data = new LinkedHashMap<>();
+                data.put("data", rows);
+                return exportToJSON(data);
         }
     }
 
-    @Override
-    public void cancelExportJob(String jobId) {
-        CompletableFuture<byte[]> future = exportJobs.get(jobId);
-        if (future != null) {
-            future.cancel(true);
-            exportJobs.remove(jobId);
-            
-            Map<String, Object> status = jobStatuses.get(jobId);
-            if (status != null) {
-                status.put("status", "CANCELLED");
-                status.put("endTime", LocalDateTime.now());
+    private List<Map<String, Object>> readRows(byte[] sourceData, String format) throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        if ("json".equals(format)) {
+            JsonNode root = objectMapper.readTree(sourceData);
+            JsonNode array = root != null && root.isObject() ? root.get("data") : root;
+            if (array == null || !array.isArray()) {
+                throw new IOException("expected an array of objects");
             }
-            
-            logger.info("Export job {} cancelled", jobId);
+            for (JsonNode element : array) {
+                if (!element.isObject()) {
+                    throw new IOException("expected an array of objects");
+                }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> row = objectMapper.convertValue(element, LinkedHashMap.class);
+                rows.add(row);
+            }
+            return rows;
+        }
+
+        List<String[]> lines = new ArrayList<>();
+        if ("csv".equals(format)) {
+            lines = parseCsv(new String(sourceData, StandardCharsets.UTF_8));
+        } else {
+            Path workbook = Files.createTempFile("sim-convert", ".xlsx");
+            try {
+                Files.write(workbook, sourceData);
+                List<String[]> sheetRows = lines;
+                XlsxRowReader.read(workbook.toFile(), (rowNumber, cells) -> sheetRows.add(cells));
+            } finally {
+                deleteQuietly(workbook);
+            }
+        }
+        if (lines.isEmpty()) {
+            return rows;
+        }
+        String[] headers = lines.get(0);
+        for (String[] line : lines.subList(1, lines.size())) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < headers.length; i++) {
+                row.put(headers[i] != null ? headers[i] : "column_" + (i + 1), i < line.length ? line[i] : null);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * RFC 4180 records: quoted fields may hold delimiters, doubled quotes and line breaks
+     */
+    private static List<String[]> parseCsv(String text) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int start = text.startsWith("\uFEFF") ? 1 : 0;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                fields.add(field.toString());
+                field.setLength(0);
+                records.add(fields.toArray(new String[0]));
+                fields.clear();
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IOException("unterminated quoted field");
         }
+        if (field.length() > 0 || !fields.isEmpty()) {
+            fields.add(field.toString());
+            records.add(fields.toArray(new String[0]));
+        }
+        return records;
     }
 
     // Utility Methods
@@ -494,6 +1826,10 @@ public class ExportServiceImpl implements ExportService {
                 return "application/xml";
             case "pdf":
                 return "application/pdf";
+            case "zip":
+                return "application/zip";
+            case "parquet":
+                return "application/vnd.apache.parquet";
             default:
                 return "application/octet-stream";
         }
@@ -512,6 +1848,10 @@ public class ExportServiceImpl implements ExportService {
                 return "xml";
             case "pdf":
                 return "pdf";
+            case "zip":
+                return "zip";
+            case "parquet":
+                return "parquet";
             default:
                 return "bin";
         }
@@ -519,51 +1859,6 @@ public class ExportServiceImpl implements ExportService {
 
     // Helper Methods
 
-    private CellStyle createHeaderStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        Font font = workbook.createFont();
-        font.setBold(true);
-        font.setFontHeightInPoints((short) 12);
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        return style;
-    }
-
-    private CellStyle createDataStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        return style;
-    }
-
-    private void setCellValue(Cell cell, Object value) {
-        if (value == null) {
-            cell.setCellValue("");
-        } else if (value instanceof Number) {
-            cell.setCellValue(((Number) value).doubleValue());
-        } else if (value instanceof Boolean) {
-            cell.setCellValue((Boolean) value);
-        } else if (value instanceof Date) {
-            cell.setCellValue((Date) value);
-        } else {
-            cell.setCellValue(String.valueOf(value));
-        }
-    }
-
-    private String escapeCsvValue(String value) {
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
-    }
-
     private String convertToJsonString(Object obj, int indent) {
         // Simple JSON conversion (in production, use Jackson or Gson)
         if (obj == null) {
@@ -627,36 +1922,116 @@ public class ExportServiceImpl implements ExportService {
 
     // Placeholder implementations for remaining interface methods
     @Override public byte[] exportWithExcelTemplate(String templatePath, Map<String, Object> data) { return new byte[0]; }
-    @Override public byte[] exportToPDF(String reportType, Map<String, Object> data, Map<String, Object> options) { return new byte[0]; }
     @Override public byte[] exportHTMLToPDF(String htmlContent, Map<String, Object> options) { return new byte[0]; }
     @Override public byte[] exportWithPDFTemplate(String templatePath, Map<String, Object> data) { return new byte[0]; }
     @Override public byte[] exportPDFWithCharts(Map<String, Object> data, List<Map<String, Object>> chartConfigs) { return new byte[0]; }
     @Override public byte[] exportToXML(Map<String, Object> data, String rootElementName) { return new byte[0]; }
     @Override public byte[] exportToXMLWithSchema(Map<String, Object> data, String schemaPath) { return new byte[0]; }
-    @Override public void cleanupCompletedJobs(int hoursOld) {}
     @Override public Map<String, Object> createExportTemplate(String templateName, String format, byte[] templateData, Map<String, Object> metadata) { return new HashMap<>(); }
     @Override public Map<String, Object> updateExportTemplate(Long templateId, byte[] templateData, Map<String, Object> metadata) { return new HashMap<>(); }
     @Override public void deleteExportTemplate(Long templateId) {}
     @Override public Map<String, Object> getExportTemplate(Long templateId) { return new HashMap<>(); }
     @Override public List<Map<String, Object>> listExportTemplates(String format) { return new ArrayList<>(); }
-    @Override public byte[] convertFormat(byte[] sourceData, String sourceFormat, String targetFormat) { return new byte[0]; }
-    @Override public byte[] compressExportData(byte[] data, String compressionType) { return new byte[0]; }
-    @Override public byte[] createZipArchive(Map<String, byte[]> files) { return new byte[0]; }
-    @Override public Map<String, byte[]> extractZipArchive(byte[] zipData) { return new HashMap<>(); }
     @Override public Map<String, Object> validateExportData(Map<String, Object> data, String format) { return new HashMap<>(); }
     @Override public Map<String, Object> checkExportDataQuality(Map<String, Object> data) { return new HashMap<>(); }
-    @Override public Map<String, Object> estimateExportSize(Map<String, Object> data, String format) { return new HashMap<>(); }
     @Override public byte[] applyPasswordProtection(byte[] data, String format, String password) { return new byte[0]; }
     @Override public byte[] applyDigitalSignature(byte[] data, String format, Map<String, Object> signatureConfig) { return new byte[0]; }
     @Override public byte[] encryptExportData(byte[] data, String encryptionKey) { return new byte[0]; }
     @Override public byte[] decryptExportData(byte[] encryptedData, String decryptionKey) { return new byte[0]; }
-    @Override public Map<String, byte[]> batchExport(List<Map<String, Object>> exportRequests) { return new HashMap<>(); }
-    @Override public String scheduleBatchExport(List<Map<String, Object>> exportRequests, String cronExpression) { return ""; }
-    @Override public Map<String, Object> getBatchExportStatus(String batchId) { return new HashMap<>(); }
     @Override public void logExportActivity(String userId, String exportType, String format, Map<String, Object> metadata) {}
     @Override public List<Map<String, Object>> getExportHistory(String userId, String exportType, int days) { return new ArrayList<>(); }
     @Override public Map<String, Object> getExportStatistics(String period) { return new HashMap<>(); }
     @Override public Map<String, Object> sanitizeExportData(Map<String, Object> data) { return data; }
     @Override public Map<String, Object> applyExportFilters(Map<String, Object> data, List<Map<String, Object>> filters) { return data; }
     @Override public Map<String, Object> transformDataForFormat(Map<String, Object> data, String format) { return data; }
-}
\ No newline at end of file
+
+    /**
+     * One async export; the result lives in the spool directory once completed
+     */
+    private static final class ExportJob {
+
+        final String id;
+        final String exportType;
+        final String format;
+        final LocalDateTime startTime = LocalDateTime.now();
+        volatile CompletableFuture<Void> future;
+        volatile String status = "QUEUED";
+        volatile int progress;
+        volatile boolean cancelled;
+        volatile Path file;
+        volatile long resultSize;
+        // Coding of the spooled file
+        volatile ContentCoding encoding = ContentCoding.IDENTITY;
+        volatile LocalDateTime endTime;
+        volatile String error;
+        // Thread running the export, while it runs
+        Thread runner;
+        // Admission
+        String owner;
+        Runnable task;
+        long queuedAtNanos;
+        volatile long waitMillis = -1;
+        long estimatedRows = -1;
+        long estimatedBytes = -1;
+        // Batch jobs only
+        volatile List<BatchPart> parts;
+        volatile LocalDateTime scheduledFor;
+
+        ExportJob(String id, String exportType, String format) {
+            this.id = id;
+            this.exportType = exportType;
+            this.format = format;
+        }
+
+        synchronized boolean begin() {
+            if (endTime != null) {
+                return false;
+            }
+            status = "PROCESSING";
+            progress = parts != null ? 0 : 25;
+            runner = Thread.currentThread();
+            return true;
+        }
+
+        synchronized boolean finish(String finalStatus, String message) {
+            if (endTime != null) {
+                return false;
+            }
+            error = message;
+            endTime = LocalDateTime.now();
+            status = finalStatus;
+            runner = null;
+            return true;
+        }
+
+        synchronized void interruptRunner() {
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+
+    /**
+     * One file of a batch archive, rendered into its own spool file
+     */
+    private static final class BatchPart {
+
+        final int index;
+        final String name;
+        final Map<String, Object> request;
+        volatile Path file;
+        volatile String status = "QUEUED";
+        volatile long size;
+        volatile String error;
+        long estimatedRows = -1;
+        long estimatedBytes = -1;
+        // Set once the archive no longer wants this part
+        volatile boolean abandoned;
+
+        BatchPart(int index, String name, Map<String, Object> request) {
+            this.index = index;
+            this.name = name;
+            this.request = request;
+        }
+    }
+}
@@ -7,11 +7,14 @@ import com.school.sim.dto.response.AttendanceReportResponse;
 import com.school.sim.entity.*;
 import com.school.sim.repository.*;
 import com.school.sim.service.AcademicReportService;
+import com.school.sim.service.AttendanceArchiveService;
 import com.school.sim.service.AttendanceReportService;
 import com.school.sim.service.ReportService;
+import com.school.sim.util.GradingScale;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
@@ -35,6 +38,11 @@ public class ReportServiceImpl implements ReportService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReportServiceImpl.class);
 
+    private static final double DEFAULT_CHRONIC_ABSENCE_THRESHOLD = 10.0;
+
+    @Value("${app.reports.chronic-absence.min-consecutive:3}")
+    private int chronicMinConsecutiveAbsences;
+
     @Autowired
     private AcademicReportService academicReportService;
 
@@ -47,6 +55,9 @@ public class ReportServiceImpl implements ReportService {
     @Autowired
     private AttendanceRepository attendanceRepository;
 
+    @Autowired
+    private AttendanceArchiveService attendanceArchiveService;
+
     @Autowired
     private AssessmentRepository assessmentRepository;
 
@@ -126,7 +137,7 @@ public class ReportServiceImpl implements ReportService {
             BigDecimal percentage = assessment.getScore()
                     .divide(assessment.getAssessment().getMaxScore(), 4, RoundingMode.HALF_UP)
                     .multiply(new BigDecimal("100"));
-            totalPoints += convertPercentageToGPA(percentage.doubleValue())
+            totalPoints += GradingScale.gradePoints(percentage.doubleValue())
                     * assessment.getAssessment().getSubject().getSks();
             totalCredits += assessment.getAssessment().getSubject().getSks();
         }
@@ -139,13 +150,11 @@ public class ReportServiceImpl implements ReportService {
         LocalDate startDate = LocalDate.of(Integer.parseInt(academicYear.split("/")[0]), semester == 1 ? 8 : 1, 1);
         LocalDate endDate = LocalDate.of(Integer.parseInt(academicYear.split("/")[semester == 1 ? 0 : 1]),
                 semester == 1 ? 12 : 7, 31);
-        List<Attendance> attendanceRecords = attendanceRepository.findByStudentAndDateBetween(student, startDate,
-                endDate);
+        List<Object[]> attendanceStats = attendanceArchiveService.getAttendanceStatsByStudentAndDateBetween(
+                student, startDate, endDate);
 
-        long totalDays = attendanceRecords.size();
-        long presentDays = attendanceRecords.stream()
-                .mapToLong(a -> a.getStatus() == AttendanceStatus.PRESENT ? 1 : 0)
-                .sum();
+        long totalDays = countAttendance(attendanceStats, null);
+        long presentDays = countAttendance(attendanceStats, AttendanceStatus.PRESENT);
 
         Map<String, Object> attendanceSummary = new HashMap<>();
         attendanceSummary.put("totalDays", totalDays);
@@ -206,13 +215,11 @@ public class ReportServiceImpl implements ReportService {
             LocalDate startDate = LocalDate.of(Integer.parseInt(academicYear.split("/")[0]), semester == 1 ? 8 : 1, 1);
             LocalDate endDate = LocalDate.of(Integer.parseInt(academicYear.split("/")[semester == 1 ? 0 : 1]),
                     semester == 1 ? 12 : 7, 31);
-            List<Attendance> attendanceRecords = attendanceRepository.findByStudentAndDateBetween(student, startDate,
-                    endDate);
+            List<Object[]> attendanceStats = attendanceArchiveService.getAttendanceStatsByStudentAndDateBetween(
+                    student, startDate, endDate);
 
-            long totalDays = attendanceRecords.size();
-            long presentDays = attendanceRecords.stream()
-                    .mapToLong(a -> a.getStatus() == AttendanceStatus.PRESENT ? 1 : 0)
-                    .sum();
+            long totalDays = countAttendance(attendanceStats, null);
+            long presentDays = countAttendance(attendanceStats, AttendanceStatus.PRESENT);
 
             double attendanceRate = totalDays > 0 ? (double) presentDays / totalDays * 100 : 0.0;
             studentPerf.put("attendanceRate", attendanceRate);
@@ -233,7 +240,7 @@ public class ReportServiceImpl implements ReportService {
 
         for (Map<String, Object> studentPerf : studentPerformances) {
             double gpa = (Double) studentPerf.get("gpa");
-            String letterGrade = convertGPAToLetterGrade(gpa);
+            String letterGrade = GradingScale.letterGradeForGpa(gpa);
             gradeDistribution.put(letterGrade, gradeDistribution.get(letterGrade) + 1);
         }
 
@@ -454,13 +461,11 @@ public class ReportServiceImpl implements ReportService {
                             semester == 1 ? 8 : 1, 1);
                     LocalDate endDate = LocalDate.of(Integer.parseInt(academicYear.split("/")[semester == 1 ? 0 : 1]),
                             semester == 1 ? 12 : 7, 31);
-                    List<Attendance> attendanceRecords = attendanceRepository.findByStudentAndDateBetween(student,
-                            startDate, endDate);
+                    List<Object[]> attendanceStats = attendanceArchiveService.getAttendanceStatsByStudentAndDateBetween(
+                            student, startDate, endDate);
 
-                    long totalDays = attendanceRecords.size();
-                    long presentDays = attendanceRecords.stream()
-                            .mapToLong(a -> a.getStatus() == AttendanceStatus.PRESENT ? 1 : 0)
-                            .sum();
+                    long totalDays = countAttendance(attendanceStats, null);
+                    long presentDays = countAttendance(attendanceStats, AttendanceStatus.PRESENT);
 
                     double attendanceRate = totalDays > 0 ? (double) presentDays / totalDays * 100 : 0.0;
                     riskStudent.put("attendanceRate", attendanceRate);
@@ -665,7 +670,7 @@ public class ReportServiceImpl implements ReportService {
             BigDecimal percentage = assessment.getScore()
                     .divide(assessment.getAssessment().getMaxScore(), 4, RoundingMode.HALF_UP)
                     .multiply(new BigDecimal("100"));
-            double gpaPoints = convertPercentageToGPA(percentage.doubleValue());
+            double gpaPoints = GradingScale.gradePoints(percentage.doubleValue());
             int credits = assessment.getAssessment().getSubject().getSks();
 
             totalPoints += gpaPoints * credits;
@@ -675,41 +680,15 @@ public class ReportServiceImpl implements ReportService {
         return totalCredits > 0 ? totalPoints / totalCredits : 0.0;
     }
 
-    private double convertPercentageToGPA(double percentage) {
-        if (percentage >= 90)
-            return 4.0;
-        if (percentage >= 80)
-            return 3.0;
-        if (percentage >= 70)
-            return 2.0;
-        if (percentage >= 60)
-            return 1.0;
-        return 0.0;
+    private String calculateLetterGrade(double score, double maxScore) {
+        return GradingScale.letterGrade((score / maxScore) * 100);
     }
 
-    private String calculateLetterGrade(double score, double maxScore) {
-        double percentage = (score / maxScore) * 100;
-        if (percentage >= 90)
-            return "A";
-        if (percentage >= 80)
-            return "B";
-        if (percentage >= 70)
-            return "C";
-        if (percentage >= 60)
-            return "D";
-        return "F";
-    }
-
-    private String convertGPAToLetterGrade(double gpa) {
-        if (gpa >= 3.5)
-            return "A";
-        if (gpa >= 2.5)
-            return "B";
-        if (gpa >= 1.5)
-            return "C";
-        if (gpa >= 0.5)
-            return "D";
-        return "F";
+    private long countAttendance(List<Object[]> attendanceStats, AttendanceStatus status) {
+        return attendanceStats.stream()
+                .filter(stat -> status == null || stat[0] == status)
+                .mapToLong(stat -> ((Number) stat[1]).longValue())
+                .sum();
     }
 
     // Placeholder implementations for remaining interface methods
@@ -721,7 +700,48 @@ public class ReportServiceImpl implements ReportService {
     @Override
     public Map<String, Object> generateChronicAbsenteeismReport(LocalDate startDate, LocalDate endDate,
             Double threshold) {
-        return new HashMap<>();
+        double absenceRateThreshold = threshold != null ? threshold : DEFAULT_CHRONIC_ABSENCE_THRESHOLD;
+        logger.info("Generating chronic absenteeism report from {} to {} (threshold: {}%, consecutive: {})",
+                startDate, endDate, absenceRateThreshold, chronicMinConsecutiveAbsences);
+
+        List<Object[]> rows = attendanceRepository.findChronicAbsenteeismSummaries(
+                startDate, endDate, absenceRateThreshold, chronicMinConsecutiveAbsences);
+
+        List<Map<String, Object>> students = new ArrayList<>();
+        long streakOnlyCount = 0;
+        for (Object[] row : rows) {
+            long totalSessions = ((Number) row[4]).longValue();
+            long absences = ((Number) row[5]).longValue();
+            long longestStreak = ((Number) row[6]).longValue();
+            double absenceRate = totalSessions > 0 ? absences * 100.0 / totalSessions : 0.0;
+
+            Map<String, Object> student = new HashMap<>();
+            student.put("studentId", ((Number) row[0]).longValue());
+            student.put("nis", row[1]);
+            student.put("name", row[2]);
+            student.put("className", row[3]);
+            student.put("totalSessions", totalSessions);
+            student.put("absences", absences);
+            student.put("absenceRate", BigDecimal.valueOf(absenceRate).setScale(2, RoundingMode.HALF_UP));
+            student.put("longestAbsenceStreak", longestStreak);
+            student.put("exceedsThreshold", absenceRate >= absenceRateThreshold);
+            if (absenceRate < absenceRateThreshold) {
+                streakOnlyCount++;
+            }
+            students.add(student);
+        }
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("reportType", "CHRONIC_ABSENTEEISM");
+        report.put("startDate", startDate);
+        report.put("endDate", endDate);
+        report.put("threshold", absenceRateThreshold);
+        report.put("minConsecutiveAbsences", chronicMinConsecutiveAbsences);
+        report.put("totalStudents", students.size());
+        report.put("studentsFlaggedByStreakOnly", streakOnlyCount);
+        report.put("students", students);
+        report.put("generatedAt", LocalDateTime.now());
+        return report;
     }
 
     @Override
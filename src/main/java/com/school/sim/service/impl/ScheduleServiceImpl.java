@@ -1,27 +1,44 @@
 package com.school.sim.service.impl;
 
 import com.school.sim.dto.request.*;
+import com.school.sim.dto.response.BulkScheduleResult;
 import com.school.sim.dto.response.ScheduleResponse;
 import com.school.sim.dto.response.TimetableResponse;
 import com.school.sim.entity.*;
 import com.school.sim.exception.ResourceNotFoundException;
 import com.school.sim.exception.ValidationException;
 import com.school.sim.repository.*;
+import com.school.sim.repository.specification.ScheduleSpecifications;
+import com.school.sim.service.ActivityCalendarService;
 import com.school.sim.service.ScheduleService;
+import com.school.sim.service.TimetableIndexService;
+import com.school.sim.util.ScheduleConflictDetector;
+import com.school.sim.util.ScheduleSlot;
+import com.school.sim.util.TimetableIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.time.DayOfWeek;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -38,12 +55,29 @@ public class ScheduleServiceImpl implements ScheduleService {
     private final ClassRoomRepository classRoomRepository;
     private final SubjectRepository subjectRepository;
     private final UserRepository userRepository;
+    private final TimetableIndexService timetableIndexService;
+    private final ActivityCalendarService activityCalendarService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_SCHEDULE_SQL =
+            "INSERT INTO schedules (class_room_id, subject_id, teacher_id, day_of_week, start_time, end_time, " +
+            "academic_year, semester, is_active, notes, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${app.schedule.bulk.batch-size:500}")
+    private int bulkBatchSize;
+
+    @Value("${app.schedule.generation.period-minutes:45}")
+    private int suggestionPeriodMinutes;
 
     // Time slot constants
     private static final LocalTime SCHOOL_START_TIME = LocalTime.of(7, 0);
     private static final LocalTime SCHOOL_END_TIME = LocalTime.of(17, 0);
     private static final int MIN_SESSION_DURATION = 30; // minutes
     private static final int MAX_SESSION_DURATION = 180; // minutes
+    private static final int SCHOOL_DAYS = 5; // Monday to Friday
+    private static final int CANDIDATE_STEP_MINUTES = 15;
+    private static final int MAX_SUGGESTIONS = 10;
 
     @Override
     @Transactional
@@ -90,6 +124,7 @@ public class ScheduleServiceImpl implements ScheduleService {
         schedule.setIsActive(request.getIsActive());
 
         Schedule savedSchedule = scheduleRepository.save(schedule);
+        timetableIndexService.scheduleSaved(savedSchedule);
 
         log.info("Schedule created successfully with id: {}", savedSchedule.getId());
         return mapToScheduleResponse(savedSchedule);
@@ -146,6 +181,7 @@ public class ScheduleServiceImpl implements ScheduleService {
         }
 
         Schedule updatedSchedule = scheduleRepository.save(schedule);
+        timetableIndexService.scheduleSaved(updatedSchedule);
         log.info("Schedule updated successfully with id: {}", updatedSchedule.getId());
 
         return mapToScheduleResponse(updatedSchedule);
@@ -171,7 +207,10 @@ public class ScheduleServiceImpl implements ScheduleService {
         Schedule schedule = scheduleRepository.findById(scheduleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Schedule not found with id: " + scheduleId));
 
+        // The delete cascades to the schedule's teaching activities
+        activityCalendarService.scheduleDeleted(scheduleId);
         scheduleRepository.delete(schedule);
+        timetableIndexService.scheduleDeleted(scheduleId);
         log.info("Schedule deleted successfully with id: {}", scheduleId);
     }
 
@@ -179,81 +218,105 @@ public class ScheduleServiceImpl implements ScheduleService {
     public Page<ScheduleResponse> searchSchedules(ScheduleSearchRequest request, Pageable pageable) {
         log.info("Searching schedules with criteria: {}", request);
 
-        List<Schedule> schedules = scheduleRepository.findAll();
-
-        // Apply basic filters
-        List<Schedule> filteredSchedules = schedules.stream()
-                .filter(schedule -> {
-                    if (request.getClassRoomId() != null
-                            && !schedule.getClassRoom().getId().equals(request.getClassRoomId())) {
-                        return false;
-                    }
-                    if (request.getSubjectId() != null
-                            && !schedule.getSubject().getId().equals(request.getSubjectId())) {
-                        return false;
-                    }
-                    if (request.getTeacherId() != null
-                            && !schedule.getTeacher().getId().equals(request.getTeacherId())) {
-                        return false;
-                    }
-                    if (request.getAcademicYear() != null
-                            && !schedule.getAcademicYear().equals(request.getAcademicYear())) {
-                        return false;
-                    }
-                    if (request.getSemester() != null && !schedule.getSemester().equals(request.getSemester())) {
-                        return false;
-                    }
-                    if (request.getDayOfWeek() != null && !schedule.getDayOfWeek().equals(request.getDayOfWeek())) {
-                        return false;
-                    }
-                    if (request.getIsActive() != null && !schedule.getIsActive().equals(request.getIsActive())) {
-                        return false;
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
-
-        List<ScheduleResponse> responses = filteredSchedules.stream()
-                .map(this::mapToScheduleResponse)
-                .collect(Collectors.toList());
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), responses.size());
-        List<ScheduleResponse> pageContent = responses.subList(start, end);
-
-        return new PageImpl<>(pageContent, pageable, responses.size());
+        return scheduleRepository.findAll(ScheduleSpecifications.search(request),
+                        ScheduleSpecifications.pageRequest(request, pageable))
+                .map(this::mapToScheduleResponse);
     }
 
     @Override
     @Transactional
     @CacheEvict(value = { "schedules", "timetables" }, allEntries = true)
     public List<ScheduleResponse> createBulkSchedules(BulkScheduleRequest request) {
-        log.info("Creating {} schedules in bulk", request.getSchedules().size());
-
-        List<ScheduleResponse> responses = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
+        return bulkCreateSchedules(request).getSuccessfulRecords();
+    }
 
-        for (int i = 0; i < request.getSchedules().size(); i++) {
-            CreateScheduleRequest scheduleRequest = request.getSchedules().get(i);
+    @Override
+    @Transactional
+    @CacheEvict(value = { "schedules", "timetables" }, allEntries = true)
+    public BulkScheduleResult bulkCreateSchedules(BulkScheduleRequest request) {
+        List<CreateScheduleRequest> rows = request.getSchedules() != null ? request.getSchedules()
+                : Collections.emptyList();
+        log.info("Creating {} schedules in bulk", rows.size());
+
+        boolean checkConflicts = !Boolean.TRUE.equals(request.getSkipConflictCheck());
+        boolean allowOverlap = Boolean.TRUE.equals(request.getAllowOverlap());
+        boolean stopOnFirstError = Boolean.TRUE.equals(request.getStopOnFirstError());
+
+        // Resolve every referenced entity with one query per type
+        Map<Long, ClassRoom> classRooms = classRoomRepository
+                .findAllById(collectIds(rows, CreateScheduleRequest::getClassRoomId)).stream()
+                .collect(Collectors.toMap(ClassRoom::getId, classRoom -> classRoom));
+        Map<Long, Subject> subjects = subjectRepository
+                .findAllById(collectIds(rows, CreateScheduleRequest::getSubjectId)).stream()
+                .collect(Collectors.toMap(Subject::getId, subject -> subject));
+        Map<Long, User> teachers = userRepository
+                .findAllById(collectIds(rows, CreateScheduleRequest::getTeacherId)).stream()
+                .collect(Collectors.toMap(User::getId, teacher -> teacher));
+
+        Map<String, TimetableIndex> indexes = new HashMap<>();
+        Map<String, List<ScheduleSlot>> acceptedSlots = new HashMap<>();
+        List<Schedule> accepted = new ArrayList<>();
+        List<BulkScheduleResult.RowError> errors = new ArrayList<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            int rowNumber = i + 1;
+            CreateScheduleRequest row = rows.get(i);
             try {
-                scheduleRequest.setSkipConflictCheck(request.getSkipConflictCheck());
-                scheduleRequest.setAllowOverlap(request.getAllowOverlap());
-
-                ScheduleResponse response = createSchedule(scheduleRequest);
-                responses.add(response);
-            } catch (Exception e) {
-                String error = String.format("Error creating schedule %d: %s", i + 1, e.getMessage());
-                errors.add(error);
-                log.error(error, e);
-
-                if (request.getStopOnFirstError()) {
-                    throw new ValidationException("Bulk schedule creation failed: " + error);
+                Schedule schedule = buildBulkSchedule(row, classRooms, subjects, teachers);
+
+                if (checkConflicts) {
+                    TimetableIndex index = indexes.computeIfAbsent(
+                            schedule.getAcademicYear() + "#" + schedule.getSemester(),
+                            term -> timetableIndexService.getIndex(row.getAcademicYear(), row.getSemester()));
+                    ScheduleSlot candidate = toBatchSlot(-rowNumber, schedule);
+                    List<Map<String, Object>> conflicts = findBulkConflicts(index, acceptedSlots, candidate);
+                    if (!conflicts.isEmpty() && !allowOverlap) {
+                        errors.add(BulkScheduleResult.RowError.builder()
+                                .row(rowNumber)
+                                .message("Schedule conflicts detected: " + conflicts.size() + " conflicts found")
+                                .conflicts(conflicts)
+                                .build());
+                    } else {
+                        acceptedSlots.computeIfAbsent(teacherBucket(candidate), key -> new ArrayList<>())
+                                .add(candidate);
+                        acceptedSlots.computeIfAbsent(classRoomBucket(candidate), key -> new ArrayList<>())
+                                .add(candidate);
+                        accepted.add(schedule);
+                    }
+                } else {
+                    accepted.add(schedule);
                 }
+            } catch (ResourceNotFoundException | ValidationException e) {
+                errors.add(BulkScheduleResult.RowError.builder()
+                        .row(rowNumber)
+                        .message(e.getMessage())
+                        .conflicts(Collections.emptyList())
+                        .build());
+            }
+
+            if (stopOnFirstError && !errors.isEmpty()) {
+                BulkScheduleResult.RowError error = errors.get(0);
+                throw new ValidationException(String.format(
+                        "Bulk schedule creation failed: Error creating schedule %d: %s",
+                        error.getRow(), error.getMessage()));
             }
         }
 
-        log.info("Bulk schedule creation completed. Created: {}, Errors: {}", responses.size(), errors.size());
-        return responses;
+        insertSchedules(accepted);
+        timetableIndexService.schedulesSaved(accepted);
+
+        for (BulkScheduleResult.RowError error : errors) {
+            log.warn("Error creating schedule {}: {}", error.getRow(), error.getMessage());
+        }
+        log.info("Bulk schedule creation completed. Created: {}, Errors: {}", accepted.size(), errors.size());
+
+        return BulkScheduleResult.builder()
+                .successfulRecords(accepted.stream().map(this::mapToScheduleResponse).collect(Collectors.toList()))
+                .errors(errors)
+                .totalProcessed(rows.size())
+                .successCount(accepted.size())
+                .errorCount(errors.size())
+                .build();
     }
 
     @Override
@@ -308,8 +371,12 @@ public class ScheduleServiceImpl implements ScheduleService {
     }
 
     @Override
-    @Cacheable(value = "timetables", key = "'class-' + #classRoomId + '-' + #academicYear + '-' + #semester")
     public TimetableResponse generateClassTimetable(Long classRoomId, String academicYear, Integer semester) {
+        return timetableIndexService.getOrRender("timetable", TimetableIndexService.CLASS_ROOM, classRoomId,
+                academicYear, semester, () -> renderClassTimetable(classRoomId, academicYear, semester));
+    }
+
+    private TimetableResponse renderClassTimetable(Long classRoomId, String academicYear, Integer semester) {
         log.info("Generating class timetable for class: {}, period: {}/{}", classRoomId, academicYear, semester);
 
         ClassRoom classRoom = classRoomRepository.findById(classRoomId)
@@ -337,8 +404,12 @@ public class ScheduleServiceImpl implements ScheduleService {
     }
 
     @Override
-    @Cacheable(value = "timetables", key = "'teacher-' + #teacherId + '-' + #academicYear + '-' + #semester")
     public TimetableResponse generateTeacherTimetable(Long teacherId, String academicYear, Integer semester) {
+        return timetableIndexService.getOrRender("timetable", TimetableIndexService.TEACHER, teacherId,
+                academicYear, semester, () -> renderTeacherTimetable(teacherId, academicYear, semester));
+    }
+
+    private TimetableResponse renderTeacherTimetable(Long teacherId, String academicYear, Integer semester) {
         log.info("Generating teacher timetable for teacher: {}, period: {}/{}", teacherId, academicYear, semester);
 
         User teacher = userRepository.findById(teacherId)
@@ -365,6 +436,11 @@ public class ScheduleServiceImpl implements ScheduleService {
                 .build();
     }
 
+    @Override
+    public String getTimetableVersion(String entityType, Long entityId, String academicYear, Integer semester) {
+        return timetableIndexService.getVersionTag(entityType, entityId, academicYear, semester);
+    }
+
     @Override
     @Cacheable(value = "timetables", key = "'subject-' + #subjectId + '-' + #academicYear + '-' + #semester")
     public TimetableResponse generateSubjectTimetable(Long subjectId, String academicYear, Integer semester) {
@@ -399,35 +475,20 @@ public class ScheduleServiceImpl implements ScheduleService {
         log.info("Checking schedule conflicts for new schedule");
 
         List<Map<String, Object>> conflicts = new ArrayList<>();
+        TimetableIndex index = timetableIndexService.getIndex(request.getAcademicYear(), request.getSemester());
 
         // Check teacher conflicts
-        List<Schedule> teacherSchedules = scheduleRepository.findByTeacherAndDayOfWeekAndAcademicYearAndSemester(
-                userRepository.findById(request.getTeacherId()).orElse(null),
-                request.getDayOfWeek(),
-                request.getAcademicYear(),
-                request.getSemester());
-
-        for (Schedule existingSchedule : teacherSchedules) {
-            if (isTimeOverlap(request.getStartTime(), request.getEndTime(),
-                    existingSchedule.getStartTime(), existingSchedule.getEndTime())) {
-                conflicts.add(createConflictInfo("TEACHER_CONFLICT", existingSchedule,
-                        "Teacher has another class at this time"));
-            }
+        for (ScheduleSlot existingSlot : index.findTeacherOverlaps(request.getTeacherId(),
+                request.getDayOfWeek(), request.getStartTime(), request.getEndTime())) {
+            conflicts.add(createConflictInfo(ScheduleConflictDetector.TEACHER_CONFLICT, existingSlot,
+                    "Teacher has another class at this time"));
         }
 
         // Check classroom conflicts
-        List<Schedule> classroomSchedules = scheduleRepository.findByClassRoomAndDayOfWeekAndAcademicYearAndSemester(
-                classRoomRepository.findById(request.getClassRoomId()).orElse(null),
-                request.getDayOfWeek(),
-                request.getAcademicYear(),
-                request.getSemester());
-
-        for (Schedule existingSchedule : classroomSchedules) {
-            if (isTimeOverlap(request.getStartTime(), request.getEndTime(),
-                    existingSchedule.getStartTime(), existingSchedule.getEndTime())) {
-                conflicts.add(createConflictInfo("CLASSROOM_CONFLICT", existingSchedule,
-                        "Classroom is already occupied at this time"));
-            }
+        for (ScheduleSlot existingSlot : index.findClassRoomOverlaps(request.getClassRoomId(),
+                request.getDayOfWeek(), request.getStartTime(), request.getEndTime())) {
+            conflicts.add(createConflictInfo(ScheduleConflictDetector.CLASSROOM_CONFLICT, existingSlot,
+                    "Classroom is already occupied at this time"));
         }
 
         return conflicts;
@@ -437,23 +498,21 @@ public class ScheduleServiceImpl implements ScheduleService {
     public List<Map<String, Object>> checkScheduleConflicts(Long scheduleId, UpdateScheduleRequest request) {
         log.info("Checking schedule conflicts for schedule update: {}", scheduleId);
 
-        Schedule currentSchedule = scheduleRepository.findById(scheduleId)
+        ScheduleSlot currentSlot = timetableIndexService.findSlot(scheduleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Schedule not found with id: " + scheduleId));
 
         // Create a temporary request with current values and updated values
         CreateScheduleRequest tempRequest = CreateScheduleRequest.builder()
                 .classRoomId(request.getClassRoomId() != null ? request.getClassRoomId()
-                        : currentSchedule.getClassRoom().getId())
-                .subjectId(
-                        request.getSubjectId() != null ? request.getSubjectId() : currentSchedule.getSubject().getId())
-                .teacherId(
-                        request.getTeacherId() != null ? request.getTeacherId() : currentSchedule.getTeacher().getId())
-                .dayOfWeek(request.getDayOfWeek() != null ? request.getDayOfWeek() : currentSchedule.getDayOfWeek())
-                .startTime(request.getStartTime() != null ? request.getStartTime() : currentSchedule.getStartTime())
-                .endTime(request.getEndTime() != null ? request.getEndTime() : currentSchedule.getEndTime())
+                        : currentSlot.getClassRoomId())
+                .subjectId(request.getSubjectId() != null ? request.getSubjectId() : currentSlot.getSubjectId())
+                .teacherId(request.getTeacherId() != null ? request.getTeacherId() : currentSlot.getTeacherId())
+                .dayOfWeek(request.getDayOfWeek() != null ? request.getDayOfWeek() : currentSlot.getDayOfWeek())
+                .startTime(request.getStartTime() != null ? request.getStartTime() : currentSlot.getStartTime())
+                .endTime(request.getEndTime() != null ? request.getEndTime() : currentSlot.getEndTime())
                 .academicYear(request.getAcademicYear() != null ? request.getAcademicYear()
-                        : currentSchedule.getAcademicYear())
-                .semester(request.getSemester() != null ? request.getSemester() : currentSchedule.getSemester())
+                        : currentSlot.getAcademicYear())
+                .semester(request.getSemester() != null ? request.getSemester() : currentSlot.getSemester())
                 .build();
 
         List<Map<String, Object>> conflicts = checkScheduleConflicts(tempRequest);
@@ -468,32 +527,13 @@ public class ScheduleServiceImpl implements ScheduleService {
     public List<Map<String, Object>> detectExistingConflicts(String academicYear, Integer semester) {
         log.info("Detecting existing conflicts for period: {}/{}", academicYear, semester);
 
-        List<Schedule> allSchedules = scheduleRepository.findByAcademicYearAndSemester(academicYear, semester);
-        List<Map<String, Object>> conflicts = new ArrayList<>();
+        List<ScheduleSlot> slots = scheduleRepository.findSlotsByAcademicYearAndSemester(academicYear, semester);
 
-        for (int i = 0; i < allSchedules.size(); i++) {
-            for (int j = i + 1; j < allSchedules.size(); j++) {
-                Schedule schedule1 = allSchedules.get(i);
-                Schedule schedule2 = allSchedules.get(j);
-
-                if (schedule1.getDayOfWeek().equals(schedule2.getDayOfWeek()) &&
-                        isTimeOverlap(schedule1.getStartTime(), schedule1.getEndTime(),
-                                schedule2.getStartTime(), schedule2.getEndTime())) {
-
-                    // Check if same teacher or same classroom
-                    if (schedule1.getTeacher().getId().equals(schedule2.getTeacher().getId())) {
-                        conflicts.add(createConflictInfo("TEACHER_CONFLICT", schedule2,
-                                "Teacher has conflicting schedules"));
-                    }
-
-                    if (schedule1.getClassRoom().getId().equals(schedule2.getClassRoom().getId())) {
-                        conflicts.add(createConflictInfo("CLASSROOM_CONFLICT", schedule2,
-                                "Classroom has conflicting schedules"));
-                    }
-                }
-            }
-        }
+        List<Map<String, Object>> conflicts = ScheduleConflictDetector.detect(slots).stream()
+                .map(this::createConflictInfo)
+                .collect(Collectors.toList());
 
+        log.info("Found {} conflicts among {} schedules", conflicts.size(), slots.size());
         return conflicts;
     }
 
@@ -503,28 +543,24 @@ public class ScheduleServiceImpl implements ScheduleService {
             String academicYear, Integer semester) {
         log.info("Checking teacher availability for teacher: {} on {}", teacherId, dayOfWeek);
 
-        User teacher = userRepository.findById(teacherId)
-                .orElseThrow(() -> new ResourceNotFoundException("Teacher not found with id: " + teacherId));
-
-        List<Schedule> existingSchedules = scheduleRepository.findByTeacherAndDayOfWeekAndAcademicYearAndSemester(
-                teacher, dayOfWeek, academicYear, semester);
+        TimetableIndex index = timetableIndexService.getIndex(academicYear, semester);
+        String teacherName = index.getTeacherName(teacherId);
+        if (teacherName == null) {
+            User teacher = userRepository.findById(teacherId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Teacher not found with id: " + teacherId));
+            teacherName = teacher.getFirstName() + " " + teacher.getLastName();
+        }
 
-        boolean isAvailable = existingSchedules.stream()
-                .noneMatch(schedule -> isTimeOverlap(startTime, endTime,
-                        schedule.getStartTime(), schedule.getEndTime()));
+        List<ScheduleSlot> conflictingSlots = index.findTeacherOverlaps(teacherId, dayOfWeek, startTime, endTime);
 
         Map<String, Object> availability = new HashMap<>();
         availability.put("teacherId", teacherId);
-        availability.put("teacherName", teacher.getFirstName() + " " + teacher.getLastName());
+        availability.put("teacherName", teacherName);
         availability.put("dayOfWeek", dayOfWeek);
         availability.put("requestedStartTime", startTime);
         availability.put("requestedEndTime", endTime);
-        availability.put("isAvailable", isAvailable);
-        availability.put("conflictingSchedules", existingSchedules.stream()
-                .filter(schedule -> isTimeOverlap(startTime, endTime,
-                        schedule.getStartTime(), schedule.getEndTime()))
-                .map(this::mapToScheduleResponse)
-                .collect(Collectors.toList()));
+        availability.put("isAvailable", conflictingSlots.isEmpty());
+        availability.put("conflictingSchedules", mapSlotsToScheduleResponses(conflictingSlots));
 
         return availability;
     }
@@ -535,28 +571,24 @@ public class ScheduleServiceImpl implements ScheduleService {
             String academicYear, Integer semester) {
         log.info("Checking classroom availability for classroom: {} on {}", classRoomId, dayOfWeek);
 
-        ClassRoom classRoom = classRoomRepository.findById(classRoomId)
-                .orElseThrow(() -> new ResourceNotFoundException("ClassRoom not found with id: " + classRoomId));
-
-        List<Schedule> existingSchedules = scheduleRepository.findByClassRoomAndDayOfWeekAndAcademicYearAndSemester(
-                classRoom, dayOfWeek, academicYear, semester);
+        TimetableIndex index = timetableIndexService.getIndex(academicYear, semester);
+        String classRoomName = index.getClassRoomName(classRoomId);
+        if (classRoomName == null) {
+            ClassRoom classRoom = classRoomRepository.findById(classRoomId)
+                    .orElseThrow(() -> new ResourceNotFoundException("ClassRoom not found with id: " + classRoomId));
+            classRoomName = classRoom.getName();
+        }
 
-        boolean isAvailable = existingSchedules.stream()
-                .noneMatch(schedule -> isTimeOverlap(startTime, endTime,
-                        schedule.getStartTime(), schedule.getEndTime()));
+        List<ScheduleSlot> conflictingSlots = index.findClassRoomOverlaps(classRoomId, dayOfWeek, startTime, endTime);
 
         Map<String, Object> availability = new HashMap<>();
         availability.put("classRoomId", classRoomId);
-        availability.put("classRoomName", classRoom.getName());
+        availability.put("classRoomName", classRoomName);
         availability.put("dayOfWeek", dayOfWeek);
         availability.put("requestedStartTime", startTime);
         availability.put("requestedEndTime", endTime);
-        availability.put("isAvailable", isAvailable);
-        availability.put("conflictingSchedules", existingSchedules.stream()
-                .filter(schedule -> isTimeOverlap(startTime, endTime,
-                        schedule.getStartTime(), schedule.getEndTime()))
-                .map(this::mapToScheduleResponse)
-                .collect(Collectors.toList()));
+        availability.put("isAvailable", conflictingSlots.isEmpty());
+        availability.put("conflictingSchedules", mapSlotsToScheduleResponses(conflictingSlots));
 
         return availability;
     }
@@ -565,12 +597,12 @@ public class ScheduleServiceImpl implements ScheduleService {
     public Map<DayOfWeek, List<ScheduleResponse>> getTeacherWeeklySchedule(Long teacherId,
             String academicYear,
             Integer semester) {
-        log.info("Getting teacher weekly schedule for teacher: {}", teacherId);
-
-        List<ScheduleResponse> schedules = getSchedulesByTeacher(teacherId, academicYear, semester);
-
-        return schedules.stream()
-                .collect(Collectors.groupingBy(ScheduleResponse::getDayOfWeek));
+        return timetableIndexService.getOrRender("weekly", TimetableIndexService.TEACHER, teacherId, academicYear,
+                semester, () -> {
+                    log.info("Getting teacher weekly schedule for teacher: {}", teacherId);
+                    return getSchedulesByTeacher(teacherId, academicYear, semester).stream()
+                            .collect(Collectors.groupingBy(ScheduleResponse::getDayOfWeek));
+                });
     }
 
     @Override
@@ -680,30 +712,325 @@ public class ScheduleServiceImpl implements ScheduleService {
         }
     }
 
-    private boolean isTimeOverlap(LocalTime start1, LocalTime end1, LocalTime start2, LocalTime end2) {
-        return start1.isBefore(end2) && start2.isBefore(end1);
+    private Map<String, Object> createConflictInfo(String type, ScheduleSlot conflictingSlot, String description) {
+        Map<String, Object> conflict = new HashMap<>();
+        conflict.put("type", type);
+        conflict.put("description", description);
+        conflict.put("conflictingScheduleId", conflictingSlot.getScheduleId());
+        conflict.put("conflictingEntity", ScheduleConflictDetector.TEACHER_CONFLICT.equals(type)
+                ? conflictingSlot.getTeacherName() : conflictingSlot.getClassRoomName());
+        conflict.put("conflictStartTime", conflictingSlot.getStartTime());
+        conflict.put("conflictEndTime", conflictingSlot.getEndTime());
+        conflict.put("severity", "HIGH");
+        return conflict;
+    }
+
+    private Map<String, Object> createConflictInfo(ScheduleConflictDetector.Conflict detected) {
+        ScheduleSlot conflicting = detected.getSecond();
+        boolean teacherConflict = ScheduleConflictDetector.TEACHER_CONFLICT.equals(detected.getType());
+
+        Map<String, Object> conflict = new HashMap<>();
+        conflict.put("type", detected.getType());
+        conflict.put("description", teacherConflict ? "Teacher has conflicting schedules"
+                : "Classroom has conflicting schedules");
+        conflict.put("scheduleId", detected.getFirst().getScheduleId());
+        conflict.put("conflictingScheduleId", conflicting.getScheduleId());
+        conflict.put("conflictingEntity", teacherConflict ? conflicting.getTeacherName()
+                : conflicting.getClassRoomName());
+        conflict.put("dayOfWeek", conflicting.getDayOfWeek());
+        conflict.put("conflictStartTime", conflicting.getStartTime());
+        conflict.put("conflictEndTime", conflicting.getEndTime());
+        conflict.put("severity", "HIGH");
+        return conflict;
+    }
+
+    private List<ScheduleResponse> mapSlotsToScheduleResponses(List<ScheduleSlot> slots) {
+        if (slots.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = slots.stream().map(ScheduleSlot::getScheduleId).collect(Collectors.toList());
+        return scheduleRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Schedule::getStartTime).thenComparing(Schedule::getId))
+                .map(this::mapToScheduleResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gaps within school hours between start-ordered busy slots, keeping those of at least minimumMinutes
+     */
+    private List<Map<String, Object>> findFreePeriods(List<ScheduleSlot> busySlots, DayOfWeek dayOfWeek,
+            int minimumMinutes) {
+        List<Map<String, Object>> periods = new ArrayList<>();
+        LocalTime cursor = SCHOOL_START_TIME;
+        for (ScheduleSlot slot : busySlots) {
+            if (!cursor.isBefore(SCHOOL_END_TIME)) {
+                break;
+            }
+            if (slot.getStartTime().isAfter(cursor)) {
+                LocalTime gapEnd = slot.getStartTime().isBefore(SCHOOL_END_TIME)
+                        ? slot.getStartTime() : SCHOOL_END_TIME;
+                addFreePeriod(periods, dayOfWeek, cursor, gapEnd, minimumMinutes);
+            }
+            if (slot.getEndTime().isAfter(cursor)) {
+                cursor = slot.getEndTime();
+            }
+        }
+        if (cursor.isBefore(SCHOOL_END_TIME)) {
+            addFreePeriod(periods, dayOfWeek, cursor, SCHOOL_END_TIME, minimumMinutes);
+        }
+        return periods;
+    }
+
+    private void addFreePeriod(List<Map<String, Object>> periods, DayOfWeek dayOfWeek, LocalTime startTime,
+            LocalTime endTime, int minimumMinutes) {
+        int duration = calculateScheduleDuration(startTime, endTime);
+        if (duration <= 0 || duration < minimumMinutes) {
+            return;
+        }
+        Map<String, Object> period = new HashMap<>();
+        period.put("dayOfWeek", dayOfWeek);
+        period.put("startTime", startTime);
+        period.put("endTime", endTime);
+        period.put("timeSlot", startTime + " - " + endTime);
+        period.put("duration", duration);
+        periods.add(period);
+    }
+
+    /**
+     * Free slots of the given length for a teacher and classroom, best first
+     * Prefers days without the subject, lessons adjacent to the teacher's others and earlier starts.
+     */
+    private List<Map<String, Object>> rankCandidateSlots(TimetableIndex index, Long classRoomId, Long subjectId,
+            Long teacherId, int durationMinutes, Long excludeScheduleId) {
+        List<Map<String, Object>> candidates = new ArrayList<>();
+        if (durationMinutes <= 0) {
+            return candidates;
+        }
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            if (dayOfWeek.getValue() > SCHOOL_DAYS) {
+                continue;
+            }
+            List<ScheduleSlot> teacherDay = index.getTeacherSlots(teacherId, dayOfWeek);
+            boolean subjectThatDay = index.getClassRoomSlots(classRoomId, dayOfWeek).stream()
+                    .anyMatch(slot -> slot.isActive() && Objects.equals(slot.getSubjectId(), subjectId)
+                            && !Objects.equals(slot.getScheduleId(), excludeScheduleId));
+
+            for (LocalTime start = SCHOOL_START_TIME;
+                 !start.plusMinutes(durationMinutes).isAfter(SCHOOL_END_TIME);
+                 start = start.plusMinutes(CANDIDATE_STEP_MINUTES)) {
+                LocalTime end = start.plusMinutes(durationMinutes);
+                if (hasActiveConflict(index, excludeScheduleId, teacherId, classRoomId, dayOfWeek, start, end)) {
+                    continue;
+                }
+                final LocalTime candidateStart = start;
+                boolean adjacent = teacherDay.stream().anyMatch(slot -> slot.isActive()
+                        && (slot.getEndTime().equals(candidateStart) || slot.getStartTime().equals(end)));
+
+                int score = 100 - (subjectThatDay ? 30 : 0) + (adjacent ? 10 : 0)
+                        - calculateScheduleDuration(SCHOOL_START_TIME, start) / 60;
+                List<String> reasons = new ArrayList<>();
+                reasons.add(subjectThatDay ? "Subject already taught to this class on this day"
+                        : "Subject not yet taught to this class on this day");
+                if (adjacent) {
+                    reasons.add("Adjacent to another lesson of the teacher");
+                }
+
+                Map<String, Object> candidate = new HashMap<>();
+                candidate.put("dayOfWeek", dayOfWeek);
+                candidate.put("startTime", start);
+                candidate.put("endTime", end);
+                candidate.put("timeSlot", start + " - " + end);
+                candidate.put("duration", durationMinutes);
+                candidate.put("score", score);
+                candidate.put("reasons", reasons);
+                candidates.add(candidate);
+            }
+        }
+        candidates.sort(Comparator.comparing((Map<String, Object> candidate) -> (Integer) candidate.get("score"))
+                .reversed());
+        return candidates;
+    }
+
+    private boolean hasActiveConflict(TimetableIndex index, Long scheduleId, Long teacherId, Long classRoomId,
+            DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        return index.findTeacherOverlaps(teacherId, dayOfWeek, startTime, endTime).stream()
+                .anyMatch(slot -> slot.isActive() && !slot.getScheduleId().equals(scheduleId))
+                || index.findClassRoomOverlaps(classRoomId, dayOfWeek, startTime, endTime).stream()
+                .anyMatch(slot -> slot.isActive() && !slot.getScheduleId().equals(scheduleId));
+    }
+
+    private static Set<Long> collectIds(List<CreateScheduleRequest> rows,
+                                        Function<CreateScheduleRequest, Long> id) {
+        return rows.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private Schedule buildBulkSchedule(CreateScheduleRequest row, Map<Long, ClassRoom> classRooms,
+                                       Map<Long, Subject> subjects, Map<Long, User> teachers) {
+        if (row.getClassRoomId() == null || row.getSubjectId() == null || row.getTeacherId() == null
+                || row.getDayOfWeek() == null || row.getStartTime() == null || row.getEndTime() == null
+                || row.getAcademicYear() == null || row.getSemester() == null) {
+            throw new ValidationException("Class room, subject, teacher, day, times, academic year and semester "
+                    + "are required");
+        }
+        ClassRoom classRoom = classRooms.get(row.getClassRoomId());
+        if (classRoom == null) {
+            throw new ResourceNotFoundException("ClassRoom not found with id: " + row.getClassRoomId());
+        }
+        Subject subject = subjects.get(row.getSubjectId());
+        if (subject == null) {
+            throw new ResourceNotFoundException("Subject not found with id: " + row.getSubjectId());
+        }
+        User teacher = teachers.get(row.getTeacherId());
+        if (teacher == null) {
+            throw new ResourceNotFoundException("Teacher not found with id: " + row.getTeacherId());
+        }
+        validateScheduleData(row);
+
+        Schedule schedule = new Schedule(classRoom, subject, teacher, row.getDayOfWeek(), row.getStartTime(),
+                row.getEndTime(), row.getAcademicYear(), row.getSemester());
+        schedule.setIsActive(row.getIsActive() != null ? row.getIsActive() : true);
+        schedule.setNotes(row.getNotes());
+        return schedule;
+    }
+
+    /**
+     * Conflicts of a candidate against the stored timetable and against entries accepted earlier in the batch
+     */
+    private List<Map<String, Object>> findBulkConflicts(TimetableIndex index,
+                                                        Map<String, List<ScheduleSlot>> acceptedSlots,
+                                                        ScheduleSlot candidate) {
+        List<Map<String, Object>> conflicts = new ArrayList<>();
+        for (ScheduleSlot existingSlot : index.findTeacherOverlaps(candidate.getTeacherId(),
+                candidate.getDayOfWeek(), candidate.getStartTime(), candidate.getEndTime())) {
+            conflicts.add(createConflictInfo(ScheduleConflictDetector.TEACHER_CONFLICT, existingSlot,
+                    "Teacher has another class at this time"));
+        }
+        for (ScheduleSlot existingSlot : index.findClassRoomOverlaps(candidate.getClassRoomId(),
+                candidate.getDayOfWeek(), candidate.getStartTime(), candidate.getEndTime())) {
+            conflicts.add(createConflictInfo(ScheduleConflictDetector.CLASSROOM_CONFLICT, existingSlot,
+                    "Classroom is already occupied at this time"));
+        }
+        for (ScheduleSlot batchSlot : acceptedSlots.getOrDefault(teacherBucket(candidate), Collections.emptyList())) {
+            if (batchSlot.overlaps(candidate)) {
+                conflicts.add(createBatchConflictInfo(ScheduleConflictDetector.TEACHER_CONFLICT, batchSlot,
+                        "Teacher has another class at this time in the same batch"));
+            }
+        }
+        for (ScheduleSlot batchSlot : acceptedSlots.getOrDefault(classRoomBucket(candidate),
+                Collections.emptyList())) {
+            if (batchSlot.overlaps(candidate)) {
+                conflicts.add(createBatchConflictInfo(ScheduleConflictDetector.CLASSROOM_CONFLICT, batchSlot,
+                        "Classroom is already occupied at this time in the same batch"));
+            }
+        }
+        return conflicts;
     }
 
-    private Map<String, Object> createConflictInfo(String type, Schedule conflictingSchedule, String description) {
+    private Map<String, Object> createBatchConflictInfo(String type, ScheduleSlot batchSlot, String description) {
         Map<String, Object> conflict = new HashMap<>();
         conflict.put("type", type);
         conflict.put("description", description);
-        conflict.put("conflictingScheduleId", conflictingSchedule.getId());
-        conflict.put("conflictingEntity", getConflictingEntityName(conflictingSchedule, type));
-        conflict.put("conflictStartTime", conflictingSchedule.getStartTime());
-        conflict.put("conflictEndTime", conflictingSchedule.getEndTime());
+        conflict.put("conflictingRow", -batchSlot.getScheduleId());
+        conflict.put("conflictingEntity", ScheduleConflictDetector.TEACHER_CONFLICT.equals(type)
+                ? batchSlot.getTeacherName() : batchSlot.getClassRoomName());
+        conflict.put("conflictStartTime", batchSlot.getStartTime());
+        conflict.put("conflictEndTime", batchSlot.getEndTime());
         conflict.put("severity", "HIGH");
         return conflict;
     }
 
-    private String getConflictingEntityName(Schedule schedule, String conflictType) {
-        switch (conflictType) {
-            case "TEACHER_CONFLICT":
-                return schedule.getTeacher().getFirstName() + " " + schedule.getTeacher().getLastName();
-            case "CLASSROOM_CONFLICT":
-                return schedule.getClassRoom().getName();
-            default:
-                return "Unknown";
+    // Batch entries carry their negated row number as id until inserted
+    private static ScheduleSlot toBatchSlot(long id, Schedule schedule) {
+        return new ScheduleSlot(id, schedule.getAcademicYear(), schedule.getSemester(), schedule.getDayOfWeek(),
+                schedule.getStartTime(), schedule.getEndTime(), schedule.getTeacher().getId(),
+                schedule.getTeacher().getFirstName(), schedule.getTeacher().getLastName(),
+                schedule.getClassRoom().getId(), schedule.getClassRoom().getName(), schedule.getSubject().getId(),
+                schedule.getIsActive());
+    }
+
+    private static String teacherBucket(ScheduleSlot slot) {
+        return "T#" + slot.getAcademicYear() + "#" + slot.getSemester() + "#" + slot.getDayOfWeek() + "#"
+                + slot.getTeacherId();
+    }
+
+    private static String classRoomBucket(ScheduleSlot slot) {
+        return "C#" + slot.getAcademicYear() + "#" + slot.getSemester() + "#" + slot.getDayOfWeek() + "#"
+                + slot.getClassRoomId();
+    }
+
+    /**
+     * SQL expression mapping a column through a substitution map, adding the bind values to args
+     */
+    private static String substitution(String column, Map<Long, Long> mapping, List<Object> args) {
+        if (mapping.isEmpty()) {
+            return column;
+        }
+        StringBuilder expression = new StringBuilder("CASE ").append(column);
+        for (Map.Entry<Long, Long> entry : mapping.entrySet()) {
+            expression.append(" WHEN ? THEN ?");
+            args.add(entry.getKey());
+            args.add(entry.getValue());
+        }
+        return expression.append(" ELSE ").append(column).append(" END").toString();
+    }
+
+    private static <T> void requireAllExisting(List<T> found, Function<T, Long> idOf, Collection<Long> ids,
+            String entityName) {
+        Set<Long> foundIds = found.stream().map(idOf).collect(Collectors.toSet());
+        for (Long id : ids) {
+            if (!foundIds.contains(id)) {
+                throw new ResourceNotFoundException(entityName + " not found with id: " + id);
+            }
+        }
+    }
+
+    /**
+     * Insert schedules with JDBC batches in the current transaction and assign their generated ids
+     */
+    private void insertSchedules(List<Schedule> schedules) {
+        if (schedules.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = Math.max(1, bulkBatchSize);
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> generated = new ArrayList<>(schedules.size());
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SCHEDULE_SQL,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < schedules.size(); from += batchSize) {
+                    for (Schedule schedule : schedules.subList(from, Math.min(from + batchSize, schedules.size()))) {
+                        statement.setLong(1, schedule.getClassRoom().getId());
+                        statement.setLong(2, schedule.getSubject().getId());
+                        statement.setLong(3, schedule.getTeacher().getId());
+                        statement.setString(4, schedule.getDayOfWeek().name());
+                        statement.setTime(5, Time.valueOf(schedule.getStartTime()));
+                        statement.setTime(6, Time.valueOf(schedule.getEndTime()));
+                        statement.setString(7, schedule.getAcademicYear());
+                        statement.setInt(8, schedule.getSemester());
+                        statement.setBoolean(9, schedule.getIsActive());
+                        statement.setString(10, schedule.getNotes());
+                        statement.setTimestamp(11, Timestamp.valueOf(now));
+                        statement.setTimestamp(12, Timestamp.valueOf(now));
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            generated.add(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return generated;
+        });
+        if (ids == null || ids.size() != schedules.size()) {
+            throw new IllegalStateException("Bulk schedule insert returned " + (ids == null ? 0 : ids.size())
+                    + " generated keys for " + schedules.size() + " rows");
+        }
+        for (int i = 0; i < schedules.size(); i++) {
+            schedules.get(i).setId(ids.get(i));
+            schedules.get(i).setCreatedAt(now);
+            schedules.get(i).setUpdatedAt(now);
         }
     }
 
@@ -810,30 +1137,89 @@ public class ScheduleServiceImpl implements ScheduleService {
                 .build();
     }
 
-    // Placeholder implementations for remaining methods
     @Override
     public List<Map<String, Object>> getAvailableTimeSlots(Long teacherId, DayOfWeek dayOfWeek,
             String academicYear, Integer semester) {
-        return new ArrayList<>();
+        TimetableIndex index = timetableIndexService.getIndex(academicYear, semester);
+        return findFreePeriods(index.getTeacherSlots(teacherId, dayOfWeek), dayOfWeek, MIN_SESSION_DURATION);
     }
 
     @Override
     public List<Map<String, Object>> getAvailableClassroomTimeSlots(Long classRoomId, DayOfWeek dayOfWeek,
             String academicYear, Integer semester) {
-        return new ArrayList<>();
+        TimetableIndex index = timetableIndexService.getIndex(academicYear, semester);
+        return findFreePeriods(index.getClassRoomSlots(classRoomId, dayOfWeek), dayOfWeek, MIN_SESSION_DURATION);
     }
 
+    // Placeholder implementations for remaining methods
+
     @Override
     public List<Map<String, Object>> generateScheduleSuggestions(Long classRoomId, Long subjectId,
             Long teacherId, String academicYear,
             Integer semester) {
-        return new ArrayList<>();
+        log.info("Generating schedule suggestions for class: {}, subject: {}, teacher: {}",
+                classRoomId, subjectId, teacherId);
+
+        TimetableIndex index = timetableIndexService.getIndex(academicYear, semester);
+        List<Map<String, Object>> suggestions = rankCandidateSlots(index, classRoomId, subjectId, teacherId,
+                suggestionPeriodMinutes, null);
+        return suggestions.size() > MAX_SUGGESTIONS ? new ArrayList<>(suggestions.subList(0, MAX_SUGGESTIONS))
+                : suggestions;
     }
 
     @Override
+    @Transactional
+    @CacheEvict(value = { "schedules", "timetables" }, allEntries = true)
     public List<ScheduleResponse> resolveScheduleConflicts(List<Long> conflictingScheduleIds,
             String resolutionStrategy) {
-        return new ArrayList<>();
+        String strategy = resolutionStrategy != null ? resolutionStrategy.toUpperCase() : "RESCHEDULE";
+        if (!"RESCHEDULE".equals(strategy) && !"DEACTIVATE".equals(strategy)) {
+            throw new ValidationException("Unsupported resolution strategy: " + resolutionStrategy
+                    + " (use RESCHEDULE or DEACTIVATE)");
+        }
+        log.info("Resolving conflicts of {} schedules with strategy {}", conflictingScheduleIds.size(), strategy);
+
+        Map<Long, Schedule> schedules = scheduleRepository.findAllById(conflictingScheduleIds).stream()
+                .collect(Collectors.toMap(Schedule::getId, schedule -> schedule));
+        List<Long> missing = conflictingScheduleIds.stream().filter(id -> !schedules.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Schedule not found with id: " + missing);
+        }
+
+        // Later entries give way to earlier ones: each is only changed if it still conflicts
+        List<ScheduleResponse> resolved = new ArrayList<>();
+        for (Long scheduleId : new LinkedHashSet<>(conflictingScheduleIds)) {
+            Schedule schedule = schedules.get(scheduleId);
+            TimetableIndex index = timetableIndexService.getIndex(schedule.getAcademicYear(), schedule.getSemester());
+            if (!Boolean.TRUE.equals(schedule.getIsActive()) || !hasActiveConflict(index, schedule.getId(),
+                    schedule.getTeacher().getId(), schedule.getClassRoom().getId(), schedule.getDayOfWeek(),
+                    schedule.getStartTime(), schedule.getEndTime())) {
+                continue;
+            }
+
+            if ("DEACTIVATE".equals(strategy)) {
+                schedule.setIsActive(false);
+            } else {
+                List<Map<String, Object>> candidates = rankCandidateSlots(index, schedule.getClassRoom().getId(),
+                        schedule.getSubject().getId(), schedule.getTeacher().getId(),
+                        calculateScheduleDuration(schedule.getStartTime(), schedule.getEndTime()), schedule.getId());
+                if (candidates.isEmpty()) {
+                    log.warn("No free slot found to reschedule schedule {}", scheduleId);
+                    continue;
+                }
+                Map<String, Object> target = candidates.get(0);
+                schedule.setDayOfWeek((DayOfWeek) target.get("dayOfWeek"));
+                schedule.setStartTime((LocalTime) target.get("startTime"));
+                schedule.setEndTime((LocalTime) target.get("endTime"));
+            }
+            Schedule saved = scheduleRepository.save(schedule);
+            timetableIndexService.scheduleSaved(saved);
+            resolved.add(mapToScheduleResponse(saved));
+        }
+
+        log.info("Resolved {} of {} conflicting schedules", resolved.size(), conflictingScheduleIds.size());
+        return resolved;
     }
 
     @Override
@@ -854,21 +1240,210 @@ public class ScheduleServiceImpl implements ScheduleService {
 
     @Override
     public Map<String, Object> generateScheduleOptimizationReport(String academicYear, Integer semester) {
-        return new HashMap<>();
+        log.info("Generating schedule optimization report for period: {}/{}", academicYear, semester);
+
+        List<ScheduleSlot> slots = timetableIndexService.getIndex(academicYear, semester).getSlots().stream()
+                .filter(ScheduleSlot::isActive)
+                .collect(Collectors.toList());
+        List<ScheduleConflictDetector.Conflict> conflicts = ScheduleConflictDetector.detect(slots);
+
+        // Idle minutes between a teacher's consecutive lessons of the day
+        Map<Long, Integer> idleMinutesByTeacher = new HashMap<>();
+        Map<String, List<ScheduleSlot>> teacherDays = slots.stream()
+                .collect(Collectors.groupingBy(slot -> slot.getTeacherId() + "#" + slot.getDayOfWeek()));
+        for (List<ScheduleSlot> day : teacherDays.values()) {
+            day.sort(Comparator.comparing(ScheduleSlot::getStartTime));
+            LocalTime previousEnd = null;
+            for (ScheduleSlot slot : day) {
+                if (previousEnd != null && slot.getStartTime().isAfter(previousEnd)) {
+                    idleMinutesByTeacher.merge(slot.getTeacherId(),
+                            calculateScheduleDuration(previousEnd, slot.getStartTime()), Integer::sum);
+                }
+                if (previousEnd == null || slot.getEndTime().isAfter(previousEnd)) {
+                    previousEnd = slot.getEndTime();
+                }
+            }
+        }
+
+        // Lessons of a class and subject beyond an even spread over the school days
+        Map<String, Map<DayOfWeek, Long>> subjectDays = slots.stream()
+                .collect(Collectors.groupingBy(slot -> slot.getClassRoomId() + "#" + slot.getSubjectId(),
+                        Collectors.groupingBy(ScheduleSlot::getDayOfWeek, Collectors.counting())));
+        long clusteredLessons = 0;
+        for (Map<DayOfWeek, Long> perDay : subjectDays.values()) {
+            long weekly = perDay.values().stream().mapToLong(Long::longValue).sum();
+            long dailyLimit = (weekly + SCHOOL_DAYS - 1) / SCHOOL_DAYS;
+            clusteredLessons += perDay.values().stream().mapToLong(count -> Math.max(0, count - dailyLimit)).sum();
+        }
+
+        int totalIdleMinutes = idleMinutesByTeacher.values().stream().mapToInt(Integer::intValue).sum();
+        long teachers = slots.stream().map(ScheduleSlot::getTeacherId).distinct().count();
+        double idleMinutesPerTeacher = teachers > 0 ? (double) totalIdleMinutes / teachers : 0;
+        int score = (int) Math.max(0, Math.round(100 - conflicts.size() * 5.0 - clusteredLessons
+                - idleMinutesPerTeacher / 30.0));
+
+        List<Map<String, Object>> idlestTeachers = idleMinutesByTeacher.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+                .limit(5)
+                .map(entry -> {
+                    Map<String, Object> teacher = new HashMap<>();
+                    teacher.put("teacherId", entry.getKey());
+                    teacher.put("idleMinutes", entry.getValue());
+                    return teacher;
+                })
+                .collect(Collectors.toList());
+
+        List<String> recommendations = new ArrayList<>();
+        if (!conflicts.isEmpty()) {
+            recommendations.add("Resolve " + conflicts.size() + " conflicts, e.g. with the RESCHEDULE strategy");
+        }
+        if (clusteredLessons > 0) {
+            recommendations.add(clusteredLessons + " lessons cluster on the same day; spread subjects over the week");
+        }
+        if (idleMinutesPerTeacher > 60) {
+            recommendations.add("Teachers average " + Math.round(idleMinutesPerTeacher)
+                    + " idle minutes between lessons; consider regenerating the timetable");
+        }
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("academicYear", academicYear);
+        report.put("semester", semester);
+        report.put("totalSchedules", slots.size());
+        report.put("conflictCount", conflicts.size());
+        report.put("clusteredLessons", clusteredLessons);
+        report.put("totalTeacherIdleMinutes", totalIdleMinutes);
+        report.put("averageTeacherIdleMinutes", Math.round(idleMinutesPerTeacher));
+        report.put("idlestTeachers", idlestTeachers);
+        report.put("optimizationScore", score);
+        report.put("recommendations", recommendations);
+        return report;
     }
 
     @Override
     @Transactional
+    @CacheEvict(value = { "schedules", "timetables" }, allEntries = true)
     public List<ScheduleResponse> cloneSchedule(String fromAcademicYear, Integer fromSemester,
             String toAcademicYear, Integer toSemester) {
-        return new ArrayList<>();
+        return cloneSchedules(CloneScheduleRequest.builder()
+                .fromAcademicYear(fromAcademicYear)
+                .fromSemester(fromSemester)
+                .toAcademicYear(toAcademicYear)
+                .toSemester(toSemester)
+                .build());
     }
 
     @Override
     @Transactional
+    @CacheEvict(value = { "schedules", "timetables" }, allEntries = true)
     public List<ScheduleResponse> cloneClassSchedule(Long fromClassRoomId, Long toClassRoomId,
             String academicYear, Integer semester) {
-        return new ArrayList<>();
+        return cloneSchedules(CloneScheduleRequest.builder()
+                .fromAcademicYear(academicYear)
+                .fromSemester(semester)
+                .toAcademicYear(academicYear)
+                .toSemester(semester)
+                .classRoomIds(Collections.singletonList(fromClassRoomId))
+                .classRoomMapping(Collections.singletonMap(fromClassRoomId, toClassRoomId))
+                .build());
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(value = { "schedules", "timetables" }, allEntries = true)
+    public List<ScheduleResponse> cloneSchedules(CloneScheduleRequest request) {
+        log.info("Cloning schedules from {}/{} to {}/{}", request.getFromAcademicYear(), request.getFromSemester(),
+                request.getToAcademicYear(), request.getToSemester());
+
+        Map<Long, Long> classRoomMapping = request.getClassRoomMapping() != null
+                ? request.getClassRoomMapping() : Collections.emptyMap();
+        Map<Long, Long> teacherMapping = request.getTeacherMapping() != null
+                ? request.getTeacherMapping() : Collections.emptyMap();
+        Set<Long> classRoomIds = request.getClassRoomIds() != null
+                ? new HashSet<>(request.getClassRoomIds()) : Collections.emptySet();
+        if (!validateAcademicPeriod(request.getToAcademicYear(), request.getToSemester())) {
+            throw new ValidationException("Invalid target academic period: " + request.getToAcademicYear() + "/"
+                    + request.getToSemester());
+        }
+        requireAllExisting(classRoomRepository.findAllById(new HashSet<>(classRoomMapping.values())),
+                ClassRoom::getId, classRoomMapping.values(), "ClassRoom");
+        requireAllExisting(userRepository.findAllById(new HashSet<>(teacherMapping.values())),
+                User::getId, teacherMapping.values(), "Teacher");
+
+        List<ScheduleSlot> sources = timetableIndexService
+                .getIndex(request.getFromAcademicYear(), request.getFromSemester()).getSlots().stream()
+                .filter(ScheduleSlot::isActive)
+                .filter(slot -> classRoomIds.isEmpty() || classRoomIds.contains(slot.getClassRoomId()))
+                .collect(Collectors.toList());
+        if (sources.isEmpty()) {
+            log.info("No active schedules to clone from {}/{}", request.getFromAcademicYear(),
+                    request.getFromSemester());
+            return new ArrayList<>();
+        }
+
+        if (!Boolean.TRUE.equals(request.getSkipConflictCheck())) {
+            // Clones carry negated source ids so conflicts among pre-existing target schedules are ignored
+            List<ScheduleSlot> slots = timetableIndexService
+                    .getIndex(request.getToAcademicYear(), request.getToSemester()).getSlots().stream()
+                    .filter(ScheduleSlot::isActive)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            for (ScheduleSlot source : sources) {
+                slots.add(new ScheduleSlot(-source.getScheduleId(), request.getToAcademicYear(),
+                        request.getToSemester(), source.getDayOfWeek(), source.getStartTime(), source.getEndTime(),
+                        teacherMapping.getOrDefault(source.getTeacherId(), source.getTeacherId()), null, null,
+                        classRoomMapping.getOrDefault(source.getClassRoomId(), source.getClassRoomId()), null,
+                        source.getSubjectId(), true));
+            }
+            long conflicts = ScheduleConflictDetector.detect(slots).stream()
+                    .filter(conflict -> conflict.getFirst().getScheduleId() < 0
+                            || conflict.getSecond().getScheduleId() < 0)
+                    .count();
+            if (conflicts > 0) {
+                throw new ValidationException("Schedule clone conflicts detected: " + conflicts
+                        + " conflicts found");
+            }
+        }
+
+        List<Object> mappingArgs = new ArrayList<>();
+        String sql = "INSERT INTO schedules (class_room_id, subject_id, teacher_id, day_of_week, start_time, " +
+                "end_time, academic_year, semester, is_active, notes, created_at, updated_at) " +
+                "SELECT " + substitution("s.class_room_id", classRoomMapping, mappingArgs) + ", s.subject_id, " +
+                substitution("s.teacher_id", teacherMapping, mappingArgs) + ", s.day_of_week, s.start_time, " +
+                "s.end_time, ?, ?, ?, s.notes, ?, ? FROM schedules s WHERE s.id = ? AND s.is_active = ?";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int batchSize = Math.max(1, bulkBatchSize);
+        // One row per source keeps the generated keys tied to this clone, whatever else the term receives meanwhile
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> generated = new ArrayList<>(sources.size());
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < sources.size(); from += batchSize) {
+                    for (ScheduleSlot source : sources.subList(from, Math.min(from + batchSize, sources.size()))) {
+                        List<Object> args = new ArrayList<>(mappingArgs);
+                        args.addAll(Arrays.asList(request.getToAcademicYear(), request.getToSemester(), true, now,
+                                now, source.getScheduleId(), true));
+                        new ArgumentPreparedStatementSetter(args.toArray()).setValues(statement);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            generated.add(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return generated;
+        });
+        int inserted = ids != null ? ids.size() : 0;
+
+        List<Schedule> cloned = inserted > 0
+                ? scheduleRepository.findAllWithDetailsByIdIn(ids) : new ArrayList<>();
+        timetableIndexService.schedulesSaved(cloned);
+
+        log.info("Cloned {} schedules from {}/{} to {}/{}", inserted, request.getFromAcademicYear(),
+                request.getFromSemester(), request.getToAcademicYear(), request.getToSemester());
+        return cloned.stream()
+                .map(this::mapToScheduleResponse)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -893,19 +1468,22 @@ public class ScheduleServiceImpl implements ScheduleService {
     public List<ScheduleResponse> getOverlappingSchedules(DayOfWeek dayOfWeek, LocalTime startTime,
             LocalTime endTime, String academicYear,
             Integer semester) {
-        return new ArrayList<>();
+        TimetableIndex index = timetableIndexService.getIndex(academicYear, semester);
+        return mapSlotsToScheduleResponses(index.findOverlaps(dayOfWeek, startTime, endTime));
     }
 
     @Override
     public List<Map<String, Object>> getFreePeriods(Long classRoomId, DayOfWeek dayOfWeek,
             String academicYear, Integer semester) {
-        return new ArrayList<>();
+        TimetableIndex index = timetableIndexService.getIndex(academicYear, semester);
+        return findFreePeriods(index.getClassRoomSlots(classRoomId, dayOfWeek), dayOfWeek, 0);
     }
 
     @Override
     public List<Map<String, Object>> getTeacherFreePeriods(Long teacherId, DayOfWeek dayOfWeek,
             String academicYear, Integer semester) {
-        return new ArrayList<>();
+        TimetableIndex index = timetableIndexService.getIndex(academicYear, semester);
+        return findFreePeriods(index.getTeacherSlots(teacherId, dayOfWeek), dayOfWeek, 0);
     }
 
     @Override
@@ -930,14 +1508,50 @@ public class ScheduleServiceImpl implements ScheduleService {
 
     @Override
     public List<Map<String, Object>> getScheduleTemplates() {
-        return new ArrayList<>();
+        // A template is a class room's timetable in the latest period it has active schedules
+        List<Map<String, Object>> periods = jdbcTemplate.queryForList(
+                "SELECT s.class_room_id, c.name, s.academic_year, s.semester, COUNT(*) AS lessons " +
+                "FROM schedules s JOIN class_rooms c ON c.id = s.class_room_id WHERE s.is_active = ? " +
+                "GROUP BY s.class_room_id, c.name, s.academic_year, s.semester " +
+                "ORDER BY c.name, s.class_room_id, s.academic_year DESC, s.semester DESC", true);
+
+        Map<Long, Map<String, Object>> templates = new LinkedHashMap<>();
+        for (Map<String, Object> period : periods) {
+            Long classRoomId = ((Number) period.get("class_room_id")).longValue();
+            templates.computeIfAbsent(classRoomId, id -> {
+                Map<String, Object> template = new HashMap<>();
+                template.put("templateId", id);
+                template.put("classRoomName", period.get("name"));
+                template.put("academicYear", period.get("academic_year"));
+                template.put("semester", ((Number) period.get("semester")).intValue());
+                template.put("lessonCount", ((Number) period.get("lessons")).longValue());
+                return template;
+            });
+        }
+        return new ArrayList<>(templates.values());
     }
 
     @Override
     @Transactional
+    @CacheEvict(value = { "schedules", "timetables" }, allEntries = true)
     public List<ScheduleResponse> createScheduleFromTemplate(Long templateId, Long classRoomId,
             String academicYear, Integer semester) {
-        return new ArrayList<>();
+        List<Map<String, Object>> periods = jdbcTemplate.queryForList(
+                "SELECT academic_year, semester FROM schedules WHERE class_room_id = ? AND is_active = ? " +
+                "GROUP BY academic_year, semester ORDER BY academic_year DESC, semester DESC", templateId, true);
+        if (periods.isEmpty()) {
+            throw new ResourceNotFoundException("Schedule template not found with id: " + templateId);
+        }
+
+        Map<String, Object> latest = periods.get(0);
+        return cloneSchedules(CloneScheduleRequest.builder()
+                .fromAcademicYear((String) latest.get("academic_year"))
+                .fromSemester(((Number) latest.get("semester")).intValue())
+                .toAcademicYear(academicYear)
+                .toSemester(semester)
+                .classRoomIds(Collections.singletonList(templateId))
+                .classRoomMapping(Collections.singletonMap(templateId, classRoomId))
+                .build());
     }
 
     @Override
@@ -6,19 +6,35 @@ import com.school.sim.entity.*;
 import com.school.sim.exception.ResourceNotFoundException;
 import com.school.sim.exception.ValidationException;
 import com.school.sim.repository.*;
+import com.school.sim.repository.specification.TeachingActivitySpecifications;
+import com.school.sim.service.ActivityCalendarService;
 import com.school.sim.service.TeachingActivityService;
+import com.school.sim.util.ActivityCalendarEntry;
+import com.school.sim.util.ActivityCalendarMonth;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -38,6 +54,25 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
     private final SubjectRepository subjectRepository;
     private final ClassRoomRepository classRoomRepository;
     private final UserRepository userRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ActivityCalendarService activityCalendarService;
+
+    private static final String INSERT_ACTIVITY_SQL =
+            "INSERT INTO teaching_activities (schedule_id, subject_id, class_room_id, teacher_id, date, start_time, " +
+            "end_time, topic, description, is_completed, notes, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${app.teaching-activity.generation.batch-size:1000}")
+    private int generationBatchSize;
+
+    // Comma-separated yyyy-MM-dd dates on which no activities are generated
+    @Value("${app.teaching-activity.holidays:}")
+    private String[] configuredHolidays;
+
+    // School day used as the available time of a class room in utilization analysis
+    private static final LocalTime SCHOOL_START_TIME = LocalTime.of(7, 0);
+    private static final LocalTime SCHOOL_END_TIME = LocalTime.of(17, 0);
 
     @Override
     @Transactional
@@ -51,6 +86,7 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
 
         // Validate time constraints
         validateActivityTime(request.getStartTime(), request.getEndTime());
+        validateNoActivityOnDate(schedule.getId(), request.getDate(), null);
 
         // Check for conflicts
         List<Map<String, Object>> conflicts = validateActivityScheduleConflicts(request);
@@ -75,7 +111,8 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
         activity.setTeacher(getTeacherForActivity(request.getTeacherId(), schedule));
 
         TeachingActivity savedActivity = teachingActivityRepository.save(activity);
-        
+        activityCalendarService.activityChanged(null, calendarEntry(savedActivity));
+
         log.info("Teaching activity created successfully with id: {}", savedActivity.getId());
         return mapToTeachingActivityResponse(savedActivity);
     }
@@ -88,9 +125,13 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
 
         TeachingActivity activity = teachingActivityRepository.findById(activityId)
                 .orElseThrow(() -> new ResourceNotFoundException("Teaching activity not found with id: " + activityId));
+        ActivityCalendarEntry previous = calendarEntry(activity);
 
         // Update fields if provided
         if (request.getDate() != null) {
+            if (activity.getSchedule() != null && !request.getDate().equals(activity.getDate())) {
+                validateNoActivityOnDate(activity.getSchedule().getId(), request.getDate(), activityId);
+            }
             activity.setDate(request.getDate());
         }
         if (request.getStartTime() != null) {
@@ -135,6 +176,7 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
         }
 
         TeachingActivity updatedActivity = teachingActivityRepository.save(activity);
+        activityCalendarService.activityChanged(previous, calendarEntry(updatedActivity));
         log.info("Teaching activity updated successfully with id: {}", updatedActivity.getId());
         
         return mapToTeachingActivityResponse(updatedActivity);
@@ -161,6 +203,7 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
                 .orElseThrow(() -> new ResourceNotFoundException("Teaching activity not found with id: " + activityId));
 
         teachingActivityRepository.delete(activity);
+        activityCalendarService.activityChanged(calendarEntry(activity), null);
         log.info("Teaching activity deleted successfully with id: {}", activityId);
     }
 
@@ -168,52 +211,12 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
     public Page<TeachingActivityResponse> searchTeachingActivities(TeachingActivitySearchRequest request, Pageable pageable) {
         log.info("Searching teaching activities with criteria: {}", request);
 
-        // This would typically use Specification pattern for complex queries
-        List<TeachingActivity> activities = teachingActivityRepository.findAll();
-        
-        // Apply filters
-        List<TeachingActivity> filteredActivities = activities.stream()
-                .filter(activity -> {
-                    if (request.getScheduleId() != null && !activity.getSchedule().getId().equals(request.getScheduleId())) {
-                        return false;
-                    }
-                    if (request.getSubjectId() != null && !activity.getSubject().getId().equals(request.getSubjectId())) {
-                        return false;
-                    }
-                    if (request.getClassRoomId() != null && !activity.getClassRoom().getId().equals(request.getClassRoomId())) {
-                        return false;
-                    }
-                    if (request.getTeacherId() != null && !activity.getTeacher().getId().equals(request.getTeacherId())) {
-                        return false;
-                    }
-                    if (request.getDate() != null && !activity.getDate().equals(request.getDate())) {
-                        return false;
-                    }
-                    if (request.getStartDate() != null && activity.getDate().isBefore(request.getStartDate())) {
-                        return false;
-                    }
-                    if (request.getEndDate() != null && activity.getDate().isAfter(request.getEndDate())) {
-                        return false;
-                    }
-                    if (request.getIsCompleted() != null && !activity.getIsCompleted().equals(request.getIsCompleted())) {
-                        return false;
-                    }
-                    if (request.getTopic() != null && !activity.getTopic().toLowerCase().contains(request.getTopic().toLowerCase())) {
-                        return false;
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
-
-        List<TeachingActivityResponse> responses = filteredActivities.stream()
-                .map(this::mapToTeachingActivityResponse)
-                .collect(Collectors.toList());
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), responses.size());
-        List<TeachingActivityResponse> pageContent = responses.subList(start, end);
+        Page<TeachingActivity> activities = teachingActivityRepository.findAll(
+                TeachingActivitySpecifications.search(request),
+                TeachingActivitySpecifications.pageRequest(request, pageable));
 
-        return new PageImpl<>(pageContent, pageable, responses.size());
+        List<TeachingActivityResponse> responses = mapToTeachingActivityResponses(activities.getContent());
+        return new PageImpl<>(responses, activities.getPageable(), activities.getTotalElements());
     }
 
     @Override
@@ -265,13 +268,10 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
     public List<TeachingActivityResponse> getTeachingActivitiesByDate(LocalDate date) {
         log.info("Retrieving teaching activities for date: {}", date);
 
-        List<TeachingActivity> activities = teachingActivityRepository.findAll().stream()
-                .filter(activity -> activity.getDate().equals(date))
-                .collect(Collectors.toList());
+        List<TeachingActivity> activities = teachingActivityRepository.findAll(
+                TeachingActivitySpecifications.onDate(date), TeachingActivitySpecifications.DEFAULT_SORT);
 
-        return activities.stream()
-                .map(this::mapToTeachingActivityResponse)
-                .collect(Collectors.toList());
+        return mapToTeachingActivityResponses(activities);
     }
 
     @Override
@@ -307,12 +307,14 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
         TeachingActivity activity = teachingActivityRepository.findById(activityId)
                 .orElseThrow(() -> new ResourceNotFoundException("Teaching activity not found with id: " + activityId));
 
+        ActivityCalendarEntry previous = calendarEntry(activity);
         activity.setIsCompleted(true);
         if (notes != null) {
             activity.setNotes(notes);
         }
 
         TeachingActivity updatedActivity = teachingActivityRepository.save(activity);
+        activityCalendarService.activityChanged(previous, calendarEntry(updatedActivity));
         return mapToTeachingActivityResponse(updatedActivity);
     }
 
@@ -325,9 +327,11 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
         TeachingActivity activity = teachingActivityRepository.findById(activityId)
                 .orElseThrow(() -> new ResourceNotFoundException("Teaching activity not found with id: " + activityId));
 
+        ActivityCalendarEntry previous = calendarEntry(activity);
         activity.setIsCompleted(false);
 
         TeachingActivity updatedActivity = teachingActivityRepository.save(activity);
+        activityCalendarService.activityChanged(previous, calendarEntry(updatedActivity));
         return mapToTeachingActivityResponse(updatedActivity);
     }
 
@@ -340,12 +344,7 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
         Schedule schedule = scheduleRepository.findById(scheduleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Schedule not found with id: " + scheduleId));
 
-        // Check if activity already exists for this schedule and date
-        Optional<TeachingActivity> existingActivity = teachingActivityRepository.findByScheduleIdAndDate(scheduleId, date);
-        if (existingActivity.isPresent()) {
-            throw new ValidationException("Teaching activity already exists for this schedule and date");
-        }
-
+        // createTeachingActivity rejects a second activity for this schedule and date
         CreateTeachingActivityRequest request = CreateTeachingActivityRequest.builder()
                 .scheduleId(scheduleId)
                 .date(date)
@@ -366,8 +365,16 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
                 .orElseThrow(() -> new ResourceNotFoundException("Teaching activity not found with id: " + activityId));
 
         List<Attendance> attendances = activity.getAttendances();
-        
-        if (attendances == null || attendances.isEmpty()) {
+        if (attendances == null) {
+            return buildAttendanceSummary(Collections.emptyMap());
+        }
+
+        return buildAttendanceSummary(attendances.stream()
+                .collect(Collectors.groupingBy(Attendance::getStatus, Collectors.counting())));
+    }
+
+    private TeachingActivityResponse.AttendanceSummary buildAttendanceSummary(Map<AttendanceStatus, Long> statusCounts) {
+        if (statusCounts.isEmpty()) {
             return TeachingActivityResponse.AttendanceSummary.builder()
                     .totalStudents(0)
                     .presentCount(0)
@@ -380,13 +387,13 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
                     .build();
         }
 
-        int totalStudents = attendances.size();
-        int presentCount = (int) attendances.stream().filter(a -> a.getStatus() == AttendanceStatus.PRESENT).count();
-        int absentCount = (int) attendances.stream().filter(a -> a.getStatus() == AttendanceStatus.ABSENT).count();
-        int lateCount = (int) attendances.stream().filter(a -> a.getStatus() == AttendanceStatus.LATE).count();
-        int sickCount = (int) attendances.stream().filter(a -> a.getStatus() == AttendanceStatus.SICK).count();
-        int permitCount = (int) attendances.stream().filter(a -> a.getStatus() == AttendanceStatus.PERMIT).count();
-        
+        int totalStudents = (int) statusCounts.values().stream().mapToLong(Long::longValue).sum();
+        int presentCount = statusCounts.getOrDefault(AttendanceStatus.PRESENT, 0L).intValue();
+        int absentCount = statusCounts.getOrDefault(AttendanceStatus.ABSENT, 0L).intValue();
+        int lateCount = statusCounts.getOrDefault(AttendanceStatus.LATE, 0L).intValue();
+        int sickCount = statusCounts.getOrDefault(AttendanceStatus.SICK, 0L).intValue();
+        int permitCount = statusCounts.getOrDefault(AttendanceStatus.PERMIT, 0L).intValue();
+
         double attendanceRate = totalStudents > 0 ? (double) presentCount / totalStudents * 100 : 0.0;
 
         return TeachingActivityResponse.AttendanceSummary.builder()
@@ -422,6 +429,14 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
         }
     }
 
+    // Mirrors uk_teaching_activity_schedule_date, which would otherwise surface as a server error
+    private void validateNoActivityOnDate(Long scheduleId, LocalDate date, Long activityId) {
+        Optional<TeachingActivity> existing = teachingActivityRepository.findByScheduleIdAndDate(scheduleId, date);
+        if (existing.isPresent() && !existing.get().getId().equals(activityId)) {
+            throw new ValidationException("Teaching activity already exists for this schedule and date");
+        }
+    }
+
     private Subject getSubjectForActivity(Long subjectId, Schedule schedule) {
         if (subjectId != null) {
             return subjectRepository.findById(subjectId)
@@ -446,7 +461,161 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
         return schedule.getTeacher();
     }
 
+    /**
+     * Expand weekly schedules over a date range and insert the activities that do not exist yet
+     */
+    private ActivityGeneration generateActivities(List<Schedule> schedules, LocalDate startDate, LocalDate endDate,
+                                                  Set<LocalDate> holidays) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new ValidationException("End date must not be before start date");
+        }
+        Set<LocalDate> skippedDates = new HashSet<>(holidays);
+        skippedDates.addAll(getConfiguredHolidays());
+        Map<DayOfWeek, List<Schedule>> schedulesByDay = schedules.stream()
+                .collect(Collectors.groupingBy(Schedule::getDayOfWeek));
+        Set<String> existing = findExistingActivityKeys(startDate, endDate);
+
+        ActivityGeneration generation = new ActivityGeneration();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            List<Schedule> daySchedules = schedulesByDay.getOrDefault(date.getDayOfWeek(), Collections.emptyList());
+            if (skippedDates.contains(date)) {
+                generation.skippedHolidays += daySchedules.size();
+                continue;
+            }
+            for (Schedule schedule : daySchedules) {
+                if (existing.contains(activityKey(schedule.getId(), date))) {
+                    generation.skippedExisting++;
+                    continue;
+                }
+                TeachingActivity activity = new TeachingActivity(schedule, schedule.getSubject(),
+                        schedule.getClassRoom(), schedule.getTeacher(), date, schedule.getStartTime(),
+                        schedule.getEndTime(), null);
+                activity.setIsCompleted(false);
+                generation.created.add(activity);
+            }
+        }
+        insertActivities(generation.created);
+        activityCalendarService.activitiesCreated(generation.created.stream()
+                .map(this::calendarEntry)
+                .collect(Collectors.toList()));
+        return generation;
+    }
+
+    private Set<String> findExistingActivityKeys(LocalDate startDate, LocalDate endDate) {
+        Set<String> keys = new HashSet<>();
+        jdbcTemplate.query("SELECT schedule_id, date FROM teaching_activities WHERE date BETWEEN ? AND ?",
+                rs -> {
+                    keys.add(activityKey(rs.getLong(1), rs.getDate(2).toLocalDate()));
+                }, Date.valueOf(startDate), Date.valueOf(endDate));
+        return keys;
+    }
+
+    private static String activityKey(Long scheduleId, LocalDate date) {
+        return scheduleId + "#" + date;
+    }
+
+    private ActivityCalendarEntry calendarEntry(TeachingActivity activity) {
+        return new ActivityCalendarEntry(activity.getId(), activity.getDate(), activity.getStartTime(),
+                activity.getEndTime(), activity.getIsCompleted(), activity.getTeacher().getId(),
+                activity.getClassRoom().getId(), activity.getSubject().getId());
+    }
+
+    private Set<LocalDate> getConfiguredHolidays() {
+        if (configuredHolidays == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(configuredHolidays)
+                .map(String::trim)
+                .filter(date -> !date.isEmpty())
+                .map(LocalDate::parse)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Insert activities with JDBC batches in the current transaction and assign their generated ids
+     * The unique (schedule_id, date) key makes a concurrent duplicate run fail instead of doubling activities
+     */
+    private void insertActivities(List<TeachingActivity> activities) {
+        if (activities.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = Math.max(1, generationBatchSize);
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> generated = new ArrayList<>(activities.size());
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ACTIVITY_SQL,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < activities.size(); from += batchSize) {
+                    for (TeachingActivity activity
+                            : activities.subList(from, Math.min(from + batchSize, activities.size()))) {
+                        statement.setLong(1, activity.getSchedule().getId());
+                        statement.setLong(2, activity.getSubject().getId());
+                        statement.setLong(3, activity.getClassRoom().getId());
+                        statement.setLong(4, activity.getTeacher().getId());
+                        statement.setDate(5, Date.valueOf(activity.getDate()));
+                        statement.setTime(6, Time.valueOf(activity.getStartTime()));
+                        statement.setTime(7, Time.valueOf(activity.getEndTime()));
+                        statement.setString(8, activity.getTopic());
+                        statement.setString(9, activity.getDescription());
+                        statement.setBoolean(10, activity.getIsCompleted());
+                        statement.setString(11, activity.getNotes());
+                        statement.setTimestamp(12, Timestamp.valueOf(now));
+                        statement.setTimestamp(13, Timestamp.valueOf(now));
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            generated.add(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return generated;
+        });
+        if (ids == null || ids.size() != activities.size()) {
+            throw new IllegalStateException("Teaching activity batch insert returned " + (ids == null ? 0 : ids.size())
+                    + " generated keys for " + activities.size() + " rows");
+        }
+        for (int i = 0; i < activities.size(); i++) {
+            activities.get(i).setId(ids.get(i));
+            activities.get(i).setCreatedAt(now);
+            activities.get(i).setUpdatedAt(now);
+        }
+    }
+
+    private static final class ActivityGeneration {
+
+        private final List<TeachingActivity> created = new ArrayList<>();
+        private int skippedExisting;
+        private int skippedHolidays;
+    }
+
     private TeachingActivityResponse mapToTeachingActivityResponse(TeachingActivity activity) {
+        return mapToTeachingActivityResponse(activity, getAttendanceSummary(activity.getId()));
+    }
+
+    /**
+     * Map a page of activities, loading all attendance summaries with one grouped query
+     */
+    private List<TeachingActivityResponse> mapToTeachingActivityResponses(List<TeachingActivity> activities) {
+        if (activities.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> activityIds = activities.stream().map(TeachingActivity::getId).collect(Collectors.toList());
+        Map<Long, Map<AttendanceStatus, Long>> countsByActivity = new HashMap<>();
+        for (Object[] row : attendanceRepository.countStatusByTeachingActivityIds(activityIds)) {
+            countsByActivity.computeIfAbsent((Long) row[0], id -> new EnumMap<>(AttendanceStatus.class))
+                    .put((AttendanceStatus) row[1], (Long) row[2]);
+        }
+        return activities.stream()
+                .map(activity -> mapToTeachingActivityResponse(activity, buildAttendanceSummary(
+                        countsByActivity.getOrDefault(activity.getId(), Collections.emptyMap()))))
+                .collect(Collectors.toList());
+    }
+
+    private TeachingActivityResponse mapToTeachingActivityResponse(
+            TeachingActivity activity, TeachingActivityResponse.AttendanceSummary attendanceSummary) {
         return TeachingActivityResponse.builder()
                 .id(activity.getId())
                 .date(activity.getDate())
@@ -486,18 +655,64 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
                         .username(activity.getTeacher().getUsername())
                         .email(activity.getTeacher().getEmail())
                         .build())
-                .attendanceSummary(getAttendanceSummary(activity.getId()))
+                .attendanceSummary(attendanceSummary)
                 .createdAt(activity.getCreatedAt())
                 .updatedAt(activity.getUpdatedAt())
                 .build();
     }
 
-    // Placeholder implementations for remaining methods
     @Override
+    @Transactional
+    @CacheEvict(value = {"teachingActivities", "activityStatistics"}, allEntries = true)
     public List<TeachingActivityResponse> bulkGenerateActivitiesFromSchedules(List<Long> scheduleIds, 
                                                                              LocalDate startDate, 
                                                                              LocalDate endDate) {
-        return new ArrayList<>();
+        log.info("Bulk generating teaching activities for {} schedules from {} to {}",
+                scheduleIds.size(), startDate, endDate);
+
+        Set<Long> requestedIds = new LinkedHashSet<>(scheduleIds);
+        List<Schedule> schedules = scheduleRepository.findAllById(requestedIds);
+        if (schedules.size() != requestedIds.size()) {
+            Set<Long> foundIds = schedules.stream().map(Schedule::getId).collect(Collectors.toSet());
+            requestedIds.removeAll(foundIds);
+            throw new ResourceNotFoundException("Schedule not found with id: " + requestedIds.iterator().next());
+        }
+
+        ActivityGeneration generation = generateActivities(schedules, startDate, endDate, Collections.emptySet());
+        TeachingActivityResponse.AttendanceSummary noAttendance = buildAttendanceSummary(Collections.emptyMap());
+        return generation.created.stream()
+                .map(activity -> mapToTeachingActivityResponse(activity, noAttendance))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(value = {"teachingActivities", "activityStatistics"}, allEntries = true)
+    public Map<String, Object> generateActivitiesForPeriod(String academicYear, Integer semester, LocalDate startDate,
+                                                           LocalDate endDate, Set<LocalDate> holidays) {
+        log.info("Generating teaching activities for period {}/{} from {} to {}", academicYear, semester,
+                startDate, endDate);
+        long started = System.currentTimeMillis();
+
+        List<Schedule> schedules = scheduleRepository.findByAcademicYearAndSemesterAndIsActiveTrue(academicYear,
+                semester);
+        ActivityGeneration generation = generateActivities(schedules, startDate, endDate,
+                holidays != null ? holidays : Collections.emptySet());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("academicYear", academicYear);
+        result.put("semester", semester);
+        result.put("startDate", startDate);
+        result.put("endDate", endDate);
+        result.put("schedules", schedules.size());
+        result.put("created", generation.created.size());
+        result.put("skippedExisting", generation.skippedExisting);
+        result.put("skippedHolidays", generation.skippedHolidays);
+        result.put("durationMs", System.currentTimeMillis() - started);
+        log.info("Generated {} teaching activities for period {}/{} ({} existing, {} on holidays skipped)",
+                generation.created.size(), academicYear, semester, generation.skippedExisting,
+                generation.skippedHolidays);
+        return result;
     }
 
     @Override
@@ -527,12 +742,95 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
 
     @Override
     public Map<String, Object> getTeachingWorkloadAnalysis(Long teacherId, LocalDate startDate, LocalDate endDate) {
-        return new HashMap<>();
+        log.info("Analyzing teaching workload for teacher: {}, period: {} to {}", teacherId, startDate, endDate);
+
+        List<ActivityCalendarEntry> entries = activityCalendarService.getEntries(ActivityCalendarService.TEACHER,
+                teacherId, startDate, endDate);
+        Map<String, Object> analysis = summarizeCalendarEntries(entries);
+        analysis.put("teacherId", teacherId);
+        analysis.put("startDate", startDate);
+        analysis.put("endDate", endDate);
+
+        Map<LocalDate, Long> minutesByDate = new TreeMap<>();
+        Map<LocalDate, Long> minutesByWeek = new TreeMap<>();
+        for (ActivityCalendarEntry entry : entries) {
+            minutesByDate.merge(entry.getDate(), entry.getDurationMinutes(), Long::sum);
+            minutesByWeek.merge(entry.getDate().with(DayOfWeek.MONDAY), entry.getDurationMinutes(), Long::sum);
+        }
+        long totalMinutes = (Long) analysis.get("totalMinutes");
+        int teachingDays = minutesByDate.size();
+        analysis.put("totalTeachingHours", Math.round(totalMinutes / 60.0 * 100.0) / 100.0);
+        analysis.put("teachingDays", teachingDays);
+        analysis.put("averageActivitiesPerTeachingDay", teachingDays > 0 ? (double) entries.size() / teachingDays : 0.0);
+        analysis.put("averageMinutesPerTeachingDay", teachingDays > 0 ? (double) totalMinutes / teachingDays : 0.0);
+        analysis.put("minutesByWeek", minutesByWeek);
+        minutesByDate.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .ifPresent(busiest -> {
+                    analysis.put("busiestDate", busiest.getKey());
+                    analysis.put("busiestDateMinutes", busiest.getValue());
+                });
+        analysis.put("distinctClassRooms", entries.stream().map(ActivityCalendarEntry::getClassRoomId).distinct().count());
+        return analysis;
     }
 
     @Override
     public Map<String, Object> getClassRoomUtilizationAnalysis(Long classRoomId, LocalDate startDate, LocalDate endDate) {
-        return new HashMap<>();
+        log.info("Analyzing utilization for classroom: {}, period: {} to {}", classRoomId, startDate, endDate);
+
+        List<ActivityCalendarEntry> entries = activityCalendarService.getEntries(ActivityCalendarService.CLASS_ROOM,
+                classRoomId, startDate, endDate);
+        Map<String, Object> analysis = summarizeCalendarEntries(entries);
+        analysis.put("classRoomId", classRoomId);
+        analysis.put("startDate", startDate);
+        analysis.put("endDate", endDate);
+
+        int schoolDays = 0;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                schoolDays++;
+            }
+        }
+        long availableMinutes = schoolDays * ChronoUnit.MINUTES.between(SCHOOL_START_TIME, SCHOOL_END_TIME);
+        long scheduledMinutes = (Long) analysis.get("totalMinutes");
+        analysis.put("schoolDays", schoolDays);
+        analysis.put("usedDays", entries.stream().map(ActivityCalendarEntry::getDate).distinct().count());
+        analysis.put("availableMinutes", availableMinutes);
+        analysis.put("utilizationRate", availableMinutes > 0 ? (double) scheduledMinutes / availableMinutes * 100 : 0.0);
+
+        Map<Integer, Long> activitiesByStartHour = entries.stream()
+                .collect(Collectors.groupingBy(entry -> entry.getStartTime().getHour(), TreeMap::new,
+                        Collectors.counting()));
+        analysis.put("activitiesByStartHour", activitiesByStartHour);
+        activitiesByStartHour.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .ifPresent(peak -> analysis.put("peakStartHour", peak.getKey()));
+        analysis.put("distinctTeachers", entries.stream().map(ActivityCalendarEntry::getTeacherId).distinct().count());
+        return analysis;
+    }
+
+    /**
+     * Counts shared by workload and utilization analysis
+     */
+    private Map<String, Object> summarizeCalendarEntries(List<ActivityCalendarEntry> entries) {
+        long completed = entries.stream().filter(ActivityCalendarEntry::isCompleted).count();
+        long totalMinutes = entries.stream().mapToLong(ActivityCalendarEntry::getDurationMinutes).sum();
+        Map<String, Long> minutesByDayOfWeek = new LinkedHashMap<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            minutesByDayOfWeek.put(day.name(), 0L);
+        }
+        entries.forEach(entry -> minutesByDayOfWeek.merge(entry.getDate().getDayOfWeek().name(),
+                entry.getDurationMinutes(), Long::sum));
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalActivities", entries.size());
+        summary.put("completedActivities", completed);
+        summary.put("pendingActivities", entries.size() - completed);
+        summary.put("completionRate", entries.isEmpty() ? 0.0 : (double) completed / entries.size() * 100);
+        summary.put("totalMinutes", totalMinutes);
+        summary.put("minutesByDayOfWeek", minutesByDayOfWeek);
+        summary.put("distinctSubjects", entries.stream().map(ActivityCalendarEntry::getSubjectId).distinct().count());
+        return summary;
     }
 
     @Override
@@ -564,12 +862,70 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
 
     @Override
     public Map<String, Object> getTeacherActivityCalendar(Long teacherId, Integer year, Integer month) {
-        return new HashMap<>();
+        log.debug("Retrieving activity calendar for teacher: {}, month: {}-{}", teacherId, year, month);
+
+        Map<String, Object> calendar = renderCalendar(activityCalendarService.getMonth(ActivityCalendarService.TEACHER,
+                teacherId, calendarMonth(year, month)));
+        calendar.put("teacherId", teacherId);
+        return calendar;
     }
 
     @Override
     public Map<String, Object> getClassRoomActivityCalendar(Long classRoomId, Integer year, Integer month) {
-        return new HashMap<>();
+        log.debug("Retrieving activity calendar for classroom: {}, month: {}-{}", classRoomId, year, month);
+
+        Map<String, Object> calendar = renderCalendar(activityCalendarService.getMonth(
+                ActivityCalendarService.CLASS_ROOM, classRoomId, calendarMonth(year, month)));
+        calendar.put("classRoomId", classRoomId);
+        return calendar;
+    }
+
+    private YearMonth calendarMonth(Integer year, Integer month) {
+        if (year == null || month == null || month < 1 || month > 12) {
+            throw new ValidationException("Calendar year and a month between 1 and 12 are required");
+        }
+        return YearMonth.of(year, month);
+    }
+
+    /**
+     * Render a month bucket as per-day lists of activity ids, times and completion flags
+     */
+    private Map<String, Object> renderCalendar(ActivityCalendarMonth bucket) {
+        List<Map<String, Object>> days = new ArrayList<>();
+        long completed = 0;
+        for (Map.Entry<LocalDate, List<ActivityCalendarEntry>> day : bucket.byDay().entrySet()) {
+            List<Map<String, Object>> activities = new ArrayList<>(day.getValue().size());
+            for (ActivityCalendarEntry entry : day.getValue()) {
+                Map<String, Object> activity = new LinkedHashMap<>();
+                activity.put("id", entry.getActivityId());
+                activity.put("startTime", entry.getStartTime());
+                activity.put("endTime", entry.getEndTime());
+                activity.put("completed", entry.isCompleted());
+                activity.put("subjectId", entry.getSubjectId());
+                activity.put("classRoomId", entry.getClassRoomId());
+                activity.put("teacherId", entry.getTeacherId());
+                activities.add(activity);
+                if (entry.isCompleted()) {
+                    completed++;
+                }
+            }
+            Map<String, Object> dayView = new LinkedHashMap<>();
+            dayView.put("date", day.getKey());
+            dayView.put("dayOfWeek", day.getKey().getDayOfWeek().name());
+            dayView.put("activities", activities);
+            days.add(dayView);
+        }
+
+        Map<String, Object> calendar = new HashMap<>();
+        calendar.put("year", bucket.getMonth().getYear());
+        calendar.put("month", bucket.getMonth().getMonthValue());
+        calendar.put("startDate", bucket.getMonth().atDay(1));
+        calendar.put("endDate", bucket.getMonth().atEndOfMonth());
+        calendar.put("totalActivities", bucket.size());
+        calendar.put("completedActivities", completed);
+        calendar.put("pendingActivities", bucket.size() - completed);
+        calendar.put("days", days);
+        return calendar;
     }
 
     @Override
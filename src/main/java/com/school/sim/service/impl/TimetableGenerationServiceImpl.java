@@ -0,0 +1,440 @@
+package com.school.sim.service.impl;
+
+import com.school.sim.dto.request.BulkScheduleRequest;
+import com.school.sim.dto.request.CreateScheduleRequest;
+import com.school.sim.dto.request.TimetableGenerationRequest;
+import com.school.sim.dto.response.BulkScheduleResult;
+import com.school.sim.entity.ClassRoom;
+import com.school.sim.entity.Subject;
+import com.school.sim.entity.User;
+import com.school.sim.exception.ResourceNotFoundException;
+import com.school.sim.exception.ValidationException;
+import com.school.sim.repository.ClassRoomRepository;
+import com.school.sim.repository.SubjectRepository;
+import com.school.sim.repository.UserRepository;
+import com.school.sim.service.ScheduleService;
+import com.school.sim.service.TimetableGenerationService;
+import com.school.sim.service.TimetableIndexService;
+import com.school.sim.util.ScheduleSlot;
+import com.school.sim.util.TimetableSolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of TimetableGenerationService
+ * Jobs run one at a time on a coordinator thread; each job spreads its TimetableSolver workers over a shared pool
+ * and publishes every improved timetable, so status and results always reflect the best solution so far.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimetableGenerationServiceImpl implements TimetableGenerationService {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final ClassRoomRepository classRoomRepository;
+    private final SubjectRepository subjectRepository;
+    private final UserRepository userRepository;
+    private final TimetableIndexService timetableIndexService;
+    private final ScheduleService scheduleService;
+
+    @Value("${app.schedule.generation.max-threads:0}")
+    private int maxThreads;
+
+    @Value("${app.schedule.generation.default-time-budget-seconds:30}")
+    private int defaultTimeBudgetSeconds;
+
+    @Value("${app.schedule.generation.max-time-budget-seconds:300}")
+    private int maxTimeBudgetSeconds;
+
+    @Value("${app.schedule.generation.status-retention-minutes:60}")
+    private long statusRetentionMinutes;
+
+    private final Map<String, GenerationJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService coordinator;
+    private ExecutorService solverPool;
+    private int poolSize;
+
+    @PostConstruct
+    public void start() {
+        poolSize = maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors();
+        coordinator = Executors.newSingleThreadExecutor(namedThreads("timetable-generation"));
+        solverPool = Executors.newFixedThreadPool(poolSize, namedThreads("timetable-solver"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        jobs.values().forEach(job -> job.cancelled.set(true));
+        coordinator.shutdownNow();
+        solverPool.shutdownNow();
+    }
+
+    @Override
+    public String startGeneration(TimetableGenerationRequest request) {
+        GenerationJob job = prepare(request);
+        jobs.put(job.id, job);
+        job.future = coordinator.submit(() -> run(job));
+        log.info("Queued timetable generation job {} for {}/{}: {} lessons, {} units, {} threads, {}s budget",
+                job.id, request.getAcademicYear(), request.getSemester(), request.getLessons().size(),
+                job.problem.unitCount(), job.threads, job.timeBudgetMillis / 1000);
+        return job.id;
+    }
+
+    @Override
+    public Map<String, Object> getGenerationStatus(String jobId) {
+        GenerationJob job = getJob(jobId);
+        TimetableSolver.Result best = job.best;
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", job.id);
+        status.put("status", job.status);
+        status.put("progress", job.progress());
+        status.put("academicYear", job.request.getAcademicYear());
+        status.put("semester", job.request.getSemester());
+        status.put("lessons", job.request.getLessons().size());
+        status.put("units", job.problem.unitCount());
+        status.put("threads", job.threads);
+        status.put("timeBudgetSeconds", job.timeBudgetMillis / 1000);
+        status.put("createdAt", job.createdAt);
+        status.put("startedAt", job.startedAt);
+        status.put("finishedAt", job.finishedAt);
+        if (best != null) {
+            status.put("hardViolations", best.getHardViolations());
+            status.put("softPenalty", best.getSoftPenalty());
+            status.put("feasible", best.isFeasible());
+            status.put("firstFeasibleMs", best.getFirstFeasibleMillis());
+            status.put("iterations", best.getIterations());
+            status.put("elapsedMs", best.getElapsedMillis());
+        }
+        if (job.error != null) {
+            status.put("error", job.error);
+        }
+        return status;
+    }
+
+    @Override
+    public List<CreateScheduleRequest> getGenerationResult(String jobId) {
+        GenerationJob job = getJob(jobId);
+        TimetableSolver.Result best = job.best;
+        if (best == null) {
+            return new ArrayList<>();
+        }
+
+        int periods = job.problem.getPeriodsPerDay();
+        int requirements = job.problem.requirementCount();
+        // Periods taken by each requirement, per day, in period order
+        boolean[][] taken = new boolean[requirements * job.days.size()][periods];
+        for (int u = 0; u < best.unitCount(); u++) {
+            int slot = best.slotOf(u);
+            taken[job.problem.requirementOfUnit(u) * job.days.size() + slot / periods][slot % periods] = true;
+        }
+
+        List<CreateScheduleRequest> schedules = new ArrayList<>();
+        for (int r = 0; r < requirements; r++) {
+            TimetableGenerationRequest.LessonRequirement lesson = job.request.getLessons().get(r);
+            for (int d = 0; d < job.days.size(); d++) {
+                boolean[] day = taken[r * job.days.size() + d];
+                for (int p = 0; p < periods; p++) {
+                    if (!day[p]) {
+                        continue;
+                    }
+                    int first = p;
+                    while (p + 1 < periods && day[p + 1]) {
+                        p++;
+                    }
+                    schedules.add(CreateScheduleRequest.builder()
+                            .classRoomId(lesson.getClassRoomId())
+                            .subjectId(lesson.getSubjectId())
+                            .teacherId(lesson.getTeacherId())
+                            .dayOfWeek(job.days.get(d))
+                            .startTime(job.periodStart(first))
+                            .endTime(job.periodStart(p + 1))
+                            .academicYear(job.request.getAcademicYear())
+                            .semester(job.request.getSemester())
+                            .notes("Generated timetable " + job.id)
+                            .build());
+                }
+            }
+        }
+        schedules.sort(Comparator.comparing(CreateScheduleRequest::getClassRoomId)
+                .thenComparing(CreateScheduleRequest::getDayOfWeek)
+                .thenComparing(CreateScheduleRequest::getStartTime));
+        return schedules;
+    }
+
+    @Override
+    public BulkScheduleResult applyGeneration(String jobId) {
+        GenerationJob job = getJob(jobId);
+        if (!job.isFinished()) {
+            throw new ValidationException("Timetable generation job " + jobId + " is still " + job.status);
+        }
+        TimetableSolver.Result best = job.best;
+        if (best == null || !best.isFeasible()) {
+            throw new ValidationException("Timetable generation job " + jobId + " has no conflict-free timetable"
+                    + (best != null ? " (" + best.getHardViolations() + " conflicts remain)" : ""));
+        }
+
+        List<CreateScheduleRequest> schedules = getGenerationResult(jobId);
+        log.info("Applying timetable generation job {}: {} schedules", jobId, schedules.size());
+        return scheduleService.bulkCreateSchedules(BulkScheduleRequest.builder()
+                .schedules(schedules)
+                .stopOnFirstError(false)
+                .build());
+    }
+
+    @Override
+    public void cancelGeneration(String jobId) {
+        GenerationJob job = getJob(jobId);
+        job.cancelled.set(true);
+        if (job.future != null && job.future.cancel(false)) {
+            job.finish("CANCELLED", null);
+        }
+        log.info("Timetable generation job {} cancelled", jobId);
+    }
+
+    @Scheduled(fixedDelay = 300000)
+    public void cleanupFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(statusRetentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private void run(GenerationJob job) {
+        if (job.cancelled.get()) {
+            job.finish("CANCELLED", null);
+            return;
+        }
+        job.startedAt = LocalDateTime.now();
+        job.status = "RUNNING";
+        try {
+            TimetableSolver.Result result = TimetableSolver.solve(job.problem,
+                    new TimetableSolver.Options(job.threads, job.timeBudgetMillis,
+                            Boolean.TRUE.equals(job.request.getStopWhenFeasible()), job.id.hashCode()),
+                    solverPool, job.cancelled, improved -> job.best = improved);
+            job.best = result;
+            job.finish(job.cancelled.get() ? "CANCELLED" : "COMPLETED", null);
+            log.info("Timetable generation job {} finished: {} conflicts, penalty {}, {} iterations in {} ms",
+                    job.id, result.getHardViolations(), result.getSoftPenalty(), result.getIterations(),
+                    result.getElapsedMillis());
+        } catch (Exception e) {
+            log.error("Timetable generation job {} failed", job.id, e);
+            job.finish("FAILED", e.getMessage());
+        }
+    }
+
+    /**
+     * Validate the request and translate it into a solver problem over dense class and teacher indexes
+     */
+    private GenerationJob prepare(TimetableGenerationRequest request) {
+        List<TimetableGenerationRequest.LessonRequirement> lessons = request.getLessons();
+        if (lessons == null || lessons.isEmpty()) {
+            throw new ValidationException("Lesson list cannot be empty");
+        }
+        List<DayOfWeek> days = request.getDays() != null
+                ? request.getDays().stream().filter(Objects::nonNull).distinct().sorted().collect(Collectors.toList())
+                : Collections.emptyList();
+        if (days.isEmpty()) {
+            throw new ValidationException("At least one school day is required");
+        }
+        int periodsPerDay = request.getPeriodsPerDay();
+        int periodMinutes = request.getPeriodMinutes();
+        int dayStart = request.getDayStartTime().toSecondOfDay() / 60;
+        if (dayStart + periodsPerDay * periodMinutes > MINUTES_PER_DAY) {
+            throw new ValidationException("The period grid must end before midnight");
+        }
+
+        requireAll(lessons, TimetableGenerationRequest.LessonRequirement::getClassRoomId,
+                ids -> classRoomRepository.findAllById(ids).stream().map(ClassRoom::getId), "ClassRoom");
+        requireAll(lessons, TimetableGenerationRequest.LessonRequirement::getSubjectId,
+                ids -> subjectRepository.findAllById(ids).stream().map(Subject::getId), "Subject");
+        requireAll(lessons, TimetableGenerationRequest.LessonRequirement::getTeacherId,
+                ids -> userRepository.findAllById(ids).stream().map(User::getId), "Teacher");
+
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(days.size(), periodsPerDay);
+        Map<Long, Integer> classIndexes = new HashMap<>();
+        Map<Long, Integer> teacherIndexes = new HashMap<>();
+        Map<Long, Integer> classPeriods = new HashMap<>();
+        Map<Long, Integer> teacherPeriods = new HashMap<>();
+        for (TimetableGenerationRequest.LessonRequirement lesson : lessons) {
+            int classIndex = classIndexes.computeIfAbsent(lesson.getClassRoomId(), id -> classIndexes.size());
+            int teacherIndex = teacherIndexes.computeIfAbsent(lesson.getTeacherId(), id -> teacherIndexes.size());
+            problem.addRequirement(classIndex, teacherIndex, lesson.getPeriodsPerWeek());
+            classPeriods.merge(lesson.getClassRoomId(), lesson.getPeriodsPerWeek(), Integer::sum);
+            teacherPeriods.merge(lesson.getTeacherId(), lesson.getPeriodsPerWeek(), Integer::sum);
+        }
+        requireCapacity(classPeriods, problem.slotCount(), "Class room");
+        requireCapacity(teacherPeriods, problem.slotCount(), "Teacher");
+
+        GenerationJob job = new GenerationJob(UUID.randomUUID().toString(), request, problem, days, dayStart,
+                periodMinutes);
+
+        if (request.getTeacherUnavailability() != null) {
+            for (TimetableGenerationRequest.TeacherUnavailability window : request.getTeacherUnavailability()) {
+                Integer teacherIndex = teacherIndexes.get(window.getTeacherId());
+                if (teacherIndex != null) {
+                    job.forEachSlot(window.getDayOfWeek(), window.getStartTime(), window.getEndTime(),
+                            slot -> problem.blockTeacher(teacherIndex, slot));
+                }
+            }
+        }
+
+        if (Boolean.TRUE.equals(request.getKeepExistingSchedules())) {
+            for (ScheduleSlot existing : timetableIndexService
+                    .getIndex(request.getAcademicYear(), request.getSemester()).getSlots()) {
+                if (!existing.isActive()) {
+                    continue;
+                }
+                Integer classIndex = classIndexes.get(existing.getClassRoomId());
+                Integer teacherIndex = teacherIndexes.get(existing.getTeacherId());
+                job.forEachSlot(existing.getDayOfWeek(), existing.getStartTime(), existing.getEndTime(), slot -> {
+                    if (classIndex != null) {
+                        problem.occupyClass(classIndex, slot);
+                    }
+                    if (teacherIndex != null) {
+                        problem.occupyTeacher(teacherIndex, slot);
+                    }
+                });
+            }
+        }
+
+        int budgetSeconds = request.getTimeBudgetSeconds() != null ? request.getTimeBudgetSeconds()
+                : defaultTimeBudgetSeconds;
+        job.timeBudgetMillis = Math.min(budgetSeconds, maxTimeBudgetSeconds) * 1000L;
+        job.threads = Math.min(request.getThreads() != null ? request.getThreads() : poolSize, poolSize);
+        return job;
+    }
+
+    private static void requireAll(List<TimetableGenerationRequest.LessonRequirement> lessons,
+                                   Function<TimetableGenerationRequest.LessonRequirement, Long> id,
+                                   Function<Set<Long>, Stream<Long>> lookup, String entity) {
+        Set<Long> ids = lessons.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> missing = new TreeSet<>(ids);
+        lookup.apply(ids).forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException(entity + " not found with id: " + missing);
+        }
+    }
+
+    private static void requireCapacity(Map<Long, Integer> periods, int slots, String entity) {
+        periods.forEach((id, count) -> {
+            if (count > slots) {
+                throw new ValidationException(entity + " " + id + " needs " + count + " periods but the week has "
+                        + slots);
+            }
+        });
+    }
+
+    private GenerationJob getJob(String jobId) {
+        GenerationJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Timetable generation job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One generation request with its solver problem, period grid and best result so far
+     */
+    private static final class GenerationJob {
+
+        final String id;
+        final TimetableGenerationRequest request;
+        final TimetableSolver.Problem problem;
+        final List<DayOfWeek> days;
+        final int dayStartMinute;
+        final int periodMinutes;
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final LocalDateTime createdAt = LocalDateTime.now();
+        long timeBudgetMillis;
+        int threads;
+        volatile Future<?> future;
+        volatile String status = "QUEUED";
+        volatile TimetableSolver.Result best;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        GenerationJob(String id, TimetableGenerationRequest request, TimetableSolver.Problem problem,
+                      List<DayOfWeek> days, int dayStartMinute, int periodMinutes) {
+            this.id = id;
+            this.request = request;
+            this.problem = problem;
+            this.days = days;
+            this.dayStartMinute = dayStartMinute;
+            this.periodMinutes = periodMinutes;
+        }
+
+        LocalTime periodStart(int period) {
+            return LocalTime.MIN.plusMinutes(dayStartMinute + (long) period * periodMinutes);
+        }
+
+        // Grid slots overlapping [start, end) on the given day
+        void forEachSlot(DayOfWeek dayOfWeek, LocalTime start, LocalTime end,
+                         IntConsumer action) {
+            int day = days.indexOf(dayOfWeek);
+            if (day < 0 || start == null || end == null) {
+                return;
+            }
+            int from = start.toSecondOfDay() / 60;
+            int to = end.toSecondOfDay() / 60;
+            for (int period = 0; period < problem.getPeriodsPerDay(); period++) {
+                int periodFrom = dayStartMinute + period * periodMinutes;
+                if (periodFrom < to && from < periodFrom + periodMinutes) {
+                    action.accept(problem.slot(day, period));
+                }
+            }
+        }
+
+        boolean isFinished() {
+            return "COMPLETED".equals(status) || "FAILED".equals(status) || "CANCELLED".equals(status);
+        }
+
+        int progress() {
+            if (isFinished()) {
+                return 100;
+            }
+            LocalDateTime started = startedAt;
+            if (started == null) {
+                return 0;
+            }
+            long elapsed = Duration.between(started, LocalDateTime.now()).toMillis();
+            return (int) Math.min(99, elapsed * 100 / Math.max(1, timeBudgetMillis));
+        }
+
+        void finish(String finalStatus, String failure) {
+            error = failure;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package com.school.sim.service.impl;
+
+import com.school.sim.entity.Schedule;
+import com.school.sim.repository.ScheduleRepository;
+import com.school.sim.service.TimetableIndexService;
+import com.school.sim.util.ScheduleSlot;
+import com.school.sim.util.TimetableIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of TimetableIndexService
+ * Each term's index is an immutable snapshot: readers never lock, writers swap in a copy under a single lock.
+ * Schedule writes are applied as soon as they happen so later checks in the same transaction see them, and applied
+ * again once they commit so a term loaded or rebuilt from a read that ran before the commit does not miss them; a
+ * rollback drops the affected terms, which are then reloaded on next use. A periodic rebuild picks up writes made
+ * by other nodes.
+ * Class room and teacher timetables carry a version tag per term, bumped when a write touching them completes and
+ * by rebuilds that change their slots; tags are only issued for loaded terms, so a write always sees the slot it
+ * replaces. Rendered timetable views are cached against the tag they were rendered at. Views also show class room,
+ * teacher and subject names, which schedule writes do not track: every tag changes when names are reported changed
+ * and, for renames made elsewhere, expires after a time-to-live staggered per entity.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimetableIndexServiceImpl implements TimetableIndexService {
+
+    private final ScheduleRepository scheduleRepository;
+
+    @Value("${app.schedule.index.enabled:true}")
+    private boolean indexEnabled;
+
+    @Value("${app.schedule.timetable-cache.max-entries:2000}")
+    private int viewCacheMaxEntries;
+
+    @Value("${app.schedule.timetable-cache.ttl-ms:3600000}")
+    private long viewTtlMillis;
+
+    private final Map<String, TimetableIndex> terms = new ConcurrentHashMap<>();
+    private final Map<Long, String> termBySchedule = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    // Tags issued before a restart never match after it
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Long> termGenerations = new ConcurrentHashMap<>();
+    private final Map<String, Long> entityVersions = new ConcurrentHashMap<>();
+    private final AtomicLong namesVersion = new AtomicLong();
+    private final Map<String, RenderedView> views = Collections.synchronizedMap(
+            new LinkedHashMap<String, RenderedView>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, RenderedView> eldest) {
+                    return size() > viewCacheMaxEntries;
+                }
+            });
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong rollbackEvictions = new AtomicLong();
+    private final AtomicLong viewHits = new AtomicLong();
+    private final AtomicLong viewRenders = new AtomicLong();
+    private volatile LocalDateTime lastRebuildAt;
+    private volatile long lastRebuildMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!indexEnabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Timetable index warm-up failed, terms will load on first use: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.schedule.index.refresh-interval-ms:600000}",
+            initialDelayString = "${app.schedule.index.refresh-interval-ms:600000}")
+    public void scheduledRefresh() {
+        if (!indexEnabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Scheduled timetable index rebuild failed", e);
+        }
+    }
+
+    @Override
+    public TimetableIndex getIndex(String academicYear, Integer semester) {
+        if (academicYear == null || semester == null) {
+            return TimetableIndex.build(academicYear, semester, Collections.emptyList());
+        }
+        if (!indexEnabled) {
+            return TimetableIndex.build(academicYear, semester,
+                    scheduleRepository.findSlotsByAcademicYearAndSemester(academicYear, semester));
+        }
+
+        String key = termKey(academicYear, semester);
+        TimetableIndex index = terms.get(key);
+        if (index != null) {
+            hits.incrementAndGet();
+            return index;
+        }
+        synchronized (writeLock) {
+            index = terms.get(key);
+            return index != null ? index : loadTerm(academicYear, semester);
+        }
+    }
+
+    @Override
+    public Optional<ScheduleSlot> findSlot(Long scheduleId) {
+        String key = termBySchedule.get(scheduleId);
+        if (key != null) {
+            TimetableIndex index = terms.get(key);
+            ScheduleSlot slot = index != null ? index.get(scheduleId) : null;
+            if (slot != null) {
+                hits.incrementAndGet();
+                return Optional.of(slot);
+            }
+        }
+        return scheduleRepository.findById(scheduleId).map(this::toSlot);
+    }
+
+    @Override
+    public void scheduleSaved(Schedule schedule) {
+        if (!indexEnabled || schedule.getId() == null) {
+            return;
+        }
+        ScheduleSlot slot = toSlot(schedule);
+        String key = termKey(slot.getAcademicYear(), slot.getSemester());
+        Set<String> changedEntities = new HashSet<>(entityKeys(slot));
+        String previousKey;
+        synchronized (writeLock) {
+            ScheduleSlot previous = indexedSlot(slot.getScheduleId());
+            if (previous != null) {
+                changedEntities.addAll(entityKeys(previous));
+            }
+            previousKey = applySlot(slot);
+        }
+        evictOnRollback(key, previousKey);
+        reapplyOnCommit(() -> applySlot(slot));
+        bumpVersionsOnCompletion(changedEntities);
+    }
+
+    @Override
+    public void schedulesSaved(List<Schedule> schedules) {
+        if (!indexEnabled || schedules.isEmpty()) {
+            return;
+        }
+        Map<String, List<ScheduleSlot>> slotsByTerm = new HashMap<>();
+        Set<String> changedEntities = new HashSet<>();
+        for (Schedule schedule : schedules) {
+            ScheduleSlot slot = toSlot(schedule);
+            slotsByTerm.computeIfAbsent(termKey(slot.getAcademicYear(), slot.getSemester()), k -> new ArrayList<>())
+                    .add(slot);
+            changedEntities.addAll(entityKeys(slot));
+        }
+        Set<String> affectedKeys = new HashSet<>(slotsByTerm.keySet());
+        synchronized (writeLock) {
+            for (List<ScheduleSlot> slots : slotsByTerm.values()) {
+                for (ScheduleSlot slot : slots) {
+                    ScheduleSlot previous = indexedSlot(slot.getScheduleId());
+                    if (previous != null) {
+                        changedEntities.addAll(entityKeys(previous));
+                    }
+                    String previousKey = termBySchedule.remove(slot.getScheduleId());
+                    if (previousKey != null) {
+                        affectedKeys.add(previousKey);
+                        terms.computeIfPresent(previousKey, (k, index) -> index.without(slot.getScheduleId()));
+                    }
+                }
+            }
+            slotsByTerm.forEach((key, slots) -> {
+                TimetableIndex index = terms.get(key);
+                if (index != null) {
+                    terms.put(key, index.withAll(slots));
+                    slots.forEach(slot -> termBySchedule.put(slot.getScheduleId(), key));
+                }
+            });
+        }
+        affectedKeys.forEach(key -> evictOnRollback(key, null));
+        reapplyOnCommit(() -> slotsByTerm.values().forEach(slots -> slots.forEach(this::applySlot)));
+        bumpVersionsOnCompletion(changedEntities);
+    }
+
+    @Override
+    public void scheduleDeleted(Long scheduleId) {
+        if (!indexEnabled) {
+            return;
+        }
+        String previousKey;
+        ScheduleSlot previous;
+        synchronized (writeLock) {
+            previous = indexedSlot(scheduleId);
+            previousKey = removeFromTerm(scheduleId);
+        }
+        evictOnRollback(previousKey, null);
+        reapplyOnCommit(() -> removeFromTerm(scheduleId));
+        if (previous != null) {
+            bumpVersionsOnCompletion(entityKeys(previous));
+        }
+    }
+
+    @Override
+    public String getVersionTag(String entityType, Long entityId, String academicYear, Integer semester) {
+        if (!indexEnabled || entityId == null || academicYear == null || semester == null) {
+            return null;
+        }
+        getIndex(academicYear, semester);
+        String key = termKey(academicYear, semester);
+        String entityKey = entityKey(entityType, entityId, key);
+        return epoch + "-" + termGenerations.getOrDefault(key, 0L) + "-"
+                + entityVersions.getOrDefault(entityKey, 0L) + "-" + namesVersion.get() + "-" + expiryPeriod(entityKey);
+    }
+
+    @Override
+    public void namesChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            namesVersion.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                namesVersion.incrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOrRender(String view, String entityType, Long entityId, String academicYear, Integer semester,
+                             Supplier<T> renderer) {
+        // The tag is read before rendering so a concurrent write can only make the cached view newer than its tag
+        String tag = getVersionTag(entityType, entityId, academicYear, semester);
+        if (tag == null) {
+            return renderer.get();
+        }
+        String key = view + "#" + entityKey(entityType, entityId, termKey(academicYear, semester));
+        RenderedView cached = views.get(key);
+        if (cached != null && cached.tag.equals(tag)) {
+            viewHits.incrementAndGet();
+            return (T) cached.value;
+        }
+        T value = renderer.get();
+        viewRenders.incrementAndGet();
+        views.put(key, new RenderedView(tag, value));
+        return value;
+    }
+
+    @Override
+    public Map<String, Object> rebuild() {
+        long started = System.currentTimeMillis();
+        int scheduleCount = 0;
+        synchronized (writeLock) {
+            Map<String, TimetableIndex> rebuilt = new HashMap<>();
+            Map<Long, String> rebuiltTerms = new HashMap<>();
+            for (Object[] period : scheduleRepository.findDistinctAcademicPeriods()) {
+                String academicYear = (String) period[0];
+                Integer semester = (Integer) period[1];
+                TimetableIndex index = TimetableIndex.build(academicYear, semester,
+                        scheduleRepository.findSlotsByAcademicYearAndSemester(academicYear, semester));
+                String key = termKey(academicYear, semester);
+                rebuilt.put(key, index);
+                index.getSlots().forEach(slot -> rebuiltTerms.put(slot.getScheduleId(), key));
+                scheduleCount += index.size();
+            }
+            Set<String> changedTerms = new HashSet<>(terms.keySet());
+            changedTerms.addAll(rebuilt.keySet());
+            for (String key : changedTerms) {
+                // Terms that were not loaded have no tags outstanding
+                if (terms.containsKey(key)) {
+                    bumpChangedEntities(terms.get(key), rebuilt.get(key));
+                }
+            }
+            terms.clear();
+            terms.putAll(rebuilt);
+            termBySchedule.clear();
+            termBySchedule.putAll(rebuiltTerms);
+            loads.addAndGet(rebuilt.size());
+        }
+        lastRebuildAt = LocalDateTime.now();
+        lastRebuildMillis = System.currentTimeMillis() - started;
+        log.info("Timetable index rebuilt: {} terms, {} schedules in {} ms", terms.size(), scheduleCount,
+                lastRebuildMillis);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("terms", terms.size());
+        result.put("schedules", scheduleCount);
+        result.put("durationMs", lastRebuildMillis);
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getIndexStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("enabled", indexEnabled);
+        statistics.put("loadedTerms", new TreeSet<>(terms.keySet()));
+        statistics.put("indexedSchedules", termBySchedule.size());
+        statistics.put("hits", hits.get());
+        statistics.put("termLoads", loads.get());
+        statistics.put("rollbackEvictions", rollbackEvictions.get());
+        statistics.put("lastRebuildAt", lastRebuildAt);
+        statistics.put("lastRebuildMs", lastRebuildMillis);
+        statistics.put("cachedViews", views.size());
+        statistics.put("viewHits", viewHits.get());
+        statistics.put("viewRenders", viewRenders.get());
+        return statistics;
+    }
+
+    private TimetableIndex loadTerm(String academicYear, Integer semester) {
+        String key = termKey(academicYear, semester);
+        TimetableIndex index = TimetableIndex.build(academicYear, semester,
+                scheduleRepository.findSlotsByAcademicYearAndSemester(academicYear, semester));
+        terms.put(key, index);
+        index.getSlots().forEach(slot -> termBySchedule.put(slot.getScheduleId(), key));
+        loads.incrementAndGet();
+        log.debug("Loaded timetable index for {} with {} schedules", key, index.size());
+        return index;
+    }
+
+    // Callers hold writeLock; returns the term the schedule was indexed under before
+    private String applySlot(ScheduleSlot slot) {
+        String previousKey = removeFromTerm(slot.getScheduleId());
+        String key = termKey(slot.getAcademicYear(), slot.getSemester());
+        TimetableIndex index = terms.get(key);
+        if (index != null) {
+            terms.put(key, index.with(slot));
+            termBySchedule.put(slot.getScheduleId(), key);
+        }
+        return previousKey;
+    }
+
+    // Callers hold writeLock
+    private String removeFromTerm(Long scheduleId) {
+        String key = termBySchedule.remove(scheduleId);
+        if (key != null) {
+            terms.computeIfPresent(key, (k, index) -> index.without(scheduleId));
+        }
+        return key;
+    }
+
+    private void evictOnRollback(String key, String otherKey) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    evictTerm(key);
+                    evictTerm(otherKey);
+                }
+            }
+        });
+    }
+
+    private void reapplyOnCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        // A load or rebuild that read the database before the commit is missing this write; applying it is idempotent
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (writeLock) {
+                    change.run();
+                }
+            }
+        });
+    }
+
+    private void evictTerm(String key) {
+        if (key == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (terms.remove(key) != null) {
+                termBySchedule.values().removeIf(key::equals);
+                termGenerations.merge(key, 1L, Long::sum);
+                rollbackEvictions.incrementAndGet();
+                log.debug("Evicted timetable index for {} after rollback", key);
+            }
+        }
+    }
+
+    // Callers hold writeLock
+    private ScheduleSlot indexedSlot(Long scheduleId) {
+        String key = termBySchedule.get(scheduleId);
+        TimetableIndex index = key != null ? terms.get(key) : null;
+        return index != null ? index.get(scheduleId) : null;
+    }
+
+    private void bumpVersionsOnCompletion(Collection<String> entityKeys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bumpVersions(entityKeys);
+            return;
+        }
+        // Bumping only once the write is visible keeps readers from caching old data under the new tag
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                bumpVersions(entityKeys);
+            }
+        });
+    }
+
+    private void bumpVersions(Collection<String> entityKeys) {
+        entityKeys.forEach(key -> entityVersions.merge(key, 1L, Long::sum));
+    }
+
+    private void bumpChangedEntities(TimetableIndex previous, TimetableIndex current) {
+        Map<String, Long> before = fingerprints(previous);
+        Map<String, Long> after = fingerprints(current);
+        Set<String> entityKeys = new HashSet<>(before.keySet());
+        entityKeys.addAll(after.keySet());
+        entityKeys.removeIf(key -> Objects.equals(before.get(key), after.get(key)));
+        bumpVersions(entityKeys);
+    }
+
+    // Order-independent hash of each entity's slots in a term
+    private static Map<String, Long> fingerprints(TimetableIndex index) {
+        Map<String, Long> fingerprints = new HashMap<>();
+        if (index == null) {
+            return fingerprints;
+        }
+        for (ScheduleSlot slot : index.getSlots()) {
+            long hash = Objects.hash(slot.getScheduleId(), slot.getDayOfWeek(), slot.getStartTime(),
+                    slot.getEndTime(), slot.getTeacherId(), slot.getClassRoomId(), slot.getSubjectId(),
+                    slot.isActive());
+            long mixed = hash * 0x9E3779B97F4A7C15L;
+            for (String key : entityKeys(slot)) {
+                fingerprints.merge(key, mixed, Long::sum);
+            }
+        }
+        return fingerprints;
+    }
+
+    private static List<String> entityKeys(ScheduleSlot slot) {
+        String term = termKey(slot.getAcademicYear(), slot.getSemester());
+        return Arrays.asList(entityKey(CLASS_ROOM, slot.getClassRoomId(), term),
+                entityKey(TEACHER, slot.getTeacherId(), term));
+    }
+
+    // Offsetting each entity's period keeps all views from expiring at the same moment
+    private long expiryPeriod(String entityKey) {
+        if (viewTtlMillis <= 0) {
+            return 0L;
+        }
+        long offset = Math.floorMod((long) entityKey.hashCode(), viewTtlMillis);
+        return (System.currentTimeMillis() + offset) / viewTtlMillis;
+    }
+
+    private static String entityKey(String entityType, Long entityId, String termKey) {
+        return entityType + "#" + entityId + "#" + termKey;
+    }
+
+    private ScheduleSlot toSlot(Schedule schedule) {
+        return new ScheduleSlot(schedule.getId(), schedule.getAcademicYear(), schedule.getSemester(),
+                schedule.getDayOfWeek(), schedule.getStartTime(), schedule.getEndTime(),
+                schedule.getTeacher().getId(), schedule.getTeacher().getFirstName(),
+                schedule.getTeacher().getLastName(), schedule.getClassRoom().getId(),
+                schedule.getClassRoom().getName(), schedule.getSubject().getId(), schedule.getIsActive());
+    }
+
+    private static String termKey(String academicYear, Integer semester) {
+        return academicYear + "#" + semester;
+    }
+
+    private static final class RenderedView {
+
+        private final String tag;
+        private final Object value;
+
+        private RenderedView(String tag, Object value) {
+            this.tag = tag;
+            this.value = value;
+        }
+    }
+}
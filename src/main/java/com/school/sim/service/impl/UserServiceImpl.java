@@ -10,6 +10,7 @@ import com.school.sim.exception.ResourceNotFoundException;
 import com.school.sim.exception.ValidationException;
 import com.school.sim.repository.RoleRepository;
 import com.school.sim.repository.UserRepository;
+import com.school.sim.service.TimetableIndexService;
 import com.school.sim.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +48,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TimetableIndexService timetableIndexService;
+
     @Override
     public UserResponse createUser(CreateUserRequest request) {
         logger.info("Creating new user with email: {}", request.getEmail());
@@ -94,6 +98,7 @@ public class UserServiceImpl implements UserService {
 
         // Update user fields
         if (StringUtils.hasText(request.getName())) {
+            String previousName = user.getFirstName() + " " + user.getLastName();
             String[] nameParts = request.getName().split(" ", 2);
             user.setFirstName(nameParts[0]);
             if (nameParts.length > 1) {
@@ -101,6 +106,10 @@ public class UserServiceImpl implements UserService {
             } else {
                 user.setLastName("");
             }
+            // Teacher names are shown on cached timetables
+            if (!previousName.equals(user.getFirstName() + " " + user.getLastName())) {
+                timetableIndexService.namesChanged();
+            }
         }
         if (StringUtils.hasText(request.getEmail())) {
             user.setEmail(request.getEmail());
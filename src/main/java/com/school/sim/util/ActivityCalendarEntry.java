@@ -0,0 +1,75 @@
+package com.school.sim.util;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Flat, immutable view of a teaching activity as shown on teacher and class room calendars
+ * Loaded with a JPQL constructor expression so calendar buckets never touch lazy associations
+ */
+public final class ActivityCalendarEntry {
+
+    private final Long activityId;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final boolean completed;
+    private final Long teacherId;
+    private final Long classRoomId;
+    private final Long subjectId;
+
+    public ActivityCalendarEntry(Long activityId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                                 Boolean completed, Long teacherId, Long classRoomId, Long subjectId) {
+        this.activityId = activityId;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.completed = completed != null && completed;
+        this.teacherId = teacherId;
+        this.classRoomId = classRoomId;
+        this.subjectId = subjectId;
+    }
+
+    public Long getActivityId() {
+        return activityId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public Long getClassRoomId() {
+        return classRoomId;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public long getDurationMinutes() {
+        return startTime != null && endTime != null ? ChronoUnit.MINUTES.between(startTime, endTime) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ActivityCalendarEntry{" + activityId + " " + date + " " + startTime + "-" + endTime
+                + (completed ? " completed" : "") + "}";
+    }
+}
@@ -0,0 +1,118 @@
+package com.school.sim.util;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Immutable month of one teacher's or class room's activities, ordered by date, start time and id
+ * Changes produce a new bucket so readers can use a bucket without locking.
+ */
+public final class ActivityCalendarMonth {
+
+    private static final Comparator<ActivityCalendarEntry> CALENDAR_ORDER = Comparator
+            .comparing(ActivityCalendarEntry::getDate)
+            .thenComparing(ActivityCalendarEntry::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ActivityCalendarEntry::getActivityId);
+
+    private final YearMonth month;
+    private final List<ActivityCalendarEntry> entries;
+
+    private ActivityCalendarMonth(YearMonth month, List<ActivityCalendarEntry> entries) {
+        this.month = month;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Build a bucket from the month's entries; entries outside the month are ignored
+     */
+    public static ActivityCalendarMonth build(YearMonth month, Collection<ActivityCalendarEntry> entries) {
+        List<ActivityCalendarEntry> sorted = new ArrayList<>(entries.size());
+        for (ActivityCalendarEntry entry : entries) {
+            if (YearMonth.from(entry.getDate()).equals(month)) {
+                sorted.add(entry);
+            }
+        }
+        sorted.sort(CALENDAR_ORDER);
+        return new ActivityCalendarMonth(month, sorted);
+    }
+
+    /**
+     * Copy of this bucket with the entry added, replacing any entry with the same activity id
+     */
+    public ActivityCalendarMonth with(ActivityCalendarEntry entry) {
+        return withAll(Collections.singletonList(entry));
+    }
+
+    /**
+     * Copy of this bucket with the entries added, replacing entries with the same activity ids
+     */
+    public ActivityCalendarMonth withAll(Collection<ActivityCalendarEntry> added) {
+        Set<Long> replaced = new HashSet<>();
+        added.forEach(entry -> replaced.add(entry.getActivityId()));
+        List<ActivityCalendarEntry> merged = new ArrayList<>(entries.size() + added.size());
+        for (ActivityCalendarEntry entry : entries) {
+            if (!replaced.contains(entry.getActivityId())) {
+                merged.add(entry);
+            }
+        }
+        merged.addAll(added);
+        return build(month, merged);
+    }
+
+    /**
+     * Copy of this bucket without the activity; this bucket itself when the activity is not in it
+     */
+    public ActivityCalendarMonth without(Long activityId) {
+        return withoutAll(Collections.singleton(activityId));
+    }
+
+    /**
+     * Copy of this bucket without the activities; this bucket itself when none of them is in it
+     */
+    public ActivityCalendarMonth withoutAll(Set<Long> activityIds) {
+        List<ActivityCalendarEntry> remaining = new ArrayList<>(entries.size());
+        for (ActivityCalendarEntry entry : entries) {
+            if (!activityIds.contains(entry.getActivityId())) {
+                remaining.add(entry);
+            }
+        }
+        return remaining.size() == entries.size() ? this : new ActivityCalendarMonth(month, remaining);
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public List<ActivityCalendarEntry> getEntries() {
+        return entries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Entries dated within [startDate, endDate]
+     */
+    public List<ActivityCalendarEntry> between(LocalDate startDate, LocalDate endDate) {
+        List<ActivityCalendarEntry> result = new ArrayList<>();
+        for (ActivityCalendarEntry entry : entries) {
+            if (!entry.getDate().isBefore(startDate) && !entry.getDate().isAfter(endDate)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Entries grouped by day, days in order; days without activities are absent
+     */
+    public SortedMap<LocalDate, List<ActivityCalendarEntry>> byDay() {
+        SortedMap<LocalDate, List<ActivityCalendarEntry>> days = new TreeMap<>();
+        for (ActivityCalendarEntry entry : entries) {
+            days.computeIfAbsent(entry.getDate(), date -> new ArrayList<>()).add(entry);
+        }
+        return days;
+    }
+}
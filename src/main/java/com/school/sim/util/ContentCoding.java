@@ -0,0 +1,171 @@
+package com.school.sim.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * HTTP content codings that exports can be compressed with on the way out
+ * The encoder wraps the output stream, so bytes are compressed as they are written and nothing is buffered beyond
+ * the deflater window. The wrapped stream is finished, never closed, leaving the response to the container.
+ */
+public enum ContentCoding {
+
+    GZIP("gzip"),
+    DEFLATE("deflate"),
+    IDENTITY("identity");
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Writes the uncompressed body
+     */
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Value of the Content-Encoding header
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * The coding with the given token, or null when there is none
+     */
+    public static ContentCoding forToken(String token) {
+        for (ContentCoding coding : values()) {
+            if (coding.token.equalsIgnoreCase(token != null ? token.trim() : null)) {
+                return coding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pick the offered coding the client ranks highest in its Accept-Encoding header
+     * Ties go to the earlier offered coding; IDENTITY when the header is absent or accepts none of them. Null when
+     * the header refuses identity as well, with "identity;q=0" or "*;q=0", and nothing acceptable is left.
+     */
+    public static ContentCoding negotiate(String acceptEncoding, List<ContentCoding> offered) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return IDENTITY;
+        }
+        ContentCoding best = null;
+        double bestQuality = 0;
+        for (ContentCoding coding : offered) {
+            double quality = quality(acceptEncoding, coding.token);
+            if (coding != IDENTITY && quality > bestQuality) {
+                best = coding;
+                bestQuality = quality;
+            }
+        }
+        if (best == null && quality(acceptEncoding, IDENTITY.token) > 0) {
+            best = IDENTITY;
+        }
+        return best;
+    }
+
+    /**
+     * Write the body through this coding at the given deflate level, 1 fastest to 9 smallest
+     */
+    public void encode(OutputStream outputStream, int level, Body body) throws IOException {
+        switch (this) {
+            case GZIP: {
+                LeveledGzipOutputStream gzip = new LeveledGzipOutputStream(outputStream, level);
+                try {
+                    body.writeTo(gzip);
+                    gzip.finish();
+                    gzip.flush();
+                } finally {
+                    gzip.end();
+                }
+                break;
+            }
+            case DEFLATE: {
+                Deflater deflater = new Deflater(level);
+                try {
+                    DeflaterOutputStream deflate = new DeflaterOutputStream(outputStream, deflater, BUFFER_BYTES);
+                    body.writeTo(deflate);
+                    deflate.finish();
+                    deflate.flush();
+                } finally {
+                    deflater.end();
+                }
+                break;
+            }
+            default:
+                body.writeTo(outputStream);
+        }
+    }
+
+    /**
+     * Undo this coding while reading
+     */
+    public InputStream decode(InputStream inputStream) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(inputStream, BUFFER_BYTES);
+            case DEFLATE:
+                return new InflaterInputStream(inputStream);
+            default:
+                return inputStream;
+        }
+    }
+
+    // q-value of the coding, 1 when listed without one, "*" matching anything not listed; identity is acceptable
+    // unless refused
+    private static double quality(String acceptEncoding, String token) {
+        double wildcard = token.equals(IDENTITY.token) ? 1 : 0;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals(token)) {
+                return quality;
+            }
+            if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard;
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_BYTES);
+            // Nothing is deflated yet, so the level applies to the whole body
+            def.setLevel(level);
+        }
+
+        void end() {
+            def.end();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.school.sim.util;
+
+/**
+ * The school's grading scale: percentage bands to grade points and letter grades, and GPA bands to standings
+ * Every report that grades a score goes through here, so transcripts and class reports can never disagree.
+ */
+public final class GradingScale {
+
+    private GradingScale() {
+    }
+
+    /**
+     * Grade points on the 4.0 scale for a percentage score
+     */
+    public static double gradePoints(double percentage) {
+        if (percentage >= 90)
+            return 4.0;
+        if (percentage >= 80)
+            return 3.0;
+        if (percentage >= 70)
+            return 2.0;
+        if (percentage >= 60)
+            return 1.0;
+        return 0.0;
+    }
+
+    /**
+     * Letter grade for a percentage score
+     */
+    public static String letterGrade(double percentage) {
+        if (percentage >= 90)
+            return "A";
+        if (percentage >= 80)
+            return "B";
+        if (percentage >= 70)
+            return "C";
+        if (percentage >= 60)
+            return "D";
+        return "F";
+    }
+
+    /**
+     * Letter grade for a GPA, each letter covering the half point either side of its grade points
+     */
+    public static String letterGradeForGpa(double gpa) {
+        if (gpa >= 3.5)
+            return "A";
+        if (gpa >= 2.5)
+            return "B";
+        if (gpa >= 1.5)
+            return "C";
+        if (gpa >= 0.5)
+            return "D";
+        return "F";
+    }
+
+    /**
+     * Academic standing for a GPA; below a C average a student is on probation
+     */
+    public static String academicStanding(double gpa) {
+        if (gpa >= 3.5)
+            return "EXCELLENT";
+        if (gpa >= 2.5)
+            return "GOOD";
+        if (gpa >= 1.5)
+            return "SATISFACTORY";
+        return "PROBATION";
+    }
+}
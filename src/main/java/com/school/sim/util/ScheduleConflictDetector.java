@@ -0,0 +1,104 @@
+package com.school.sim.util;
+
+import java.time.DayOfWeek;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Sweep-line conflict detection over weekly schedule slots
+ * Slots are bucketed per (day, teacher) and per (day, classroom); each bucket is swept in start order while an
+ * end-ordered heap holds the slots still running. Runs in O(n log n + k) for k conflicts and reports every
+ * overlapping pair exactly once, earlier-starting slot first.
+ */
+public final class ScheduleConflictDetector {
+
+    public static final String TEACHER_CONFLICT = "TEACHER_CONFLICT";
+    public static final String CLASSROOM_CONFLICT = "CLASSROOM_CONFLICT";
+
+    private static final Comparator<ScheduleSlot> BY_START = Comparator
+            .comparing(ScheduleSlot::getStartTime)
+            .thenComparing(ScheduleSlot::getEndTime)
+            .thenComparing(slot -> slot.getScheduleId() != null ? slot.getScheduleId() : Long.MAX_VALUE);
+
+    private static final Comparator<ScheduleSlot> BY_END = Comparator.comparing(ScheduleSlot::getEndTime);
+
+    private ScheduleConflictDetector() {
+    }
+
+    /**
+     * A pair of overlapping slots sharing a teacher or classroom
+     */
+    public static final class Conflict {
+        private final String type;
+        private final ScheduleSlot first;
+        private final ScheduleSlot second;
+
+        Conflict(String type, ScheduleSlot first, ScheduleSlot second) {
+            this.type = type;
+            this.first = first;
+            this.second = second;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public ScheduleSlot getFirst() {
+            return first;
+        }
+
+        public ScheduleSlot getSecond() {
+            return second;
+        }
+    }
+
+    /**
+     * Find every teacher and classroom conflict among the given slots
+     */
+    public static List<Conflict> detect(Collection<ScheduleSlot> slots) {
+        List<Conflict> conflicts = new ArrayList<>();
+        sweepBuckets(slots, ScheduleSlot::getTeacherId, TEACHER_CONFLICT, conflicts);
+        sweepBuckets(slots, ScheduleSlot::getClassRoomId, CLASSROOM_CONFLICT, conflicts);
+        conflicts.sort(Comparator
+                .comparing((Conflict conflict) -> conflict.getFirst().getDayOfWeek())
+                .thenComparing(conflict -> conflict.getFirst().getStartTime())
+                .thenComparing(Conflict::getType));
+        return conflicts;
+    }
+
+    private static void sweepBuckets(Collection<ScheduleSlot> slots, Function<ScheduleSlot, Long> resource,
+                                     String type, List<Conflict> out) {
+        Map<DayOfWeek, Map<Long, List<ScheduleSlot>>> buckets = new EnumMap<>(DayOfWeek.class);
+        for (ScheduleSlot slot : slots) {
+            Long resourceId = resource.apply(slot);
+            if (resourceId == null || slot.getDayOfWeek() == null) {
+                continue;
+            }
+            buckets.computeIfAbsent(slot.getDayOfWeek(), day -> new HashMap<>())
+                    .computeIfAbsent(resourceId, id -> new ArrayList<>())
+                    .add(slot);
+        }
+        for (Map<Long, List<ScheduleSlot>> byResource : buckets.values()) {
+            for (List<ScheduleSlot> bucket : byResource.values()) {
+                if (bucket.size() > 1) {
+                    sweep(bucket, type, out);
+                }
+            }
+        }
+    }
+
+    private static void sweep(List<ScheduleSlot> bucket, String type, List<Conflict> out) {
+        bucket.sort(BY_START);
+        PriorityQueue<ScheduleSlot> running = new PriorityQueue<>(BY_END);
+        for (ScheduleSlot slot : bucket) {
+            // End events at or before this start do not overlap (half-open intervals)
+            while (!running.isEmpty() && !running.peek().getEndTime().isAfter(slot.getStartTime())) {
+                running.poll();
+            }
+            for (ScheduleSlot active : running) {
+                out.add(new Conflict(type, active, slot));
+            }
+            running.add(slot);
+        }
+    }
+}
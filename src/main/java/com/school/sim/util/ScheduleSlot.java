@@ -0,0 +1,111 @@
+package com.school.sim.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Flat, immutable view of a weekly schedule slot
+ * Loaded with a JPQL constructor expression so conflict checks never touch lazy teacher/classroom associations
+ */
+public final class ScheduleSlot {
+
+    private final Long scheduleId;
+    private final String academicYear;
+    private final Integer semester;
+    private final DayOfWeek dayOfWeek;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final Long teacherId;
+    private final String teacherName;
+    private final Long classRoomId;
+    private final String classRoomName;
+    private final Long subjectId;
+    private final boolean active;
+
+    public ScheduleSlot(Long scheduleId, String academicYear, Integer semester,
+                        DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime,
+                        Long teacherId, String teacherFirstName, String teacherLastName, Long classRoomId,
+                        String classRoomName, Long subjectId, Boolean active) {
+        this.scheduleId = scheduleId;
+        this.academicYear = academicYear;
+        this.semester = semester;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.teacherId = teacherId;
+        this.teacherName = joinName(teacherFirstName, teacherLastName);
+        this.classRoomId = classRoomId;
+        this.classRoomName = classRoomName;
+        this.subjectId = subjectId;
+        this.active = active == null || active;
+    }
+
+    public Long getScheduleId() {
+        return scheduleId;
+    }
+
+    public String getAcademicYear() {
+        return academicYear;
+    }
+
+    public Integer getSemester() {
+        return semester;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public String getTeacherName() {
+        return teacherName;
+    }
+
+    public Long getClassRoomId() {
+        return classRoomId;
+    }
+
+    public String getClassRoomName() {
+        return classRoomName;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Half-open overlap test: back-to-back slots on the same day do not overlap
+     */
+    public boolean overlaps(ScheduleSlot other) {
+        return dayOfWeek == other.dayOfWeek
+                && startTime.isBefore(other.endTime) && other.startTime.isBefore(endTime);
+    }
+
+    private static String joinName(String firstName, String lastName) {
+        if (firstName == null) {
+            return lastName;
+        }
+        return lastName == null ? firstName : firstName + " " + lastName;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduleSlot{" + scheduleId + " " + dayOfWeek + " " + startTime + "-" + endTime
+                + " teacher=" + teacherId + " classRoom=" + classRoomId + "}";
+    }
+}
@@ -0,0 +1,150 @@
+package com.school.sim.util;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Collection;
+
+/**
+ * Row-by-row CSV writer for lazy row sources such as JDBC cursors
+ * Cells are written straight into a buffered UTF-8 writer: strings are scanned and copied in ranges, with quotes
+ * doubled in place, and other values are rendered into one reused buffer, so writing a cell does not allocate.
+ * Nothing is kept once a row is written; the underlying stream is flushed, never closed.
+ */
+public final class StreamingCsvWriter implements Flushable {
+
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private final Writer writer;
+    private final String delimiter;
+    private final char delimiterStart;
+    private final StringBuilder scratch = new StringBuilder(32);
+    private char[] chars = new char[64];
+    private boolean rowStarted;
+    private long rowsWritten;
+
+    public StreamingCsvWriter(OutputStream outputStream, String delimiter) {
+        if (delimiter == null || delimiter.isEmpty()) {
+            throw new IllegalArgumentException("CSV delimiter must not be empty");
+        }
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_CHARS);
+        this.delimiter = delimiter;
+        this.delimiterStart = delimiter.charAt(0);
+    }
+
+    public void writeHeader(Collection<String> headers) throws IOException {
+        for (String header : headers) {
+            writeCell(header);
+        }
+        endLine();
+    }
+
+    public void writeRow(Iterable<?> values) throws IOException {
+        for (Object value : values) {
+            writeCell(value);
+        }
+        endRow();
+    }
+
+    /**
+     * Append one cell to the current row; null is written as an empty cell
+     */
+    public void writeCell(Object value) throws IOException {
+        if (rowStarted) {
+            writer.write(delimiter);
+        }
+        rowStarted = true;
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String) {
+            writeEscaped((String) value);
+            return;
+        }
+
+        scratch.setLength(0);
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            scratch.append(((Number) value).longValue());
+        } else if (value instanceof BigDecimal) {
+            scratch.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Timestamp) {
+            scratch.append(((Timestamp) value).toLocalDateTime());
+        } else if (value instanceof Boolean) {
+            scratch.append(((Boolean) value).booleanValue());
+        } else {
+            scratch.append(value);
+        }
+        writeEscaped(scratch);
+    }
+
+    /**
+     * End the current row
+     */
+    public void endRow() throws IOException {
+        endLine();
+        rowsWritten++;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void endLine() throws IOException {
+        writer.write('\n');
+        rowStarted = false;
+    }
+
+    private void writeEscaped(CharSequence value) throws IOException {
+        int length = value.length();
+        if (!needsQuoting(value, length)) {
+            write(value, 0, length);
+            return;
+        }
+        writer.write('"');
+        int from = 0;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) == '"') {
+                // Write up to and including the quote; the next range starts at it again, doubling it
+                write(value, from, i + 1);
+                from = i;
+            }
+        }
+        write(value, from, length);
+        writer.write('"');
+    }
+
+    private boolean needsQuoting(CharSequence value, int length) {
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            // With a multi-character delimiter any of its characters could merge with a neighbouring delimiter
+            if (c == '"' || c == '\n' || c == '\r' || c == delimiterStart
+                    || (delimiter.length() > 1 && delimiter.indexOf(c) >= 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(CharSequence value, int from, int to) throws IOException {
+        if (value instanceof String) {
+            writer.write((String) value, from, to - from);
+            return;
+        }
+        if (chars.length < to - from) {
+            chars = new char[Math.max(to - from, chars.length * 2)];
+        }
+        ((StringBuilder) value).getChars(from, to, chars, 0);
+        writer.write(chars, 0, to - from);
+    }
+}
@@ -0,0 +1,186 @@
+package com.school.sim.util;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Row-by-row XLSX writer on top of SXSSF
+ * Only the last rowWindow rows of a sheet are kept in memory; older rows spill to compressed temp files, so heap use
+ * does not grow with the row count. Header, data and date styles are created once per workbook and column widths
+ * are estimated from text length instead of POI's font-measuring auto-size.
+ */
+public final class StreamingExcelWriter implements Closeable {
+
+    private static final int MAX_COLUMN_CHARS = 60;
+
+    private final SXSSFWorkbook workbook;
+    private final CellStyle headerStyle;
+    private final CellStyle dataStyle;
+    private final CellStyle dateStyle;
+
+    private SXSSFSheet sheet;
+    private int rowNum;
+    private int[] columnChars = new int[0];
+    private long rowsWritten;
+
+    public StreamingExcelWriter(int rowWindow) {
+        this.workbook = new SXSSFWorkbook(Math.max(1, rowWindow));
+        this.workbook.setCompressTempFiles(true);
+        this.headerStyle = createHeaderStyle(workbook);
+        this.dataStyle = createDataStyle(workbook);
+        this.dateStyle = workbook.createCellStyle();
+        this.dateStyle.cloneStyleFrom(dataStyle);
+        this.dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
+    }
+
+    /**
+     * Start a new sheet, sizing the columns of the previous one
+     */
+    public void startSheet(String name) {
+        finishSheet();
+        sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(name != null ? name : "Data"));
+        rowNum = 0;
+        columnChars = new int[0];
+    }
+
+    /**
+     * Write a single header-styled cell, e.g. a report title
+     */
+    public void writeTitle(String title) {
+        Cell cell = nextRow().createCell(0);
+        cell.setCellValue(title);
+        cell.setCellStyle(headerStyle);
+    }
+
+    /**
+     * Write an unstyled label/value row
+     */
+    public void writeLabel(String label, Object value) {
+        Row row = nextRow();
+        row.createCell(0).setCellValue(label);
+        row.createCell(1).setCellValue(String.valueOf(value));
+    }
+
+    public void writeHeader(Collection<String> headers) {
+        Row row = nextRow();
+        int col = 0;
+        for (String header : headers) {
+            Cell cell = row.createCell(col);
+            cell.setCellValue(header);
+            cell.setCellStyle(headerStyle);
+            track(col++, header);
+        }
+    }
+
+    public void writeRow(Iterable<?> values) {
+        Row row = nextRow();
+        int col = 0;
+        for (Object value : values) {
+            Cell cell = row.createCell(col);
+            setCellValue(cell, value);
+            track(col++, value);
+        }
+        rowsWritten++;
+    }
+
+    public void skipRow() {
+        rowNum++;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /**
+     * Write the workbook to the stream; the stream is left open
+     */
+    public void finish(OutputStream out) throws IOException {
+        finishSheet();
+        workbook.write(out);
+        out.flush();
+    }
+
+    /**
+     * Delete the temp files and release the workbook
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private Row nextRow() {
+        if (sheet == null) {
+            startSheet("Data");
+        }
+        return sheet.createRow(rowNum++);
+    }
+
+    private void setCellValue(Cell cell, Object value) {
+        if (value == null) {
+            cell.setCellValue("");
+            cell.setCellStyle(dataStyle);
+        } else if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+            cell.setCellStyle(dataStyle);
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+            cell.setCellStyle(dataStyle);
+        } else if (value instanceof Date) {
+            cell.setCellValue((Date) value);
+            cell.setCellStyle(dateStyle);
+        } else {
+            cell.setCellValue(String.valueOf(value));
+            cell.setCellStyle(dataStyle);
+        }
+    }
+
+    private void track(int col, Object value) {
+        if (col >= columnChars.length) {
+            columnChars = Arrays.copyOf(columnChars, Math.max(col + 1, columnChars.length * 2));
+        }
+        int chars = value instanceof Date ? 16 : value == null ? 0 : String.valueOf(value).length();
+        columnChars[col] = Math.max(columnChars[col], Math.min(chars, MAX_COLUMN_CHARS));
+    }
+
+    private void finishSheet() {
+        if (sheet == null) {
+            return;
+        }
+        for (int col = 0; col < columnChars.length; col++) {
+            if (columnChars[col] > 0) {
+                sheet.setColumnWidth(col, (columnChars[col] + 2) * 256);
+            }
+        }
+        sheet = null;
+    }
+
+    private static CellStyle createHeaderStyle(Workbook workbook) {
+        CellStyle style = createDataStyle(workbook);
+        Font font = workbook.createFont();
+        font.setBold(true);
+        font.setFontHeightInPoints((short) 12);
+        style.setFont(font);
+        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        return style;
+    }
+
+    private static CellStyle createDataStyle(Workbook workbook) {
+        CellStyle style = workbook.createCellStyle();
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+        return style;
+    }
+}
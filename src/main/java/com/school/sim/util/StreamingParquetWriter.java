@@ -0,0 +1,741 @@
+package com.school.sim.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal streaming Apache Parquet writer for flat tables
+ * Rows are buffered until a row group is full and then written column by column, so memory is bounded by the row
+ * group and not by the export. Every column is optional; a column chunk is dictionary encoded when its distinct
+ * values are fewer than its rows and plain encoded otherwise, and every page is GZIP compressed. The footer is
+ * written in the Thrift compact protocol, as the format requires.
+ */
+public final class StreamingParquetWriter implements Flushable {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    private static final String CREATED_BY = "sim-backend";
+
+    // Rows per data page, so readers never need a whole column chunk in memory
+    private static final int PAGE_ROWS = 20_000;
+    private static final int MAX_DICTIONARY_BYTES = 1024 * 1024;
+    // Shorter repeats are cheaper bit-packed
+    private static final int MIN_REPEAT_RUN = 8;
+
+    // parquet.thrift enums
+    private static final int TYPE_BOOLEAN = 0;
+    private static final int TYPE_INT32 = 1;
+    private static final int TYPE_INT64 = 2;
+    private static final int TYPE_DOUBLE = 5;
+    private static final int TYPE_BYTE_ARRAY = 6;
+    private static final int REPETITION_OPTIONAL = 1;
+    private static final int CONVERTED_UTF8 = 0;
+    private static final int CONVERTED_DATE = 6;
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_PLAIN_DICTIONARY = 2;
+    private static final int ENCODING_RLE = 3;
+    private static final int CODEC_GZIP = 2;
+    private static final int PAGE_DATA = 0;
+    private static final int PAGE_DICTIONARY = 2;
+
+    /**
+     * Column types, with the physical type they are stored as
+     * Dates are days since 1970-01-01, times milliseconds since midnight and timestamps milliseconds since
+     * 1970-01-01T00:00, all local time.
+     */
+    public enum ColumnType {
+        STRING(TYPE_BYTE_ARRAY),
+        INT32(TYPE_INT32),
+        INT64(TYPE_INT64),
+        DOUBLE(TYPE_DOUBLE),
+        BOOLEAN(TYPE_BOOLEAN),
+        DATE(TYPE_INT32),
+        TIME(TYPE_INT32),
+        TIMESTAMP(TYPE_INT64);
+
+        private final int physicalType;
+
+        ColumnType(int physicalType) {
+            this.physicalType = physicalType;
+        }
+    }
+
+    public static final class Column {
+
+        private final String name;
+        private final ColumnType type;
+
+        public Column(String name, ColumnType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ColumnType getType() {
+            return type;
+        }
+    }
+
+    private final OutputStream out;
+    private final List<Column> columns;
+    private final int rowGroupRows;
+    private final int compressionLevel;
+    private final ColumnBuffer[] buffers;
+    private final List<byte[]> rowGroups = new ArrayList<>();
+    private long position;
+    private long rowsWritten;
+    private int groupRows;
+
+    /**
+     * @param rowGroupRows rows buffered before a row group is written
+     * @param compressionLevel deflate level of the pages, 1 fastest to 9 smallest
+     */
+    public StreamingParquetWriter(OutputStream outputStream, List<Column> columns, int rowGroupRows,
+                                  int compressionLevel) throws IOException {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one column is required");
+        }
+        if (rowGroupRows < 1) {
+            throw new IllegalArgumentException("Row group size must be positive");
+        }
+        this.out = new BufferedOutputStream(outputStream, 64 * 1024);
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+        this.rowGroupRows = rowGroupRows;
+        this.compressionLevel = compressionLevel;
+        this.buffers = new ColumnBuffer[columns.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new ColumnBuffer(columns.get(i).type);
+        }
+        write(MAGIC);
+    }
+
+    /**
+     * Append a row, one value per column in column order; null values are stored as nulls
+     * A row with a value of the wrong type is rejected as a whole.
+     */
+    public void writeRow(Object... values) throws IOException {
+        if (values.length != buffers.length) {
+            throw new IllegalArgumentException("Expected " + buffers.length + " values, got " + values.length);
+        }
+        Object[] keys = new Object[values.length];
+        for (int i = 0; i < buffers.length; i++) {
+            try {
+                keys[i] = values[i] != null ? buffers[i].normalize(values[i]) : null;
+            } catch (ClassCastException e) {
+                throw new IllegalArgumentException("Invalid value for column " + columns.get(i).name + ": "
+                        + values[i], e);
+            }
+        }
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i].add(keys[i]);
+        }
+        groupRows++;
+        rowsWritten++;
+        if (groupRows == rowGroupRows) {
+            writeRowGroup();
+        }
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroups.size();
+    }
+
+    /**
+     * Write the last row group and the footer; the stream is flushed, never closed
+     */
+    public void finish() throws IOException {
+        if (groupRows > 0) {
+            writeRowGroup();
+        }
+        ThriftWriter footer = new ThriftWriter();
+        footer.i32(1, 1);
+        footer.beginList(2, ThriftWriter.STRUCT, columns.size() + 1);
+        footer.beginElement();
+        footer.binary(4, "schema");
+        footer.i32(5, columns.size());
+        footer.end();
+        for (Column column : columns) {
+            writeSchemaElement(footer, column);
+        }
+        footer.i64(3, rowsWritten);
+        footer.beginList(4, ThriftWriter.STRUCT, rowGroups.size());
+        for (byte[] rowGroup : rowGroups) {
+            footer.raw(rowGroup);
+        }
+        footer.binary(6, CREATED_BY);
+        footer.end();
+
+        byte[] metadata = footer.toByteArray();
+        write(metadata);
+        Bytes trailer = new Bytes(8);
+        trailer.intLE(metadata.length);
+        trailer.write(MAGIC);
+        write(trailer.toByteArray());
+        flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeSchemaElement(ThriftWriter footer, Column column) {
+        footer.beginElement();
+        footer.i32(1, column.type.physicalType);
+        footer.i32(3, REPETITION_OPTIONAL);
+        footer.binary(4, column.name);
+        // Local times and timestamps have no converted type; those imply UTC
+        if (column.type == ColumnType.STRING) {
+            footer.i32(6, CONVERTED_UTF8);
+        } else if (column.type == ColumnType.DATE) {
+            footer.i32(6, CONVERTED_DATE);
+        }
+        switch (column.type) {
+            case STRING:
+                footer.beginStruct(10);
+                footer.beginStruct(1);
+                footer.end();
+                footer.end();
+                break;
+            case DATE:
+                footer.beginStruct(10);
+                footer.beginStruct(6);
+                footer.end();
+                footer.end();
+                break;
+            case TIME:
+            case TIMESTAMP:
+                footer.beginStruct(10);
+                footer.beginStruct(column.type == ColumnType.TIME ? 7 : 8);
+                footer.bool(1, false);
+                footer.beginStruct(2);
+                footer.beginStruct(1);
+                footer.end();
+                footer.end();
+                footer.end();
+                footer.end();
+                break;
+            default:
+                break;
+        }
+        footer.end();
+    }
+
+    private void writeRowGroup() throws IOException {
+        ThriftWriter rowGroup = new ThriftWriter();
+        rowGroup.beginElement();
+        rowGroup.beginList(1, ThriftWriter.STRUCT, buffers.length);
+        long groupBytes = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            groupBytes += writeColumnChunk(rowGroup, columns.get(i), buffers[i]);
+            buffers[i].clear();
+        }
+        rowGroup.i64(2, groupBytes);
+        rowGroup.i64(3, groupRows);
+        rowGroup.end();
+        rowGroups.add(rowGroup.toByteArray());
+        groupRows = 0;
+    }
+
+    /**
+     * Write the pages of one column chunk and its metadata; returns its uncompressed size
+     */
+    private long writeColumnChunk(ThriftWriter rowGroup, Column column, ColumnBuffer buffer) throws IOException {
+        long chunkStart = position;
+        long uncompressed = 0;
+        boolean dictionary = buffer.useDictionary();
+        long dictionaryOffset = -1;
+        if (dictionary) {
+            dictionaryOffset = position;
+            Bytes page = new Bytes(buffer.dictionaryBytes + 16);
+            for (Object entry : buffer.entries) {
+                writePlain(page, column.type, entry);
+            }
+            uncompressed += writePage(PAGE_DICTIONARY, page, buffer.entries.size(), ENCODING_PLAIN_DICTIONARY);
+        }
+
+        long dataOffset = position;
+        int bitWidth = bitWidth(buffer.entries.size() - 1);
+        int[] levels = new int[Math.min(PAGE_ROWS, groupRows)];
+        int[] ids = new int[levels.length];
+        for (int from = 0; from < groupRows; from += PAGE_ROWS) {
+            int to = Math.min(from + PAGE_ROWS, groupRows);
+            int present = 0;
+            for (int row = from; row < to; row++) {
+                int id = buffer.ids[row];
+                levels[row - from] = id >= 0 ? 1 : 0;
+                if (id >= 0) {
+                    ids[present++] = id;
+                }
+            }
+
+            Bytes page = new Bytes(16 + (to - from) * (dictionary ? 2 : 8));
+            Bytes definitionLevels = new Bytes(64);
+            encodeHybrid(definitionLevels, levels, to - from, 1);
+            page.intLE(definitionLevels.size());
+            definitionLevels.writeTo(page);
+            if (dictionary) {
+                page.write(bitWidth);
+                encodeHybrid(page, ids, present, bitWidth);
+            } else if (column.type == ColumnType.BOOLEAN) {
+                encodeBooleans(page, ids, present);
+            } else {
+                for (int i = 0; i < present; i++) {
+                    writePlain(page, column.type, buffer.entries.get(ids[i]));
+                }
+            }
+
+            uncompressed += writePage(PAGE_DATA, page, to - from,
+                    dictionary ? ENCODING_PLAIN_DICTIONARY : ENCODING_PLAIN);
+        }
+
+        rowGroup.beginElement();
+        rowGroup.i64(2, chunkStart);
+        rowGroup.beginStruct(3);
+        rowGroup.i32(1, column.type.physicalType);
+        rowGroup.beginList(2, ThriftWriter.I32, 2);
+        rowGroup.element(dictionary ? ENCODING_PLAIN_DICTIONARY : ENCODING_PLAIN);
+        rowGroup.element(ENCODING_RLE);
+        rowGroup.beginList(3, ThriftWriter.BINARY, 1);
+        rowGroup.element(column.name);
+        rowGroup.i32(4, CODEC_GZIP);
+        rowGroup.i64(5, groupRows);
+        rowGroup.i64(6, uncompressed);
+        rowGroup.i64(7, position - chunkStart);
+        rowGroup.i64(9, dataOffset);
+        if (dictionary) {
+            rowGroup.i64(11, dictionaryOffset);
+        }
+        rowGroup.end();
+        rowGroup.end();
+        return uncompressed;
+    }
+
+    /**
+     * Compress and write a page behind its header; returns the uncompressed size including the header
+     */
+    private long writePage(int pageType, Bytes body, int values, int encoding) throws IOException {
+        Bytes compressed = new Bytes(body.size() / 4 + 64);
+        ContentCoding.GZIP.encode(compressed, compressionLevel, body::writeTo);
+
+        ThriftWriter header = new ThriftWriter();
+        header.i32(1, pageType);
+        header.i32(2, body.size());
+        header.i32(3, compressed.size());
+        if (pageType == PAGE_DICTIONARY) {
+            header.beginStruct(7);
+            header.i32(1, values);
+            header.i32(2, encoding);
+        } else {
+            // Definition levels are RLE encoded; repetition levels are declared but absent in a flat schema
+            header.beginStruct(5);
+            header.i32(1, values);
+            header.i32(2, encoding);
+            header.i32(3, ENCODING_RLE);
+            header.i32(4, ENCODING_RLE);
+        }
+        header.end();
+        header.end();
+        byte[] headerBytes = header.toByteArray();
+        write(headerBytes);
+        write(compressed.buffer(), compressed.size());
+        return headerBytes.length + body.size();
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        write(bytes, bytes.length);
+    }
+
+    private void write(byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        position += length;
+    }
+
+    private static int bitWidth(int maxValue) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(maxValue));
+    }
+
+    private static void writePlain(Bytes page, ColumnType type, Object entry) {
+        switch (type) {
+            case STRING:
+                byte[] utf8 = (byte[]) entry;
+                page.intLE(utf8.length);
+                page.write(utf8, 0, utf8.length);
+                break;
+            case INT32:
+            case DATE:
+            case TIME:
+                page.intLE((Integer) entry);
+                break;
+            case INT64:
+            case TIMESTAMP:
+                page.longLE((Long) entry);
+                break;
+            case DOUBLE:
+                page.longLE(Double.doubleToLongBits((Double) entry));
+                break;
+            default:
+                throw new IllegalStateException("Not plain encoded one by one: " + type);
+        }
+    }
+
+    // Plain booleans are one bit each, least significant bit first
+    private static void encodeBooleans(Bytes page, int[] values, int count) {
+        int current = 0;
+        for (int i = 0; i < count; i++) {
+            current |= values[i] << (i & 7);
+            if ((i & 7) == 7) {
+                page.write(current);
+                current = 0;
+            }
+        }
+        if ((count & 7) != 0) {
+            page.write(current);
+        }
+    }
+
+    /**
+     * RLE / bit-packing hybrid encoding: long repeats as runs, everything else bit-packed in groups of eight
+     * The last group is padded with zeros, which readers ignore as they know the value count.
+     */
+    static void encodeHybrid(Bytes out, int[] values, int count, int bitWidth) {
+        int i = 0;
+        while (i < count) {
+            int run = repeatLength(values, i, count);
+            if (run >= MIN_REPEAT_RUN) {
+                out.varint((long) run << 1);
+                int value = values[i];
+                for (int b = 0; b < bitWidth; b += 8) {
+                    out.write(value >>> b);
+                }
+                i += run;
+                continue;
+            }
+
+            int end = i + run;
+            while (end < count) {
+                int next = repeatLength(values, end, count);
+                if (next >= MIN_REPEAT_RUN) {
+                    break;
+                }
+                end += next;
+            }
+            // A packed run holds whole groups, so it may take the first few values of the repeat that follows
+            int groups = (end - i + 7) / 8;
+            out.varint((long) groups << 1 | 1);
+            long bits = 0;
+            int bitCount = 0;
+            for (int k = i; k < i + groups * 8; k++) {
+                long value = k < count ? values[k] & 0xffffffffL : 0;
+                bits |= value << bitCount;
+                bitCount += bitWidth;
+                while (bitCount >= 8) {
+                    out.write((int) bits);
+                    bits >>>= 8;
+                    bitCount -= 8;
+                }
+            }
+            i += groups * 8;
+        }
+    }
+
+    private static int repeatLength(int[] values, int from, int count) {
+        int to = from + 1;
+        while (to < count && values[to] == values[from]) {
+            to++;
+        }
+        return to - from;
+    }
+
+    /**
+     * Values of one column in the current row group: distinct values and, per row, the index of its value or -1
+     */
+    private static final class ColumnBuffer {
+
+        private final ColumnType type;
+        private final Map<Object, Integer> dictionary = new HashMap<>();
+        private final List<Object> entries = new ArrayList<>();
+        private int[] ids = new int[1024];
+        private int rows;
+        private int present;
+        private int dictionaryBytes;
+
+        ColumnBuffer(ColumnType type) {
+            this.type = type;
+            if (type == ColumnType.BOOLEAN) {
+                entries.add(Boolean.FALSE);
+                entries.add(Boolean.TRUE);
+            }
+        }
+
+        /**
+         * Add a value converted by normalize, or null
+         */
+        void add(Object key) {
+            if (rows == ids.length) {
+                ids = Arrays.copyOf(ids, rows * 2);
+            }
+            if (key == null) {
+                ids[rows++] = -1;
+                return;
+            }
+            int id;
+            if (type == ColumnType.BOOLEAN) {
+                id = (Boolean) key ? 1 : 0;
+            } else {
+                Integer known = dictionary.get(key);
+                if (known == null) {
+                    known = entries.size();
+                    dictionary.put(key, known);
+                    Object entry = type == ColumnType.STRING ? ((String) key).getBytes(StandardCharsets.UTF_8) : key;
+                    entries.add(entry);
+                    dictionaryBytes += plainSize(entry);
+                }
+                id = known;
+            }
+            ids[rows++] = id;
+            present++;
+        }
+
+        /**
+         * Dictionary encoding pays off when the dictionary and the packed indices are smaller than the plain values
+         */
+        boolean useDictionary() {
+            if (type == ColumnType.BOOLEAN || entries.isEmpty() || dictionaryBytes > MAX_DICTIONARY_BYTES) {
+                return false;
+            }
+            long plainBytes = 0;
+            for (int row = 0; row < rows; row++) {
+                if (ids[row] >= 0) {
+                    plainBytes += plainSize(entries.get(ids[row]));
+                }
+            }
+            long dictionaryEncoded = dictionaryBytes + ((long) present * bitWidth(entries.size() - 1) + 7) / 8;
+            return dictionaryEncoded < plainBytes;
+        }
+
+        void clear() {
+            if (type != ColumnType.BOOLEAN) {
+                dictionary.clear();
+                entries.clear();
+            }
+            dictionaryBytes = 0;
+            rows = 0;
+            present = 0;
+        }
+
+        private int plainSize(Object entry) {
+            switch (type) {
+                case STRING:
+                    return 4 + ((byte[]) entry).length;
+                case INT64:
+                case TIMESTAMP:
+                case DOUBLE:
+                    return 8;
+                default:
+                    return 4;
+            }
+        }
+
+        /**
+         * The value as the dictionary key of its type: String, Integer, Long, Double or Boolean
+         */
+        Object normalize(Object value) {
+            switch (type) {
+                case STRING:
+                    return value instanceof Enum ? ((Enum<?>) value).name() : value.toString();
+                case INT32:
+                    return ((Number) value).intValue();
+                case INT64:
+                    return ((Number) value).longValue();
+                case DOUBLE:
+                    return ((Number) value).doubleValue();
+                case DATE:
+                    LocalDate date = value instanceof java.sql.Date ? ((java.sql.Date) value).toLocalDate()
+                            : (LocalDate) value;
+                    return (int) date.toEpochDay();
+                case TIME:
+                    LocalTime time = value instanceof Time ? ((Time) value).toLocalTime() : (LocalTime) value;
+                    return (int) (time.toNanoOfDay() / 1_000_000);
+                case TIMESTAMP:
+                    LocalDateTime timestamp = value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime()
+                            : (LocalDateTime) value;
+                    return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+                case BOOLEAN:
+                    return value instanceof Number ? ((Number) value).intValue() != 0 : (Boolean) value;
+                default:
+                    throw new IllegalStateException("Unexpected type " + type);
+            }
+        }
+    }
+
+    /**
+     * Little-endian byte buffer that exposes its array, so pages are not copied on their way out
+     */
+    static final class Bytes extends ByteArrayOutputStream {
+
+        Bytes(int size) {
+            super(size);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+
+        void intLE(int value) {
+            write(value);
+            write(value >>> 8);
+            write(value >>> 16);
+            write(value >>> 24);
+        }
+
+        void longLE(long value) {
+            intLE((int) value);
+            intLE((int) (value >>> 32));
+        }
+
+        void varint(long value) {
+            while ((value & ~0x7fL) != 0) {
+                write((int) (value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        @Override
+        public void write(byte[] b) {
+            write(b, 0, b.length);
+        }
+    }
+
+    /**
+     * Writer of the Thrift compact protocol, just enough for the Parquet footer and page headers
+     * Structs nest with beginStruct or beginElement and are closed by end, which writes the stop byte.
+     */
+    static final class ThriftWriter {
+
+        static final int BOOLEAN_TRUE = 1;
+        static final int BOOLEAN_FALSE = 2;
+        static final int I32 = 5;
+        static final int I64 = 6;
+        static final int BINARY = 8;
+        static final int LIST = 9;
+        static final int STRUCT = 12;
+
+        private final Bytes bytes = new Bytes(256);
+        // Last field id of each open struct, the top level one included
+        private int[] lastFieldIds = new int[8];
+        private int depth;
+
+        void i32(int fieldId, int value) {
+            fieldHeader(fieldId, I32);
+            bytes.varint(zigzag(value));
+        }
+
+        void i64(int fieldId, long value) {
+            fieldHeader(fieldId, I64);
+            bytes.varint(zigzag(value));
+        }
+
+        void bool(int fieldId, boolean value) {
+            fieldHeader(fieldId, value ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+        }
+
+        void binary(int fieldId, String value) {
+            fieldHeader(fieldId, BINARY);
+            element(value);
+        }
+
+        void beginStruct(int fieldId) {
+            fieldHeader(fieldId, STRUCT);
+            push();
+        }
+
+        /**
+         * Start a struct that is an element of a list
+         */
+        void beginElement() {
+            push();
+        }
+
+        void end() {
+            bytes.write(0);
+            depth--;
+        }
+
+        void beginList(int fieldId, int elementType, int size) {
+            fieldHeader(fieldId, LIST);
+            if (size < 15) {
+                bytes.write(size << 4 | elementType);
+            } else {
+                bytes.write(0xf0 | elementType);
+                bytes.varint(size);
+            }
+        }
+
+        void element(int value) {
+            bytes.varint(zigzag(value));
+        }
+
+        void element(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            bytes.varint(utf8.length);
+            bytes.write(utf8);
+        }
+
+        /**
+         * Append bytes written by another writer, such as complete list elements
+         */
+        void raw(byte[] encoded) {
+            bytes.write(encoded);
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+        private void push() {
+            if (depth + 1 == lastFieldIds.length) {
+                lastFieldIds = Arrays.copyOf(lastFieldIds, lastFieldIds.length * 2);
+            }
+            lastFieldIds[++depth] = 0;
+        }
+
+        private void fieldHeader(int fieldId, int type) {
+            int delta = fieldId - lastFieldIds[depth];
+            if (delta > 0 && delta <= 15) {
+                bytes.write(delta << 4 | type);
+            } else {
+                bytes.write(type);
+                bytes.varint(zigzag(fieldId));
+            }
+            lastFieldIds[depth] = fieldId;
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+}
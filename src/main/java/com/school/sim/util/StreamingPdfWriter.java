@@ -0,0 +1,360 @@
+package com.school.sim.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Minimal streaming PDF writer for text reports
+ * Pages use the standard Helvetica fonts that every viewer provides, so no font is embedded and text is measured with
+ * the metrics below. A Page is built and compressed independently of the writer, so pages can be rendered on several
+ * threads and appended in order; once a page is written only its object offsets are kept.
+ */
+public final class StreamingPdfWriter implements Flushable {
+
+    // A4 in points
+    public static final float PAGE_WIDTH = 595.28f;
+    public static final float PAGE_HEIGHT = 841.89f;
+
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT_REGULAR = 3;
+    private static final int FONT_BOLD = 4;
+
+    /**
+     * Standard Type 1 fonts with their widths of ASCII 32..126, in 1/1000 em
+     */
+    public enum Font {
+        REGULAR("F1", new short[] {
+            278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+            1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+            333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+            556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584 }),
+        BOLD("F2", new short[] {
+            278, 333, 474, 556, 556, 889, 722, 238, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 333, 333, 584, 584, 584, 611,
+            975, 722, 722, 722, 722, 667, 611, 778, 722, 278, 556, 722, 611, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 333, 278, 333, 584, 556,
+            333, 556, 611, 556, 611, 556, 333, 611, 611, 278, 278, 556, 278, 889, 611, 611,
+            611, 611, 389, 556, 333, 611, 556, 778, 556, 556, 500, 389, 280, 389, 584 });
+
+        private static final int DEFAULT_WIDTH = 556;
+
+        private final String resourceName;
+        private final short[] widths;
+
+        Font(String resourceName, short[] widths) {
+            this.resourceName = resourceName;
+            this.widths = widths;
+        }
+
+        public float width(CharSequence text, float size) {
+            int units = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                units += c >= 32 && c <= 126 ? widths[c - 32] : DEFAULT_WIDTH;
+            }
+            return units * size / 1000f;
+        }
+
+        /**
+         * The text, cut and ended with "..." when it is wider than maxWidth
+         */
+        public String fit(String text, float size, float maxWidth) {
+            if (text == null || width(text, size) <= maxWidth) {
+                return text;
+            }
+            float available = maxWidth - width("...", size);
+            int units = 0;
+            int end = 0;
+            while (end < text.length()) {
+                char c = text.charAt(end);
+                units += c >= 32 && c <= 126 ? widths[c - 32] : DEFAULT_WIDTH;
+                if (units * size / 1000f > available) {
+                    break;
+                }
+                end++;
+            }
+            return text.substring(0, end) + "...";
+        }
+    }
+
+    private final CountingOutputStream out;
+    private long[] offsets = new long[64];
+    private int[] pageObjects = new int[16];
+    private int pageCount;
+    private int nextObject = FONT_BOLD + 1;
+
+    public StreamingPdfWriter(OutputStream outputStream) throws IOException {
+        this.out = new CountingOutputStream(new BufferedOutputStream(outputStream, 64 * 1024));
+        // The binary comment marks the file as binary for transfer tools
+        write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+        writeObject(FONT_REGULAR, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>");
+        writeObject(FONT_BOLD,
+                "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>");
+    }
+
+    public void addPage(Page page) throws IOException {
+        byte[] content = page.toContent();
+        int contentObject = nextObject++;
+        beginObject(contentObject);
+        write("<< /Length " + content.length + " /Filter /FlateDecode >>\nstream\n");
+        out.write(content);
+        write("\nendstream\nendobj\n");
+
+        int pageObject = nextObject++;
+        writeObject(pageObject, "<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + PAGE_WIDTH + " "
+                + PAGE_HEIGHT + "] /Resources << /Font << /F1 " + FONT_REGULAR + " 0 R /F2 " + FONT_BOLD
+                + " 0 R >> >> /Contents " + contentObject + " 0 R >>");
+        if (pageCount == pageObjects.length) {
+            pageObjects = Arrays.copyOf(pageObjects, pageCount * 2);
+        }
+        pageObjects[pageCount++] = pageObject;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Write the page tree, catalog and cross-reference table; the stream is flushed, never closed
+     */
+    public void finish() throws IOException {
+        beginObject(PAGES);
+        write("<< /Type /Pages /Count " + pageCount + " /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            write(pageObjects[i] + " 0 R ");
+        }
+        write("] >>\nendobj\n");
+        writeObject(CATALOG, "<< /Type /Catalog /Pages " + PAGES + " 0 R >>");
+
+        long xref = out.count;
+        StringBuilder table = new StringBuilder(20 * nextObject + 32);
+        table.append("xref\n0 ").append(nextObject).append("\n0000000000 65535 f \n");
+        for (int object = 1; object < nextObject; object++) {
+            String offset = Long.toString(offsets[object]);
+            for (int pad = offset.length(); pad < 10; pad++) {
+                table.append('0');
+            }
+            table.append(offset).append(" 00000 n \n");
+        }
+        table.append("trailer\n<< /Size ").append(nextObject).append(" /Root ").append(CATALOG)
+                .append(" 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+        write(table);
+        flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeObject(int object, String body) throws IOException {
+        beginObject(object);
+        write(body);
+        write("\nendobj\n");
+    }
+
+    private void beginObject(int object) throws IOException {
+        if (object >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(object + 1, offsets.length * 2));
+        }
+        offsets[object] = out.count;
+        write(object + " 0 obj\n");
+    }
+
+    private void write(CharSequence text) throws IOException {
+        out.write(text.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Content of one page, in PDF points from the bottom left corner
+     */
+    public static final class Page {
+
+        private final StringBuilder content = new StringBuilder(4096);
+        private byte[] compressed;
+
+        /**
+         * Draw a compiled content fragment, such as a template from toBytes, moved up by dy points
+         */
+        public Page draw(byte[] fragment, float dy) {
+            checkOpen();
+            if (dy == 0) {
+                appendLatin1(fragment);
+                return this;
+            }
+            content.append("q 1 0 0 1 0 ");
+            number(dy).append(" cm\n");
+            appendLatin1(fragment);
+            content.append("Q\n");
+            return this;
+        }
+
+        public Page text(Font font, float size, float x, float y, String text) {
+            checkOpen();
+            if (text == null || text.isEmpty()) {
+                return this;
+            }
+            content.append("BT /").append(font.resourceName).append(' ');
+            number(size).append(" Tf ");
+            number(x).append(' ');
+            number(y).append(" Td (");
+            for (int i = 0; i < text.length(); i++) {
+                char c = winAnsi(text.charAt(i));
+                if (c == '(' || c == ')' || c == '\\') {
+                    content.append('\\');
+                }
+                content.append(c);
+            }
+            content.append(") Tj ET\n");
+            return this;
+        }
+
+        /**
+         * Text ending at x
+         */
+        public Page textRight(Font font, float size, float x, float y, String text) {
+            return text == null ? this : text(font, size, x - font.width(text, size), y, text);
+        }
+
+        public Page line(float x1, float y1, float x2, float y2, float width) {
+            checkOpen();
+            number(width).append(" w ");
+            number(x1).append(' ');
+            number(y1).append(" m ");
+            number(x2).append(' ');
+            number(y2).append(" l S\n");
+            return this;
+        }
+
+        /**
+         * Filled rectangle in a shade of grey, 0 black to 1 white
+         */
+        public Page fill(float x, float y, float width, float height, float grey) {
+            checkOpen();
+            content.append("q ");
+            number(grey).append(" g ");
+            number(x).append(' ');
+            number(y).append(' ');
+            number(width).append(' ');
+            number(height).append(" re f Q\n");
+            return this;
+        }
+
+        /**
+         * The uncompressed content, to be drawn on other pages as a compiled fragment
+         */
+        public byte[] toBytes() {
+            return content.toString().getBytes(StandardCharsets.ISO_8859_1);
+        }
+
+        /**
+         * The compressed content stream; the page can no longer be drawn on
+         */
+        public synchronized byte[] toContent() {
+            if (compressed == null) {
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try {
+                    deflater.setInput(toBytes());
+                    deflater.finish();
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length() / 3 + 64);
+                    byte[] buffer = new byte[8192];
+                    while (!deflater.finished()) {
+                        bytes.write(buffer, 0, deflater.deflate(buffer));
+                    }
+                    compressed = bytes.toByteArray();
+                } finally {
+                    deflater.end();
+                }
+                content.setLength(0);
+                content.trimToSize();
+            }
+            return compressed;
+        }
+
+        private void checkOpen() {
+            if (compressed != null) {
+                throw new IllegalStateException("Page is already compressed");
+            }
+        }
+
+        private void appendLatin1(byte[] fragment) {
+            for (byte b : fragment) {
+                content.append((char) (b & 0xff));
+            }
+        }
+
+        // Two decimals are well below a printer dot
+        private StringBuilder number(float value) {
+            long hundredths = Math.round(value * 100.0);
+            if (hundredths < 0) {
+                content.append('-');
+                hundredths = -hundredths;
+            }
+            content.append(hundredths / 100);
+            long fraction = hundredths % 100;
+            if (fraction != 0) {
+                content.append('.').append(fraction / 10);
+                if (fraction % 10 != 0) {
+                    content.append(fraction % 10);
+                }
+            }
+            return content;
+        }
+
+        /**
+         * The WinAnsiEncoding byte of a character, '?' when it has none
+         */
+        private static char winAnsi(char c) {
+            if (c >= 32 && c <= 126 || c >= 160 && c <= 255) {
+                return c;
+            }
+            switch (c) {
+                case '\u20ac': return (char) 0x80;
+                case '\u2018': return (char) 0x91;
+                case '\u2019': return (char) 0x92;
+                case '\u201c': return (char) 0x93;
+                case '\u201d': return (char) 0x94;
+                case '\u2022': return (char) 0x95;
+                case '\u2013': return (char) 0x96;
+                case '\u2014': return (char) 0x97;
+                default: return '?';
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.school.sim.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Immutable interval index over one term's schedule slots
+ * Slots are grouped per day into start-sorted arrays for the whole school, each teacher and each classroom.
+ * Overlap lookups binary-search the window of starts that can reach the query interval (bounded by the longest
+ * slot of the bucket), so they never scan the day. Writers replace the index through with/without.
+ */
+public final class TimetableIndex {
+
+    private static final Comparator<ScheduleSlot> BY_START = Comparator
+            .comparing(ScheduleSlot::getStartTime)
+            .thenComparing(ScheduleSlot::getEndTime)
+            .thenComparing(ScheduleSlot::getScheduleId);
+
+    private final String academicYear;
+    private final Integer semester;
+    private final Map<Long, ScheduleSlot> slotsById;
+    private final Map<DayOfWeek, SortedSlots> byDay = new EnumMap<>(DayOfWeek.class);
+    private final Map<DayOfWeek, Map<Long, SortedSlots>> byTeacher = new EnumMap<>(DayOfWeek.class);
+    private final Map<DayOfWeek, Map<Long, SortedSlots>> byClassRoom = new EnumMap<>(DayOfWeek.class);
+    private final Map<Long, String> teacherNames = new HashMap<>();
+    private final Map<Long, String> classRoomNames = new HashMap<>();
+
+    private TimetableIndex(String academicYear, Integer semester, Map<Long, ScheduleSlot> slotsById) {
+        this.academicYear = academicYear;
+        this.semester = semester;
+        this.slotsById = slotsById;
+
+        Map<DayOfWeek, List<ScheduleSlot>> dayLists = new EnumMap<>(DayOfWeek.class);
+        Map<DayOfWeek, Map<Long, List<ScheduleSlot>>> teacherLists = new EnumMap<>(DayOfWeek.class);
+        Map<DayOfWeek, Map<Long, List<ScheduleSlot>>> classRoomLists = new EnumMap<>(DayOfWeek.class);
+        for (ScheduleSlot slot : slotsById.values()) {
+            if (slot.getDayOfWeek() == null || slot.getStartTime() == null || slot.getEndTime() == null) {
+                continue;
+            }
+            dayLists.computeIfAbsent(slot.getDayOfWeek(), day -> new ArrayList<>()).add(slot);
+            addToBucket(teacherLists, slot, ScheduleSlot::getTeacherId);
+            addToBucket(classRoomLists, slot, ScheduleSlot::getClassRoomId);
+            if (slot.getTeacherId() != null) {
+                teacherNames.putIfAbsent(slot.getTeacherId(), slot.getTeacherName());
+            }
+            if (slot.getClassRoomId() != null) {
+                classRoomNames.putIfAbsent(slot.getClassRoomId(), slot.getClassRoomName());
+            }
+        }
+        dayLists.forEach((day, slots) -> byDay.put(day, new SortedSlots(slots)));
+        teacherLists.forEach((day, buckets) -> byTeacher.put(day, seal(buckets)));
+        classRoomLists.forEach((day, buckets) -> byClassRoom.put(day, seal(buckets)));
+    }
+
+    /**
+     * Build an index for one academic year and semester
+     */
+    public static TimetableIndex build(String academicYear, Integer semester, Collection<ScheduleSlot> slots) {
+        Map<Long, ScheduleSlot> slotsById = new HashMap<>();
+        for (ScheduleSlot slot : slots) {
+            slotsById.put(slot.getScheduleId(), slot);
+        }
+        return new TimetableIndex(academicYear, semester, slotsById);
+    }
+
+    /**
+     * Copy of this index with the slot added, or replacing the slot with the same schedule id
+     */
+    public TimetableIndex with(ScheduleSlot slot) {
+        Map<Long, ScheduleSlot> copy = new HashMap<>(slotsById);
+        copy.put(slot.getScheduleId(), slot);
+        return new TimetableIndex(academicYear, semester, copy);
+    }
+
+    /**
+     * Copy of this index with all given slots added or replaced in one rebuild
+     */
+    public TimetableIndex withAll(Collection<ScheduleSlot> slots) {
+        Map<Long, ScheduleSlot> copy = new HashMap<>(slotsById);
+        for (ScheduleSlot slot : slots) {
+            copy.put(slot.getScheduleId(), slot);
+        }
+        return new TimetableIndex(academicYear, semester, copy);
+    }
+
+    /**
+     * Copy of this index without the given schedule
+     */
+    public TimetableIndex without(Long scheduleId) {
+        if (!slotsById.containsKey(scheduleId)) {
+            return this;
+        }
+        Map<Long, ScheduleSlot> copy = new HashMap<>(slotsById);
+        copy.remove(scheduleId);
+        return new TimetableIndex(academicYear, semester, copy);
+    }
+
+    public String getAcademicYear() {
+        return academicYear;
+    }
+
+    public Integer getSemester() {
+        return semester;
+    }
+
+    public int size() {
+        return slotsById.size();
+    }
+
+    public ScheduleSlot get(Long scheduleId) {
+        return slotsById.get(scheduleId);
+    }
+
+    public Collection<ScheduleSlot> getSlots() {
+        return Collections.unmodifiableCollection(slotsById.values());
+    }
+
+    /**
+     * Name of a teacher with at least one slot this term, or null
+     */
+    public String getTeacherName(Long teacherId) {
+        return teacherNames.get(teacherId);
+    }
+
+    /**
+     * Name of a classroom with at least one slot this term, or null
+     */
+    public String getClassRoomName(Long classRoomId) {
+        return classRoomNames.get(classRoomId);
+    }
+
+    /**
+     * A teacher's slots for the day, ordered by start time
+     */
+    public List<ScheduleSlot> getTeacherSlots(Long teacherId, DayOfWeek dayOfWeek) {
+        return bucket(byTeacher, dayOfWeek, teacherId).all();
+    }
+
+    /**
+     * A classroom's slots for the day, ordered by start time
+     */
+    public List<ScheduleSlot> getClassRoomSlots(Long classRoomId, DayOfWeek dayOfWeek) {
+        return bucket(byClassRoom, dayOfWeek, classRoomId).all();
+    }
+
+    /**
+     * A teacher's slots overlapping [startTime, endTime)
+     */
+    public List<ScheduleSlot> findTeacherOverlaps(Long teacherId, DayOfWeek dayOfWeek,
+                                                  LocalTime startTime, LocalTime endTime) {
+        return bucket(byTeacher, dayOfWeek, teacherId).overlapping(startTime, endTime);
+    }
+
+    /**
+     * A classroom's slots overlapping [startTime, endTime)
+     */
+    public List<ScheduleSlot> findClassRoomOverlaps(Long classRoomId, DayOfWeek dayOfWeek,
+                                                    LocalTime startTime, LocalTime endTime) {
+        return bucket(byClassRoom, dayOfWeek, classRoomId).overlapping(startTime, endTime);
+    }
+
+    /**
+     * All slots of the day overlapping [startTime, endTime)
+     */
+    public List<ScheduleSlot> findOverlaps(DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        return byDay.getOrDefault(dayOfWeek, SortedSlots.EMPTY).overlapping(startTime, endTime);
+    }
+
+    private static void addToBucket(Map<DayOfWeek, Map<Long, List<ScheduleSlot>>> buckets, ScheduleSlot slot,
+                                    Function<ScheduleSlot, Long> resource) {
+        Long resourceId = resource.apply(slot);
+        if (resourceId != null) {
+            buckets.computeIfAbsent(slot.getDayOfWeek(), day -> new HashMap<>())
+                    .computeIfAbsent(resourceId, id -> new ArrayList<>())
+                    .add(slot);
+        }
+    }
+
+    private static Map<Long, SortedSlots> seal(Map<Long, List<ScheduleSlot>> buckets) {
+        Map<Long, SortedSlots> sealed = new HashMap<>(buckets.size() * 2);
+        buckets.forEach((id, slots) -> sealed.put(id, new SortedSlots(slots)));
+        return sealed;
+    }
+
+    private static SortedSlots bucket(Map<DayOfWeek, Map<Long, SortedSlots>> index, DayOfWeek dayOfWeek,
+                                      Long resourceId) {
+        Map<Long, SortedSlots> day = index.get(dayOfWeek);
+        if (day == null || resourceId == null) {
+            return SortedSlots.EMPTY;
+        }
+        return day.getOrDefault(resourceId, SortedSlots.EMPTY);
+    }
+
+    /**
+     * Start-sorted slots plus the longest duration, which bounds how early an overlapping slot can start
+     */
+    private static final class SortedSlots {
+
+        static final SortedSlots EMPTY = new SortedSlots(Collections.emptyList());
+
+        private final ScheduleSlot[] slots;
+        private final int[] starts;
+        private final int maxDuration;
+
+        SortedSlots(List<ScheduleSlot> source) {
+            slots = source.toArray(new ScheduleSlot[0]);
+            Arrays.sort(slots, BY_START);
+            starts = new int[slots.length];
+            int longest = 0;
+            for (int i = 0; i < slots.length; i++) {
+                starts[i] = slots[i].getStartTime().toSecondOfDay();
+                longest = Math.max(longest, slots[i].getEndTime().toSecondOfDay() - starts[i]);
+            }
+            maxDuration = longest;
+        }
+
+        List<ScheduleSlot> all() {
+            return Collections.unmodifiableList(Arrays.asList(slots));
+        }
+
+        List<ScheduleSlot> overlapping(LocalTime startTime, LocalTime endTime) {
+            if (slots.length == 0) {
+                return Collections.emptyList();
+            }
+            int start = startTime.toSecondOfDay();
+            int end = endTime.toSecondOfDay();
+            // A slot ending after start must have started after (start - maxDuration)
+            int from = firstStartAfter(start - maxDuration);
+            int to = firstStartAfter(end - 1);
+            List<ScheduleSlot> result = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                if (slots[i].getEndTime().toSecondOfDay() > start) {
+                    result.add(slots[i]);
+                }
+            }
+            return result;
+        }
+
+        private int firstStartAfter(int seconds) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= seconds) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
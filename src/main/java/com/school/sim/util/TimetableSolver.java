@@ -0,0 +1,766 @@
+package com.school.sim.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Parallel local-search timetable solver
+ * Weekly lesson requirements are split into single-period units placed on a days x periods grid. Hard constraints:
+ * a class or teacher never has two units in one period, teachers are never placed in blocked periods and fixed
+ * occupancy (lessons kept from the existing timetable) is respected. The soft constraint spreads each requirement
+ * over the week, at most ceil(periods per week / days) per day. Every worker starts from its own randomized greedy
+ * placement and improves it with tabu search over moves and same-class swaps; workers share the best timetable found
+ * so far and restart from it when they stagnate.
+ */
+public final class TimetableSolver {
+
+    private static final int HARD_WEIGHT = 10;
+    private static final int CANDIDATE_REFRESH_INTERVAL = 16;
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    private TimetableSolver() {
+    }
+
+    /**
+     * Solve with the given options, reporting every new shared best to the listener
+     * Workers run on the executor; the call blocks until the budget is spent, the timetable is perfect,
+     * it is feasible and options ask to stop there, or cancelled is set.
+     */
+    public static Result solve(Problem problem, Options options, ExecutorService executor,
+                               AtomicBoolean cancelled, Consumer<Result> listener) {
+        Compiled compiled = new Compiled(problem);
+        Shared shared = new Shared(compiled, options, cancelled, listener);
+        if (compiled.units == 0) {
+            shared.offer(new int[0], 0, 0);
+            return shared.result();
+        }
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < options.threads; i++) {
+            long seed = options.seed + 0x9E3779B97F4A7C15L * (i + 1);
+            workers.add(executor.submit(() -> new Search(compiled, shared, new Random(seed)).run()));
+        }
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            shared.stop.set(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            shared.stop.set(true);
+            throw new IllegalStateException("Timetable search worker failed", e.getCause());
+        }
+        return shared.result();
+    }
+
+    /**
+     * Requirements and constraints of one timetable, with classes, teachers and requirements as dense indexes
+     */
+    public static final class Problem {
+
+        private final int days;
+        private final int periodsPerDay;
+        private final IntList unitRequirement = new IntList();
+        private final IntList requirementClass = new IntList();
+        private final IntList requirementTeacher = new IntList();
+        private final IntList requirementDailyLimit = new IntList();
+        private final IntList blockedTeacherSlots = new IntList();
+        private final IntList fixedClassSlots = new IntList();
+        private final IntList fixedTeacherSlots = new IntList();
+
+        public Problem(int days, int periodsPerDay) {
+            if (days < 1 || periodsPerDay < 1) {
+                throw new IllegalArgumentException("Timetable grid needs at least one day and one period");
+            }
+            this.days = days;
+            this.periodsPerDay = periodsPerDay;
+        }
+
+        /**
+         * Add a weekly requirement and return its index
+         */
+        public int addRequirement(int classIndex, int teacherIndex, int periodsPerWeek) {
+            if (classIndex < 0 || teacherIndex < 0 || periodsPerWeek < 1) {
+                throw new IllegalArgumentException("Invalid requirement");
+            }
+            int requirement = requirementClass.size();
+            requirementClass.add(classIndex);
+            requirementTeacher.add(teacherIndex);
+            requirementDailyLimit.add((periodsPerWeek + days - 1) / days);
+            for (int i = 0; i < periodsPerWeek; i++) {
+                unitRequirement.add(requirement);
+            }
+            return requirement;
+        }
+
+        /**
+         * The teacher cannot teach in this slot
+         */
+        public void blockTeacher(int teacherIndex, int slot) {
+            blockedTeacherSlots.add(teacherIndex);
+            blockedTeacherSlots.add(checkSlot(slot));
+        }
+
+        /**
+         * The class is already busy in this slot
+         */
+        public void occupyClass(int classIndex, int slot) {
+            fixedClassSlots.add(classIndex);
+            fixedClassSlots.add(checkSlot(slot));
+        }
+
+        /**
+         * The teacher is already busy in this slot
+         */
+        public void occupyTeacher(int teacherIndex, int slot) {
+            fixedTeacherSlots.add(teacherIndex);
+            fixedTeacherSlots.add(checkSlot(slot));
+        }
+
+        public int getDays() {
+            return days;
+        }
+
+        public int getPeriodsPerDay() {
+            return periodsPerDay;
+        }
+
+        public int slotCount() {
+            return days * periodsPerDay;
+        }
+
+        public int slot(int day, int period) {
+            return day * periodsPerDay + period;
+        }
+
+        public int unitCount() {
+            return unitRequirement.size();
+        }
+
+        public int requirementCount() {
+            return requirementClass.size();
+        }
+
+        public int requirementOfUnit(int unit) {
+            return unitRequirement.get(unit);
+        }
+
+        private int checkSlot(int slot) {
+            if (slot < 0 || slot >= slotCount()) {
+                throw new IllegalArgumentException("Slot out of range: " + slot);
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * Search parameters
+     */
+    public static final class Options {
+
+        private final int threads;
+        private final long timeBudgetMillis;
+        private final boolean stopWhenFeasible;
+        private final long seed;
+
+        public Options(int threads, long timeBudgetMillis, boolean stopWhenFeasible, long seed) {
+            this.threads = Math.max(1, threads);
+            this.timeBudgetMillis = Math.max(1, timeBudgetMillis);
+            this.stopWhenFeasible = stopWhenFeasible;
+            this.seed = seed;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public long getTimeBudgetMillis() {
+            return timeBudgetMillis;
+        }
+    }
+
+    /**
+     * Best timetable found so far: the slot of every unit plus search statistics
+     */
+    public static final class Result {
+
+        private final int[] slots;
+        private final int hardViolations;
+        private final int softPenalty;
+        private final long iterations;
+        private final long elapsedMillis;
+        private final long firstFeasibleMillis;
+
+        Result(int[] slots, int hardViolations, int softPenalty, long iterations, long elapsedMillis,
+               long firstFeasibleMillis) {
+            this.slots = slots;
+            this.hardViolations = hardViolations;
+            this.softPenalty = softPenalty;
+            this.iterations = iterations;
+            this.elapsedMillis = elapsedMillis;
+            this.firstFeasibleMillis = firstFeasibleMillis;
+        }
+
+        public int slotOf(int unit) {
+            return slots[unit];
+        }
+
+        public int unitCount() {
+            return slots.length;
+        }
+
+        public int getHardViolations() {
+            return hardViolations;
+        }
+
+        public int getSoftPenalty() {
+            return softPenalty;
+        }
+
+        public boolean isFeasible() {
+            return hardViolations == 0;
+        }
+
+        public long getIterations() {
+            return iterations;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * Milliseconds until the first timetable without hard violations, or -1
+         */
+        public long getFirstFeasibleMillis() {
+            return firstFeasibleMillis;
+        }
+    }
+
+    /**
+     * Flat arrays derived from a Problem, shared read-only by all workers
+     */
+    private static final class Compiled {
+
+        final int days;
+        final int periods;
+        final int slots;
+        final int units;
+        final int[] unitClass;
+        final int[] unitTeacher;
+        final int[] unitRequirement;
+        final int[] requirementLimit;
+        final int[][] classUnits;
+        final boolean[] blocked;
+        final int[] fixedClassLoad;
+        final int[] fixedTeacherLoad;
+
+        Compiled(Problem problem) {
+            days = problem.days;
+            periods = problem.periodsPerDay;
+            slots = problem.slotCount();
+            units = problem.unitCount();
+            unitRequirement = problem.unitRequirement.toArray();
+            requirementLimit = problem.requirementDailyLimit.toArray();
+
+            int classes = Math.max(max(problem.requirementClass), max(everyOther(problem.fixedClassSlots))) + 1;
+            int teachers = Math.max(Math.max(max(problem.requirementTeacher),
+                    max(everyOther(problem.fixedTeacherSlots))), max(everyOther(problem.blockedTeacherSlots))) + 1;
+
+            unitClass = new int[units];
+            unitTeacher = new int[units];
+            int[] perClass = new int[classes];
+            for (int u = 0; u < units; u++) {
+                unitClass[u] = problem.requirementClass.get(unitRequirement[u]);
+                unitTeacher[u] = problem.requirementTeacher.get(unitRequirement[u]);
+                perClass[unitClass[u]]++;
+            }
+            classUnits = new int[classes][];
+            for (int c = 0; c < classes; c++) {
+                classUnits[c] = new int[perClass[c]];
+                perClass[c] = 0;
+            }
+            for (int u = 0; u < units; u++) {
+                classUnits[unitClass[u]][perClass[unitClass[u]]++] = u;
+            }
+
+            blocked = new boolean[teachers * slots];
+            for (int i = 0; i < problem.blockedTeacherSlots.size(); i += 2) {
+                blocked[problem.blockedTeacherSlots.get(i) * slots + problem.blockedTeacherSlots.get(i + 1)] = true;
+            }
+            fixedClassLoad = new int[classes * slots];
+            for (int i = 0; i < problem.fixedClassSlots.size(); i += 2) {
+                fixedClassLoad[problem.fixedClassSlots.get(i) * slots + problem.fixedClassSlots.get(i + 1)]++;
+            }
+            fixedTeacherLoad = new int[teachers * slots];
+            for (int i = 0; i < problem.fixedTeacherSlots.size(); i += 2) {
+                fixedTeacherLoad[problem.fixedTeacherSlots.get(i) * slots + problem.fixedTeacherSlots.get(i + 1)]++;
+            }
+        }
+
+        private static int[] everyOther(IntList pairs) {
+            int[] firsts = new int[pairs.size() / 2];
+            for (int i = 0; i < firsts.length; i++) {
+                firsts[i] = pairs.get(i * 2);
+            }
+            return firsts;
+        }
+
+        private static int max(IntList values) {
+            return max(values.toArray());
+        }
+
+        private static int max(int[] values) {
+            int max = -1;
+            for (int value : values) {
+                max = Math.max(max, value);
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Shared best timetable, stop flag and iteration count
+     */
+    private static final class Shared {
+
+        final Compiled compiled;
+        final Options options;
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicBoolean cancelled;
+        final Consumer<Result> listener;
+        final long startedAt = System.nanoTime();
+        final long deadline;
+        final AtomicLong iterations = new AtomicLong();
+
+        private volatile long bestRank = Long.MAX_VALUE;
+        private int[] bestSlots;
+        private int bestHard;
+        private int bestSoft;
+        private volatile long firstFeasibleMillis = -1;
+
+        Shared(Compiled compiled, Options options, AtomicBoolean cancelled, Consumer<Result> listener) {
+            this.compiled = compiled;
+            this.options = options;
+            this.cancelled = cancelled != null ? cancelled : new AtomicBoolean();
+            this.listener = listener;
+            this.deadline = startedAt + options.timeBudgetMillis * 1_000_000L;
+        }
+
+        long bestRank() {
+            return bestRank;
+        }
+
+        void offer(int[] slots, int hard, int soft) {
+            long rank = rank(hard, soft);
+            if (rank >= bestRank) {
+                return;
+            }
+            Result improved;
+            synchronized (this) {
+                if (rank >= bestRank) {
+                    return;
+                }
+                bestSlots = slots.clone();
+                bestHard = hard;
+                bestSoft = soft;
+                bestRank = rank;
+                if (hard == 0 && firstFeasibleMillis < 0) {
+                    firstFeasibleMillis = elapsedMillis();
+                }
+                if (rank == 0 || (hard == 0 && options.stopWhenFeasible)) {
+                    stop.set(true);
+                }
+                improved = snapshot();
+            }
+            if (listener != null) {
+                listener.accept(improved);
+            }
+        }
+
+        synchronized int[] bestSlots() {
+            return bestSlots == null ? null : bestSlots.clone();
+        }
+
+        boolean shouldStop() {
+            return stop.get() || cancelled.get() || System.nanoTime() >= deadline;
+        }
+
+        synchronized Result result() {
+            return snapshot();
+        }
+
+        private Result snapshot() {
+            return new Result(bestSlots == null ? new int[0] : bestSlots.clone(), bestHard, bestSoft,
+                    iterations.get(), elapsedMillis(), firstFeasibleMillis);
+        }
+
+        private long elapsedMillis() {
+            return (System.nanoTime() - startedAt) / 1_000_000L;
+        }
+    }
+
+    /**
+     * One worker's search state with incrementally maintained loads and cost
+     */
+    private static final class Search {
+
+        private final Compiled p;
+        private final Shared shared;
+        private final Random random;
+        private final int[] assign;
+        private final int[] classLoad;
+        private final int[] teacherLoad;
+        private final int[] requirementDayLoad;
+        private final int[] tabuUntil;
+        private final int[] occupant;
+        private final int[] candidates;
+        private int candidateCount;
+        private int hard;
+        private int soft;
+        private int bestCost = Integer.MAX_VALUE;
+        private long bestRank = Long.MAX_VALUE;
+        private long iteration;
+        private long lastImprovement;
+
+        Search(Compiled compiled, Shared shared, Random random) {
+            this.p = compiled;
+            this.shared = shared;
+            this.random = random;
+            assign = new int[p.units];
+            classLoad = p.fixedClassLoad.clone();
+            teacherLoad = p.fixedTeacherLoad.clone();
+            requirementDayLoad = new int[p.requirementLimit.length * p.days];
+            tabuUntil = new int[p.units * p.slots];
+            occupant = new int[p.slots];
+            candidates = new int[p.units];
+        }
+
+        void run() {
+            construct();
+            report();
+            int restartAfter = Math.max(2_000, p.units * 4);
+            long pending = 0;
+            while (true) {
+                if ((iteration & (CLOCK_CHECK_INTERVAL - 1)) == 0) {
+                    shared.iterations.addAndGet(pending);
+                    pending = 0;
+                    if (shared.shouldStop()) {
+                        return;
+                    }
+                }
+                iteration++;
+                pending++;
+                step();
+                if (hard * HARD_WEIGHT + soft < bestCost || rank(hard, soft) < bestRank) {
+                    report();
+                } else if (iteration - lastImprovement > restartAfter) {
+                    restart();
+                }
+            }
+        }
+
+        private void report() {
+            bestCost = Math.min(bestCost, hard * HARD_WEIGHT + soft);
+            bestRank = Math.min(bestRank, rank(hard, soft));
+            lastImprovement = iteration;
+            if (rank(hard, soft) < shared.bestRank()) {
+                shared.offer(assign, hard, soft);
+            }
+        }
+
+        /**
+         * Randomized greedy start: units of the busiest teachers first, each in its cheapest slot
+         */
+        private void construct() {
+            Arrays.fill(assign, -1);
+            int[] teacherUnits = new int[p.fixedTeacherLoad.length / p.slots];
+            for (int u = 0; u < p.units; u++) {
+                teacherUnits[p.unitTeacher[u]]++;
+            }
+            Integer[] order = new Integer[p.units];
+            long[] keys = new long[p.units];
+            for (int u = 0; u < p.units; u++) {
+                order[u] = u;
+                keys[u] = ((long) teacherUnits[p.unitTeacher[u]] << 32) | random.nextInt(Integer.MAX_VALUE);
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(keys[b], keys[a]));
+            for (int u : order) {
+                int best = Integer.MAX_VALUE;
+                int bestSlot = 0;
+                int ties = 0;
+                for (int s = 0; s < p.slots; s++) {
+                    int delta = delta(u, s);
+                    if (delta < best) {
+                        best = delta;
+                        bestSlot = s;
+                        ties = 1;
+                    } else if (delta == best && random.nextInt(++ties) == 0) {
+                        bestSlot = s;
+                    }
+                }
+                place(u, bestSlot);
+            }
+            evaluate();
+        }
+
+        /**
+         * One tabu step on a unit in violation: the best non-tabu move or same-class swap, even if worse
+         */
+        private void step() {
+            int u = pickUnit();
+            int from = assign[u];
+            int c = p.unitClass[u];
+            Arrays.fill(occupant, -1);
+            for (int v : p.classUnits[c]) {
+                if (v != u) {
+                    occupant[assign[v]] = v;
+                }
+            }
+
+            int current = hard * HARD_WEIGHT + soft;
+            int best = Integer.MAX_VALUE;
+            int bestSlot = -1;
+            int bestSwap = -1;
+            int ties = 0;
+            for (int s = 0; s < p.slots; s++) {
+                if (s == from) {
+                    continue;
+                }
+                boolean tabu = tabuUntil[u * p.slots + s] > iteration;
+                int delta = delta(u, s);
+                if ((!tabu || current + delta < bestCost) && delta <= best) {
+                    if (delta < best) {
+                        best = delta;
+                        ties = 0;
+                    }
+                    if (random.nextInt(++ties) == 0) {
+                        bestSlot = s;
+                        bestSwap = -1;
+                    }
+                }
+                int v = occupant[s];
+                if (v >= 0 && p.unitRequirement[v] != p.unitRequirement[u]) {
+                    boolean swapTabu = tabu || tabuUntil[v * p.slots + from] > iteration;
+                    int swapDelta = swapDelta(u, v);
+                    if ((!swapTabu || current + swapDelta < bestCost) && swapDelta <= best) {
+                        if (swapDelta < best) {
+                            best = swapDelta;
+                            ties = 0;
+                        }
+                        if (random.nextInt(++ties) == 0) {
+                            bestSlot = s;
+                            bestSwap = v;
+                        }
+                    }
+                }
+            }
+            if (bestSlot < 0) {
+                return;
+            }
+
+            int tenure = 5 + random.nextInt(10);
+            tabuUntil[u * p.slots + from] = (int) Math.min(Integer.MAX_VALUE, iteration + tenure);
+            move(u, bestSlot);
+            if (bestSwap >= 0) {
+                tabuUntil[bestSwap * p.slots + bestSlot] = (int) Math.min(Integer.MAX_VALUE, iteration + tenure);
+                move(bestSwap, from);
+            }
+        }
+
+        /**
+         * A unit currently in hard violation, or in soft violation once the timetable is feasible
+         */
+        private int pickUnit() {
+            if (candidateCount == 0 || iteration % CANDIDATE_REFRESH_INTERVAL == 0) {
+                refreshCandidates();
+            }
+            while (candidateCount > 0) {
+                int i = random.nextInt(candidateCount);
+                int u = candidates[i];
+                if (hard > 0 ? inHardViolation(u) : inSoftViolation(u)) {
+                    return u;
+                }
+                candidates[i] = candidates[--candidateCount];
+            }
+            return random.nextInt(p.units);
+        }
+
+        private void refreshCandidates() {
+            candidateCount = 0;
+            for (int u = 0; u < p.units; u++) {
+                if (hard > 0 ? inHardViolation(u) : inSoftViolation(u)) {
+                    candidates[candidateCount++] = u;
+                }
+            }
+        }
+
+        private boolean inHardViolation(int u) {
+            int s = assign[u];
+            int t = p.unitTeacher[u] * p.slots + s;
+            return classLoad[p.unitClass[u] * p.slots + s] > 1 || teacherLoad[t] > 1 || p.blocked[t];
+        }
+
+        private boolean inSoftViolation(int u) {
+            int r = p.unitRequirement[u];
+            return requirementDayLoad[r * p.days + assign[u] / p.periods] > p.requirementLimit[r];
+        }
+
+        /**
+         * Adopt the shared best when it is better than this worker's, otherwise shake a few units
+         */
+        private void restart() {
+            int[] best = shared.bestRank() < bestRank ? shared.bestSlots() : null;
+            if (best != null) {
+                for (int u = 0; u < p.units; u++) {
+                    if (assign[u] != best[u]) {
+                        move(u, best[u]);
+                    }
+                }
+                bestCost = hard * HARD_WEIGHT + soft;
+                bestRank = rank(hard, soft);
+            } else {
+                int shakes = Math.max(2, p.units / 50);
+                for (int i = 0; i < shakes; i++) {
+                    move(random.nextInt(p.units), random.nextInt(p.slots));
+                }
+            }
+            Arrays.fill(tabuUntil, 0);
+            candidateCount = 0;
+            lastImprovement = iteration;
+        }
+
+        // Weighted cost change of moving unit u to slot b (u may be unplaced)
+        private int delta(int u, int b) {
+            int a = assign[u];
+            if (a == b) {
+                return 0;
+            }
+            int cBase = p.unitClass[u] * p.slots;
+            int tBase = p.unitTeacher[u] * p.slots;
+            int dh = (classLoad[cBase + b] >= 1 ? 1 : 0) + (teacherLoad[tBase + b] >= 1 ? 1 : 0)
+                    + (p.blocked[tBase + b] ? 1 : 0);
+            int ds = 0;
+            int r = p.unitRequirement[u];
+            int limit = p.requirementLimit[r];
+            int dayB = b / p.periods;
+            if (a >= 0) {
+                dh -= (classLoad[cBase + a] >= 2 ? 1 : 0) + (teacherLoad[tBase + a] >= 2 ? 1 : 0)
+                        + (p.blocked[tBase + a] ? 1 : 0);
+                int dayA = a / p.periods;
+                if (dayA == dayB) {
+                    return dh * HARD_WEIGHT;
+                }
+                ds -= requirementDayLoad[r * p.days + dayA] > limit ? 1 : 0;
+            }
+            ds += requirementDayLoad[r * p.days + dayB] >= limit ? 1 : 0;
+            return dh * HARD_WEIGHT + ds;
+        }
+
+        // Cost change of exchanging the slots of u and v, evaluated by applying the first move
+        private int swapDelta(int u, int v) {
+            int from = assign[u];
+            int to = assign[v];
+            int first = delta(u, to);
+            place(u, to);
+            int second = delta(v, from);
+            place(u, from);
+            return first + second;
+        }
+
+        private void move(int u, int b) {
+            int a = assign[u];
+            if (a == b) {
+                return;
+            }
+            int cBase = p.unitClass[u] * p.slots;
+            int tBase = p.unitTeacher[u] * p.slots;
+            int r = p.unitRequirement[u];
+            int limit = p.requirementLimit[r];
+            hard -= (classLoad[cBase + a] >= 2 ? 1 : 0) + (teacherLoad[tBase + a] >= 2 ? 1 : 0)
+                    + (p.blocked[tBase + a] ? 1 : 0);
+            hard += (classLoad[cBase + b] >= 1 ? 1 : 0) + (teacherLoad[tBase + b] >= 1 ? 1 : 0)
+                    + (p.blocked[tBase + b] ? 1 : 0);
+            soft -= requirementDayLoad[r * p.days + a / p.periods] > limit ? 1 : 0;
+            place(u, b);
+            soft += requirementDayLoad[r * p.days + b / p.periods] > limit ? 1 : 0;
+        }
+
+        // Update loads without touching the cost totals
+        private void place(int u, int b) {
+            int a = assign[u];
+            int c = p.unitClass[u] * p.slots;
+            int t = p.unitTeacher[u] * p.slots;
+            int r = p.unitRequirement[u] * p.days;
+            if (a >= 0) {
+                classLoad[c + a]--;
+                teacherLoad[t + a]--;
+                requirementDayLoad[r + a / p.periods]--;
+            }
+            assign[u] = b;
+            classLoad[c + b]++;
+            teacherLoad[t + b]++;
+            requirementDayLoad[r + b / p.periods]++;
+        }
+
+        private void evaluate() {
+            hard = 0;
+            soft = 0;
+            for (int load : classLoad) {
+                hard += Math.max(0, load - 1);
+            }
+            for (int load : teacherLoad) {
+                hard += Math.max(0, load - 1);
+            }
+            for (int u = 0; u < p.units; u++) {
+                if (p.blocked[p.unitTeacher[u] * p.slots + assign[u]]) {
+                    hard++;
+                }
+            }
+            for (int r = 0; r < p.requirementLimit.length; r++) {
+                for (int d = 0; d < p.days; d++) {
+                    soft += Math.max(0, requirementDayLoad[r * p.days + d] - p.requirementLimit[r]);
+                }
+            }
+        }
+    }
+
+    // Hard violations first, then soft penalty
+    private static long rank(int hard, int soft) {
+        return ((long) hard << 32) | soft;
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.school.sim.util;
+
+import com.school.sim.dto.response.TranscriptResponse;
+import com.school.sim.util.StreamingPdfWriter.Font;
+import com.school.sim.util.StreamingPdfWriter.Page;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page layout of a student transcript, compiled once and shared by all rendering threads
+ * Everything that looks the same on every transcript (school header, field labels, table heading, rules) is rendered
+ * into content bytes when the layout is built; a page only draws those fragments and adds the student's own values.
+ */
+public final class TranscriptPdfLayout {
+
+    private static final float LEFT = 50;
+    private static final float RIGHT = StreamingPdfWriter.PAGE_WIDTH - 50;
+    private static final float BOTTOM = 70;
+    private static final float FIRST_TABLE_TOP = 680;
+    private static final float NEXT_TABLE_TOP = 745;
+    private static final float ROW_HEIGHT = 14;
+    private static final float TEXT_SIZE = 9;
+
+    // Table columns
+    private static final float CODE_X = LEFT + 4;
+    private static final float SUBJECT_X = 110;
+    private static final float SUBJECT_WIDTH = 255;
+    private static final float CREDITS_RIGHT = 400;
+    private static final float SCORE_RIGHT = 450;
+    private static final float GRADE_X = 468;
+    private static final float STATUS_X = 495;
+
+    private static final String[] LABELS = { "Name", "NIS", "Class", "Major", "Period" };
+    private static final DateTimeFormatter GENERATED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final byte[] pageHeader;
+    private final byte[] studentLabels;
+    private final byte[] tableHeader;
+
+    public TranscriptPdfLayout(String schoolName) {
+        this.pageHeader = new Page()
+                .text(Font.BOLD, 14, LEFT, 805, schoolName)
+                .text(Font.REGULAR, 10, LEFT, 790, "ACADEMIC TRANSCRIPT")
+                .line(LEFT, 782, RIGHT, 782, 1)
+                .line(LEFT, 50, RIGHT, 50, 0.5f)
+                .toBytes();
+
+        Page labels = new Page();
+        for (int i = 0; i < LABELS.length; i++) {
+            labels.text(Font.BOLD, TEXT_SIZE, LEFT, labelY(i), LABELS[i]);
+        }
+        this.studentLabels = labels.toBytes();
+
+        // Drawn with its baseline at 0 and moved to each table
+        this.tableHeader = new Page()
+                .fill(LEFT, -4, RIGHT - LEFT, 14, 0.88f)
+                .text(Font.BOLD, TEXT_SIZE, CODE_X, 0, "Code")
+                .text(Font.BOLD, TEXT_SIZE, SUBJECT_X, 0, "Subject")
+                .textRight(Font.BOLD, TEXT_SIZE, CREDITS_RIGHT, 0, "Credits")
+                .textRight(Font.BOLD, TEXT_SIZE, SCORE_RIGHT, 0, "Score")
+                .text(Font.BOLD, TEXT_SIZE, GRADE_X, 0, "Grade")
+                .text(Font.BOLD, TEXT_SIZE, STATUS_X, 0, "Status")
+                .toBytes();
+    }
+
+    /**
+     * Render a transcript as one or more pages; pages are compressed and ready for StreamingPdfWriter.addPage
+     */
+    public List<Page> render(TranscriptResponse transcript) {
+        return new Renderer(transcript).render();
+    }
+
+    /**
+     * Write a transcript as a document of its own
+     */
+    public void writeDocument(TranscriptResponse transcript, OutputStream outputStream) throws IOException {
+        StreamingPdfWriter writer = new StreamingPdfWriter(outputStream);
+        for (Page page : render(transcript)) {
+            writer.addPage(page);
+        }
+        writer.finish();
+    }
+
+    private static float labelY(int row) {
+        return 760 - row * 14;
+    }
+
+    private static String decimal(BigDecimal value, int scale) {
+        return value != null ? value.setScale(scale, RoundingMode.HALF_UP).toPlainString() : "-";
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : "-";
+    }
+
+    /**
+     * Layout state of one transcript
+     */
+    private final class Renderer {
+
+        private final TranscriptResponse transcript;
+        private final TranscriptResponse.StudentInfo student;
+        private final List<Page> pages = new ArrayList<>();
+        private Page page;
+        private float y;
+
+        Renderer(TranscriptResponse transcript) {
+            this.transcript = transcript;
+            this.student = transcript.getStudent() != null ? transcript.getStudent()
+                    : new TranscriptResponse.StudentInfo();
+        }
+
+        List<Page> render() {
+            page = new Page().draw(pageHeader, 0).draw(studentLabels, 0);
+            String[] values = { student.getFullName(), student.getStudentNumber(), student.getClassName(),
+                    student.getMajorName(), period() };
+            for (int i = 0; i < values.length; i++) {
+                page.text(Font.REGULAR, TEXT_SIZE, 130, labelY(i), Font.REGULAR.fit(text(values[i]), TEXT_SIZE, 400));
+            }
+            pages.add(page);
+            y = FIRST_TABLE_TOP;
+
+            List<TranscriptResponse.AcademicPeriod> periods = transcript.getAcademicPeriods() != null
+                    ? transcript.getAcademicPeriods() : Collections.emptyList();
+            if (periods.isEmpty()) {
+                page.text(Font.REGULAR, TEXT_SIZE, LEFT, y, "No graded assessments in this period.");
+                y -= ROW_HEIGHT;
+            }
+            for (TranscriptResponse.AcademicPeriod period : periods) {
+                renderPeriod(period);
+            }
+            renderSummary();
+            finishPages();
+            return pages;
+        }
+
+        private String period() {
+            List<TranscriptResponse.AcademicPeriod> periods = transcript.getAcademicPeriods();
+            if (periods == null || periods.size() != 1) {
+                return "All periods";
+            }
+            return periods.get(0).getAcademicYear() + ", semester " + periods.get(0).getSemester();
+        }
+
+        private void renderPeriod(TranscriptResponse.AcademicPeriod period) {
+            // Heading, table header and at least one row stay together
+            ensureSpace(16 + 18 + ROW_HEIGHT);
+            page.text(Font.BOLD, 10, LEFT, y, "Academic year " + period.getAcademicYear() + ", semester "
+                    + period.getSemester());
+            y -= 18;
+            page.draw(tableHeader, y);
+            y -= 16;
+
+            List<TranscriptResponse.SubjectRecord> subjects = period.getSubjects() != null
+                    ? period.getSubjects() : Collections.emptyList();
+            for (TranscriptResponse.SubjectRecord subject : subjects) {
+                if (ensureSpace(ROW_HEIGHT)) {
+                    page.draw(tableHeader, y);
+                    y -= 16;
+                }
+                page.text(Font.REGULAR, TEXT_SIZE, CODE_X, y, subject.getSubjectCode())
+                        .text(Font.REGULAR, TEXT_SIZE, SUBJECT_X, y,
+                                Font.REGULAR.fit(subject.getSubjectName(), TEXT_SIZE, SUBJECT_WIDTH))
+                        .textRight(Font.REGULAR, TEXT_SIZE, CREDITS_RIGHT, y, text(subject.getCredits()))
+                        .textRight(Font.REGULAR, TEXT_SIZE, SCORE_RIGHT, y, decimal(subject.getFinalGrade(), 1))
+                        .text(Font.REGULAR, TEXT_SIZE, GRADE_X, y, subject.getLetterGrade())
+                        .text(Font.REGULAR, TEXT_SIZE, STATUS_X, y, subject.getStatus());
+                y -= ROW_HEIGHT;
+            }
+
+            ensureSpace(ROW_HEIGHT + 6);
+            page.line(LEFT, y + 10, RIGHT, y + 10, 0.5f);
+            page.text(Font.REGULAR, TEXT_SIZE, LEFT, y, "Semester GPA " + decimal(period.getSemesterGPA(), 2)
+                    + "    Cumulative GPA " + decimal(period.getCumulativeGPA(), 2)
+                    + "    Credits earned " + text(period.getEarnedCredits()) + " of " + text(period.getTotalCredits()));
+            y -= 26;
+        }
+
+        private void renderSummary() {
+            TranscriptResponse.TranscriptSummary summary = transcript.getSummary();
+            if (summary == null) {
+                return;
+            }
+            ensureSpace(56);
+            page.text(Font.BOLD, 10, LEFT, y, "Summary");
+            y -= 16;
+            page.text(Font.REGULAR, TEXT_SIZE, LEFT, y, "Overall GPA " + decimal(summary.getOverallGPA(), 2)
+                    + "    Standing " + text(summary.getAcademicStanding()));
+            y -= ROW_HEIGHT;
+            page.text(Font.REGULAR, TEXT_SIZE, LEFT, y, "Credits earned " + text(summary.getTotalCreditsEarned())
+                    + " of " + text(summary.getTotalCreditsAttempted()) + "    Completion "
+                    + decimal(summary.getCompletionRate(), 1) + "%");
+            y -= ROW_HEIGHT;
+        }
+
+        /**
+         * Start a new page when fewer than height points are left; true when it did
+         */
+        private boolean ensureSpace(float height) {
+            if (y - height >= BOTTOM) {
+                return false;
+            }
+            page = new Page().draw(pageHeader, 0);
+            page.text(Font.BOLD, TEXT_SIZE, LEFT, 765, text(student.getFullName()))
+                    .textRight(Font.REGULAR, TEXT_SIZE, RIGHT, 765, "NIS " + text(student.getStudentNumber()));
+            pages.add(page);
+            y = NEXT_TABLE_TOP;
+            return true;
+        }
+
+        private void finishPages() {
+            String generated = transcript.getGeneratedAt() != null
+                    ? "Generated " + transcript.getGeneratedAt().format(GENERATED_AT) : null;
+            for (int i = 0; i < pages.size(); i++) {
+                Page current = pages.get(i);
+                current.text(Font.REGULAR, 8, LEFT, 38, generated)
+                        .textRight(Font.REGULAR, 8, RIGHT, 38, "Page " + (i + 1) + " of " + pages.size());
+                current.toContent();
+            }
+        }
+    }
+}
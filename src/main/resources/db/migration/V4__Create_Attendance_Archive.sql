@@ -0,0 +1,44 @@
+-- Cold storage for attendance of closed academic years
+-- Rows are moved here from attendances by the attendance archive job and partitioned per academic year
+-- (August 1 boundaries), so historical scans only touch the years they ask for.
+-- Partitioned InnoDB tables cannot carry foreign keys, so references are kept as plain ids.
+
+CREATE TABLE IF NOT EXISTS attendances_archive (
+    id BIGINT NOT NULL,
+    teaching_activity_id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    class_room_id BIGINT NOT NULL,
+    teacher_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    activity_date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    keterangan TEXT,
+    recorded_by BIGINT,
+    academic_year VARCHAR(9) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id, activity_date),
+    INDEX idx_attendance_archive_student_date (student_id, activity_date),
+    INDEX idx_attendance_archive_class_date (class_room_id, activity_date),
+    INDEX idx_attendance_archive_date_status (activity_date, status),
+    INDEX idx_attendance_archive_year (academic_year)
+)
+PARTITION BY RANGE COLUMNS(activity_date) (
+    PARTITION p2019 VALUES LESS THAN ('2020-08-01'),
+    PARTITION p2020 VALUES LESS THAN ('2021-08-01'),
+    PARTITION p2021 VALUES LESS THAN ('2022-08-01'),
+    PARTITION p2022 VALUES LESS THAN ('2023-08-01'),
+    PARTITION p2023 VALUES LESS THAN ('2024-08-01'),
+    PARTITION p2024 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p2025 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p2026 VALUES LESS THAN ('2027-08-01'),
+    PARTITION p2027 VALUES LESS THAN ('2028-08-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+-- Supports the archive job's per-year id scan on the hot table
+CREATE INDEX IF NOT EXISTS idx_teaching_activity_date_id ON teaching_activities(date, id);
+
+ANALYZE TABLE attendances_archive;
@@ -0,0 +1,29 @@
+-- Indexes backing the specification-based schedule and teaching activity searches
+-- Searches filter on the academic period and page in (day, start time) or (date, start time) order,
+-- so these composites let the database satisfy both the filter and the ORDER BY ... LIMIT from one index.
+
+-- Schedule search: period filter with default day/start ordering
+CREATE INDEX IF NOT EXISTS idx_schedule_period_day_start ON schedules(
+    academic_year,
+    semester,
+    day_of_week,
+    start_time
+);
+
+-- Schedule search: teacher or classroom within a period
+CREATE INDEX IF NOT EXISTS idx_schedule_teacher_period ON schedules(teacher_id, academic_year, semester);
+CREATE INDEX IF NOT EXISTS idx_schedule_classroom_period ON schedules(class_room_id, academic_year, semester);
+
+-- Teaching activity search: completion filter over a date range in default ordering
+CREATE INDEX IF NOT EXISTS idx_teaching_activity_completed_date ON teaching_activities(
+    is_completed,
+    date,
+    start_time
+);
+
+-- Per-page attendance summaries grouped by activity and status
+CREATE INDEX IF NOT EXISTS idx_attendance_activity_status ON attendances(teaching_activity_id, status);
+
+ANALYZE TABLE schedules;
+ANALYZE TABLE teaching_activities;
+ANALYZE TABLE attendances;
@@ -0,0 +1,8 @@
+-- One teaching activity per schedule and date
+-- Lets term-wide activity generation be re-run safely: existing (schedule, date) pairs are skipped, and a
+-- concurrent duplicate run fails on this key instead of doubling activities.
+-- Resolve any existing duplicate (schedule_id, date) rows before applying.
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_teaching_activity_schedule_date ON teaching_activities(schedule_id, date);
+
+ANALYZE TABLE teaching_activities;
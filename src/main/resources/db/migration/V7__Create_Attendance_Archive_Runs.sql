@@ -0,0 +1,14 @@
+-- Completed attendance archive runs
+-- A run is recorded only after every row through archived_through has been moved, so MAX(archived_through) is
+-- the boundary the read router trusts. Dates after it but in a closed year are read from both tables.
+-- Existing deployments with archived years get their boundary from the next nightly run.
+
+CREATE TABLE IF NOT EXISTS attendance_archive_runs (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    archived_through DATE NOT NULL,
+    rows_archived BIGINT NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    completed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_attendance_archive_runs_through (archived_through)
+);
@@ -1,5 +1,7 @@
 package com.school.sim.controller;
 
+import com.school.sim.security.JwtTokenProvider;
+import com.school.sim.security.TokenBlacklistService;
 import com.school.sim.service.ExcelService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -33,6 +36,16 @@ class ExcelControllerTest {
     @MockBean
     private ExcelService excelService;
 
+    // Dependencies of JwtAuthenticationFilter, which @WebMvcTest picks up as a servlet filter
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @MockBean
+    private TokenBlacklistService tokenBlacklistService;
+
     private MockMultipartFile testFile;
     private ExcelService.ImportResult importResult;
     private ExcelService.ValidationResult validationResult;
@@ -87,6 +100,22 @@ class ExcelControllerTest {
                 .andExpect(jsonPath("$.errors[0]").value("Invalid file format"));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void startStudentImport_ValidFile_ShouldReturnAcceptedWithJobId() throws Exception {
+        // Arrange
+        when(excelService.validateExcelFile(any())).thenReturn(validationResult);
+        when(excelService.startStudentImport(any())).thenReturn("job-1");
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/excel/import/students/async")
+                .file(testFile)
+                .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.statusUrl").value("/api/excel/import/jobs/job-1"));
+    }
+
     @Test
     @WithMockUser(roles = "STUDENT")
     void importStudents_InsufficientRole_ShouldReturnForbidden() throws Exception {
@@ -0,0 +1,203 @@
+package com.school.sim.service;
+
+import com.school.sim.dto.response.TranscriptResponse;
+import com.school.sim.exception.ResourceNotFoundException;
+import com.school.sim.service.impl.AcademicReportServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AcademicReportService transcripts
+ * The benchmark runs with -Dbenchmark=true and reports transcripts rendered per second for a class of 40 students.
+ */
+@ExtendWith(MockitoExtension.class)
+class AcademicReportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private AcademicReportServiceImpl academicReportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(academicReportService, "schoolName", "SMK Negeri 1");
+        ReflectionTestUtils.setField(academicReportService, "transcriptMaxThreads", 2);
+        academicReportService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        academicReportService.stop();
+    }
+
+    @Test
+    void testGenerateStudentTranscript_ShouldWeightAssessmentsAndCredits() {
+        givenRows(students(new Object[] { 7L, "2024001", "Budi Santoso", "ACTIVE", "X RPL 1", "RPL" }),
+                Arrays.asList(
+                        grade(7L, "2024/2025", 1, "MTK", "Matematika", 4, 90, 0.6),
+                        grade(7L, "2024/2025", 1, "MTK", "Matematika", 4, 60, 0.4),
+                        grade(7L, "2024/2025", 1, "BIN", "Bahasa Indonesia", 2, 50, 1.0)));
+
+        TranscriptResponse transcript = academicReportService.generateStudentTranscript(7L, "2024/2025", 1);
+
+        assertEquals("Budi Santoso", transcript.getStudent().getFullName());
+        TranscriptResponse.AcademicPeriod period = transcript.getAcademicPeriods().get(0);
+        TranscriptResponse.SubjectRecord math = period.getSubjects().get(0);
+        // 90% weighted 0.6 and 60% weighted 0.4
+        assertEquals(new BigDecimal("78.00"), math.getFinalGrade());
+        assertEquals("C", math.getLetterGrade());
+        assertEquals("PASSED", math.getStatus());
+        assertEquals("FAILED", period.getSubjects().get(1).getStatus());
+        // (2.0 * 4 + 0.0 * 2) / 6 credits
+        assertEquals(new BigDecimal("1.33"), period.getSemesterGPA());
+        assertEquals(6, transcript.getSummary().getTotalCreditsAttempted());
+        assertEquals(4, transcript.getSummary().getTotalCreditsEarned());
+        assertEquals("PROBATION", transcript.getSummary().getAcademicStanding());
+    }
+
+    @Test
+    void testGenerateStudentTranscript_UnknownStudent_ShouldThrow() {
+        givenRows(new ArrayList<>(), new ArrayList<>());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> academicReportService.generateStudentTranscript(99L, null, null));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), any());
+    }
+
+    @Test
+    void testStreamClassTranscripts_ShouldLoadClassInTwoQueriesAndKeepStudentOrder() throws Exception {
+        givenRows(students(new Object[] { 1L, "2024001", "Ani", "ACTIVE", "X RPL 1", "RPL" },
+                           new Object[] { 2L, "2024002", "Budi", "ACTIVE", "X RPL 1", "RPL" },
+                           new Object[] { 3L, "2024003", "Citra", "ACTIVE", "X RPL 1", "RPL" }),
+                Arrays.asList(grade(2L, "2024/2025", 1, "MTK", "Matematika", 80, 100, 1.0),
+                              grade(1L, "2024/2025", 1, "MTK", "Matematika", 95, 100, 1.0)));
+
+        ByteArrayOutputStream merged = new ByteArrayOutputStream();
+        academicReportService.streamClassTranscripts(10L, "2024/2025", 1, false, merged);
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        academicReportService.streamClassTranscripts(10L, "2024/2025", 1, true, zipped);
+
+        String pdf = new String(merged.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertTrue(pdf.contains("/Type /Pages /Count 3 "));
+        assertTrue(pdf.endsWith("%%EOF\n"));
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(zipped.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+            }
+        }
+        assertEquals(Arrays.asList("2024001_Ani.pdf", "2024002_Budi.pdf", "2024003_Citra.pdf"), entries);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(4)).query(sql.capture(), any(RowCallbackHandler.class), any());
+        assertTrue(sql.getAllValues().stream().allMatch(query -> query.contains("s.class_room_id = ?")));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_ClassTranscriptsPerSecond() throws Exception {
+        ReflectionTestUtils.setField(academicReportService, "transcriptMaxThreads",
+                Runtime.getRuntime().availableProcessors());
+        academicReportService.stop();
+        academicReportService.start();
+
+        List<Object[]> students = new ArrayList<>();
+        List<Object[]> grades = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            students.add(new Object[] { id, "2024" + (1000 + id), "Student " + id, "ACTIVE", "XI RPL 1", "RPL" });
+        }
+        for (int semester = 1; semester <= 2; semester++) {
+            for (int subject = 0; subject < 12; subject++) {
+                for (int assessment = 0; assessment < 4; assessment++) {
+                    for (long id = 1; id <= 40; id++) {
+                        grades.add(grade(id, "2024/2025", semester, "S" + subject, "Subject number " + subject,
+                                2 + subject % 3, 55 + (id * 7 + subject * 3 + assessment) % 45, 0.25));
+                    }
+                }
+            }
+        }
+        givenRows(students, grades);
+
+        OutputStream discard = OutputStream.nullOutputStream();
+        for (int warmup = 0; warmup < 5; warmup++) {
+            academicReportService.streamClassTranscripts(10L, null, null, false, discard);
+        }
+        for (boolean zip : new boolean[] { false, true }) {
+            int rounds = 20;
+            long started = System.nanoTime();
+            for (int round = 0; round < rounds; round++) {
+                academicReportService.streamClassTranscripts(10L, null, null, zip, discard);
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("mode=%s students=40 threads=%d transcriptsPerSecond=%.0f%n", zip ? "zip" : "pdf",
+                    Runtime.getRuntime().availableProcessors(), rounds * 40 / seconds);
+        }
+    }
+
+    private void givenRows(List<Object[]> students, List<Object[]> grades) {
+        lenient().doAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            List<Object[]> rows = sql.startsWith("SELECT s.id") ? students : grades;
+            Object[] current = new Object[1];
+            ResultSet rs = mock(ResultSet.class, call -> {
+                if (call.getArguments().length == 0) {
+                    return false;
+                }
+                Object value = ((Object[]) current[0])[(Integer) call.getArgument(0) - 1];
+                switch (call.getMethod().getName()) {
+                    case "getLong": return ((Number) value).longValue();
+                    case "getInt": return ((Number) value).intValue();
+                    case "getBigDecimal": return value != null ? new BigDecimal(value.toString()) : null;
+                    default: return value;
+                }
+            });
+            for (Object[] row : rows) {
+                current[0] = row;
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any());
+    }
+
+    private static List<Object[]> students(Object[]... rows) {
+        return new ArrayList<>(Arrays.asList(rows));
+    }
+
+    // Scores are out of 100
+    private static Object[] grade(long studentId, String academicYear, int semester, String code, String name,
+                                  int credits, long score, double weight) {
+        return new Object[] { studentId, academicYear, semester, code, name, credits, "Assessment", "QUIZ",
+                score, 100, weight, Date.valueOf("2024-09-01"), null };
+    }
+}
@@ -0,0 +1,135 @@
+package com.school.sim.service;
+
+import com.school.sim.repository.TeachingActivityRepository;
+import com.school.sim.service.impl.ActivityCalendarServiceImpl;
+import com.school.sim.util.ActivityCalendarEntry;
+import com.school.sim.util.ActivityCalendarMonth;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ActivityCalendarService month buckets
+ */
+@ExtendWith(MockitoExtension.class)
+class ActivityCalendarServiceTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2024, 1);
+
+    @Mock
+    private TeachingActivityRepository teachingActivityRepository;
+
+    @InjectMocks
+    private ActivityCalendarServiceImpl activityCalendarService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(activityCalendarService, "calendarEnabled", true);
+        ReflectionTestUtils.setField(activityCalendarService, "maxCachedMonths", 100);
+    }
+
+    @Test
+    void testGetMonth_ShouldLoadOnceAndApplyWrites() {
+        // Given
+        when(teachingActivityRepository.findCalendarEntriesByTeacher(10L, JANUARY.atDay(1), JANUARY.atEndOfMonth()))
+                .thenReturn(new ArrayList<>(Arrays.asList(
+                        entry(2L, 16, 10, false, 10L, 100L),
+                        entry(1L, 15, 8, false, 10L, 100L))));
+        activityCalendarService.getMonth(ActivityCalendarService.TEACHER, 10L, JANUARY);
+
+        // When: activity 1 is completed, activity 3 is created and activity 2 moves to February
+        activityCalendarService.activityChanged(entry(1L, 15, 8, false, 10L, 100L), entry(1L, 15, 8, true, 10L, 100L));
+        activityCalendarService.activitiesCreated(Collections.singletonList(entry(3L, 15, 7, false, 10L, 101L)));
+        activityCalendarService.activityChanged(entry(2L, 16, 10, false, 10L, 100L),
+                new ActivityCalendarEntry(2L, LocalDate.of(2024, 2, 1), LocalTime.of(10, 0), LocalTime.of(11, 0),
+                        false, 10L, 100L, 1L));
+
+        // Then
+        ActivityCalendarMonth month = activityCalendarService.getMonth(ActivityCalendarService.TEACHER, 10L, JANUARY);
+        List<ActivityCalendarEntry> entries = month.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals(3L, entries.get(0).getActivityId().longValue());
+        assertEquals(1L, entries.get(1).getActivityId().longValue());
+        assertTrue(entries.get(1).isCompleted());
+        verify(teachingActivityRepository, times(1)).findCalendarEntriesByTeacher(any(), any(), any());
+    }
+
+    @Test
+    void testGetEntries_ShouldReadEachMonthOfTheRange() {
+        // Given
+        when(teachingActivityRepository.findCalendarEntriesByClassRoom(eq(100L), any(), any()))
+                .thenReturn(Arrays.asList(entry(1L, 30, 8, false, 10L, 100L), entry(2L, 10, 8, true, 10L, 100L)))
+                .thenReturn(Collections.singletonList(new ActivityCalendarEntry(3L, LocalDate.of(2024, 2, 2),
+                        LocalTime.of(8, 0), LocalTime.of(9, 0), false, 10L, 100L, 1L)));
+
+        // When
+        List<ActivityCalendarEntry> entries = activityCalendarService.getEntries(ActivityCalendarService.CLASS_ROOM,
+                100L, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 15));
+
+        // Then
+        assertEquals(2, entries.size());
+        assertEquals(1L, entries.get(0).getActivityId().longValue());
+        assertEquals(3L, entries.get(1).getActivityId().longValue());
+        verify(teachingActivityRepository, times(2)).findCalendarEntriesByClassRoom(eq(100L), any(), any());
+    }
+
+    @Test
+    void testScheduleDeleted_ShouldDropCascadedActivitiesOnlyOnCommit() {
+        // Given: a cached teacher month with two activities of schedule 7 and one of another schedule
+        when(teachingActivityRepository.findCalendarEntriesByTeacher(10L, JANUARY.atDay(1), JANUARY.atEndOfMonth()))
+                .thenReturn(Arrays.asList(entry(1L, 15, 8, false, 10L, 100L), entry(2L, 22, 8, false, 10L, 100L),
+                        entry(3L, 16, 9, false, 10L, 101L)));
+        when(teachingActivityRepository.findCalendarEntriesBySchedule(7L))
+                .thenReturn(Arrays.asList(entry(1L, 15, 8, false, 10L, 100L), entry(2L, 22, 8, false, 10L, 100L)));
+        activityCalendarService.getMonth(ActivityCalendarService.TEACHER, 10L, JANUARY);
+
+        // When: the delete rolls back once, then commits
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            activityCalendarService.scheduleDeleted(7L);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(3, activityCalendarService.getMonth(ActivityCalendarService.TEACHER, 10L, JANUARY).size());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            activityCalendarService.scheduleDeleted(7L);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        List<ActivityCalendarEntry> entries = activityCalendarService
+                .getMonth(ActivityCalendarService.TEACHER, 10L, JANUARY).getEntries();
+        assertEquals(1, entries.size());
+        assertEquals(3L, entries.get(0).getActivityId().longValue());
+        verify(teachingActivityRepository, times(1)).findCalendarEntriesByTeacher(any(), any(), any());
+    }
+
+    private ActivityCalendarEntry entry(Long id, int day, int hour, boolean completed, Long teacherId,
+                                        Long classRoomId) {
+        return new ActivityCalendarEntry(id, JANUARY.atDay(day), LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0),
+                completed, teacherId, classRoomId, 1L);
+    }
+}
@@ -0,0 +1,182 @@
+package com.school.sim.service;
+
+import com.school.sim.entity.AttendanceArchiveRun;
+import com.school.sim.entity.AttendanceStatus;
+import com.school.sim.entity.Student;
+import com.school.sim.exception.ValidationException;
+import com.school.sim.repository.AttendanceArchiveRepository;
+import com.school.sim.repository.AttendanceArchiveRunRepository;
+import com.school.sim.repository.AttendanceRepository;
+import com.school.sim.service.impl.AttendanceArchiveServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AttendanceArchiveService date-range routing
+ */
+@ExtendWith(MockitoExtension.class)
+class AttendanceArchiveServiceTest {
+
+    @Mock
+    private AttendanceRepository attendanceRepository;
+
+    @Mock
+    private AttendanceArchiveRepository attendanceArchiveRepository;
+
+    @Mock
+    private AttendanceArchiveRunRepository attendanceArchiveRunRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AttendanceArchiveServiceImpl attendanceArchiveService;
+
+    private Student testStudent;
+
+    @BeforeEach
+    void setUp() {
+        testStudent = Student.builder().id(1L).nis("12345").namaLengkap("Test Student").build();
+    }
+
+    @Test
+    void getAttendanceStats_InOpenYear_ShouldQueryHotTableOnly() {
+        // Given
+        LocalDate start = firstHotDate();
+        LocalDate end = start.plusMonths(1);
+        when(attendanceArchiveRunRepository.findLatestArchivedThrough()).thenReturn(null);
+        when(attendanceRepository.getAttendanceStatsByStudentAndDateBetween(testStudent, start, end))
+                .thenReturn(Collections.singletonList(new Object[] { AttendanceStatus.PRESENT, 20L }));
+
+        // When
+        List<Object[]> result = attendanceArchiveService.getAttendanceStatsByStudentAndDateBetween(testStudent, start, end);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(20L, result.get(0)[1]);
+        verify(attendanceArchiveRepository, never()).getAttendanceStatsByStudentAndDateBetween(any(), any(), any());
+    }
+
+    @Test
+    void getAttendanceStats_WithRangeAcrossBoundary_ShouldSplitAndMergeCounts() {
+        // Given
+        LocalDate boundary = firstHotDate().minusDays(1);
+        LocalDate start = boundary.minusMonths(2);
+        LocalDate end = boundary.plusMonths(2);
+        when(attendanceArchiveRunRepository.findLatestArchivedThrough()).thenReturn(boundary);
+        when(attendanceArchiveRepository.getAttendanceStatsByStudentAndDateBetween(1L, start, boundary))
+                .thenReturn(Arrays.asList(new Object[] { AttendanceStatus.PRESENT, 10L },
+                        new Object[] { AttendanceStatus.ABSENT, 2L }));
+        when(attendanceRepository.getAttendanceStatsByStudentAndDateBetween(testStudent, boundary.plusDays(1), end))
+                .thenReturn(Collections.singletonList(new Object[] { AttendanceStatus.PRESENT, 15L }));
+
+        // When
+        List<Object[]> result = attendanceArchiveService.getAttendanceStatsByStudentAndDateBetween(testStudent, start, end);
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(AttendanceStatus.PRESENT, result.get(0)[0]);
+        assertEquals(25L, result.get(0)[1]);
+        assertEquals(2L, result.get(1)[1]);
+    }
+
+    @Test
+    void getDailyStatistics_WithArchivedRange_ShouldQueryArchiveOnly() {
+        // Given
+        LocalDate start = LocalDate.of(2023, 9, 1);
+        LocalDate end = LocalDate.of(2023, 9, 30);
+        when(attendanceArchiveRunRepository.findLatestArchivedThrough()).thenReturn(LocalDate.of(2024, 7, 31));
+        when(attendanceArchiveRepository.getDailyAttendanceStatistics(start, end)).thenReturn(Collections.emptyList());
+
+        // When
+        attendanceArchiveService.getDailyAttendanceStatistics(start, end);
+
+        // Then
+        verify(attendanceRepository, never()).getDailyAttendanceStatistics(any(), any());
+    }
+
+    @Test
+    void getDailyStatistics_WithClosedDatesNotPublished_ShouldMergeBothTables() {
+        // Given: 2024/2025 is closed but its archive run has not completed
+        LocalDate start = LocalDate.of(2024, 7, 1);
+        LocalDate end = LocalDate.of(2024, 8, 31);
+        LocalDate boundary = LocalDate.of(2024, 7, 31);
+        LocalDate moving = LocalDate.of(2024, 8, 1);
+        when(attendanceArchiveRunRepository.findLatestArchivedThrough()).thenReturn(boundary);
+        when(attendanceArchiveRepository.getDailyAttendanceStatistics(start, boundary))
+                .thenReturn(Collections.singletonList(new Object[] { boundary, AttendanceStatus.PRESENT, 3L }));
+        when(attendanceArchiveRepository.getDailyAttendanceStatistics(moving, end))
+                .thenReturn(Collections.singletonList(new Object[] { moving, AttendanceStatus.PRESENT, 4L }));
+        when(attendanceRepository.getDailyAttendanceStatistics(moving, end))
+                .thenReturn(Arrays.asList(new Object[] { moving, AttendanceStatus.ABSENT, 1L },
+                        new Object[] { moving, AttendanceStatus.PRESENT, 5L }));
+
+        // When
+        List<Object[]> result = attendanceArchiveService.getDailyAttendanceStatistics(start, end);
+
+        // Then
+        assertEquals(3, result.size());
+        assertArrayEquals(new Object[] { boundary, AttendanceStatus.PRESENT, 3L }, result.get(0));
+        assertArrayEquals(new Object[] { moving, AttendanceStatus.PRESENT, 9L }, result.get(1));
+        assertArrayEquals(new Object[] { moving, AttendanceStatus.ABSENT, 1L }, result.get(2));
+    }
+
+    @Test
+    void archiveAcademicYear_ShouldPublishBoundaryOnceEveryBatchHasMoved() {
+        // Given: no attendance left in the year
+        attendanceArchiveService.init();
+        when(attendanceArchiveRunRepository.save(any(AttendanceArchiveRun.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Map<String, Object> result = attendanceArchiveService.archiveAcademicYear("2023/2024");
+
+        // Then
+        assertEquals(LocalDate.of(2024, 7, 31), result.get("archivedThrough"));
+        ArgumentCaptor<AttendanceArchiveRun> run = ArgumentCaptor.forClass(AttendanceArchiveRun.class);
+        verify(attendanceArchiveRunRepository).save(run.capture());
+        assertEquals(LocalDate.of(2024, 7, 31), run.getValue().getArchivedThrough());
+        assertEquals(0L, run.getValue().getRowsArchived());
+    }
+
+    @Test
+    void archiveAcademicYear_WithOpenYear_ShouldThrowException() {
+        // Given
+        LocalDate today = LocalDate.now();
+        int startYear = today.getMonthValue() >= 8 ? today.getYear() : today.getYear() - 1;
+        String currentYear = startYear + "/" + (startYear + 1);
+
+        // When & Then
+        assertThrows(ValidationException.class, () -> attendanceArchiveService.archiveAcademicYear(currentYear));
+    }
+
+    @Test
+    void archiveAcademicYear_WithInvalidFormat_ShouldThrowException() {
+        assertThrows(ValidationException.class, () -> attendanceArchiveService.archiveAcademicYear("2023-2024"));
+    }
+
+    private static LocalDate firstHotDate() {
+        LocalDate today = LocalDate.now();
+        return LocalDate.of(today.getMonthValue() >= 8 ? today.getYear() : today.getYear() - 1, 8, 1);
+    }
+}
@@ -0,0 +1,338 @@
+package com.school.sim.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.sim.controller.AttendanceController;
+import com.school.sim.dto.request.BulkAttendanceRequest;
+import com.school.sim.entity.AttendanceStatus;
+import com.school.sim.entity.ClassRoom;
+import com.school.sim.entity.Student;
+import com.school.sim.entity.TeachingActivity;
+import com.school.sim.repository.AttendanceRepository;
+import com.school.sim.repository.StudentRepository;
+import com.school.sim.repository.TeachingActivityRepository;
+import com.school.sim.service.impl.AttendanceIngestServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the group-commit queue and journal of AttendanceIngestService
+ */
+@ExtendWith(MockitoExtension.class)
+class AttendanceIngestServiceTest {
+
+    @Mock
+    private AttendanceRepository attendanceRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private TeachingActivityRepository teachingActivityRepository;
+
+    @Mock
+    private AttendanceStreamService attendanceStreamService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private AttendanceIngestServiceImpl attendanceIngestService;
+
+    @TempDir
+    Path tempDir;
+
+    private Path journal;
+    private final CountDownLatch writerReleased = new CountDownLatch(1);
+    private final List<List<Long>> insertedBatches = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        journal = tempDir.resolve("ingest.journal");
+        ReflectionTestUtils.setField(attendanceIngestService, "enabled", true);
+        ReflectionTestUtils.setField(attendanceIngestService, "queueCapacity", 100);
+        ReflectionTestUtils.setField(attendanceIngestService, "maxBatchSubmissions", 3);
+        ReflectionTestUtils.setField(attendanceIngestService, "lingerMs", 2000L);
+        ReflectionTestUtils.setField(attendanceIngestService, "durable", true);
+        ReflectionTestUtils.setField(attendanceIngestService, "journalPath", journal.toString());
+        ReflectionTestUtils.setField(attendanceIngestService, "statusRetentionMinutes", 60L);
+        ReflectionTestUtils.setField(attendanceIngestService, "statusEvictionIntervalMs", 60000L);
+        authenticateAs("teacher1");
+
+        lenient().when(teachingActivityRepository.existsById(anyLong())).thenReturn(true);
+        lenient().when(studentRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Student> students = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                students.add(Student.builder().id((Long) id).build());
+            }
+            return students;
+        });
+        lenient().when(teachingActivityRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<TeachingActivity> activities = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                activities.add(activity((Long) id));
+            }
+            return activities;
+        });
+        lenient().when(attendanceRepository.findRecordedPairsByTeachingActivityIds(any()))
+                .thenReturn(Collections.emptyList());
+        // Record each batch's student ids as it is written; the row list is not kept
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            List<Long> studentIds = rows.stream().map(row -> (Long) row[1]).collect(Collectors.toList());
+            if (studentIds.contains(99L)) {
+                throw new DataIntegrityViolationException("Cannot add or update a child row: student 99");
+            }
+            insertedBatches.add(studentIds);
+            return new int[rows.size()];
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        writerReleased.countDown();
+        attendanceIngestService.stop();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Timeout(10)
+    void testSubmit_ShouldCommitQueuedSubmissionsTogether() throws Exception {
+        // Given
+        attendanceIngestService.start();
+
+        // When: three submissions arrive within the linger window
+        attendanceIngestService.submit(request(1L, 1L, 2L), "key-1");
+        attendanceIngestService.submit(request(2L, 3L), "key-2");
+        attendanceIngestService.submit(request(3L, 4L), "key-3");
+        awaitStatus("key-3", "COMMITTED");
+
+        // Then: one transaction and one JDBC batch hold all of them
+        assertEquals(Collections.singletonList(Arrays.asList(1L, 2L, 3L, 4L)), insertedBatches);
+        verify(transactionManager, times(1)).commit(any());
+        Map<String, Object> stats = attendanceIngestService.getIngestStatistics();
+        assertEquals(1L, stats.get("groupCommits"));
+        assertEquals(3, stats.get("lastGroupSize"));
+        assertEquals(2, attendanceIngestService.getSubmissionStatus("key-1").get().get("successCount"));
+    }
+
+    @Test
+    @Timeout(10)
+    void testSubmit_ShouldFallBackToSingleCommitsWhenGroupFails() throws Exception {
+        // Given: the second submission references a student the insert rejects
+        attendanceIngestService.start();
+
+        // When
+        attendanceIngestService.submit(request(1L, 1L), "key-1");
+        attendanceIngestService.submit(request(2L, 99L), "key-2");
+        attendanceIngestService.submit(request(3L, 3L), "key-3");
+        awaitStatus("key-3", "COMMITTED");
+
+        // Then: the group is rolled back and retried one by one, failing only the bad submission
+        assertEquals("COMMITTED", attendanceIngestService.getSubmissionStatus("key-1").get().get("status"));
+        Map<String, Object> failed = attendanceIngestService.getSubmissionStatus("key-2").get();
+        assertEquals("FAILED", failed.get("status"));
+        assertEquals(1, failed.get("errorCount"));
+        assertEquals(Arrays.asList(Collections.singletonList(1L), Collections.singletonList(3L)), insertedBatches);
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(1L, attendanceIngestService.getIngestStatistics().get("groupFallbacks"));
+    }
+
+    @Test
+    @Timeout(10)
+    void testStart_ShouldReplayUncommittedSubmissionsAndCompactJournal() throws Exception {
+        // Given: a journal left by a crash, with one submission done, one pending and a torn last line
+        ObjectMapper mapper = new ObjectMapper();
+        Files.write(journal, Arrays.asList(
+                mapper.writeValueAsString(new AttendanceIngestServiceImpl.JournalEntry("SUBMIT", "teacher1", "done", request(1L, 1L))),
+                mapper.writeValueAsString(new AttendanceIngestServiceImpl.JournalEntry("SUBMIT", "teacher1", "pending", request(2L, 2L))),
+                mapper.writeValueAsString(new AttendanceIngestServiceImpl.JournalEntry("DONE", "teacher1", "done", null)),
+                "{\"type\":\"SUBMIT\",\"owner\":\"teach"), StandardCharsets.UTF_8);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            writerReleased.await();
+            return null;
+        });
+
+        ReflectionTestUtils.setField(attendanceIngestService, "lingerMs", 0L);
+
+        // When
+        attendanceIngestService.start();
+
+        // Then: only the pending submission is left in the compacted journal and replayed
+        List<String> compacted = Files.readAllLines(journal, StandardCharsets.UTF_8);
+        assertEquals(1, compacted.size());
+        assertEquals("pending", mapper.readTree(compacted.get(0)).get("key").asText());
+        assertEquals(1, attendanceIngestService.getIngestStatistics().get("replayedOnStartup"));
+        assertFalse(attendanceIngestService.getSubmissionStatus("done").isPresent());
+
+        writerReleased.countDown();
+        awaitStatus("pending", "COMMITTED");
+        assertEquals(Collections.singletonList(Collections.singletonList(2L)), insertedBatches);
+        // Truncated once the completion marker is written and nothing is queued
+        while (Files.size(journal) > 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void testSubmit_ShouldDeduplicateIdempotencyKeysPerUser() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(attendanceIngestService, "lingerMs", 0L);
+        attendanceIngestService.start();
+        Map<String, Object> first = attendanceIngestService.submit(request(1L, 1L, 2L), "key-1");
+        awaitStatus("key-1", "COMMITTED");
+
+        // When: the same user retries, and another user happens to pick the same key
+        Map<String, Object> retry = attendanceIngestService.submit(request(1L, 1L, 2L), "key-1");
+        authenticateAs("teacher2");
+        assertFalse(attendanceIngestService.getSubmissionStatus("key-1").isPresent());
+        Map<String, Object> other = attendanceIngestService.submit(request(2L, 3L), "key-1");
+        awaitStatus("key-1", "COMMITTED");
+
+        // Then
+        assertEquals(false, first.get("duplicate"));
+        assertEquals(true, retry.get("duplicate"));
+        assertEquals("COMMITTED", retry.get("status"));
+        assertEquals(false, other.get("duplicate"));
+        assertEquals(2L, attendanceIngestService.getIngestStatistics().get("acceptedSubmissions"));
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Collections.singletonList(3L)), insertedBatches);
+    }
+
+    @Test
+    @Timeout(10)
+    void testSubmit_ShouldEvictExpiredStatusesWhileTheQueueStaysBusy() throws Exception {
+        // Given: statuses expire at once and the writer never sees an idle poll between submissions
+        ReflectionTestUtils.setField(attendanceIngestService, "lingerMs", 0L);
+        ReflectionTestUtils.setField(attendanceIngestService, "statusRetentionMinutes", 0L);
+        ReflectionTestUtils.setField(attendanceIngestService, "statusEvictionIntervalMs", 0L);
+        attendanceIngestService.start();
+        attendanceIngestService.submit(request(1L, 1L), "key-1");
+        awaitCommitted(1L);
+
+        // When: the writer sweeps after committing key-2, before it takes key-3
+        attendanceIngestService.submit(request(2L, 2L), "key-2");
+        awaitCommitted(2L);
+        attendanceIngestService.submit(request(3L, 3L), "key-3");
+        awaitCommitted(3L);
+
+        // Then
+        assertFalse(attendanceIngestService.getSubmissionStatus("key-1").isPresent());
+    }
+
+    @Test
+    @Timeout(10)
+    void testRecordBulkAttendance_ShouldAnswer503WhenQueueIsFull() throws Exception {
+        // Given: a writer held inside its transaction and room for one queued submission
+        ReflectionTestUtils.setField(attendanceIngestService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(attendanceIngestService, "maxBatchSubmissions", 1);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            writerReleased.await();
+            return null;
+        });
+        attendanceIngestService.start();
+        AttendanceController controller = new AttendanceController();
+        ReflectionTestUtils.setField(controller, "attendanceIngestService", attendanceIngestService);
+
+        attendanceIngestService.submit(request(1L, 1L), "key-1");
+        while (!Integer.valueOf(0).equals(attendanceIngestService.getIngestStatistics().get("queueDepth"))) {
+            Thread.sleep(10);
+        }
+        attendanceIngestService.submit(request(2L, 2L), "key-2");
+
+        // When
+        ResponseEntity<Map<String, Object>> response = controller.recordBulkAttendance(request(3L, 3L), "key-3");
+
+        // Then: rejected without being recorded, so the same key can be retried later
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertFalse(attendanceIngestService.getSubmissionStatus("key-3").isPresent());
+        assertEquals(2, Files.readAllLines(journal, StandardCharsets.UTF_8).size());
+
+        writerReleased.countDown();
+        awaitStatus("key-2", "COMMITTED");
+        assertEquals(HttpStatus.ACCEPTED, controller.recordBulkAttendance(request(3L, 3L), "key-3").getStatusCode());
+    }
+
+    private void awaitStatus(String key, String status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (attendanceIngestService.getSubmissionStatus(key)
+                    .map(submission -> status.equals(submission.get("status"))).orElse(false)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Submission " + key + " did not reach " + status);
+    }
+
+    private void awaitCommitted(long submissions) throws InterruptedException {
+        while ((Long) attendanceIngestService.getIngestStatistics().get("committedSubmissions") < submissions) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void authenticateAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList()));
+    }
+
+    private static BulkAttendanceRequest request(Long teachingActivityId, Long... studentIds) {
+        List<BulkAttendanceRequest.StudentAttendanceRecord> records = Arrays.stream(studentIds)
+                .map(studentId -> new BulkAttendanceRequest.StudentAttendanceRecord(studentId, AttendanceStatus.PRESENT))
+                .collect(Collectors.toList());
+        BulkAttendanceRequest request = new BulkAttendanceRequest(teachingActivityId, records);
+        request.setRecordedBy(7L);
+        return request;
+    }
+
+    private static TeachingActivity activity(Long id) {
+        ClassRoom classRoom = new ClassRoom();
+        classRoom.setId(10L);
+        TeachingActivity activity = new TeachingActivity();
+        activity.setId(id);
+        activity.setClassRoom(classRoom);
+        activity.setDate(LocalDate.of(2024, 9, 2));
+        return activity;
+    }
+}
@@ -0,0 +1,216 @@
+package com.school.sim.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.sim.dto.response.AttendanceDeltaEvent;
+import com.school.sim.entity.AttendanceStatus;
+import com.school.sim.service.impl.AttendanceStreamServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the per-subscriber queues and Redis fan-out of AttendanceStreamService
+ */
+@ExtendWith(MockitoExtension.class)
+class AttendanceStreamServiceTest {
+
+    @Mock
+    private ExecutorService senderExecutor;
+
+    @Mock
+    private RedisTemplate<String, String> stringRedisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+
+    private AttendanceStreamServiceImpl attendanceStreamService;
+
+    @BeforeEach
+    void setUp() {
+        attendanceStreamService = new AttendanceStreamServiceImpl() {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMs) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(attendanceStreamService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(attendanceStreamService, "queueCapacity", 2);
+        ReflectionTestUtils.setField(attendanceStreamService, "emitterTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(attendanceStreamService, "heartbeatSeconds", 3600L);
+        ReflectionTestUtils.setField(attendanceStreamService, "senderThreads", 1);
+        ReflectionTestUtils.setField(attendanceStreamService, "redisEnabled", false);
+        ReflectionTestUtils.setField(attendanceStreamService, "redisChannel", "sim:attendance:deltas");
+        attendanceStreamService.start();
+
+        // Drains run only when the test says so, which lets the queues fill up
+        ReflectionTestUtils.setField(attendanceStreamService, "senderExecutor", senderExecutor);
+        lenient().doAnswer(invocation -> pendingDrains.add(invocation.getArgument(0)))
+                .when(senderExecutor).execute(any(Runnable.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        attendanceStreamService.stop();
+    }
+
+    @Test
+    void testPublish_ShouldDropBacklogAndRequestResyncWhenQueueOverflows() {
+        // Given: a subscriber whose sender has not caught up
+        attendanceStreamService.subscribe(null);
+        RecordingEmitter emitter = emitters.get(0);
+
+        // When: a third event arrives for a queue of two
+        attendanceStreamService.publish(event(1L, "other-node", 1L));
+        attendanceStreamService.publish(event(2L, "other-node", 1L));
+        attendanceStreamService.publish(event(3L, "other-node", 1L));
+        runPendingDrains();
+        attendanceStreamService.publish(event(4L, "other-node", 1L));
+        runPendingDrains();
+
+        // Then: the backlog is replaced by a resync, and later events flow again
+        assertEquals(3, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("event:connected"));
+        assertTrue(emitter.events.get(1).contains("event:resync"));
+        assertTrue(emitter.events.get(2).contains("id:other-node:4"));
+        Map<String, Object> stats = attendanceStreamService.getStreamStatistics();
+        assertEquals(3L, stats.get("droppedEvents"));
+        assertEquals(1L, stats.get("resyncsRequested"));
+    }
+
+    @Test
+    void testSubscribe_ShouldRemoveSubscriberWhenClientDisconnects() {
+        // Given
+        attendanceStreamService.subscribe(null);
+        attendanceStreamService.subscribe(null);
+        RecordingEmitter closed = emitters.get(0);
+        RecordingEmitter broken = emitters.get(1);
+
+        // When: one client completes its stream and the other's connection breaks mid-send
+        closed.completionCallback.run();
+        broken.failSends = true;
+        attendanceStreamService.publish(event(1L, "other-node", 1L));
+        runPendingDrains();
+
+        // Then: neither subscriber is kept or sent to again
+        assertTrue(broken.completed);
+        assertEquals(0, attendanceStreamService.getStreamStatistics().get("subscribers"));
+        attendanceStreamService.publish(event(2L, "other-node", 1L));
+        assertTrue(pendingDrains.isEmpty());
+        assertEquals(1, closed.events.size());
+    }
+
+    @Test
+    void testOnMessage_ShouldDispatchOtherNodesEventsToMatchingSubscribers() throws Exception {
+        // Given: Redis fan-out on, and one subscriber each for class 1 and class 2
+        ReflectionTestUtils.setField(attendanceStreamService, "listenerContainer",
+                mock(RedisMessageListenerContainer.class));
+        ReflectionTestUtils.setField(attendanceStreamService, "stringRedisTemplate", stringRedisTemplate);
+        attendanceStreamService.subscribe(1L);
+        attendanceStreamService.subscribe(2L);
+        String nodeId = (String) attendanceStreamService.getStreamStatistics().get("nodeId");
+
+        // When: an event of this node is echoed back by Redis, and one of another node arrives
+        attendanceStreamService.onMessage(message(event(1L, nodeId, 1L)), null);
+        attendanceStreamService.onMessage(message(event(7L, "other-node", 1L)), null);
+        runPendingDrains();
+
+        // Then: only the other node's event is dispatched, and only to the class 1 subscriber
+        assertEquals(2, emitters.get(0).events.size());
+        assertTrue(emitters.get(0).events.get(1).contains("id:other-node:7"));
+        assertEquals(1, emitters.get(1).events.size());
+        assertEquals(1L, attendanceStreamService.getStreamStatistics().get("remoteEvents"));
+
+        // And: events published here are fanned out to the other nodes
+        AttendanceDeltaEvent local = event(8L, nodeId, 2L);
+        attendanceStreamService.publish(local);
+        verify(stringRedisTemplate).convertAndSend(eq("sim:attendance:deltas"), eq(objectMapper.writeValueAsString(local)));
+    }
+
+    private void runPendingDrains() {
+        while (!pendingDrains.isEmpty()) {
+            pendingDrains.remove(0).run();
+        }
+    }
+
+    private DefaultMessage message(AttendanceDeltaEvent event) throws Exception {
+        return new DefaultMessage("sim:attendance:deltas".getBytes(StandardCharsets.UTF_8),
+                objectMapper.writeValueAsBytes(event));
+    }
+
+    private static AttendanceDeltaEvent event(Long sequence, String originNode, Long classRoomId) {
+        return AttendanceDeltaEvent.builder()
+                .sequence(sequence)
+                .originNode(originNode)
+                .date(LocalDate.of(2024, 7, 15))
+                .classRoomId(classRoomId)
+                .statusDeltas(Collections.singletonMap(AttendanceStatus.PRESENT, 1L))
+                .totalDelta(1L)
+                .occurredAt(LocalDateTime.of(2024, 7, 15, 7, 30))
+                .build();
+    }
+
+    /**
+     * Emitter that keeps what is sent to it instead of writing to a response
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private Runnable completionCallback;
+        private boolean failSends;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failSends) {
+                throw new IOException("Broken pipe");
+            }
+            events.add(builder.build().stream().map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completionCallback = callback;
+        }
+
+        @Override
+        public synchronized void onError(Consumer<Throwable> callback) {
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            completed = true;
+        }
+    }
+}
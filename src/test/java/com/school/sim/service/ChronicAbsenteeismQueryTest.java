@@ -0,0 +1,178 @@
+package com.school.sim.service;
+
+import com.school.sim.entity.*;
+import com.school.sim.repository.AttendanceRepository;
+import com.school.sim.service.impl.ReportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the consecutive absence streaks of the chronic absenteeism query against H2
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ChronicAbsenteeismQueryTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 9, 2);
+    private static final int DAYS = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    private ClassRoom classRoom;
+    private User teacher;
+    private Subject subject;
+    private final List<TeachingActivity> activities = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Department department = entityManager.persist(Department.builder().code("SCI").name("Science").build());
+        Major major = entityManager.persist(new Major("IPA", "Natural Sciences", department));
+        classRoom = entityManager.persist(new ClassRoom("Class 10-1", 10, "10-1", 30, major));
+        subject = entityManager.persist(new Subject("MAT", "Mathematics", null, 2));
+        teacher = entityManager.persist(User.builder()
+                .username("teacher")
+                .email("teacher@school.com")
+                .firstName("Teacher")
+                .lastName("One")
+                .password("password")
+                .userType(UserType.TEACHER)
+                .build());
+
+        Schedule schedule = new Schedule();
+        schedule.setClassRoom(classRoom);
+        schedule.setSubject(subject);
+        schedule.setTeacher(teacher);
+        schedule.setDayOfWeek(DayOfWeek.MONDAY);
+        schedule.setStartTime(LocalTime.of(7, 0));
+        schedule.setEndTime(LocalTime.of(8, 0));
+        schedule.setAcademicYear("2024/2025");
+        schedule.setSemester(1);
+        schedule.setIsActive(true);
+        entityManager.persist(schedule);
+
+        // One session a day on ten consecutive days
+        for (int day = 0; day < DAYS; day++) {
+            TeachingActivity activity = new TeachingActivity();
+            activity.setSchedule(schedule);
+            activity.setSubject(subject);
+            activity.setClassRoom(classRoom);
+            activity.setTeacher(teacher);
+            activity.setDate(FIRST_DAY.plusDays(day));
+            activity.setStartTime(schedule.getStartTime());
+            activity.setEndTime(schedule.getEndTime());
+            activity.setIsCompleted(true);
+            activities.add(entityManager.persist(activity));
+        }
+
+        // Absent on the listed days (1-based), present on the others
+        student("1001", "Ani", 1, 2, 3);
+        student("1002", "Budi", 1, 2, 4, 5);
+        Student citra = student("1003", "Citra", 1, 2, 6);
+        student("1004", "Dewi");
+        student("1005", "Eko", 1, 2, 7);
+
+        // Citra was also absent the day before, in a session that has since been archived
+        entityManager.getEntityManager().createNativeQuery("INSERT INTO attendances_archive " +
+                        "(id, teaching_activity_id, student_id, class_room_id, teacher_id, subject_id, activity_date, " +
+                        "start_time, status, academic_year, created_at, archived_at) " +
+                        "VALUES (9001, 9001, ?, ?, ?, ?, ?, ?, 'ABSENT', '2024/2025', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")
+                .setParameter(1, citra.getId())
+                .setParameter(2, classRoom.getId())
+                .setParameter(3, teacher.getId())
+                .setParameter(4, subject.getId())
+                .setParameter(5, Date.valueOf(FIRST_DAY.minusDays(1)))
+                .setParameter(6, Time.valueOf(LocalTime.of(7, 0)))
+                .executeUpdate();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findChronicAbsenteeismSummaries_ShouldMeasureLongestRunOfConsecutiveAbsences() {
+        List<Object[]> rows = attendanceRepository.findChronicAbsenteeismSummaries(
+                FIRST_DAY.minusDays(1), FIRST_DAY.plusDays(DAYS - 1), 40.0, 3);
+
+        // Budi is at the 40% threshold with a run of two broken by day 3; Citra's archived absence
+        // extends her run to three; Ani's run of three is exactly the minimum; Eko's run of two is not enough
+        assertEquals(Arrays.asList("Budi", "Citra", "Ani"),
+                rows.stream().map(row -> (String) row[2]).collect(Collectors.toList()));
+        assertSummary(rows.get(0), 10, 4, 2);
+        assertSummary(rows.get(1), 11, 4, 3);
+        assertSummary(rows.get(2), 10, 3, 3);
+    }
+
+    @Test
+    void findChronicAbsenteeismSummaries_ShouldOnlyCountSessionsInRange() {
+        // Without the archived day Citra's longest run is two
+        List<Object[]> rows = attendanceRepository.findChronicAbsenteeismSummaries(
+                FIRST_DAY, FIRST_DAY.plusDays(DAYS - 1), 40.0, 3);
+
+        assertEquals(Arrays.asList("Budi", "Ani"),
+                rows.stream().map(row -> (String) row[2]).collect(Collectors.toList()));
+    }
+
+    @Test
+    void generateChronicAbsenteeismReport_ShouldFlagStudentsByRateOrStreak() {
+        ReportServiceImpl reportService = new ReportServiceImpl();
+        ReflectionTestUtils.setField(reportService, "attendanceRepository", attendanceRepository);
+        ReflectionTestUtils.setField(reportService, "chronicMinConsecutiveAbsences", 3);
+
+        Map<String, Object> report = reportService.generateChronicAbsenteeismReport(
+                FIRST_DAY.minusDays(1), FIRST_DAY.plusDays(DAYS - 1), 40.0);
+
+        assertEquals(3, report.get("totalStudents"));
+        assertEquals(2L, report.get("studentsFlaggedByStreakOnly"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> students = (List<Map<String, Object>>) report.get("students");
+        assertEquals("Budi", students.get(0).get("name"));
+        assertEquals(true, students.get(0).get("exceedsThreshold"));
+        assertEquals(new BigDecimal("40.00"), students.get(0).get("absenceRate"));
+        assertEquals(2L, students.get(0).get("longestAbsenceStreak"));
+        assertEquals(false, students.get(2).get("exceedsThreshold"));
+        assertEquals(3L, students.get(2).get("longestAbsenceStreak"));
+    }
+
+    private Student student(String nis, String name, int... absentDays) {
+        Student student = entityManager.persist(Student.builder()
+                .nis(nis)
+                .namaLengkap(name)
+                .classRoom(classRoom)
+                .build());
+        for (int day = 1; day <= DAYS; day++) {
+            final int current = day;
+            boolean absent = Arrays.stream(absentDays).anyMatch(absentDay -> absentDay == current);
+            entityManager.persist(new Attendance(activities.get(day - 1), student,
+                    absent ? AttendanceStatus.ABSENT : AttendanceStatus.PRESENT, null, teacher));
+        }
+        return student;
+    }
+
+    private static void assertSummary(Object[] row, long totalSessions, long absences, long longestRun) {
+        assertEquals(totalSessions, ((Number) row[4]).longValue());
+        assertEquals(absences, ((Number) row[5]).longValue());
+        assertEquals(longestRun, ((Number) row[6]).longValue());
+    }
+}
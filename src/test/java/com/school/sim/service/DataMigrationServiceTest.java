@@ -0,0 +1,254 @@
+package com.school.sim.service;
+
+import com.school.sim.service.impl.DataMigrationServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the streaming table migration of DataMigrationService
+ */
+@ExtendWith(MockitoExtension.class)
+class DataMigrationServiceTest {
+
+    @Mock
+    private JdbcTemplate springBootJdbcTemplate;
+
+    @Mock
+    private JdbcTemplate laravelJdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DataMigrationServiceImpl dataMigrationService;
+
+    private final List<String> extractionQueries = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, Runnable> extractionHooks = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dataMigrationService, "fetchSize", 1000);
+        ReflectionTestUtils.setField(dataMigrationService, "batchSize", 1000);
+        ReflectionTestUtils.setField(dataMigrationService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(dataMigrationService, "maxParallelTables", 4);
+        dataMigrationService.start();
+        ReflectionTestUtils.setField(dataMigrationService, "laravelJdbcTemplate", laravelJdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataMigrationService.stop();
+    }
+
+    @Test
+    void testExecuteCompleteMigration_ShouldStreamRowsIntoCommittedBatches() throws Exception {
+        // Given: five Laravel users, every other table empty, and batches of two rows
+        givenLaravelUsers(5);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        when(springBootJdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            batchSizes.add(rows.size());
+            int[] counts = new int[rows.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        Map<String, Object> config = new HashMap<>();
+        config.put("batchSize", 2);
+
+        // When
+        Map<String, Object> result = dataMigrationService.executeCompleteMigration(config);
+
+        // Then: the users stream is cut into batches, each committed in a transaction of its own
+        assertEquals("SUCCESS", result.get("status"));
+        Map<?, ?> loadResult = (Map<?, ?>) result.get("loadResult");
+        assertEquals(5L, loadResult.get("totalRecords"));
+        assertEquals(5L, ((Map<?, ?>) loadResult.get("recordCounts")).get("users"));
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        verify(transactionManager, times(3)).commit(any());
+        verify(springBootJdbcTemplate, times(3)).batchUpdate(startsWith("INSERT INTO users ("), anyList());
+        assertTrue(extractionQueries.contains("SELECT * FROM users"));
+        assertTrue(extractionQueries.contains("SELECT * FROM classes"));
+    }
+
+    @Test
+    @Timeout(10)
+    void testExecuteCompleteMigration_ShouldStopExtractionWhenLoadingFails() throws Exception {
+        // Given: far more users than the queue holds, and an insert that fails
+        AtomicLong extracted = givenLaravelUsers(100_000);
+        when(springBootJdbcTemplate.batchUpdate(anyString(), anyList()))
+            .thenThrow(new DataIntegrityViolationException("Duplicate entry 'admin'"));
+
+        // When
+        Map<String, Object> result = dataMigrationService.executeCompleteMigration(new HashMap<>());
+
+        // Then: the table fails without the extraction reading the rest of it
+        Map<?, ?> loadResult = (Map<?, ?>) result.get("loadResult");
+        assertEquals("PARTIAL_SUCCESS", loadResult.get("status"));
+        assertEquals(1, ((List<?>) loadResult.get("errors")).size());
+        assertTrue(((List<?>) loadResult.get("errors")).get(0).toString().startsWith("Table users:"));
+        assertTrue(extracted.get() < 100_000, "extracted " + extracted.get() + " rows");
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @Timeout(10)
+    void testExecuteCompleteMigration_ShouldRunIndependentTablesConcurrently() throws Exception {
+        // Given: no foreign keys, and the subjects and classes extractions each waiting for the other to start
+        givenLaravelUsers(0);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        AtomicInteger overlapped = new AtomicInteger();
+        Runnable awaitOther = () -> {
+            bothStarted.countDown();
+            try {
+                if (bothStarted.await(5, TimeUnit.SECONDS)) {
+                    overlapped.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        extractionHooks.put("SELECT * FROM subjects", awaitOther);
+        extractionHooks.put("SELECT * FROM classes", awaitOther);
+
+        // When
+        Map<String, Object> result = dataMigrationService.executeCompleteMigration(new HashMap<>());
+
+        // Then: neither table waited for the other to finish
+        assertEquals("SUCCESS", result.get("status"));
+        assertEquals(2, overlapped.get());
+    }
+
+    @Test
+    void testExecuteCompleteMigration_ShouldSkipTablesDependingOnFailedTable() throws Exception {
+        // Given: students referencing users and class_rooms, attendance referencing students, and users failing
+        Map<String, List<String>> foreignKeys = new HashMap<>();
+        foreignKeys.put("students", List.of("users", "class_rooms"));
+        foreignKeys.put("attendance", List.of("students"));
+        givenTargetForeignKeys(foreignKeys);
+        givenLaravelUsers(5);
+        when(springBootJdbcTemplate.batchUpdate(startsWith("INSERT INTO users ("), anyList()))
+            .thenThrow(new DataIntegrityViolationException("Duplicate entry 'admin'"));
+
+        // When
+        Map<String, Object> result = dataMigrationService.executeCompleteMigration(new HashMap<>());
+
+        // Then: the dependents of users are skipped without being read, the other tables still migrate
+        Map<?, ?> loadResult = (Map<?, ?>) result.get("loadResult");
+        assertEquals("PARTIAL_SUCCESS", loadResult.get("status"));
+        assertEquals(3, ((List<?>) loadResult.get("errors")).size());
+        assertFalse(extractionQueries.contains("SELECT * FROM students"));
+        assertFalse(extractionQueries.contains("SELECT * FROM attendances"));
+
+        Map<String, Object> progress = dataMigrationService.getMigrationProgress((String) result.get("migrationId"));
+        Map<?, ?> tables = (Map<?, ?>) progress.get("tables");
+        assertEquals("FAILED", ((Map<?, ?>) tables.get("users")).get("status"));
+        assertEquals(5L, ((Map<?, ?>) tables.get("users")).get("recordsExtracted"));
+        assertEquals("SKIPPED", ((Map<?, ?>) tables.get("students")).get("status"));
+        assertEquals("SKIPPED", ((Map<?, ?>) tables.get("attendance")).get("status"));
+        assertEquals(List.of("class_rooms", "users"), ((Map<?, ?>) tables.get("students")).get("dependsOn"));
+        assertEquals("COMPLETED", ((Map<?, ?>) tables.get("class_rooms")).get("status"));
+        assertEquals("COMPLETED", ((Map<?, ?>) tables.get("subjects")).get("status"));
+    }
+
+    /**
+     * Report the given foreign keys, table to referenced tables, from the target schema metadata
+     */
+    private void givenTargetForeignKeys(Map<String, List<String>> foreignKeys) throws Exception {
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getImportedKeys(any(), any(), anyString())).thenAnswer(invocation ->
+            importedKeys(foreignKeys.getOrDefault(invocation.<String>getArgument(2), Collections.emptyList())));
+        doAnswer(invocation -> ((ConnectionCallback<?>) invocation.getArgument(0)).doInConnection(connection))
+            .when(springBootJdbcTemplate).execute(any(ConnectionCallback.class));
+    }
+
+    private ResultSet importedKeys(List<String> referencedTables) throws SQLException {
+        ResultSet keys = mock(ResultSet.class);
+        AtomicInteger row = new AtomicInteger(-1);
+        when(keys.next()).thenAnswer(invocation -> row.incrementAndGet() < referencedTables.size());
+        if (!referencedTables.isEmpty()) {
+            when(keys.getString("PKTABLE_NAME")).thenAnswer(invocation -> referencedTables.get(row.get()));
+        }
+        return keys;
+    }
+
+    /**
+     * Serve count rows (id, name) from the Laravel users table and nothing from the other tables
+     */
+    private AtomicLong givenLaravelUsers(int count) throws Exception {
+        AtomicLong extracted = new AtomicLong();
+        when(laravelJdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        doAnswer(invocation -> {
+            Connection connection = mock(Connection.class);
+            PreparedStatement statement = mock(PreparedStatement.class);
+            when(connection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY),
+                eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(statement);
+            ((PreparedStatementCreator) invocation.getArgument(0)).createPreparedStatement(connection);
+            verify(statement).setFetchSize(1000);
+
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            verify(connection).prepareStatement(sql.capture(), anyInt(), anyInt());
+            extractionQueries.add(sql.getValue());
+            Runnable hook = extractionHooks.get(sql.getValue());
+            if (hook != null) {
+                hook.run();
+            }
+            if (!sql.getValue().equals("SELECT * FROM users")) {
+                return null;
+            }
+
+            ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+            when(metaData.getColumnCount()).thenReturn(2);
+            when(metaData.getColumnLabel(1)).thenReturn("id");
+            when(metaData.getColumnLabel(2)).thenReturn("name");
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getMetaData()).thenReturn(metaData);
+            when(rs.getObject(1)).thenAnswer(row -> extracted.get() + 1);
+            when(rs.getObject(2)).thenAnswer(row -> "user" + (extracted.get() + 1));
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < count; i++) {
+                handler.processRow(rs);
+                extracted.incrementAndGet();
+            }
+            return null;
+        }).when(laravelJdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        return extracted;
+    }
+}
@@ -0,0 +1,196 @@
+package com.school.sim.service;
+
+import com.school.sim.exception.ResourceNotFoundException;
+import com.school.sim.repository.ClassRoomRepository;
+import com.school.sim.service.impl.ExcelServiceImpl;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ExcelService student exports and imports
+ */
+@ExtendWith(MockitoExtension.class)
+class ExcelServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ClassRoomRepository classRoomRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ExcelServiceImpl excelService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(excelService, "exportFetchSize", 500);
+        ReflectionTestUtils.setField(excelService, "excelRowWindow", 10);
+        ReflectionTestUtils.setField(excelService, "importChunkSize", 2);
+        ReflectionTestUtils.setField(excelService, "importBatchSize", 500);
+        ReflectionTestUtils.setField(excelService, "importMaxThreads", 2);
+        ReflectionTestUtils.setField(excelService, "importMaxErrors", 100);
+        excelService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        excelService.stop();
+    }
+
+    @Test
+    void testExportStudentsByClassRoomToExcel_ShouldWriteCursorRowsWithOneQuery() throws Exception {
+        // Given
+        when(classRoomRepository.existsById(1L)).thenReturn(true);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(anyInt())).thenAnswer(invocation -> "value" + invocation.getArgument(0));
+        when(rs.getString(7)).thenReturn("PEREMPUAN");
+        when(rs.getString(14)).thenReturn("ACTIVE");
+        when(rs.getDate(6)).thenReturn(Date.valueOf("2008-05-01"));
+        when(rs.getInt(13)).thenReturn(2023);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < 50; i++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // When
+        ByteArrayOutputStream outputStream = excelService.exportStudentsByClassRoomToExcel(1L);
+
+        // Then
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(50, sheet.getLastRowNum());
+            assertEquals("NIS", sheet.getRow(0).getCell(0).getStringCellValue());
+            Row row = sheet.getRow(50);
+            assertEquals("value1", row.getCell(0).getStringCellValue());
+            assertEquals("2008-05-01", row.getCell(5).getStringCellValue());
+            assertEquals("Perempuan", row.getCell(6).getStringCellValue());
+            assertEquals(2023.0, row.getCell(12).getNumericCellValue());
+            assertEquals("Active", row.getCell(13).getStringCellValue());
+        }
+        verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void testExportStudentsByClassRoomToExcel_UnknownClassRoom_ShouldThrow() {
+        when(classRoomRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> excelService.exportStudentsByClassRoomToExcel(99L));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testImportStudentsFromExcel_ShouldBatchInsertValidRowsAndReportRowErrors() throws Exception {
+        // Given: one valid row, a NIS already in the database, a NIS repeated in the file and an unknown class
+        MockMultipartFile file = workbook(Arrays.asList("NIS", "Nama Lengkap", "Kelas", "Tahun Masuk", "Jenis Kelamin"),
+                Arrays.asList("1001", "Siswa Satu", "X RPL 1", "2023", "Perempuan"),
+                Arrays.asList("1002", "Siswa Dua", "X RPL 1", "2023", "LAKI_LAKI"),
+                Arrays.asList("1001", "Siswa Tiga", "X RPL 1", "2023", "Laki-laki"),
+                Arrays.asList("1004", "Siswa Empat", "XII TKJ 9", "2023", "Laki-laki"));
+        ResultSet classRoom = mock(ResultSet.class);
+        when(classRoom.getLong(1)).thenReturn(7L);
+        when(classRoom.getString(2)).thenReturn("X RPL 1");
+        when(classRoom.getString(3)).thenReturn("XRPL1");
+        doAnswer(invocation -> {
+            ((RowCallbackHandler) invocation.getArgument(1)).processRow(classRoom);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        // Chunks are validated in parallel, so answer by argument rather than call order
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), (Object[]) any())).thenAnswer(invocation ->
+                Arrays.asList(invocation.getArguments()).contains("1002")
+                        ? Collections.singletonList("1002") : Collections.emptyList());
+        // The importer reuses its batch list, so copy the rows as each batch is sent
+        List<Object[]> inserted = new ArrayList<>();
+        doAnswer(invocation -> {
+            inserted.addAll(invocation.<List<Object[]>>getArgument(1));
+            return new int[0];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList(), any(int[].class));
+
+        // When
+        ExcelService.ImportResult result = excelService.importStudentsFromExcel(file);
+
+        // Then
+        assertEquals(4, result.getTotalRows());
+        assertEquals(1, result.getSuccessfulImports());
+        assertEquals(3, result.getFailedImports());
+        assertEquals(Arrays.asList("NIS already exists", "Duplicate NIS, already used on row 2",
+                "Class room not found"), result.getErrors().stream()
+                .map(ExcelService.ImportError::getErrorMessage).collect(java.util.stream.Collectors.toList()));
+        assertEquals(3, result.getErrors().get(0).getRowNumber());
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList(), any(int[].class));
+        assertEquals(1, inserted.size());
+        Object[] student = inserted.get(0);
+        assertEquals("1001", student[0]);
+        assertEquals(7L, student[2]);
+        assertEquals("PEREMPUAN", student[5]);
+        assertEquals(2023, student[11]);
+        assertEquals("ACTIVE", student[12]);
+        // Two chunks of two rows, one NIS query each
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(String.class), (Object[]) any());
+    }
+
+    @Test
+    void testValidateExcelFile_MissingRequiredColumn_ShouldBeInvalid() throws Exception {
+        MockMultipartFile file = workbook(Arrays.asList("NIS", "Nama Lengkap"),
+                Arrays.asList("1001", "Siswa Satu"));
+
+        ExcelService.ValidationResult result = excelService.validateExcelFile(file);
+
+        assertFalse(result.isValid());
+        assertEquals(Collections.singletonList("Missing required columns: Tahun Masuk"), result.getErrors());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), any(int[].class));
+    }
+
+    @SafeVarargs
+    private static MockMultipartFile workbook(List<String>... rows) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Students");
+            for (int r = 0; r < rows.length; r++) {
+                Row row = sheet.createRow(r);
+                for (int c = 0; c < rows[r].size(); c++) {
+                    row.createCell(c).setCellValue(rows[r].get(c));
+                }
+            }
+            workbook.write(out);
+            return new MockMultipartFile("file", "students.xlsx",
+                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", out.toByteArray());
+        }
+    }
+}
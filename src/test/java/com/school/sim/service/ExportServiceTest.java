@@ -0,0 +1,373 @@
+package com.school.sim.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.sim.exception.ExportRejectedException;
+import com.school.sim.exception.ValidationException;
+import com.school.sim.service.impl.ExportServiceImpl;
+import com.school.sim.util.ContentCoding;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ExportService batch exports
+ */
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private AcademicReportService academicReportService;
+
+    @InjectMocks
+    private ExportServiceImpl exportService;
+
+    @TempDir
+    Path spoolDirectory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(exportService, "excelRowWindow", 10);
+        ReflectionTestUtils.setField(exportService, "csvFetchSize", 500);
+        ReflectionTestUtils.setField(exportService, "spoolDirectoryName", spoolDirectory.toString());
+        ReflectionTestUtils.setField(exportService, "spoolTtlMinutes", 60L);
+        ReflectionTestUtils.setField(exportService, "spoolMaxBytes", 1L << 30);
+        ReflectionTestUtils.setField(exportService, "batchMaxThreads", 2);
+        ReflectionTestUtils.setField(exportService, "batchMaxParts", 100);
+        ReflectionTestUtils.setField(exportService, "compressionCodings", "gzip,deflate");
+        ReflectionTestUtils.setField(exportService, "compressionLevel", 1);
+        ReflectionTestUtils.setField(exportService, "maxConcurrentExports", 4);
+        ReflectionTestUtils.setField(exportService, "maxConcurrentExportsPerUser", 2);
+        ReflectionTestUtils.setField(exportService, "maxQueuedExports", 50);
+        ReflectionTestUtils.setField(exportService, "maxQueuedExportsPerUser", 5);
+        ReflectionTestUtils.setField(exportService, "maxEstimatedExportBytes", 1L << 30);
+        exportService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportService.stop();
+    }
+
+    @Test
+    void testStreamBatchExport_ShouldWriteOnePartPerClassAndListFailedParts() throws Exception {
+        // Given: two active classes, a roster for every class, one in-memory report and one broken report
+        ResultSet classRoom = mock(ResultSet.class);
+        when(classRoom.getLong("id")).thenReturn(1L, 2L);
+        when(classRoom.getString("class_code")).thenReturn("XRPL1", (String) null);
+        when(classRoom.getString("name")).thenReturn("X TKJ 2");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(classRoom);
+            handler.processRow(classRoom);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        ResultSet student = mock(ResultSet.class);
+        when(student.getObject(anyInt())).thenReturn("value");
+        doAnswer(invocation -> {
+            ((RowCallbackHandler) invocation.getArgument(1)).processRow(student);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        Map<String, Object> roster = new HashMap<>();
+        roster.put("reportType", "roster");
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("exportType", "summary");
+        summary.put("format", "json");
+        summary.put("data", Collections.singletonMap("total", 2));
+        Map<String, Object> broken = new HashMap<>();
+        broken.put("exportType", "broken");
+        broken.put("format", "csv");
+        broken.put("data", Collections.singletonMap("total", 2));
+
+        // When
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportService.streamBatchExport(Arrays.asList(roster, summary, broken), outputStream);
+
+        // Then
+        Map<String, byte[]> files = exportService.extractZipArchive(outputStream.toByteArray());
+        assertEquals(new TreeSet<>(Arrays.asList("roster/XRPL1.csv", "roster/X_TKJ_2.csv", "summary.json",
+                "errors.txt")), new TreeSet<>(files.keySet()));
+        assertTrue(new String(files.get("roster/XRPL1.csv"), StandardCharsets.UTF_8).startsWith("nis,student_name"));
+        assertTrue(new String(files.get("errors.txt"), StandardCharsets.UTF_8).startsWith("broken.csv: "));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+        verify(jdbcTemplate, times(2)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        try (Stream<Path> spooled = Files.list(spoolDirectory)) {
+            assertEquals(0, spooled.count());
+        }
+    }
+
+    @Test
+    void testScheduleBatchExport_ShouldTrackEveryPart() throws Exception {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("exportType", "summary");
+        summary.put("format", "json");
+        summary.put("data", Collections.singletonMap("total", 2));
+
+        String batchId = exportService.scheduleBatchExport(Arrays.asList(summary, summary), null);
+        byte[] zip = exportService.getExportJobResult(batchId);
+
+        Map<String, Object> status = exportService.getBatchExportStatus(batchId);
+        assertEquals("COMPLETED", status.get("status"));
+        assertEquals(2, status.get("completedParts"));
+        assertEquals(0, status.get("failedParts"));
+        Set<String> names = exportService.extractZipArchive(zip).keySet();
+        assertEquals(new TreeSet<>(Arrays.asList("summary.json", "summary-2.json")), new TreeSet<>(names));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testScheduleBatchExport_InvalidRequests_ShouldThrow() {
+        Map<String, Object> unknown = new HashMap<>();
+        unknown.put("reportType", "payroll");
+        List<Map<String, Object>> requests = Collections.singletonList(unknown);
+
+        assertThrows(ValidationException.class, () -> exportService.scheduleBatchExport(requests, null));
+        assertThrows(ValidationException.class, () -> exportService.scheduleBatchExport(Collections.emptyList(), null));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testScheduleBatchExport_ShouldEstimateReportPartsFromRowCounts() throws Exception {
+        // Given: two active classes with 30 and 20 students
+        ResultSet classRoom = mock(ResultSet.class);
+        when(classRoom.getLong("id")).thenReturn(1L, 2L, 1L, 2L);
+        when(classRoom.getString("class_code")).thenReturn("XRPL1", "XTKJ2", "XRPL1", "XTKJ2");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(classRoom);
+            handler.processRow(classRoom);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(1L))).thenReturn(30L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(2L))).thenReturn(20L);
+        List<Map<String, Object>> requests = Collections.singletonList(Collections.singletonMap("reportType", "roster"));
+
+        // When
+        String batchId = exportService.scheduleBatchExport(requests, null);
+        exportService.getExportJobResult(batchId);
+
+        // Then: 50 rows at the roster row width
+        Map<String, Object> status = exportService.getBatchExportStatus(batchId);
+        assertEquals(50L, status.get("estimatedRows"));
+        assertEquals(5500L, status.get("estimatedBytes"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> parts = (List<Map<String, Object>>) status.get("parts");
+        assertEquals(3300L, parts.get(0).get("estimatedBytes"));
+
+        ReflectionTestUtils.setField(exportService, "maxEstimatedExportBytes", 5000L);
+        assertThrows(ValidationException.class, () -> exportService.scheduleBatchExport(requests, null));
+    }
+
+    @Test
+    void testAcquireExportPermit_ShouldShareTheAsyncLimits() throws Exception {
+        // Given: both of the user's slots held by streaming exports
+        ExportService.ExportPermit first = exportService.acquireExportPermit("attendance");
+        ExportService.ExportPermit second = exportService.acquireExportPermit("grades");
+
+        // When
+        ExportRejectedException rejected = assertThrows(ExportRejectedException.class,
+                () -> exportService.acquireExportPermit("roster"));
+        Map<String, Object> data = new HashMap<>();
+        data.put("data", Collections.singletonList(Collections.singletonMap("nis", "2024001")));
+        String queued = exportService.startAsyncExport("roster", "csv", data, new HashMap<>());
+
+        // Then: the async export waits for a streaming export to finish
+        assertTrue(rejected.isUserLimit());
+        assertEquals("QUEUED", exportService.getExportJobStatus(queued).get("status"));
+        assertEquals(2, exportService.getAdmissionStatistics().get("runningExports"));
+
+        ReflectionTestUtils.setField(exportService, "maxConcurrentExports", 2);
+        ReflectionTestUtils.setField(exportService, "maxConcurrentExportsPerUser", 3);
+        ExportRejectedException busy = assertThrows(ExportRejectedException.class,
+                () -> exportService.acquireExportPermit("roster"));
+        assertFalse(busy.isUserLimit());
+        ReflectionTestUtils.setField(exportService, "maxConcurrentExports", 4);
+        ReflectionTestUtils.setField(exportService, "maxConcurrentExportsPerUser", 2);
+
+        first.close();
+        first.close();
+        exportService.getExportJobResult(queued);
+        assertEquals("COMPLETED", exportService.getExportJobStatus(queued).get("status"));
+        second.close();
+    }
+
+    @Test
+    void testStartAsyncExport_CsvResult_ShouldBeSpooledGzipped() throws Exception {
+        Map<String, Object> row = new HashMap<>();
+        row.put("nis", "2024001");
+        Map<String, Object> data = new HashMap<>();
+        data.put("data", Collections.nCopies(500, row));
+        Map<String, Object> options = new HashMap<>();
+        options.put("headers", Collections.singletonList("nis"));
+
+        String jobId = exportService.startAsyncExport("roster", "csv", data, options);
+        byte[] csv = exportService.getExportJobResult(jobId);
+
+        assertTrue(new String(csv, StandardCharsets.UTF_8).startsWith("nis\n2024001\n"));
+        assertEquals(ContentCoding.GZIP, exportService.getExportJobEncoding(jobId));
+        assertEquals("gzip", exportService.getExportJobStatus(jobId).get("contentEncoding"));
+        Path file = exportService.getExportJobFile(jobId);
+        assertTrue(file.getFileName().toString().endsWith(".csv.gz"));
+        assertTrue(Files.size(file) < csv.length / 10);
+        assertEquals(ContentCoding.IDENTITY, exportService.negotiateContentCoding("gzip", "excel"));
+        assertEquals(ContentCoding.DEFLATE, exportService.negotiateContentCoding("deflate", "csv"));
+        assertNull(exportService.negotiateContentCoding("gzip, identity;q=0", "excel"));
+    }
+
+    @Test
+    void testConvertFormat_ShouldConvertBetweenCsvAndJson() {
+        byte[] csv = "nis,name\n2024001,\"Santoso, Budi\"\r\n2024002,\"Ani \"\"A\"\"\"\n"
+                .getBytes(StandardCharsets.UTF_8);
+
+        byte[] json = exportService.convertFormat(csv, "csv", "json");
+        byte[] roundTrip = exportService.convertFormat(json, "json", "csv");
+
+        assertEquals(new String(csv, StandardCharsets.UTF_8).replace("\r\n", "\n"),
+                new String(roundTrip, StandardCharsets.UTF_8));
+        assertThrows(ValidationException.class, () -> exportService.convertFormat(csv, "csv", "pdf"));
+        assertThrows(ValidationException.class, () -> exportService.compressExportData(csv, "br"));
+    }
+
+    @Test
+    void testStartAsyncExport_ShouldQueuePastTheUserCapAndRejectPastTheUserQueue() throws Exception {
+        exportService.stop();
+        ReflectionTestUtils.setField(exportService, "maxConcurrentExportsPerUser", 1);
+        ReflectionTestUtils.setField(exportService, "maxQueuedExportsPerUser", 1);
+        exportService.start();
+
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, Object> row = Collections.singletonMap("nis", "2024001");
+        List<Map<String, Object>> blockingRows = new AbstractList<Map<String, Object>>() {
+            @Override
+            public Map<String, Object> get(int index) {
+                return row;
+            }
+
+            @Override
+            public int size() {
+                return 1;
+            }
+
+            @Override
+            public Iterator<Map<String, Object>> iterator() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.iterator();
+            }
+        };
+        Map<String, Object> data = new HashMap<>();
+        data.put("data", blockingRows);
+        Map<String, Object> options = new HashMap<>();
+
+        String running = exportService.startAsyncExport("roster", "csv", data, options);
+        String queued = exportService.startAsyncExport("roster", "csv", data, options);
+
+        assertEquals(1, exportService.getExportJobStatus(queued).get("queuePosition"));
+        ExportRejectedException rejected = assertThrows(ExportRejectedException.class,
+                () -> exportService.startAsyncExport("roster", "csv", data, options));
+        assertTrue(rejected.isUserLimit());
+        Map<String, Object> statistics = exportService.getAdmissionStatistics();
+        assertEquals(1, statistics.get("runningExports"));
+        assertEquals(1, statistics.get("queueDepth"));
+        assertEquals(1L, statistics.get("rejectedExports"));
+
+        release.countDown();
+        exportService.getExportJobResult(queued);
+        assertEquals("COMPLETED", exportService.getExportJobStatus(running).get("status"));
+        assertEquals("COMPLETED", exportService.getExportJobStatus(queued).get("status"));
+        assertEquals(0, exportService.getAdmissionStatistics().get("queueDepth"));
+    }
+
+    @Test
+    void testEstimateExportSize_ShouldScaleSampledRowWidth() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("nis", "2024001");
+        row.put("name", "Budi");
+        Map<String, Object> data = new HashMap<>();
+        data.put("data", Collections.nCopies(1000, row));
+
+        Map<String, Object> csv = exportService.estimateExportSize(data, "csv");
+        Map<String, Object> json = exportService.estimateExportSize(data, "json");
+
+        assertEquals(1000L, csv.get("estimatedRows"));
+        // "2024001,Budi\n"
+        assertEquals(13000L, csv.get("estimatedBytes"));
+        // {"nis":"2024001","name":"Budi"},
+        assertEquals(32000L, json.get("estimatedBytes"));
+        assertEquals(100, csv.get("sampledRows"));
+    }
+
+    @Test
+    void testExportToPDF_ShouldRenderTranscriptsAndRejectOtherReports() throws Exception {
+        // Given
+        ByteArrayOutputStream transcript = new ByteArrayOutputStream();
+        transcript.write("%PDF-1.4 student".getBytes(StandardCharsets.US_ASCII));
+        when(academicReportService.exportTranscriptToPDF(5L, "2024/2025", 1)).thenReturn(transcript);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(4).write("%PDF-1.4 class".getBytes(StandardCharsets.US_ASCII));
+            return null;
+        }).when(academicReportService).streamClassTranscripts(eq(3L), isNull(), isNull(), eq(false), any());
+        Map<String, Object> student = new HashMap<>();
+        student.put("studentId", 5);
+        student.put("academicYear", "2024/2025");
+        student.put("semester", "1");
+
+        // When
+        byte[] studentPdf = exportService.exportToPDF("transcript", student, new HashMap<>());
+        byte[] classPdf = exportService.exportToPDF("class_transcripts",
+                Collections.singletonMap("classRoomId", 3L), new HashMap<>());
+
+        // Then
+        assertEquals("%PDF-1.4 student", new String(studentPdf, StandardCharsets.US_ASCII));
+        assertEquals("%PDF-1.4 class", new String(classPdf, StandardCharsets.US_ASCII));
+        assertThrows(ValidationException.class,
+                () -> exportService.exportToPDF("attendance", new HashMap<>(), new HashMap<>()));
+        assertThrows(ValidationException.class,
+                () -> exportService.exportToPDF("transcript", new HashMap<>(), new HashMap<>()));
+    }
+}
@@ -1,25 +1,46 @@
 package com.school.sim.service;
 
+import com.school.sim.dto.request.BulkScheduleRequest;
+import com.school.sim.dto.request.CloneScheduleRequest;
 import com.school.sim.dto.request.CreateScheduleRequest;
+import com.school.sim.dto.response.BulkScheduleResult;
 import com.school.sim.dto.response.ScheduleResponse;
 import com.school.sim.entity.*;
+import com.school.sim.exception.ValidationException;
 import com.school.sim.repository.*;
 
 import com.school.sim.service.impl.ScheduleServiceImpl;
+import com.school.sim.util.ScheduleSlot;
+import com.school.sim.util.TimetableIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -40,6 +61,15 @@ class ScheduleServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TimetableIndexService timetableIndexService;
+
+    @Mock
+    private ActivityCalendarService activityCalendarService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private ScheduleServiceImpl scheduleService;
 
@@ -120,6 +150,172 @@ class ScheduleServiceTest {
         assertTrue(response.getIsActive());
 
         verify(scheduleRepository).save(any(Schedule.class));
+        verify(timetableIndexService).scheduleSaved(testSchedule);
+    }
+
+    @Test
+    void testCheckTeacherAvailability_ShouldAnswerFromIndex() {
+        // Given
+        ScheduleSlot slot = new ScheduleSlot(1L, "2024/2025", 1, DayOfWeek.MONDAY, LocalTime.of(8, 0),
+                LocalTime.of(9, 30), 1L, "John", "Doe", 1L, "Class 10A", 1L, true);
+        when(timetableIndexService.getIndex("2024/2025", 1))
+                .thenReturn(TimetableIndex.build("2024/2025", 1, Collections.singletonList(slot)));
+
+        // When
+        Map<String, Object> result = scheduleService.checkTeacherAvailability(1L, DayOfWeek.MONDAY,
+                LocalTime.of(9, 30), LocalTime.of(10, 30), "2024/2025", 1);
+
+        // Then
+        assertTrue((Boolean) result.get("isAvailable"));
+        assertEquals("John Doe", result.get("teacherName"));
+        verifyNoInteractions(userRepository, scheduleRepository);
+    }
+
+    @Test
+    void testGetTeacherFreePeriods_ShouldReturnGapsWithinSchoolHours() {
+        // Given
+        ScheduleSlot morning = new ScheduleSlot(1L, "2024/2025", 1, DayOfWeek.MONDAY, LocalTime.of(8, 0),
+                LocalTime.of(9, 30), 1L, "John", "Doe", 1L, "Class 10A", 1L, true);
+        ScheduleSlot afternoon = new ScheduleSlot(2L, "2024/2025", 1, DayOfWeek.MONDAY, LocalTime.of(13, 0),
+                LocalTime.of(17, 0), 1L, "John", "Doe", 2L, "Class 10B", 1L, true);
+        when(timetableIndexService.getIndex("2024/2025", 1))
+                .thenReturn(TimetableIndex.build("2024/2025", 1, List.of(morning, afternoon)));
+
+        // When
+        List<Map<String, Object>> periods = scheduleService.getTeacherFreePeriods(1L, DayOfWeek.MONDAY,
+                "2024/2025", 1);
+
+        // Then
+        assertEquals(2, periods.size());
+        assertEquals(LocalTime.of(7, 0), periods.get(0).get("startTime"));
+        assertEquals(LocalTime.of(8, 0), periods.get(0).get("endTime"));
+        assertEquals(LocalTime.of(9, 30), periods.get(1).get("startTime"));
+        assertEquals(210, periods.get(1).get("duration"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBulkCreateSchedules_ShouldRejectInternalAndExternalConflictsPerRow() {
+        // Given: an existing Wednesday slot for the same teacher and classroom
+        ScheduleSlot existing = new ScheduleSlot(50L, "2024/2025", 1, DayOfWeek.WEDNESDAY,
+                LocalTime.of(8, 0), LocalTime.of(9, 0), 1L, "John", "Doe", 1L, "Class 10A", 1L, true);
+        when(timetableIndexService.getIndex("2024/2025", 1))
+                .thenReturn(TimetableIndex.build("2024/2025", 1, Collections.singletonList(existing)));
+        when(classRoomRepository.findAllById(any())).thenReturn(Collections.singletonList(testClassRoom));
+        when(subjectRepository.findAllById(any())).thenReturn(Collections.singletonList(testSubject));
+        when(userRepository.findAllById(any())).thenReturn(Collections.singletonList(testTeacher));
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(Arrays.asList(100L, 101L));
+
+        BulkScheduleRequest request = BulkScheduleRequest.builder()
+                .schedules(Arrays.asList(
+                        bulkEntry(1L, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0)),
+                        bulkEntry(1L, DayOfWeek.MONDAY, LocalTime.of(8, 30), LocalTime.of(9, 30)),
+                        bulkEntry(99L, DayOfWeek.TUESDAY, LocalTime.of(8, 0), LocalTime.of(9, 0)),
+                        bulkEntry(1L, DayOfWeek.WEDNESDAY, LocalTime.of(8, 30), LocalTime.of(9, 30)),
+                        bulkEntry(1L, DayOfWeek.THURSDAY, LocalTime.of(8, 0), LocalTime.of(9, 0))))
+                .stopOnFirstError(false)
+                .build();
+
+        // When
+        BulkScheduleResult result = scheduleService.bulkCreateSchedules(request);
+
+        // Then
+        assertEquals(5, result.getTotalProcessed());
+        assertEquals(2, result.getSuccessCount());
+        assertEquals(Arrays.asList(100L, 101L), Arrays.asList(result.getSuccessfulRecords().get(0).getId(),
+                result.getSuccessfulRecords().get(1).getId()));
+        assertEquals(3, result.getErrorCount());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals(1L, result.getErrors().get(0).getConflicts().get(0).get("conflictingRow"));
+        assertEquals(3, result.getErrors().get(1).getRow());
+        assertEquals(4, result.getErrors().get(2).getRow());
+        assertEquals(50L, result.getErrors().get(2).getConflicts().get(0).get("conflictingScheduleId"));
+
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+        verify(timetableIndexService).schedulesSaved(any());
+        verify(scheduleRepository, never()).save(any(Schedule.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCloneSchedules_ShouldInsertPerSourceAndReadBackOnlyGeneratedIds() throws Exception {
+        // Given: the source term has two lessons of teacher 1, the target term is empty
+        ScheduleSlot monday = new ScheduleSlot(1L, "2024/2025", 1, DayOfWeek.MONDAY,
+                LocalTime.of(8, 0), LocalTime.of(9, 0), 1L, "John", "Doe", 1L, "Class 10A", 1L, true);
+        ScheduleSlot tuesday = new ScheduleSlot(2L, "2024/2025", 1, DayOfWeek.TUESDAY,
+                LocalTime.of(8, 0), LocalTime.of(9, 0), 1L, "John", "Doe", 1L, "Class 10A", 1L, true);
+        when(timetableIndexService.getIndex("2024/2025", 1))
+                .thenReturn(TimetableIndex.build("2024/2025", 1, Arrays.asList(monday, tuesday)));
+        when(timetableIndexService.getIndex("2024/2025", 2))
+                .thenReturn(TimetableIndex.build("2024/2025", 2, Collections.emptyList()));
+        User substitute = new User();
+        substitute.setId(2L);
+        when(userRepository.findAllById(any())).thenReturn(Collections.singletonList(substitute));
+        ReflectionTestUtils.setField(scheduleService, "bulkBatchSize", 500);
+
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet keys = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(statement);
+        when(statement.getGeneratedKeys()).thenReturn(keys);
+        when(keys.next()).thenReturn(true, true, false);
+        when(keys.getLong(1)).thenReturn(100L, 101L);
+        doAnswer(invocation -> ((ConnectionCallback<?>) invocation.getArgument(0)).doInConnection(connection))
+                .when(jdbcTemplate).execute(any(ConnectionCallback.class));
+        when(scheduleRepository.findAllWithDetailsByIdIn(Arrays.asList(100L, 101L)))
+                .thenReturn(Collections.singletonList(testSchedule));
+
+        CloneScheduleRequest request = CloneScheduleRequest.builder()
+                .fromAcademicYear("2024/2025").fromSemester(1)
+                .toAcademicYear("2024/2025").toSemester(2)
+                .teacherMapping(Collections.singletonMap(1L, 2L))
+                .build();
+
+        // When
+        List<ScheduleResponse> result = scheduleService.cloneSchedules(request);
+
+        // Then: one batch of two single-source inserts, read back by their generated keys only
+        assertEquals(1, result.size());
+        verify(connection).prepareStatement(contains("CASE s.teacher_id WHEN ? THEN ?"),
+                eq(Statement.RETURN_GENERATED_KEYS));
+        verify(statement, times(2)).addBatch();
+        verify(statement, times(1)).executeBatch();
+        verify(statement).setObject(8, 1L);
+        verify(statement).setObject(8, 2L);
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+        verify(timetableIndexService).schedulesSaved(Collections.singletonList(testSchedule));
+    }
+
+    @Test
+    void testCloneClassSchedule_ShouldRejectTeacherConflictsBeforeInserting() {
+        // Given: copying class 1 onto class 2 in the same term keeps the same teacher at the same time
+        ScheduleSlot monday = new ScheduleSlot(1L, "2024/2025", 1, DayOfWeek.MONDAY,
+                LocalTime.of(8, 0), LocalTime.of(9, 0), 1L, "John", "Doe", 1L, "Class 10A", 1L, true);
+        when(timetableIndexService.getIndex("2024/2025", 1))
+                .thenReturn(TimetableIndex.build("2024/2025", 1, Collections.singletonList(monday)));
+        ClassRoom target = new ClassRoom();
+        target.setId(2L);
+        when(classRoomRepository.findAllById(any())).thenReturn(Collections.singletonList(target));
+
+        // When & Then
+        assertThrows(ValidationException.class,
+                () -> scheduleService.cloneClassSchedule(1L, 2L, "2024/2025", 1));
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    void testDeleteSchedule_ShouldDropCascadedActivitiesFromCalendars() {
+        // Given
+        when(scheduleRepository.findById(1L)).thenReturn(Optional.of(testSchedule));
+
+        // When
+        scheduleService.deleteSchedule(1L);
+
+        // Then: the calendar reads the activities before the delete cascades to them
+        InOrder inOrder = inOrder(activityCalendarService, scheduleRepository, timetableIndexService);
+        inOrder.verify(activityCalendarService).scheduleDeleted(1L);
+        inOrder.verify(scheduleRepository).delete(testSchedule);
+        inOrder.verify(timetableIndexService).scheduleDeleted(1L);
     }
 
     @Test
@@ -203,4 +399,18 @@ class ScheduleServiceTest {
         // Then
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    private CreateScheduleRequest bulkEntry(Long classRoomId, DayOfWeek dayOfWeek, LocalTime startTime,
+                                            LocalTime endTime) {
+        return CreateScheduleRequest.builder()
+                .classRoomId(classRoomId)
+                .subjectId(1L)
+                .teacherId(1L)
+                .dayOfWeek(dayOfWeek)
+                .startTime(startTime)
+                .endTime(endTime)
+                .academicYear("2024/2025")
+                .semester(1)
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.school.sim.service;
+
+import com.school.sim.dto.request.ScheduleSearchRequest;
+import com.school.sim.dto.request.TeachingActivitySearchRequest;
+import com.school.sim.dto.response.ScheduleResponse;
+import com.school.sim.dto.response.TeachingActivityResponse;
+import com.school.sim.entity.*;
+import com.school.sim.service.impl.ActivityCalendarServiceImpl;
+import com.school.sim.service.impl.ScheduleServiceImpl;
+import com.school.sim.service.impl.TeachingActivityServiceImpl;
+import com.school.sim.service.impl.TimetableIndexServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression tests for the number of SQL statements issued by schedule and teaching activity searches
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({ ActivityCalendarServiceImpl.class, ScheduleServiceImpl.class, TeachingActivityServiceImpl.class,
+        TimetableIndexServiceImpl.class })
+class SearchQueryCountTest {
+
+    private static final LocalDate ACTIVITY_DATE = LocalDate.of(2024, 9, 2);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private TeachingActivityService teachingActivityService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Department department = entityManager.persist(Department.builder().code("SCI").name("Science").build());
+        Major major = entityManager.persist(new Major("IPA", "Natural Sciences", department));
+
+        for (int i = 0; i < 6; i++) {
+            ClassRoom classRoom = entityManager.persist(new ClassRoom("Class 10-" + i, 10, "10-" + i, 30, major));
+            Subject subject = entityManager.persist(new Subject("MAT" + i, "Mathematics " + i, null, 2));
+            User teacher = entityManager.persist(User.builder()
+                    .username("teacher" + i)
+                    .email("teacher" + i + "@school.com")
+                    .firstName("Teacher")
+                    .lastName(String.valueOf(i))
+                    .password("password")
+                    .userType(UserType.TEACHER)
+                    .build());
+
+            Schedule schedule = new Schedule();
+            schedule.setClassRoom(classRoom);
+            schedule.setSubject(subject);
+            schedule.setTeacher(teacher);
+            schedule.setDayOfWeek(DayOfWeek.MONDAY);
+            schedule.setStartTime(LocalTime.of(7 + i, 0));
+            schedule.setEndTime(LocalTime.of(8 + i, 0));
+            schedule.setAcademicYear("2024/2025");
+            schedule.setSemester(1);
+            schedule.setIsActive(true);
+            entityManager.persist(schedule);
+
+            TeachingActivity activity = new TeachingActivity();
+            activity.setSchedule(schedule);
+            activity.setSubject(subject);
+            activity.setClassRoom(classRoom);
+            activity.setTeacher(teacher);
+            activity.setDate(ACTIVITY_DATE);
+            activity.setStartTime(schedule.getStartTime());
+            activity.setEndTime(schedule.getEndTime());
+            activity.setTopic("Topic " + i);
+            activity.setIsCompleted(false);
+            entityManager.persist(activity);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void searchSchedules_ShouldIssueOneSelectOneCountAndOneRolesBatch() {
+        ScheduleSearchRequest request = ScheduleSearchRequest.builder()
+                .academicYear("2024/2025")
+                .semester(1)
+                .build();
+
+        Page<ScheduleResponse> page = scheduleService.searchSchedules(request, PageRequest.of(0, 4));
+
+        assertEquals(4, page.getContent().size());
+        assertEquals(6, page.getTotalElements());
+        assertEquals("Teacher 0", page.getContent().get(0).getTeacher().getFullName());
+        // Rows, count and one batched load of the teachers' eagerly mapped roles
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchTeachingActivities_ShouldNotLoadAssociationsOrAttendancePerRow() {
+        TeachingActivitySearchRequest request = TeachingActivitySearchRequest.builder()
+                .startDate(ACTIVITY_DATE)
+                .endDate(ACTIVITY_DATE)
+                .topic("topic")
+                .build();
+
+        Page<TeachingActivityResponse> page = teachingActivityService.searchTeachingActivities(request,
+                PageRequest.of(0, 4));
+
+        assertEquals(4, page.getContent().size());
+        assertEquals(6, page.getTotalElements());
+        assertEquals(DayOfWeek.MONDAY.name(), page.getContent().get(0).getSchedule().getDayOfWeek());
+        // Rows, count, teachers' roles and one grouped attendance summary query
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getTeachingActivitiesByDate_ShouldIssueThreeStatements() {
+        List<TeachingActivityResponse> activities = teachingActivityService.getTeachingActivitiesByDate(ACTIVITY_DATE);
+
+        assertEquals(6, activities.size());
+        assertFalse(activities.get(0).getAttendanceSummary().getIsAttendanceRecorded());
+        // Rows, teachers' roles and the attendance summary
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+}
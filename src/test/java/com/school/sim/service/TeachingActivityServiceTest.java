@@ -1,26 +1,37 @@
 package com.school.sim.service;
 
 import com.school.sim.dto.request.CreateTeachingActivityRequest;
+import com.school.sim.dto.request.UpdateTeachingActivityRequest;
 import com.school.sim.dto.response.TeachingActivityResponse;
 import com.school.sim.entity.*;
+import com.school.sim.exception.ValidationException;
 import com.school.sim.repository.*;
 import com.school.sim.service.impl.TeachingActivityServiceImpl;
+import com.school.sim.util.ActivityCalendarEntry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
+import java.sql.ResultSet;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 /**
@@ -47,6 +58,12 @@ class TeachingActivityServiceTest {
     @Mock
     private AttendanceRepository attendanceRepository;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ActivityCalendarService activityCalendarService;
+
     @InjectMocks
     private TeachingActivityServiceImpl teachingActivityService;
 
@@ -139,6 +156,42 @@ class TeachingActivityServiceTest {
         verify(teachingActivityRepository).save(any(TeachingActivity.class));
     }
 
+    @Test
+    void testCreateTeachingActivity_ExistingActivityOnDate_ShouldThrowValidationException() {
+        // Given
+        CreateTeachingActivityRequest request = CreateTeachingActivityRequest.builder()
+                .scheduleId(1L)
+                .date(LocalDate.of(2024, 1, 15))
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(9, 30))
+                .build();
+
+        when(scheduleRepository.findById(1L)).thenReturn(Optional.of(testSchedule));
+        when(teachingActivityRepository.findByScheduleIdAndDate(1L, LocalDate.of(2024, 1, 15)))
+                .thenReturn(Optional.of(testActivity));
+
+        // When & Then
+        assertThrows(ValidationException.class, () -> teachingActivityService.createTeachingActivity(request));
+        verify(teachingActivityRepository, never()).save(any(TeachingActivity.class));
+    }
+
+    @Test
+    void testUpdateTeachingActivity_DateTakenByAnotherActivity_ShouldThrowValidationException() {
+        // Given
+        TeachingActivity other = new TeachingActivity();
+        other.setId(2L);
+        UpdateTeachingActivityRequest request = new UpdateTeachingActivityRequest();
+        request.setDate(LocalDate.of(2024, 1, 22));
+
+        when(teachingActivityRepository.findById(1L)).thenReturn(Optional.of(testActivity));
+        when(teachingActivityRepository.findByScheduleIdAndDate(1L, LocalDate.of(2024, 1, 22)))
+                .thenReturn(Optional.of(other));
+
+        // When & Then
+        assertThrows(ValidationException.class, () -> teachingActivityService.updateTeachingActivity(1L, request));
+        verify(teachingActivityRepository, never()).save(any(TeachingActivity.class));
+    }
+
     @Test
     void testGetTeachingActivityById_Success() {
         // Given
@@ -211,6 +264,33 @@ class TeachingActivityServiceTest {
         verify(teachingActivityRepository).save(any(TeachingActivity.class));
     }
 
+    @Test
+    void testGenerateActivitiesForPeriod_ShouldSkipHolidaysAndExistingActivities() throws Exception {
+        // Given: Mondays in January 2024 are the 1st, 8th, 15th, 22nd and 29th
+        when(scheduleRepository.findByAcademicYearAndSemesterAndIsActiveTrue("2024/2025", 1))
+                .thenReturn(List.of(testSchedule));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            ResultSet existing = mock(ResultSet.class);
+            when(existing.getLong(1)).thenReturn(1L);
+            when(existing.getDate(2)).thenReturn(java.sql.Date.valueOf(LocalDate.of(2024, 1, 15)));
+            handler.processRow(existing);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(), any());
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(Arrays.asList(10L, 11L, 12L));
+
+        // When
+        Map<String, Object> result = teachingActivityService.generateActivitiesForPeriod("2024/2025", 1,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), Set.of(LocalDate.of(2024, 1, 8)));
+
+        // Then
+        assertEquals(3, result.get("created"));
+        assertEquals(1, result.get("skippedExisting"));
+        assertEquals(1, result.get("skippedHolidays"));
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+        verify(teachingActivityRepository, never()).save(any(TeachingActivity.class));
+    }
+
     @Test
     void testGetTodaysActivitiesForTeacher_Success() {
         // Given
@@ -240,4 +320,30 @@ class TeachingActivityServiceTest {
         // Then
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetTeachingWorkloadAnalysis_ShouldBeDerivedFromCalendarEntries() {
+        // Given
+        LocalDate start = LocalDate.of(2024, 1, 15);
+        LocalDate end = LocalDate.of(2024, 1, 19);
+        when(activityCalendarService.getEntries(ActivityCalendarService.TEACHER, 1L, start, end)).thenReturn(Arrays.asList(
+                new ActivityCalendarEntry(1L, start, LocalTime.of(8, 0), LocalTime.of(9, 30), true, 1L, 1L, 1L),
+                new ActivityCalendarEntry(2L, start, LocalTime.of(10, 0), LocalTime.of(11, 0), false, 1L, 2L, 1L),
+                new ActivityCalendarEntry(3L, start.plusDays(2), LocalTime.of(8, 0), LocalTime.of(9, 0), false,
+                        1L, 1L, 2L)));
+
+        // When
+        Map<String, Object> analysis = teachingActivityService.getTeachingWorkloadAnalysis(1L, start, end);
+
+        // Then
+        assertEquals(3, analysis.get("totalActivities"));
+        assertEquals(1L, analysis.get("completedActivities"));
+        assertEquals(210L, analysis.get("totalMinutes"));
+        assertEquals(2, analysis.get("teachingDays"));
+        assertEquals(start, analysis.get("busiestDate"));
+        assertEquals(150L, analysis.get("busiestDateMinutes"));
+        assertEquals(2L, analysis.get("distinctClassRooms"));
+        assertEquals(2L, analysis.get("distinctSubjects"));
+        verifyNoInteractions(teachingActivityRepository, jdbcTemplate);
+    }
+}
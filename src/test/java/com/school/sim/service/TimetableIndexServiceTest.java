@@ -0,0 +1,194 @@
+package com.school.sim.service;
+
+import com.school.sim.entity.ClassRoom;
+import com.school.sim.entity.Schedule;
+import com.school.sim.entity.Subject;
+import com.school.sim.entity.User;
+import com.school.sim.repository.ScheduleRepository;
+import com.school.sim.service.impl.TimetableIndexServiceImpl;
+import com.school.sim.util.ScheduleSlot;
+import com.school.sim.util.TimetableIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TimetableIndexService version tags and rendered view cache
+ */
+@ExtendWith(MockitoExtension.class)
+class TimetableIndexServiceTest {
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @InjectMocks
+    private TimetableIndexServiceImpl timetableIndexService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(timetableIndexService, "indexEnabled", true);
+        ReflectionTestUtils.setField(timetableIndexService, "viewCacheMaxEntries", 100);
+        when(scheduleRepository.findSlotsByAcademicYearAndSemester("2024/2025", 1)).thenReturn(Arrays.asList(
+                new ScheduleSlot(1L, "2024/2025", 1, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0),
+                        10L, "John", "Doe", 100L, "Class 10A", 1L, true),
+                new ScheduleSlot(2L, "2024/2025", 1, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0),
+                        11L, "Jane", "Roe", 101L, "Class 10B", 1L, true)));
+    }
+
+    @Test
+    void testScheduleSaved_ShouldChangeTagsOfOldAndNewEntitiesOnly() {
+        // Given
+        String oldTeacher = timetableIndexService.getVersionTag(TimetableIndexService.TEACHER, 10L, "2024/2025", 1);
+        String newTeacher = timetableIndexService.getVersionTag(TimetableIndexService.TEACHER, 12L, "2024/2025", 1);
+        String otherTeacher = timetableIndexService.getVersionTag(TimetableIndexService.TEACHER, 11L, "2024/2025", 1);
+        String classRoom = timetableIndexService.getVersionTag(TimetableIndexService.CLASS_ROOM, 100L,
+                "2024/2025", 1);
+
+        // When: schedule 1 moves from teacher 10 to teacher 12
+        timetableIndexService.scheduleSaved(schedule(1L, 100L, 12L));
+
+        // Then
+        assertNotEquals(oldTeacher,
+                timetableIndexService.getVersionTag(TimetableIndexService.TEACHER, 10L, "2024/2025", 1));
+        assertNotEquals(newTeacher,
+                timetableIndexService.getVersionTag(TimetableIndexService.TEACHER, 12L, "2024/2025", 1));
+        assertNotEquals(classRoom,
+                timetableIndexService.getVersionTag(TimetableIndexService.CLASS_ROOM, 100L, "2024/2025", 1));
+        assertEquals(otherTeacher,
+                timetableIndexService.getVersionTag(TimetableIndexService.TEACHER, 11L, "2024/2025", 1));
+        verify(scheduleRepository, times(1)).findSlotsByAcademicYearAndSemester("2024/2025", 1);
+    }
+
+    @Test
+    void testGetOrRender_ShouldReuseViewUntilEntityChanges() {
+        AtomicInteger renders = new AtomicInteger();
+
+        timetableIndexService.getOrRender("timetable", TimetableIndexService.TEACHER, 11L, "2024/2025", 1,
+                renders::incrementAndGet);
+        timetableIndexService.getOrRender("timetable", TimetableIndexService.TEACHER, 11L, "2024/2025", 1,
+                renders::incrementAndGet);
+        assertEquals(1, renders.get());
+
+        timetableIndexService.scheduleDeleted(2L);
+        Integer rendered = timetableIndexService.getOrRender("timetable", TimetableIndexService.TEACHER, 11L,
+                "2024/2025", 1, renders::incrementAndGet);
+        assertEquals(2, rendered.intValue());
+    }
+
+    @Test
+    void testNamesChanged_ShouldRenderAgainAfterCommit() {
+        AtomicInteger renders = new AtomicInteger();
+        String tag = timetableIndexService.getVersionTag(TimetableIndexService.TEACHER, 11L, "2024/2025", 1);
+        timetableIndexService.getOrRender("timetable", TimetableIndexService.TEACHER, 11L, "2024/2025", 1,
+                renders::incrementAndGet);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            timetableIndexService.namesChanged();
+            // Not visible until the rename commits
+            assertEquals(tag,
+                    timetableIndexService.getVersionTag(TimetableIndexService.TEACHER, 11L, "2024/2025", 1));
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNotEquals(tag,
+                timetableIndexService.getVersionTag(TimetableIndexService.TEACHER, 11L, "2024/2025", 1));
+        timetableIndexService.getOrRender("timetable", TimetableIndexService.TEACHER, 11L, "2024/2025", 1,
+                renders::incrementAndGet);
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void testGetVersionTag_ShouldExpireAfterTimeToLive() throws Exception {
+        ReflectionTestUtils.setField(timetableIndexService, "viewTtlMillis", 20L);
+        String tag = timetableIndexService.getVersionTag(TimetableIndexService.CLASS_ROOM, 100L, "2024/2025", 1);
+
+        Thread.sleep(25);
+
+        assertNotEquals(tag,
+                timetableIndexService.getVersionTag(TimetableIndexService.CLASS_ROOM, 100L, "2024/2025", 1));
+    }
+
+    @Test
+    void testScheduleSaved_ShouldReachTermLoadedBeforeCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Given: schedule 3 is saved while the term is not loaded yet
+            timetableIndexService.scheduleSaved(schedule(3L, 102L, 12L));
+
+            // When: another thread loads the term before the save commits
+            TimetableIndex loaded = CompletableFuture.supplyAsync(
+                    () -> timetableIndexService.getIndex("2024/2025", 1)).get();
+            assertNull(loaded.get(3L));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertNotNull(timetableIndexService.getIndex("2024/2025", 1).get(3L));
+        assertTrue(timetableIndexService.findSlot(3L).isPresent());
+        verify(scheduleRepository, never()).findById(3L);
+    }
+
+    @Test
+    void testScheduleDeleted_ShouldSurviveRebuildBeforeCommit() {
+        timetableIndexService.getIndex("2024/2025", 1);
+        when(scheduleRepository.findDistinctAcademicPeriods())
+                .thenReturn(Collections.singletonList(new Object[]{"2024/2025", 1}));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            timetableIndexService.scheduleDeleted(2L);
+            // The rebuild still reads the uncommitted schedule 2
+            timetableIndexService.rebuild();
+            assertNotNull(timetableIndexService.getIndex("2024/2025", 1).get(2L));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(timetableIndexService.getIndex("2024/2025", 1).get(2L));
+    }
+
+    private Schedule schedule(Long id, Long classRoomId, Long teacherId) {
+        ClassRoom classRoom = new ClassRoom();
+        classRoom.setId(classRoomId);
+        User teacher = new User();
+        teacher.setId(teacherId);
+        Subject subject = new Subject();
+        subject.setId(1L);
+
+        Schedule schedule = new Schedule();
+        schedule.setId(id);
+        schedule.setClassRoom(classRoom);
+        schedule.setTeacher(teacher);
+        schedule.setSubject(subject);
+        schedule.setDayOfWeek(DayOfWeek.MONDAY);
+        schedule.setStartTime(LocalTime.of(8, 0));
+        schedule.setEndTime(LocalTime.of(9, 0));
+        schedule.setAcademicYear("2024/2025");
+        schedule.setSemester(1);
+        schedule.setIsActive(true);
+        return schedule;
+    }
+}
@@ -0,0 +1,52 @@
+package com.school.sim.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ByteRange
+ */
+class ByteRangeTest {
+
+    @Test
+    void parse_ShouldResolveBoundedOpenAndSuffixRanges() {
+        ByteRange bounded = ByteRange.parse("bytes=0-99", 1000);
+        assertEquals(0, bounded.getStart());
+        assertEquals(99, bounded.getEnd());
+        assertEquals(100, bounded.getLength());
+        assertEquals("bytes 0-99/1000", bounded.contentRange(1000));
+
+        ByteRange open = ByteRange.parse("bytes=900-", 1000);
+        assertEquals(900, open.getStart());
+        assertEquals(999, open.getEnd());
+
+        ByteRange suffix = ByteRange.parse("bytes=-50", 1000);
+        assertEquals(950, suffix.getStart());
+        assertEquals(50, suffix.getLength());
+
+        ByteRange clamped = ByteRange.parse("bytes=990-5000", 1000);
+        assertEquals(999, clamped.getEnd());
+        assertEquals(1000, ByteRange.parse("bytes=-5000", 1000).getLength());
+    }
+
+    @Test
+    void parse_ShouldRejectRangesPastTheEnd() {
+        ByteRange range = ByteRange.parse("bytes=1000-", 1000);
+
+        assertFalse(range.isSatisfiable());
+        assertEquals("bytes */1000", range.contentRange(1000));
+        assertFalse(ByteRange.parse("bytes=-0", 1000).isSatisfiable());
+    }
+
+    @Test
+    void parse_ShouldIgnoreMissingMultiAndMalformedRanges() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("items=0-1", 1000));
+        assertNull(ByteRange.parse("bytes=0-1,5-9", 1000));
+        assertNull(ByteRange.parse("bytes=9-1", 1000));
+        assertNull(ByteRange.parse("bytes=-", 1000));
+        assertNull(ByteRange.parse("bytes=+1-2", 1000));
+        assertNull(ByteRange.parse("bytes=99999999999999999999-", 1000));
+    }
+}
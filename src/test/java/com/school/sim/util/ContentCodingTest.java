@@ -0,0 +1,76 @@
+package com.school.sim.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ContentCoding
+ */
+class ContentCodingTest {
+
+    private static final List<ContentCoding> OFFERED = Arrays.asList(ContentCoding.GZIP, ContentCoding.DEFLATE);
+
+    @Test
+    void negotiate_ShouldPickHighestQualityAndPreferOfferOrderOnTies() {
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip, deflate, br", OFFERED));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("deflate, gzip", OFFERED));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0.5, deflate", OFFERED));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("*, gzip;q=0", OFFERED));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("br", OFFERED));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("GZIP;q=0", Collections.singletonList(ContentCoding.GZIP)));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate(null, OFFERED));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("gzip", Collections.emptyList()));
+    }
+
+    @Test
+    void negotiate_IdentityRefused_ShouldReturnNullWhenNothingElseIsAcceptable() {
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip, identity;q=0", OFFERED));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("*;q=0, identity", OFFERED));
+        assertNull(ContentCoding.negotiate("br, identity;q=0", OFFERED));
+        assertNull(ContentCoding.negotiate("gzip;q=0, *;q=0", OFFERED));
+        assertNull(ContentCoding.negotiate("gzip, *;q=0", Collections.emptyList()));
+    }
+
+    @Test
+    void encode_ShouldRoundTripWithoutClosingTheStream() throws Exception {
+        StringBuilder csv = new StringBuilder("nis,name\n");
+        for (int i = 0; i < 2000; i++) {
+            csv.append("2024").append(i).append(",Student ").append(i).append('\n');
+        }
+        byte[] original = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        for (ContentCoding coding : ContentCoding.values()) {
+            ClosingTrackingStream out = new ClosingTrackingStream();
+            coding.encode(out, 1, body -> body.write(original));
+
+            assertFalse(out.closed, coding.getToken());
+            if (coding != ContentCoding.IDENTITY) {
+                assertTrue(out.size() < original.length / 3, coding.getToken());
+            }
+            try (InputStream in = coding.decode(new ByteArrayInputStream(out.toByteArray()))) {
+                assertArrayEquals(original, in.readAllBytes(), coding.getToken());
+            }
+        }
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.forToken(" Deflate "));
+        assertNull(ContentCoding.forToken("br"));
+    }
+
+    private static final class ClosingTrackingStream extends ByteArrayOutputStream {
+
+        boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
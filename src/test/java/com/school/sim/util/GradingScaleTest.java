@@ -0,0 +1,42 @@
+package com.school.sim.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GradingScale
+ */
+class GradingScaleTest {
+
+    @Test
+    void gradePointsAndLetterGrade_ShouldShareTheirBands() {
+        assertEquals(4.0, GradingScale.gradePoints(90));
+        assertEquals("A", GradingScale.letterGrade(90));
+        assertEquals(3.0, GradingScale.gradePoints(89.99));
+        assertEquals("B", GradingScale.letterGrade(89.99));
+        assertEquals(2.0, GradingScale.gradePoints(70));
+        assertEquals("C", GradingScale.letterGrade(70));
+        assertEquals(1.0, GradingScale.gradePoints(60));
+        assertEquals("D", GradingScale.letterGrade(60));
+        assertEquals(0.0, GradingScale.gradePoints(59.99));
+        assertEquals("F", GradingScale.letterGrade(59.99));
+    }
+
+    @Test
+    void letterGradeForGpa_ShouldRoundToTheNearestGradePoint() {
+        assertEquals("A", GradingScale.letterGradeForGpa(3.5));
+        assertEquals("B", GradingScale.letterGradeForGpa(3.49));
+        assertEquals("C", GradingScale.letterGradeForGpa(1.5));
+        assertEquals("D", GradingScale.letterGradeForGpa(0.5));
+        assertEquals("F", GradingScale.letterGradeForGpa(0.49));
+    }
+
+    @Test
+    void academicStanding_ShouldPutStudentsBelowACAverageOnProbation() {
+        assertEquals("EXCELLENT", GradingScale.academicStanding(3.5));
+        assertEquals("GOOD", GradingScale.academicStanding(2.5));
+        assertEquals("SATISFACTORY", GradingScale.academicStanding(1.5));
+        assertEquals("PROBATION", GradingScale.academicStanding(1.49));
+    }
+}
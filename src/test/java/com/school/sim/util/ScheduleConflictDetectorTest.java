@@ -0,0 +1,88 @@
+package com.school.sim.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScheduleConflictDetector
+ */
+class ScheduleConflictDetectorTest {
+
+    @Test
+    void detect_WithBackToBackSlots_ShouldReportNoConflict() {
+        List<ScheduleSlot> slots = Arrays.asList(
+                slot(1L, DayOfWeek.MONDAY, 8, 9, 1L, 1L),
+                slot(2L, DayOfWeek.MONDAY, 9, 10, 1L, 1L));
+
+        assertTrue(ScheduleConflictDetector.detect(slots).isEmpty());
+    }
+
+    @Test
+    void detect_WithSharedTeacherAndClassroom_ShouldReportBothTypesOnce() {
+        List<ScheduleSlot> slots = Arrays.asList(
+                slot(1L, DayOfWeek.MONDAY, 8, 10, 1L, 1L),
+                slot(2L, DayOfWeek.MONDAY, 9, 11, 1L, 1L),
+                slot(3L, DayOfWeek.TUESDAY, 9, 11, 1L, 1L));
+
+        List<ScheduleConflictDetector.Conflict> conflicts = ScheduleConflictDetector.detect(slots);
+
+        assertEquals(2, conflicts.size());
+        assertEquals(ScheduleConflictDetector.CLASSROOM_CONFLICT, conflicts.get(0).getType());
+        assertEquals(ScheduleConflictDetector.TEACHER_CONFLICT, conflicts.get(1).getType());
+        assertEquals(1L, conflicts.get(1).getFirst().getScheduleId());
+        assertEquals(2L, conflicts.get(1).getSecond().getScheduleId());
+    }
+
+    @Test
+    void detect_WithRandomSlots_ShouldMatchPairwiseScan() {
+        Random random = new Random(42);
+        List<ScheduleSlot> slots = new ArrayList<>();
+        for (long id = 1; id <= 400; id++) {
+            int start = 7 + random.nextInt(8);
+            slots.add(slot(id, DayOfWeek.of(1 + random.nextInt(5)), start, start + 1 + random.nextInt(2),
+                    (long) random.nextInt(15), (long) random.nextInt(10)));
+        }
+
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < slots.size(); i++) {
+            for (int j = i + 1; j < slots.size(); j++) {
+                ScheduleSlot a = slots.get(i);
+                ScheduleSlot b = slots.get(j);
+                if (!a.overlaps(b)) {
+                    continue;
+                }
+                if (a.getTeacherId().equals(b.getTeacherId())) {
+                    expected.add(key(ScheduleConflictDetector.TEACHER_CONFLICT, a, b));
+                }
+                if (a.getClassRoomId().equals(b.getClassRoomId())) {
+                    expected.add(key(ScheduleConflictDetector.CLASSROOM_CONFLICT, a, b));
+                }
+            }
+        }
+
+        List<ScheduleConflictDetector.Conflict> conflicts = ScheduleConflictDetector.detect(slots);
+        Set<String> actual = new HashSet<>();
+        for (ScheduleConflictDetector.Conflict conflict : conflicts) {
+            actual.add(key(conflict.getType(), conflict.getFirst(), conflict.getSecond()));
+        }
+
+        assertEquals(expected.size(), conflicts.size());
+        assertEquals(expected, actual);
+    }
+
+    private static String key(String type, ScheduleSlot a, ScheduleSlot b) {
+        long low = Math.min(a.getScheduleId(), b.getScheduleId());
+        long high = Math.max(a.getScheduleId(), b.getScheduleId());
+        return type + ":" + low + ":" + high;
+    }
+
+    private static ScheduleSlot slot(Long id, DayOfWeek day, int startHour, int endHour, Long teacherId, Long classRoomId) {
+        return new ScheduleSlot(id, "2024/2025", 1, day, LocalTime.of(startHour, 0), LocalTime.of(endHour, 0),
+                teacherId, "Teacher", String.valueOf(teacherId), classRoomId, "Room " + classRoomId, 1L, true);
+    }
+}
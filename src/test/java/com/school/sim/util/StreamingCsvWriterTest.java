@@ -0,0 +1,47 @@
+package com.school.sim.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StreamingCsvWriter
+ */
+class StreamingCsvWriterTest {
+
+    @Test
+    void writeRow_ShouldQuoteOnlyCellsThatNeedIt() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingCsvWriter writer = new StreamingCsvWriter(out, ",");
+
+        writer.writeHeader(Arrays.asList("name", "address, city"));
+        writer.writeRow(Arrays.asList("Siti", "Jl. Merdeka, 5", "say \"hi\"", "two\nlines", null, 42L,
+                new BigDecimal("1E+3"), true, Timestamp.valueOf("2024-01-02 08:00:00")));
+        writer.writeCell(7);
+        writer.writeCell("é");
+        writer.endRow();
+        writer.flush();
+
+        assertEquals("name,\"address, city\"\n"
+                + "Siti,\"Jl. Merdeka, 5\",\"say \"\"hi\"\"\",\"two\nlines\",,42,1000,true,2024-01-02T08:00\n"
+                + "7,é\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(2, writer.getRowsWritten());
+    }
+
+    @Test
+    void writeRow_WithMultiCharacterDelimiter_ShouldQuoteCellsContainingItsCharacters() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingCsvWriter writer = new StreamingCsvWriter(out, "||");
+
+        writer.writeRow(Arrays.asList("a", "end|", "b"));
+        writer.flush();
+
+        assertEquals("a||\"end|\"||b\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
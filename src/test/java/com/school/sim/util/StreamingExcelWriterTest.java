@@ -0,0 +1,47 @@
+package com.school.sim.util;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StreamingExcelWriter
+ */
+class StreamingExcelWriterTest {
+
+    @Test
+    void finish_ShouldWriteRowsBeyondTheWindowAndShareStyles() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(10)) {
+            writer.startSheet("Students/2024");
+            writer.writeHeader(Arrays.asList("id", "name", "enrolled"));
+            for (int i = 0; i < 500; i++) {
+                writer.writeRow(Arrays.asList(i, "Student " + i, new Date(0)));
+            }
+            writer.startSheet("Summary");
+            writer.writeLabel("Total:", 500);
+            writer.finish(out);
+            assertEquals(500, writer.getRowsWritten());
+        }
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet students = workbook.getSheetAt(0);
+            assertEquals("Students 2024", students.getSheetName());
+            assertEquals(500, students.getLastRowNum());
+            assertEquals("Student 499", students.getRow(500).getCell(1).getStringCellValue());
+            assertEquals(499.0, students.getRow(500).getCell(0).getNumericCellValue());
+            assertEquals("yyyy-mm-dd hh:mm", students.getRow(1).getCell(2).getCellStyle().getDataFormatString());
+            assertTrue(students.getColumnWidth(1) > students.getColumnWidth(0));
+            assertEquals("500", workbook.getSheetAt(1).getRow(0).getCell(1).getStringCellValue());
+            // Header, data and date styles plus the default style, however many cells were written
+            assertEquals(4, workbook.getNumCellStyles());
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package com.school.sim.util;
+
+import com.school.sim.util.StreamingParquetWriter.Column;
+import com.school.sim.util.StreamingParquetWriter.ColumnType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StreamingParquetWriter
+ */
+class StreamingParquetWriterTest {
+
+    private static final List<Column> COLUMNS = Arrays.asList(
+            new Column("date", ColumnType.DATE), new Column("start_time", ColumnType.TIME),
+            new Column("status", ColumnType.STRING), new Column("score", ColumnType.DOUBLE),
+            new Column("semester", ColumnType.INT32), new Column("submitted", ColumnType.BOOLEAN),
+            new Column("graded_at", ColumnType.TIMESTAMP));
+
+    @Test
+    void encodeHybrid_ShouldMatchFormatExamples() {
+        // Bit-packed run of 0..7 at width 3, as in the Parquet encoding documentation
+        StreamingParquetWriter.Bytes packed = new StreamingParquetWriter.Bytes(8);
+        StreamingParquetWriter.encodeHybrid(packed, new int[] { 0, 1, 2, 3, 4, 5, 6, 7 }, 8, 3);
+        assertArrayEquals(new byte[] { 0x03, (byte) 0x88, (byte) 0xc6, (byte) 0xfa }, packed.toByteArray());
+
+        StreamingParquetWriter.Bytes repeated = new StreamingParquetWriter.Bytes(8);
+        int[] values = new int[10];
+        Arrays.fill(values, 3);
+        StreamingParquetWriter.encodeHybrid(repeated, values, values.length, 2);
+        assertArrayEquals(new byte[] { 0x14, 0x03 }, repeated.toByteArray());
+    }
+
+    @Test
+    void finish_ShouldFrameFooterWithMagicAndLength() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        StreamingParquetWriter writer = new StreamingParquetWriter(outputStream, COLUMNS, 2, 6);
+        writer.writeRow(Date.valueOf("2024-07-15"), LocalTime.of(7, 0), "HADIR", 87.5, 1, true,
+                LocalDateTime.of(2024, 8, 1, 10, 0));
+        writer.writeRow(LocalDate.of(2024, 7, 16), null, "SAKIT", null, 1, null, null);
+        writer.writeRow(null, null, null, null, null, null, null);
+        writer.finish();
+
+        assertEquals(3, writer.getRowsWritten());
+        assertEquals(2, writer.getRowGroupCount());
+        byte[] file = outputStream.toByteArray();
+        assertEquals("PAR1", new String(file, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("PAR1", new String(file, file.length - 4, 4, StandardCharsets.US_ASCII));
+        int footerLength = ByteBuffer.wrap(file, file.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        int footer = file.length - 8 - footerLength;
+        assertTrue(footer > 4);
+        // Field 1 (version) as a compact i32 of 1
+        assertEquals(0x15, file[footer]);
+        assertEquals(0x02, file[footer + 1]);
+        assertTrue(new String(file, footer, footerLength, StandardCharsets.UTF_8).contains("graded_at"));
+    }
+
+    @Test
+    void finish_ShouldDecodeBackToTheRowsWritten() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        StreamingParquetWriter writer = new StreamingParquetWriter(outputStream, COLUMNS, 2, 6);
+        writer.writeRow(Date.valueOf("2024-07-15"), LocalTime.of(7, 0), "HADIR", 87.5, 1, true,
+                LocalDateTime.of(2024, 8, 1, 10, 0));
+        writer.writeRow(LocalDate.of(2024, 7, 16), null, "SAKIT", null, 1, null, null);
+        writer.writeRow(null, null, null, null, null, null, null);
+        writer.writeRow(LocalDate.of(2024, 7, 16), LocalTime.of(12, 30, 15), "HADIR", 0.25, 2, 0,
+                LocalDateTime.of(2024, 12, 20, 23, 59, 59));
+        writer.writeRow(LocalDate.of(1969, 12, 31), LocalTime.MIDNIGHT, "Ijin – ç", -1.0, -7, false,
+                LocalDateTime.of(2024, 12, 20, 23, 59, 59));
+        writer.finish();
+
+        ParquetFile file = ParquetFile.read(outputStream.toByteArray());
+
+        assertEquals(5, file.rows);
+        assertEquals(3, file.rowGroups);
+        assertEquals(Arrays.asList("date", "start_time", "status", "score", "semester", "submitted", "graded_at"),
+                new ArrayList<>(file.columns.keySet()));
+        assertEquals(Arrays.asList((int) LocalDate.of(2024, 7, 15).toEpochDay(),
+                        (int) LocalDate.of(2024, 7, 16).toEpochDay(), null,
+                        (int) LocalDate.of(2024, 7, 16).toEpochDay(), -1),
+                file.columns.get("date"));
+        assertEquals(Arrays.asList(7 * 3_600_000, null, null, 45_015_000, 0), file.columns.get("start_time"));
+        assertEquals(Arrays.asList("HADIR", "SAKIT", null, "HADIR", "Ijin – ç"), file.columns.get("status"));
+        assertEquals(Arrays.asList(87.5, null, null, 0.25, -1.0), file.columns.get("score"));
+        assertEquals(Arrays.asList(1, 1, null, 2, -7), file.columns.get("semester"));
+        assertEquals(Arrays.asList(true, null, null, false, false), file.columns.get("submitted"));
+        long gradedAt = LocalDateTime.of(2024, 12, 20, 23, 59, 59).toInstant(ZoneOffset.UTC).toEpochMilli();
+        assertEquals(Arrays.asList(LocalDateTime.of(2024, 8, 1, 10, 0).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                null, null, gradedAt, gradedAt), file.columns.get("graded_at"));
+        // Only the semester of the first row group repeats enough to be dictionary encoded
+        assertEquals(1, file.dictionaryPages);
+    }
+
+    @Test
+    void finish_ShouldDecodeColumnChunksSpanningSeveralPages() throws Exception {
+        List<Column> columns = Arrays.asList(new Column("id", ColumnType.INT64),
+                new Column("status", ColumnType.STRING), new Column("present", ColumnType.BOOLEAN));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        StreamingParquetWriter writer = new StreamingParquetWriter(outputStream, columns, 45_000, 6);
+        List<Object> ids = new ArrayList<>();
+        List<Object> statuses = new ArrayList<>();
+        List<Object> present = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            Long id = i % 7 == 0 ? null : (long) i * 1_000_003;
+            String status = i % 13 == 0 ? null : i % 10 == 0 ? "SAKIT" : "HADIR";
+            Boolean flag = i % 11 == 0 ? null : i % 3 == 0;
+            writer.writeRow(id, status, flag);
+            ids.add(id);
+            statuses.add(status);
+            present.add(flag);
+        }
+        writer.finish();
+
+        ParquetFile file = ParquetFile.read(outputStream.toByteArray());
+
+        assertEquals(50_000, file.rows);
+        assertEquals(2, file.rowGroups);
+        // Three pages of the first row group and one of the second, per column
+        assertEquals(12, file.dataPages);
+        assertEquals(2, file.dictionaryPages);
+        assertEquals(ids, file.columns.get("id"));
+        assertEquals(statuses, file.columns.get("status"));
+        assertEquals(present, file.columns.get("present"));
+    }
+
+    @Test
+    void writeRow_ShouldDictionaryEncodeRepeatedValues() throws Exception {
+        List<Column> columns = Collections.singletonList(new Column("status", ColumnType.STRING));
+        ByteArrayOutputStream repeated = new ByteArrayOutputStream();
+        ByteArrayOutputStream distinct = new ByteArrayOutputStream();
+        StreamingParquetWriter repeatedWriter = new StreamingParquetWriter(repeated, columns, 100_000, 1);
+        StreamingParquetWriter distinctWriter = new StreamingParquetWriter(distinct, columns, 100_000, 1);
+        for (int i = 0; i < 50_000; i++) {
+            repeatedWriter.writeRow(i % 10 == 0 ? "SAKIT" : "HADIR");
+            distinctWriter.writeRow("note " + i);
+        }
+        repeatedWriter.finish();
+        distinctWriter.finish();
+
+        assertTrue(repeated.size() < 4096, "repeated values take " + repeated.size() + " bytes");
+        assertTrue(repeated.size() * 10 < distinct.size());
+    }
+
+    @Test
+    void writeRow_ShouldRejectInvalidRows() throws Exception {
+        StreamingParquetWriter writer = new StreamingParquetWriter(new ByteArrayOutputStream(), COLUMNS, 10, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> writer.writeRow("2024-07-15"));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> writer.writeRow(null, null, null, null, "one", null, null));
+        assertTrue(exception.getMessage().contains("semester"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new StreamingParquetWriter(new ByteArrayOutputStream(), Collections.emptyList(), 10, 1));
+    }
+
+    /**
+     * Reader of the files the writer produces, written from the format specification: the footer and page headers
+     * are parsed as Thrift compact structs and every page is decompressed and decoded back to values
+     */
+    private static final class ParquetFile {
+
+        private static final int TYPE_BOOLEAN = 0;
+        private static final int TYPE_INT32 = 1;
+        private static final int TYPE_INT64 = 2;
+        private static final int TYPE_DOUBLE = 5;
+        private static final int TYPE_BYTE_ARRAY = 6;
+        private static final int CONVERTED_UTF8 = 0;
+        private static final int ENCODING_PLAIN = 0;
+        private static final int ENCODING_PLAIN_DICTIONARY = 2;
+        private static final int CODEC_GZIP = 2;
+        private static final int PAGE_DATA = 0;
+        private static final int PAGE_DICTIONARY = 2;
+
+        private final Map<String, List<Object>> columns = new LinkedHashMap<>();
+        private long rows;
+        private int rowGroups;
+        private int dataPages;
+        private int dictionaryPages;
+
+        static ParquetFile read(byte[] bytes) throws IOException {
+            assertEquals("PAR1", new String(bytes, 0, 4, StandardCharsets.US_ASCII));
+            assertEquals("PAR1", new String(bytes, bytes.length - 4, 4, StandardCharsets.US_ASCII));
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            int footerLength = buffer.getInt(bytes.length - 8);
+            buffer.position(bytes.length - 8 - footerLength);
+            Map<Integer, Object> metadata = new CompactReader(buffer).struct();
+            assertEquals(bytes.length - 8, buffer.position());
+            assertEquals(1L, metadata.get(1));
+
+            List<Map<Integer, Object>> schema = structs(metadata, 2);
+            assertEquals("schema", string(schema.get(0), 4));
+            assertEquals((long) schema.size() - 1, schema.get(0).get(5));
+            List<Map<Integer, Object>> leaves = schema.subList(1, schema.size());
+
+            ParquetFile file = new ParquetFile();
+            for (Map<Integer, Object> leaf : leaves) {
+                // Every column is optional
+                assertEquals(1L, leaf.get(3));
+                file.columns.put(string(leaf, 4), new ArrayList<>());
+            }
+            file.rows = (Long) metadata.get(3);
+
+            long groupedRows = 0;
+            for (Map<Integer, Object> rowGroup : structs(metadata, 4)) {
+                long groupRows = (Long) rowGroup.get(3);
+                List<Map<Integer, Object>> chunks = structs(rowGroup, 1);
+                assertEquals(leaves.size(), chunks.size());
+                for (int i = 0; i < chunks.size(); i++) {
+                    file.readColumnChunk(buffer, leaves.get(i), chunks.get(i), groupRows);
+                }
+                groupedRows += groupRows;
+                file.rowGroups++;
+            }
+            assertEquals(file.rows, groupedRows);
+            return file;
+        }
+
+        private void readColumnChunk(ByteBuffer buffer, Map<Integer, Object> leaf, Map<Integer, Object> chunk,
+                                     long groupRows) throws IOException {
+            Map<Integer, Object> meta = struct(chunk, 3);
+            String name = string(leaf, 4);
+            int type = ((Long) leaf.get(1)).intValue();
+            assertEquals(leaf.get(1), meta.get(1));
+            assertEquals(Collections.singletonList(name), strings(meta, 3));
+            assertEquals((long) CODEC_GZIP, meta.get(4));
+            assertEquals(groupRows, meta.get(5));
+            boolean utf8 = type == TYPE_BYTE_ARRAY && Long.valueOf(CONVERTED_UTF8).equals(leaf.get(6));
+
+            long start = meta.containsKey(11) ? (Long) meta.get(11) : (Long) meta.get(9);
+            assertEquals(chunk.get(2), start);
+            buffer.position((int) start);
+            List<Object> dictionary = null;
+            List<Object> values = columns.get(name);
+            long decoded = 0;
+            while (decoded < groupRows) {
+                if (buffer.position() == (Long) meta.get(9)) {
+                    assertEquals(meta.containsKey(11), dictionary != null);
+                }
+                Map<Integer, Object> header = new CompactReader(buffer).struct();
+                int compressedSize = ((Long) header.get(3)).intValue();
+                byte[] page = gunzip(buffer.array(), buffer.position(), compressedSize);
+                buffer.position(buffer.position() + compressedSize);
+                assertEquals(((Long) header.get(2)).intValue(), page.length);
+                ByteBuffer body = ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN);
+
+                if ((Long) header.get(1) == PAGE_DICTIONARY) {
+                    assertNull(dictionary, "one dictionary page per chunk");
+                    Map<Integer, Object> dictionaryHeader = struct(header, 7);
+                    int entries = ((Long) dictionaryHeader.get(1)).intValue();
+                    dictionary = new ArrayList<>();
+                    for (int i = 0; i < entries; i++) {
+                        dictionary.add(plain(body, type, utf8));
+                    }
+                    dictionaryPages++;
+                } else {
+                    assertEquals((long) PAGE_DATA, header.get(1));
+                    Map<Integer, Object> dataHeader = struct(header, 5);
+                    int count = ((Long) dataHeader.get(1)).intValue();
+                    int encoding = ((Long) dataHeader.get(2)).intValue();
+                    int levelsEnd = body.getInt() + body.position();
+                    int[] levels = decodeHybrid(body, 1, count);
+                    assertEquals(levelsEnd, body.position());
+                    int present = 0;
+                    for (int level : levels) {
+                        present += level;
+                    }
+
+                    List<Object> pageValues = new ArrayList<>();
+                    if (encoding == ENCODING_PLAIN_DICTIONARY) {
+                        assertNotNull(dictionary);
+                        int bitWidth = body.get();
+                        for (int id : decodeHybrid(body, bitWidth, present)) {
+                            pageValues.add(dictionary.get(id));
+                        }
+                    } else if (type == TYPE_BOOLEAN) {
+                        assertEquals(ENCODING_PLAIN, encoding);
+                        for (int i = 0; i < present; i++) {
+                            pageValues.add((page[body.position() + i / 8] >> (i % 8) & 1) == 1);
+                        }
+                        body.position(body.position() + (present + 7) / 8);
+                    } else {
+                        assertEquals(ENCODING_PLAIN, encoding);
+                        for (int i = 0; i < present; i++) {
+                            pageValues.add(plain(body, type, utf8));
+                        }
+                    }
+                    assertFalse(body.hasRemaining(), "page " + name + " has trailing bytes");
+
+                    int next = 0;
+                    for (int level : levels) {
+                        values.add(level == 1 ? pageValues.get(next++) : null);
+                    }
+                    decoded += count;
+                    dataPages++;
+                }
+            }
+            assertEquals(groupRows, decoded);
+            assertEquals(meta.get(7), (long) buffer.position() - start);
+        }
+
+        private static Object plain(ByteBuffer body, int type, boolean utf8) {
+            switch (type) {
+                case TYPE_INT32:
+                    return body.getInt();
+                case TYPE_INT64:
+                    return body.getLong();
+                case TYPE_DOUBLE:
+                    return body.getDouble();
+                case TYPE_BYTE_ARRAY:
+                    byte[] value = new byte[body.getInt()];
+                    body.get(value);
+                    assertTrue(utf8);
+                    return new String(value, StandardCharsets.UTF_8);
+                default:
+                    throw new AssertionError("Unexpected plain type " + type);
+            }
+        }
+
+        // RLE / bit-packing hybrid, without the length prefix
+        private static int[] decodeHybrid(ByteBuffer body, int bitWidth, int count) {
+            int[] values = new int[count];
+            int decoded = 0;
+            while (decoded < count) {
+                long header = varint(body);
+                if ((header & 1) == 0) {
+                    int run = (int) (header >>> 1);
+                    int value = 0;
+                    for (int b = 0; b < (bitWidth + 7) / 8; b++) {
+                        value |= (body.get() & 0xff) << (8 * b);
+                    }
+                    assertTrue(run <= count - decoded, "RLE run overflows the page");
+                    Arrays.fill(values, decoded, decoded + run, value);
+                    decoded += run;
+                } else {
+                    long bits = 0;
+                    int bitCount = 0;
+                    for (int k = 0; k < (header >>> 1) * 8; k++) {
+                        while (bitCount < bitWidth) {
+                            bits |= (long) (body.get() & 0xff) << bitCount;
+                            bitCount += 8;
+                        }
+                        int value = (int) (bits & ((1L << bitWidth) - 1));
+                        bits >>>= bitWidth;
+                        bitCount -= bitWidth;
+                        if (decoded < count) {
+                            values[decoded++] = value;
+                        }
+                    }
+                }
+            }
+            return values;
+        }
+
+        private static byte[] gunzip(byte[] bytes, int offset, int length) throws IOException {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes, offset, length))) {
+                return in.readAllBytes();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<Integer, Object> struct(Map<Integer, Object> struct, int fieldId) {
+            return (Map<Integer, Object>) struct.get(fieldId);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static List<Map<Integer, Object>> structs(Map<Integer, Object> struct, int fieldId) {
+            return (List<Map<Integer, Object>>) struct.get(fieldId);
+        }
+
+        private static String string(Map<Integer, Object> struct, int fieldId) {
+            return new String((byte[]) struct.get(fieldId), StandardCharsets.UTF_8);
+        }
+
+        private static List<String> strings(Map<Integer, Object> struct, int fieldId) {
+            List<String> strings = new ArrayList<>();
+            for (Object element : (List<?>) struct.get(fieldId)) {
+                strings.add(new String((byte[]) element, StandardCharsets.UTF_8));
+            }
+            return strings;
+        }
+    }
+
+    /**
+     * Thrift compact protocol reader; structs come back as maps of field id to value, integers as Long
+     */
+    private static final class CompactReader {
+
+        private final ByteBuffer buffer;
+
+        CompactReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        Map<Integer, Object> struct() {
+            Map<Integer, Object> fields = new HashMap<>();
+            int lastFieldId = 0;
+            while (true) {
+                int header = buffer.get() & 0xff;
+                if (header == 0) {
+                    return fields;
+                }
+                int delta = header >>> 4;
+                int fieldId = delta != 0 ? lastFieldId + delta : (int) unzigzag(varint(buffer));
+                assertNull(fields.put(fieldId, value(header & 0x0f)), "field " + fieldId + " repeated");
+                lastFieldId = fieldId;
+            }
+        }
+
+        private Object value(int type) {
+            switch (type) {
+                case 1:
+                    return Boolean.TRUE;
+                case 2:
+                    return Boolean.FALSE;
+                case 4:
+                case 5:
+                case 6:
+                    return unzigzag(varint(buffer));
+                case 8:
+                    byte[] bytes = new byte[(int) varint(buffer)];
+                    buffer.get(bytes);
+                    return bytes;
+                case 9:
+                    int header = buffer.get() & 0xff;
+                    int size = header >>> 4 == 15 ? (int) varint(buffer) : header >>> 4;
+                    List<Object> elements = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        elements.add(value(header & 0x0f));
+                    }
+                    return elements;
+                case 12:
+                    return struct();
+                default:
+                    throw new AssertionError("Unexpected compact type " + type);
+            }
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+
+    private static long varint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = buffer.get() & 0xff;
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
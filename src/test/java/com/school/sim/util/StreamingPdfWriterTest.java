@@ -0,0 +1,74 @@
+package com.school.sim.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StreamingPdfWriter
+ */
+class StreamingPdfWriterTest {
+
+    @Test
+    void finish_ShouldPointEveryXrefEntryAtItsObject() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        StreamingPdfWriter writer = new StreamingPdfWriter(outputStream);
+        writer.addPage(new StreamingPdfWriter.Page().text(StreamingPdfWriter.Font.REGULAR, 10, 50, 800, "First"));
+        writer.addPage(new StreamingPdfWriter.Page().line(50, 50, 100, 50, 1));
+        writer.finish();
+
+        assertEquals(2, writer.getPageCount());
+        String pdf = new String(outputStream.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertTrue(pdf.startsWith("%PDF-1.4\n"));
+        assertTrue(pdf.endsWith("%%EOF\n"));
+
+        Matcher startXref = Pattern.compile("startxref\n(\\d+)\n").matcher(pdf);
+        assertTrue(startXref.find());
+        int xref = Integer.parseInt(startXref.group(1));
+        assertTrue(pdf.startsWith("xref\n0 9\n", xref));
+
+        Matcher entries = Pattern.compile("(\\d{10}) 00000 n \n").matcher(pdf.substring(xref));
+        int object = 1;
+        while (entries.find()) {
+            assertTrue(pdf.startsWith(object + " 0 obj\n", Integer.parseInt(entries.group(1))), "object " + object);
+            object++;
+        }
+        assertEquals(9, object);
+        assertTrue(pdf.contains("/Type /Pages /Count 2 /Kids [6 0 R 8 0 R ]"));
+    }
+
+    @Test
+    void page_ShouldEscapeTextAndCompressOnce() throws Exception {
+        StreamingPdfWriter.Page page = new StreamingPdfWriter.Page()
+                .text(StreamingPdfWriter.Font.BOLD, 9, 10.5f, 20, "a (b) \\ c – 中");
+
+        byte[] content = page.toContent();
+        assertSame(content, page.toContent());
+        assertThrows(IllegalStateException.class, () -> page.line(0, 0, 1, 1, 1));
+
+        Inflater inflater = new Inflater();
+        inflater.setInput(content);
+        byte[] buffer = new byte[256];
+        int length = inflater.inflate(buffer);
+        inflater.end();
+        assertEquals("BT /F2 9 Tf 10.5 20 Td (a \\(b\\) \\\\ c \u0096 ?) Tj ET\n",
+                new String(buffer, 0, length, StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void fit_ShouldCutTextWiderThanTheColumn() {
+        StreamingPdfWriter.Font font = StreamingPdfWriter.Font.REGULAR;
+        assertEquals(5.56f, font.width("0", 10), 0.001f);
+        assertEquals("Short", font.fit("Short", 10, 100));
+
+        String fitted = font.fit("Pendidikan Pancasila dan Kewarganegaraan", 10, 80);
+        assertTrue(fitted.endsWith("..."));
+        assertTrue(font.width(fitted, 10) <= 80);
+    }
+}
@@ -0,0 +1,87 @@
+package com.school.sim.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TimetableIndex
+ */
+class TimetableIndexTest {
+
+    @Test
+    void findTeacherOverlaps_WithAdjacentSlots_ShouldExcludeTouchingIntervals() {
+        TimetableIndex index = TimetableIndex.build("2024/2025", 1, Arrays.asList(
+                slot(1L, DayOfWeek.MONDAY, 480, 570, 1L, 1L),
+                slot(2L, DayOfWeek.MONDAY, 570, 660, 1L, 2L)));
+
+        List<ScheduleSlot> overlaps = index.findTeacherOverlaps(1L, DayOfWeek.MONDAY,
+                LocalTime.of(9, 30), LocalTime.of(10, 0));
+
+        assertEquals(1, overlaps.size());
+        assertEquals(2L, overlaps.get(0).getScheduleId());
+    }
+
+    @Test
+    void withAndWithout_ShouldLeaveOriginalIndexUnchanged() {
+        TimetableIndex original = TimetableIndex.build("2024/2025", 1,
+                Collections.singletonList(slot(1L, DayOfWeek.MONDAY, 480, 570, 1L, 1L)));
+
+        TimetableIndex moved = original.with(slot(1L, DayOfWeek.TUESDAY, 480, 570, 1L, 1L));
+        TimetableIndex removed = original.without(1L);
+
+        assertEquals(1, original.getTeacherSlots(1L, DayOfWeek.MONDAY).size());
+        assertTrue(moved.getTeacherSlots(1L, DayOfWeek.MONDAY).isEmpty());
+        assertEquals(1, moved.getTeacherSlots(1L, DayOfWeek.TUESDAY).size());
+        assertEquals(0, removed.size());
+    }
+
+    @Test
+    void findOverlaps_WithRandomSlots_ShouldMatchLinearScan() {
+        Random random = new Random(7);
+        List<ScheduleSlot> slots = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            int start = 420 + random.nextInt(540);
+            slots.add(slot(id, DayOfWeek.of(1 + random.nextInt(5)), start, start + 15 + random.nextInt(150),
+                    (long) random.nextInt(12), (long) random.nextInt(8)));
+        }
+        TimetableIndex index = TimetableIndex.build("2024/2025", 1, slots);
+
+        for (int i = 0; i < 200; i++) {
+            DayOfWeek day = DayOfWeek.of(1 + random.nextInt(5));
+            LocalTime start = LocalTime.ofSecondOfDay((420 + random.nextInt(600)) * 60L);
+            LocalTime end = start.plusMinutes(1 + random.nextInt(120));
+            Long teacherId = (long) random.nextInt(12);
+
+            Set<Long> expectedAll = slots.stream()
+                    .filter(slot -> slot.getDayOfWeek() == day && slot.getStartTime().isBefore(end)
+                            && start.isBefore(slot.getEndTime()))
+                    .map(ScheduleSlot::getScheduleId)
+                    .collect(Collectors.toSet());
+            Set<Long> expectedTeacher = slots.stream()
+                    .filter(slot -> expectedAll.contains(slot.getScheduleId())
+                            && slot.getTeacherId().equals(teacherId))
+                    .map(ScheduleSlot::getScheduleId)
+                    .collect(Collectors.toSet());
+
+            assertEquals(expectedAll, ids(index.findOverlaps(day, start, end)));
+            assertEquals(expectedTeacher, ids(index.findTeacherOverlaps(teacherId, day, start, end)));
+        }
+    }
+
+    private static Set<Long> ids(List<ScheduleSlot> slots) {
+        return slots.stream().map(ScheduleSlot::getScheduleId).collect(Collectors.toSet());
+    }
+
+    private static ScheduleSlot slot(Long id, DayOfWeek day, int startMinute, int endMinute, Long teacherId,
+                                     Long classRoomId) {
+        return new ScheduleSlot(id, "2024/2025", 1, day, LocalTime.ofSecondOfDay(startMinute * 60L),
+                LocalTime.ofSecondOfDay(endMinute * 60L), teacherId, "Teacher", String.valueOf(teacherId),
+                classRoomId, "Room " + classRoomId, 1L, true);
+    }
+}
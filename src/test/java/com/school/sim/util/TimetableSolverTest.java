@@ -0,0 +1,177 @@
+package com.school.sim.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TimetableSolver
+ * The benchmark runs with -Dbenchmark=true and reports time to a conflict-free timetable for 20, 60 and 150 classes.
+ */
+class TimetableSolverTest {
+
+    private static final int DAYS = 5;
+    private static final int PERIODS = 8;
+    private static final int[] WEEKLY_PERIODS = { 5, 5, 4, 4, 4, 4, 3, 3, 2, 2 };
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void solve_SmallSchool_ShouldPlaceEveryUnitWithoutConflicts() {
+        List<int[]> requirements = new ArrayList<>();
+        TimetableSolver.Problem problem = school(6, 7L, requirements);
+
+        TimetableSolver.Result result = TimetableSolver.solve(problem,
+                new TimetableSolver.Options(2, 10_000, true, 1L), executor, new AtomicBoolean(), null);
+
+        assertTrue(result.isFeasible());
+        assertEquals(problem.unitCount(), result.unitCount());
+        assertEquals(0, countDoubleBookings(problem, result, requirements));
+        assertTrue(result.getFirstFeasibleMillis() >= 0);
+    }
+
+    @Test
+    void solve_ShouldRespectBlockedTeacherAndFixedClassSlots() {
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(DAYS, PERIODS);
+        problem.addRequirement(0, 0, 20);
+        problem.addRequirement(1, 0, 10);
+        Set<Integer> blocked = new HashSet<>();
+        Set<Integer> occupied = new HashSet<>();
+        for (int period = 0; period < PERIODS; period++) {
+            problem.blockTeacher(0, problem.slot(4, period));
+            blocked.add(problem.slot(4, period));
+            problem.occupyClass(0, problem.slot(0, period));
+            occupied.add(problem.slot(0, period));
+        }
+
+        TimetableSolver.Result result = TimetableSolver.solve(problem,
+                new TimetableSolver.Options(2, 10_000, true, 3L), executor, new AtomicBoolean(), null);
+
+        assertTrue(result.isFeasible());
+        for (int unit = 0; unit < result.unitCount(); unit++) {
+            int slot = result.slotOf(unit);
+            assertFalse(blocked.contains(slot), "Teacher placed in a blocked slot");
+            if (problem.requirementOfUnit(unit) == 0) {
+                assertFalse(occupied.contains(slot), "Class placed in an occupied slot");
+            }
+        }
+    }
+
+    @Test
+    void solve_WithoutStopWhenFeasible_ShouldSpreadRequirementsOverTheWeek() {
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(DAYS, PERIODS);
+        problem.addRequirement(0, 0, 5);
+        problem.addRequirement(0, 1, 10);
+
+        TimetableSolver.Result result = TimetableSolver.solve(problem,
+                new TimetableSolver.Options(1, 10_000, false, 5L), executor, new AtomicBoolean(), null);
+
+        assertTrue(result.isFeasible());
+        assertEquals(0, result.getSoftPenalty());
+        int[] perDay = new int[DAYS];
+        for (int unit = 0; unit < result.unitCount(); unit++) {
+            if (problem.requirementOfUnit(unit) == 0) {
+                perDay[result.slotOf(unit) / PERIODS]++;
+            }
+        }
+        assertArrayEquals(new int[] { 1, 1, 1, 1, 1 }, perDay);
+    }
+
+    @Test
+    void solve_ShouldReportImprovementsAndStopWhenCancelled() {
+        TimetableSolver.Problem problem = school(20, 11L);
+        AtomicBoolean cancelled = new AtomicBoolean(true);
+        AtomicInteger improvements = new AtomicInteger();
+
+        TimetableSolver.Result result = TimetableSolver.solve(problem,
+                new TimetableSolver.Options(2, 60_000, false, 1L), executor, cancelled,
+                improved -> improvements.incrementAndGet());
+
+        assertTrue(result.getElapsedMillis() < 60_000);
+        assertTrue(improvements.get() >= 1);
+        assertEquals(problem.unitCount(), result.unitCount());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_TimeToConflictFreeTimetable() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int classes : new int[] { 20, 60, 150 }) {
+                TimetableSolver.Problem problem = school(classes, classes);
+                TimetableSolver.Result result = TimetableSolver.solve(problem,
+                        new TimetableSolver.Options(threads, 120_000, true, classes), pool, new AtomicBoolean(),
+                        null);
+                System.out.printf("classes=%d units=%d threads=%d feasible=%s timeToFeasibleMs=%d iterations=%d%n",
+                        classes, problem.unitCount(), threads, result.isFeasible(), result.getFirstFeasibleMillis(),
+                        result.getIterations());
+                assertTrue(result.isFeasible());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * A school where every class has ten subjects (36 periods a week) and each teacher takes about 30 periods
+     * of one subject over several classes, with a few blocked periods per teacher
+     */
+    private static TimetableSolver.Problem school(int classes, long seed) {
+        return school(classes, seed, new ArrayList<>());
+    }
+
+    private static TimetableSolver.Problem school(int classes, long seed, List<int[]> requirements) {
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(DAYS, PERIODS);
+        Random random = new Random(seed);
+        int teacher = 0;
+        for (int weekly : WEEKLY_PERIODS) {
+            int classesPerTeacher = Math.max(1, 30 / weekly);
+            for (int classIndex = 0; classIndex < classes; classIndex++) {
+                if (classIndex > 0 && classIndex % classesPerTeacher == 0) {
+                    teacher++;
+                }
+                problem.addRequirement(classIndex, teacher, weekly);
+                requirements.add(new int[] { classIndex, teacher });
+            }
+            teacher++;
+        }
+        for (int t = 0; t < teacher; t++) {
+            for (int i = 0; i < 3; i++) {
+                problem.blockTeacher(t, random.nextInt(DAYS * PERIODS));
+            }
+        }
+        return problem;
+    }
+
+    // Independent recount of class and teacher double bookings
+    private static int countDoubleBookings(TimetableSolver.Problem problem, TimetableSolver.Result result,
+                                           List<int[]> requirements) {
+        Map<String, Integer> load = new HashMap<>();
+        for (int unit = 0; unit < result.unitCount(); unit++) {
+            int[] requirement = requirements.get(problem.requirementOfUnit(unit));
+            load.merge("C" + requirement[0] + "@" + result.slotOf(unit), 1, Integer::sum);
+            load.merge("T" + requirement[1] + "@" + result.slotOf(unit), 1, Integer::sum);
+        }
+        return (int) load.values().stream().filter(count -> count > 1).count();
+    }
+}